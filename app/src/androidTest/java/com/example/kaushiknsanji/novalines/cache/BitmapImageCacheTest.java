@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.graphics.Bitmap;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented test of the {@link BitmapImageCache} under concurrent puts and gets,
+ * as done by the parallel downloads of the Images.
+ *
+ * @author Kaushik N Sanji
+ */
+@RunWith(AndroidJUnit4.class)
+public class BitmapImageCacheTest {
+
+    //Constant for the prefix of the Keys added by the tests
+    private static final String KEY_PREFIX = "test://bitmap/";
+    //Constant for the number of threads adding to the Memory Cache in parallel
+    private static final int THREAD_COUNT = 8;
+    //Constant for the number of Keys added by each thread
+    private static final int KEY_COUNT = 64;
+    //Constant for the time in seconds to wait for the threads to finish
+    private static final long TIMEOUT_SECONDS = 30;
+
+    //Executor of the threads adding to the Memory Cache
+    private ExecutorService mExecutorService;
+
+    /**
+     * Method that starts each test with an empty Memory Cache
+     */
+    @Before
+    public void setUp() {
+        BitmapImageCache.clearCache();
+        mExecutorService = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    /**
+     * Method that clears the entries added by each test
+     */
+    @After
+    public void tearDown() {
+        mExecutorService.shutdownNow();
+        BitmapImageCache.clearCache();
+    }
+
+    /**
+     * Verifies that the threads adding their own Bitmap for the same Keys at the same time,
+     * all end up with the single Bitmap cached for a Key, which is also the one read back.
+     */
+    @Test
+    public void concurrentPutsAndGets_keepOneInstancePerKey() throws Exception {
+        //Array of the Bitmap first returned for each Key, that all the threads should agree upon
+        final AtomicReferenceArray<Bitmap> canonicalBitmaps = new AtomicReferenceArray<>(KEY_COUNT);
+        //Counter of the times a thread got a Bitmap different from the one returned to the other threads
+        final AtomicInteger duplicateCount = new AtomicInteger();
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() {
+                for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+                    String key = KEY_PREFIX + keyIndex;
+                    //Adding a Bitmap of this thread, as decoded by a download
+                    Bitmap cachedBitmap = BitmapImageCache.addBitmapToCache(key,
+                            Bitmap.createBitmap(1, 1, Bitmap.Config.RGB_565));
+                    if (!canonicalBitmaps.compareAndSet(keyIndex, null, cachedBitmap)
+                            && canonicalBitmaps.get(keyIndex) != cachedBitmap) {
+                        duplicateCount.incrementAndGet();
+                    }
+                    //Reading back the Bitmap cached, as done by the binds of the other Images
+                    if (BitmapImageCache.getBitmapFromCache(key) != cachedBitmap) {
+                        duplicateCount.incrementAndGet();
+                    }
+                }
+                return null;
+            }
+        });
+
+        assertEquals("Bitmaps duplicated for the same Key", 0, duplicateCount.get());
+        for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+            assertSame("Bitmap lost for the Key " + keyIndex,
+                    canonicalBitmaps.get(keyIndex), BitmapImageCache.getBitmapFromCache(KEY_PREFIX + keyIndex));
+        }
+    }
+
+    /**
+     * Verifies that the Memory Cache stays within its maximum size while the threads add
+     * more Bitmaps than it can hold.
+     */
+    @Test
+    public void concurrentPuts_stayWithinMaxSize() throws Exception {
+        final int maxSize = BitmapImageCache.getMaxSize();
+
+        //Sizing the Bitmaps such that the Keys added by each thread alone hold about twice the maximum size.
+        //The Bitmaps are shared across the Keys, as the Memory Cache accounts for them per entry
+        int bitmapSide = (int) Math.sqrt(maxSize * 2.0 / KEY_COUNT / 4);
+        final Bitmap[] sharedBitmaps = new Bitmap[4];
+        for (int index = 0; index < sharedBitmaps.length; index++) {
+            sharedBitmaps[index] = Bitmap.createBitmap(bitmapSide, bitmapSide, Bitmap.Config.ARGB_8888);
+        }
+
+        //Counter of the times the Memory Cache was seen beyond its maximum size
+        final AtomicInteger overflowCount = new AtomicInteger();
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() {
+                for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+                    String key = KEY_PREFIX + Thread.currentThread().getId() + "/" + keyIndex;
+                    BitmapImageCache.addBitmapToCache(key, sharedBitmaps[keyIndex % sharedBitmaps.length]);
+                    BitmapImageCache.getBitmapFromCache(key);
+                    if (BitmapImageCache.getSize() > maxSize) {
+                        overflowCount.incrementAndGet();
+                    }
+                }
+                return null;
+            }
+        });
+
+        assertEquals("Memory Cache seen beyond its maximum size", 0, overflowCount.get());
+        assertTrue("Memory Cache beyond its maximum size", BitmapImageCache.getSize() <= maxSize);
+    }
+
+    /**
+     * Method that runs the task passed on all the threads, released together,
+     * and waits for them to finish
+     *
+     * @param task is the {@link Callable} to be run on every thread
+     * @throws Exception when a thread fails or does not finish in time
+     */
+    private void runConcurrently(final Callable<Void> task) throws Exception {
+        //Latch to start all the threads together
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        //Submitting the task for every thread: START
+        List<Future<Void>> futures = new ArrayList<>(THREAD_COUNT);
+        for (int threadIndex = 0; threadIndex < THREAD_COUNT; threadIndex++) {
+            futures.add(mExecutorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startLatch.await();
+                    return task.call();
+                }
+            }));
+        }
+        //Submitting the task for every thread: END
+
+        //Releasing all the threads together and waiting for them to finish
+        startLatch.countDown();
+        for (Future<Void> future : futures) {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+}
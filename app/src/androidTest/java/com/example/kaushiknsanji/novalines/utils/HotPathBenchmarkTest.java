@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.utils;
+
+import android.content.Context;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.util.DiffUtil;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.models.NewsSectionInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented micro-benchmarks of the hot paths of the App -
+ * <ul>
+ * <li>{@link NewsArticleInfoParserUtility} and {@link NewsSectionInfoParserUtility}</li>
+ * <li>{@link NewsArticleInfoDiffUtility} and {@link NewsSectionInfoDiffUtility}</li>
+ * <li>{@link NewsArticleInfo#getPublishedDate(String)}</li>
+ * <li>{@link NewsURLGenerator}</li>
+ * </ul>
+ * over the recorded Guardian JSON fixtures bundled in the debug assets under {@link #FIXTURES_ASSET_DIR},
+ * logging the throughput and the allocations per operation.
+ *
+ * @author Kaushik N Sanji
+ */
+@RunWith(AndroidJUnit4.class)
+public class HotPathBenchmarkTest {
+
+    //Constant used for logs
+    private static final String LOG_TAG = HotPathBenchmarkTest.class.getSimpleName();
+    //Constant for the assets directory of the recorded JSON fixtures
+    private static final String FIXTURES_ASSET_DIR = "fixtures";
+    //Constants for the recorded JSON fixtures used: START
+    //For the 'world' Section feed
+    private static final String SECTION_FIXTURE = FIXTURES_ASSET_DIR + "/section_world.json";
+    //For the "Top Stories" feed
+    private static final String EDITORS_PICKS_FIXTURE = FIXTURES_ASSET_DIR + "/international_editors_picks.json";
+    //Constants for the recorded JSON fixtures used: END
+    //Constant for the number of iterations run before the measurement to warm up the code paths
+    private static final int WARMUP_ITERATIONS = 50;
+    //Constant for the number of measured iterations of each benchmark
+    private static final int MEASURED_ITERATIONS = 200;
+
+    //Stores reference to the App Context under test
+    private Context mAppContext;
+    //The recorded fixtures read
+    private String mSectionJson;
+    private String mEditorsPicksJson;
+
+    /**
+     * Method that reads the recorded fixtures before each benchmark
+     */
+    @Before
+    public void setUp() {
+        mAppContext = InstrumentationRegistry.getTargetContext().getApplicationContext();
+        mSectionJson = readAsset(mAppContext, SECTION_FIXTURE);
+        mEditorsPicksJson = readAsset(mAppContext, EDITORS_PICKS_FIXTURE);
+        assertNotNull("Fixture not found: " + SECTION_FIXTURE, mSectionJson);
+        assertNotNull("Fixture not found: " + EDITORS_PICKS_FIXTURE, mEditorsPicksJson);
+    }
+
+    /**
+     * Benchmarks the News Articles Parser
+     */
+    @Test
+    public void benchmarkNewsArticleInfoParser() {
+        final NewsArticleInfoParserUtility articleInfoParserUtility = new NewsArticleInfoParserUtility(mAppContext);
+        assertFalse(articleInfoParserUtility.parseNewsArticleFeed(mSectionJson).isEmpty());
+
+        measure("NewsArticleInfoParserUtility.parseNewsArticleFeed[section]", 1, new Runnable() {
+            @Override
+            public void run() {
+                articleInfoParserUtility.parseNewsArticleFeed(mSectionJson);
+            }
+        });
+        measure("NewsArticleInfoParserUtility.parseNewsArticleFeed[editorsPicks]", 1, new Runnable() {
+            @Override
+            public void run() {
+                articleInfoParserUtility.parseNewsArticleFeed(mEditorsPicksJson);
+            }
+        });
+    }
+
+    /**
+     * Benchmarks the News Section Parser
+     */
+    @Test
+    public void benchmarkNewsSectionInfoParser() {
+        final String sectionId = mAppContext.getString(R.string.world_news_section_id);
+        final String topStoriesSectionId = mAppContext.getString(R.string.top_stories_section_id);
+        assertNotNull(NewsSectionInfoParserUtility.parseNewsSectionInfo(sectionId, mAppContext, mSectionJson));
+
+        measure("NewsSectionInfoParserUtility.parseNewsSectionInfo[section]", 1, new Runnable() {
+            @Override
+            public void run() {
+                NewsSectionInfoParserUtility.parseNewsSectionInfo(sectionId, mAppContext, mSectionJson);
+            }
+        });
+        measure("NewsSectionInfoParserUtility.parseNewsSectionInfo[editorsPicks]", 1, new Runnable() {
+            @Override
+            public void run() {
+                NewsSectionInfoParserUtility.parseNewsSectionInfo(topStoriesSectionId, mAppContext, mEditorsPicksJson);
+            }
+        });
+    }
+
+    /**
+     * Benchmarks the News Articles Diff
+     */
+    @Test
+    public void benchmarkNewsArticleInfoDiff() {
+        NewsArticleInfoParserUtility articleInfoParserUtility = new NewsArticleInfoParserUtility(mAppContext);
+        final List<NewsArticleInfo> oldArticleInfoList = articleInfoParserUtility.parseNewsArticleFeed(mSectionJson);
+        final List<NewsArticleInfo> newArticleInfoList = createChangedArticleList(articleInfoParserUtility.parseNewsArticleFeed(mSectionJson));
+
+        measure("NewsArticleInfoDiffUtility.calculateDiff", 1, new Runnable() {
+            @Override
+            public void run() {
+                DiffUtil.calculateDiff(new NewsArticleInfoDiffUtility(oldArticleInfoList, newArticleInfoList), false);
+            }
+        });
+    }
+
+    /**
+     * Benchmarks the News Section Diff
+     */
+    @Test
+    public void benchmarkNewsSectionInfoDiff() {
+        List<NewsArticleInfo> newsArticleInfoList = new NewsArticleInfoParserUtility(mAppContext).parseNewsArticleFeed(mSectionJson);
+        final List<NewsSectionInfo> oldSectionInfoList = createSectionList(newsArticleInfoList, 0);
+        final List<NewsSectionInfo> newSectionInfoList = createSectionList(newsArticleInfoList, 1);
+
+        measure("NewsSectionInfoDiffUtility.calculateDiff", 1, new Runnable() {
+            @Override
+            public void run() {
+                DiffUtil.calculateDiff(new NewsSectionInfoDiffUtility(oldSectionInfoList, newSectionInfoList), false);
+            }
+        });
+    }
+
+    /**
+     * Benchmarks the formatting of the Published Date
+     */
+    @Test
+    public void benchmarkPublishedDate() {
+        final List<NewsArticleInfo> newsArticleInfoList = new NewsArticleInfoParserUtility(mAppContext).parseNewsArticleFeed(mSectionJson);
+
+        measure("NewsArticleInfo.getPublishedDate", newsArticleInfoList.size(), new Runnable() {
+            @Override
+            public void run() {
+                for (NewsArticleInfo newsArticleInfo : newsArticleInfoList) {
+                    newsArticleInfo.getPublishedDate("");
+                }
+            }
+        });
+    }
+
+    /**
+     * Benchmarks the URL Generation
+     */
+    @Test
+    public void benchmarkNewsURLGenerator() {
+        final NewsURLGenerator newsURLGenerator = new NewsURLGenerator(mAppContext);
+        final String sectionId = mAppContext.getString(R.string.world_news_section_id);
+        final String topStoriesSectionId = mAppContext.getString(R.string.top_stories_section_id);
+
+        measure("NewsURLGenerator.createSectionURL[section]", 1, new Runnable() {
+            @Override
+            public void run() {
+                newsURLGenerator.createSectionURL(sectionId);
+            }
+        });
+        measure("NewsURLGenerator.createSectionURL[editorsPicks]", 1, new Runnable() {
+            @Override
+            public void run() {
+                newsURLGenerator.createSectionURL(topStoriesSectionId);
+            }
+        });
+    }
+
+    /**
+     * Method that measures and logs the throughput and the allocations of the operation passed
+     *
+     * @param name              is the String name of the benchmark
+     * @param opsPerIteration   is the number of operations performed in a single run of the operation
+     * @param operationRunnable is the {@link Runnable} of the operation to be measured
+     */
+    @SuppressWarnings("deprecation")
+    private void measure(String name, int opsPerIteration, Runnable operationRunnable) {
+        //Warming up the code path
+        for (int index = 0; index < WARMUP_ITERATIONS; index++) {
+            operationRunnable.run();
+        }
+
+        //Starting the allocation counting for the current thread
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocSize();
+
+        //Measuring the iterations
+        long startNanos = System.nanoTime();
+        for (int index = 0; index < MEASURED_ITERATIONS; index++) {
+            operationRunnable.run();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        //Reading and stopping the allocation counting
+        long allocatedBytes = Debug.getThreadAllocSize();
+        Debug.stopAllocCounting();
+
+        //Computing and logging the result
+        long totalOps = (long) MEASURED_ITERATIONS * opsPerIteration;
+        double opsPerSecond = totalOps * 1e9d / Math.max(1L, elapsedNanos);
+        Log.i(LOG_TAG, String.format(Locale.US, "%s: %.1f ops/s, %d B/op",
+                name, opsPerSecond, allocatedBytes / Math.max(1L, totalOps)));
+        assertTrue(name + " did not run", opsPerSecond > 0);
+    }
+
+    /**
+     * Method that modifies the list of {@link NewsArticleInfo} objects passed, to simulate a refresh
+     * where one article is dropped and a couple of articles are updated. The articles updated are copies,
+     * as the parsed articles are canonical instances shared with the other lists.
+     *
+     * @param newsArticleInfoList is the List of {@link NewsArticleInfo} objects to be modified
+     * @return The same List of {@link NewsArticleInfo} objects after modification
+     */
+    private List<NewsArticleInfo> createChangedArticleList(List<NewsArticleInfo> newsArticleInfoList) {
+        if (newsArticleInfoList.size() > 3) {
+            newsArticleInfoList.remove(0);
+            NewsArticleInfo updatedTitleArticleInfo = copyArticle(newsArticleInfoList.get(1));
+            updatedTitleArticleInfo.setNewsTitle(updatedTitleArticleInfo.getNewsTitle() + " (updated)");
+            newsArticleInfoList.set(1, updatedTitleArticleInfo);
+            NewsArticleInfo updatedTrailArticleInfo = copyArticle(newsArticleInfoList.get(2));
+            updatedTrailArticleInfo.setTrailText(updatedTrailArticleInfo.getTrailText() + " (updated)");
+            newsArticleInfoList.set(2, updatedTrailArticleInfo);
+        }
+        return newsArticleInfoList;
+    }
+
+    /**
+     * Method that creates a copy of the {@link NewsArticleInfo} passed
+     *
+     * @param newsArticleInfo is the {@link NewsArticleInfo} to be copied
+     * @return A new {@link NewsArticleInfo} with the same content
+     */
+    private NewsArticleInfo copyArticle(NewsArticleInfo newsArticleInfo) {
+        NewsArticleInfo copyArticleInfo = new NewsArticleInfo();
+        copyArticleInfo.setArticleId(newsArticleInfo.getArticleId());
+        copyArticleInfo.setSectionId(newsArticleInfo.getSectionId());
+        copyArticleInfo.setSectionName(newsArticleInfo.getSectionName());
+        copyArticleInfo.setPublishedDate(newsArticleInfo.getPublishedDateRaw());
+        copyArticleInfo.setNewsTitle(newsArticleInfo.getNewsTitle());
+        copyArticleInfo.setWebUrl(newsArticleInfo.getWebUrl());
+        copyArticleInfo.setApiUrl(newsArticleInfo.getApiUrl());
+        copyArticleInfo.setTrailText(newsArticleInfo.getTrailText());
+        copyArticleInfo.setAuthor(newsArticleInfo.getAuthor(""));
+        copyArticleInfo.setThumbImageUrl(newsArticleInfo.getThumbImageUrl());
+        return copyArticleInfo;
+    }
+
+    /**
+     * Method that creates a list of {@link NewsSectionInfo} objects, one for each article passed
+     *
+     * @param newsArticleInfoList is the List of {@link NewsArticleInfo} objects to derive the sections from
+     * @param countOffset         is the value to be added to the Article count of each section
+     * @return List of {@link NewsSectionInfo} objects
+     */
+    private List<NewsSectionInfo> createSectionList(List<NewsArticleInfo> newsArticleInfoList, int countOffset) {
+        List<NewsSectionInfo> newsSectionInfoList = new ArrayList<>(newsArticleInfoList.size());
+        for (int index = 0, size = newsArticleInfoList.size(); index < size; index++) {
+            NewsSectionInfo newsSectionInfo = new NewsSectionInfo();
+            newsSectionInfo.setSectionId(newsArticleInfoList.get(index).getSectionId() + index);
+            newsSectionInfo.setSectionName(newsArticleInfoList.get(index).getSectionName());
+            newsSectionInfo.setNewsArticleCount(index * 10 + (index % 2 == 0 ? countOffset : 0));
+            newsSectionInfoList.add(newsSectionInfo);
+        }
+        return newsSectionInfoList;
+    }
+
+    /**
+     * Method that reads the content of the asset file passed
+     *
+     * @param context   is the Context of the App under test
+     * @param assetPath is the String path of the asset file
+     * @return String containing the content of the asset file, or null when not available
+     */
+    private String readAsset(Context context, String assetPath) {
+        StringBuilder contentBuilder = new StringBuilder();
+        InputStream assetInputStream = null;
+        try {
+            assetInputStream = context.getAssets().open(assetPath);
+            BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(assetInputStream, "UTF-8"));
+            String readStr;
+            while ((readStr = bufferedReader.readLine()) != null) {
+                contentBuilder.append(readStr).append('\n');
+            }
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the asset " + assetPath + "\n", e);
+            return null;
+        } finally {
+            if (assetInputStream != null) {
+                try {
+                    assetInputStream.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error occurred while closing the asset stream\n", e);
+                }
+            }
+        }
+
+        //Returning the content read
+        return contentBuilder.toString();
+    }
+
+}
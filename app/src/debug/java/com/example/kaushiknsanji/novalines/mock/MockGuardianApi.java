@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.mock;
+
+import android.content.Context;
+
+import com.example.kaushiknsanji.novalines.BuildConfig;
+
+/**
+ * Entry point of the debug build for the {@link MockGuardianServer}, that starts the server
+ * when enabled through the 'USE_MOCK_GUARDIAN_API_VAL' property, with the latency, error rate
+ * and throttling configured through the 'MOCK_GUARDIAN_*_VAL' properties of 'application.properties'.
+ * <p>
+ * The release build has a no-op counterpart of this class.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class MockGuardianApi {
+
+    /**
+     * Private Constructor of {@link MockGuardianApi}
+     */
+    private MockGuardianApi() {
+    }
+
+    /**
+     * Method that starts the {@link MockGuardianServer} with the injected faults configured
+     * for the debug build, when it is enabled. Returns without waiting for the server socket to be bound.
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     */
+    public static void startIfEnabled(Context context) {
+        if (!BuildConfig.USE_MOCK_GUARDIAN_API) {
+            //Returning when not enabled
+            return;
+        }
+
+        //Configuring the injected faults
+        MockGuardianServer mockGuardianServer = MockGuardianServer.getInstance(context);
+        mockGuardianServer.setLatency(BuildConfig.MOCK_GUARDIAN_LATENCY_MILLIS, BuildConfig.MOCK_GUARDIAN_LATENCY_JITTER_MILLIS);
+        mockGuardianServer.setErrorRate(BuildConfig.MOCK_GUARDIAN_ERROR_RATE);
+        mockGuardianServer.setMaxRequestsPerSecond(BuildConfig.MOCK_GUARDIAN_MAX_REQUESTS_PER_SECOND);
+
+        //Starting the server
+        mockGuardianServer.start(BuildConfig.MOCK_GUARDIAN_PORT);
+    }
+
+}
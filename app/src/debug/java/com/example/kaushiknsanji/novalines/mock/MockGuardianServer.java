@@ -0,0 +1,594 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.mock;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.utils.NewsURLGenerator;
+
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal local HTTP server that stands in for the Guardian Content API,
+ * replaying the recorded section, search and image fixtures from the debug assets
+ * (under {@link #FIXTURES_ASSET_DIR}).
+ * <p>
+ * Supports injected latency, error rates and 429 throttling, so that the loader concurrency
+ * and the cache behaviour can be benchmarked offline without burning the API quota.
+ * When started, the Base URL of {@link NewsURLGenerator} is pointed to this server,
+ * and the API and image links in the fixtures are rewritten to be served by this server as well.
+ * The server socket is bound on the port passed, on a worker thread.
+ * </p>
+ * <p>
+ * Available only in the debug build, and started through {@link MockGuardianApi}.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class MockGuardianServer {
+
+    //Constant used for logs
+    private static final String LOG_TAG = MockGuardianServer.class.getSimpleName();
+
+    //Constant for the assets directory of the recorded JSON fixtures
+    private static final String FIXTURES_ASSET_DIR = "fixtures";
+
+    //Constants for the Hosts of the Guardian API and media, rewritten in the fixtures
+    private static final String GUARDIAN_API_BASE_URL = "https://content.guardianapis.com";
+    private static final String GUARDIAN_MEDIA_BASE_URL = "https://media.guim.co.uk";
+    //Constant for the Path segment under which the images are served
+    private static final String MEDIA_PATH_SEGMENT = "media";
+    //Constant for the Path segment of the International front
+    private static final String INTERNATIONAL_PATH_SEGMENT = "international";
+    //Constant for the Path segment of the Search
+    private static final String SEARCH_PATH_SEGMENT = "search";
+    //Constant for the Query parameter that requests the Most Viewed content
+    private static final String MOST_VIEWED_PARAM = "show-most-viewed";
+    //Constants for the Query parameter and its value that request the body of a News Article
+    private static final String SHOW_FIELDS_PARAM = "show-fields";
+    private static final String SHOW_FIELDS_BODY = "body";
+    //Constants for the fixtures served: START
+    private static final String SECTION_FIXTURE_FORMAT = FIXTURES_ASSET_DIR + "/section_%s.json";
+    private static final String DEFAULT_SECTION_FIXTURE = FIXTURES_ASSET_DIR + "/section_world.json";
+    private static final String EDITORS_PICKS_FIXTURE = FIXTURES_ASSET_DIR + "/international_editors_picks.json";
+    private static final String MOST_VIEWED_FIXTURE = FIXTURES_ASSET_DIR + "/international_most_viewed.json";
+    //Constants for the fixtures served: END
+    //Constant for the HTML body served for all the News Articles
+    private static final String ARTICLE_BODY_HTML = "<p>Body of the News Article replayed by the MockGuardianServer.</p>";
+    //Constant for the Charset used for the responses
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    //For the Singleton instance of this
+    private static MockGuardianServer sInstance;
+
+    //Stores reference to App Context
+    private final Context mAppContext;
+    //Cache of the fixtures read from the assets, with the image links rewritten
+    private final ConcurrentHashMap<String, String> mFixtureCache = new ConcurrentHashMap<>();
+    //Random used for the injected error rate and latency jitter
+    private final Random mRandom = new Random();
+    //Counters for the requests served: START
+    private final AtomicInteger mRequestCount = new AtomicInteger();
+    private final AtomicInteger mErrorCount = new AtomicInteger();
+    private final AtomicInteger mThrottledCount = new AtomicInteger();
+    //Counters for the requests served: END
+    //Injected fault configuration: START
+    //Fixed latency added to every response, in milliseconds
+    private volatile int mLatencyMillis;
+    //Maximum random latency added on top of the fixed latency, in milliseconds
+    private volatile int mLatencyJitterMillis;
+    //Fraction of the requests (0 to 1) that fail with HTTP 500
+    private volatile float mErrorRate;
+    //Maximum number of requests allowed per second before responding with HTTP 429 (0 for unlimited)
+    private volatile int mMaxRequestsPerSecond;
+    //Injected fault configuration: END
+    //Throttling window state: START
+    private long mThrottleWindowStartMillis;
+    private int mThrottleWindowCount;
+    //Throttling window state: END
+    //The port the server is bound to
+    private int mPort;
+    //The server socket accepting the connections, set once bound
+    private ServerSocket mServerSocket;
+    //Executor that binds the server socket and handles the connections accepted
+    private ExecutorService mConnectionExecutor;
+    //The encoded JPEG served for all the image requests
+    private volatile byte[] mImageBytes;
+
+    /**
+     * Private Constructor of {@link MockGuardianServer}
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     */
+    private MockGuardianServer(Context context) {
+        mAppContext = context.getApplicationContext();
+    }
+
+    /**
+     * Singleton Constructor of {@link MockGuardianServer}
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     * @return Instance of {@link MockGuardianServer}
+     */
+    public static synchronized MockGuardianServer getInstance(Context context) {
+        if (sInstance == null) {
+            //Creating the instance when not available
+            sInstance = new MockGuardianServer(context);
+        }
+        //Using the previously created instance
+        return sInstance;
+    }
+
+    /**
+     * Method that starts the server on the loopback port passed, if not already started,
+     * and points the {@link NewsURLGenerator} to it. The server socket is bound on a worker thread,
+     * so that the caller on the main thread does not wait for it.
+     *
+     * @param port is the port on the loopback interface to serve from
+     */
+    public synchronized void start(int port) {
+        if (isStarted()) {
+            //Returning when already started
+            return;
+        }
+
+        //Discarding the fixtures rewritten for any previous port
+        mPort = port;
+        mFixtureCache.clear();
+
+        //Binding the server socket and starting the connection handling on the worker thread
+        mConnectionExecutor = Executors.newCachedThreadPool();
+        final ExecutorService connectionExecutor = mConnectionExecutor;
+        connectionExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                bindAndAcceptConnections(connectionExecutor);
+            }
+        });
+
+        //Pointing the News API calls to this server. The port is fixed, so that the URLs
+        //generated on the main thread can point to it before the server socket is bound
+        NewsURLGenerator.setBaseUrl(getBaseUrl());
+
+        Log.i(LOG_TAG, "start: Serving the Guardian fixtures at " + getBaseUrl());
+    }
+
+    /**
+     * Method that stops the server and restores the default Base URL of {@link NewsURLGenerator}
+     */
+    public synchronized void stop() {
+        if (!isStarted()) {
+            return;
+        }
+
+        //Restoring the default Base URL
+        NewsURLGenerator.setBaseUrl(null);
+
+        if (mServerSocket != null) {
+            try {
+                mServerSocket.close();
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Error occurred while stopping the server\n", e);
+            }
+        }
+        mConnectionExecutor.shutdownNow();
+        mServerSocket = null;
+        mConnectionExecutor = null;
+    }
+
+    /**
+     * Method that returns whether the server is started. The server socket may still be getting bound.
+     *
+     * @return <b>TRUE</b> when started; <b>FALSE</b> otherwise
+     */
+    public synchronized boolean isStarted() {
+        return mConnectionExecutor != null;
+    }
+
+    /**
+     * Method that returns the Base URL of the server
+     *
+     * @return String containing the Base URL of the server, or null when not started
+     */
+    public synchronized String getBaseUrl() {
+        return isStarted() ? "http://127.0.0.1:" + mPort : null;
+    }
+
+    /**
+     * Method that configures the latency injected in every response
+     *
+     * @param latencyMillis       is the fixed latency in milliseconds
+     * @param latencyJitterMillis is the maximum random latency in milliseconds, added on top of the fixed latency
+     */
+    public void setLatency(int latencyMillis, int latencyJitterMillis) {
+        mLatencyMillis = Math.max(0, latencyMillis);
+        mLatencyJitterMillis = Math.max(0, latencyJitterMillis);
+    }
+
+    /**
+     * Method that configures the fraction of the requests that fail with HTTP 500
+     *
+     * @param errorRate is the fraction of the requests, from 0 to 1
+     */
+    public void setErrorRate(float errorRate) {
+        mErrorRate = Math.max(0f, Math.min(1f, errorRate));
+    }
+
+    /**
+     * Method that configures the throttling of the requests with HTTP 429
+     *
+     * @param maxRequestsPerSecond is the maximum number of requests allowed per second, or 0 for unlimited
+     */
+    public void setMaxRequestsPerSecond(int maxRequestsPerSecond) {
+        mMaxRequestsPerSecond = Math.max(0, maxRequestsPerSecond);
+    }
+
+    /**
+     * Method that returns the statistics of the requests served
+     *
+     * @return String containing the count of the requests, errors and throttled responses
+     */
+    public String getStats() {
+        return String.format(Locale.US, "requests=%d, errors=%d, throttled=%d",
+                mRequestCount.get(), mErrorCount.get(), mThrottledCount.get());
+    }
+
+    /**
+     * Method that binds the server socket and accepts the connections till the server socket is closed.
+     * Called on the worker thread of the {@link ExecutorService} passed.
+     *
+     * @param connectionExecutor is the {@link ExecutorService} that handles the connections accepted
+     */
+    private void bindAndAcceptConnections(ExecutorService connectionExecutor) {
+        //Preparing the image served
+        if (mImageBytes == null) {
+            mImageBytes = createImageBytes();
+        }
+
+        //Binding to the port on the loopback interface: START
+        ServerSocket serverSocket;
+        try {
+            serverSocket = new ServerSocket(mPort, 50, InetAddress.getByName("127.0.0.1"));
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while binding the server to the port " + mPort + "\n", e);
+            return;
+        }
+        synchronized (this) {
+            if (connectionExecutor.isShutdown()) {
+                //Closing the server socket when stopped while it was being bound
+                try {
+                    serverSocket.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error occurred while stopping the server\n", e);
+                }
+                return;
+            }
+            mServerSocket = serverSocket;
+        }
+        //Binding to the port on the loopback interface: END
+
+        //Accepting the connections
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connectionExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        handleConnection(socket);
+                    }
+                });
+            } catch (SocketException e) {
+                //Thrown when the server socket is closed
+                break;
+            } catch (Exception e) {
+                Log.e(LOG_TAG, "Error occurred while accepting the connection\n", e);
+            }
+        }
+    }
+
+    /**
+     * Method that reads the request from the connection and writes the response for it
+     *
+     * @param socket is the {@link Socket} of the connection accepted
+     */
+    private void handleConnection(Socket socket) {
+        try {
+            BufferedReader requestReader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+            //Reading the Request line, e.g. 'GET /world?page=1 HTTP/1.1'
+            String requestLine = requestReader.readLine();
+            //Skipping the Request headers
+            String headerLine;
+            while ((headerLine = requestReader.readLine()) != null && headerLine.length() > 0) {
+                //Headers are not used
+            }
+
+            if (requestLine == null) {
+                return;
+            }
+            String[] requestParts = requestLine.split(" ");
+            if (requestParts.length < 2) {
+                writeResponse(socket.getOutputStream(), 400, "text/plain", "Bad Request".getBytes(UTF_8), 0);
+                return;
+            }
+
+            //Serving the request
+            serveRequest(socket.getOutputStream(), Uri.parse(requestParts[1]));
+
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while handling the connection\n", e);
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Error occurred while closing the connection\n", e);
+            }
+        }
+    }
+
+    /**
+     * Method that writes the response for the request URI passed, after applying the injected faults
+     *
+     * @param outputStream is the {@link OutputStream} of the connection
+     * @param requestUri   is the {@link Uri} of the request
+     * @throws IOException when an error occurs while writing the response
+     */
+    private void serveRequest(OutputStream outputStream, Uri requestUri) throws IOException {
+        mRequestCount.incrementAndGet();
+
+        //Applying the throttling
+        if (isThrottled()) {
+            mThrottledCount.incrementAndGet();
+            writeResponse(outputStream, 429, "application/json",
+                    "{\"message\":\"API rate limit exceeded\"}".getBytes(UTF_8), 1);
+            return;
+        }
+
+        //Applying the latency
+        int latencyMillis = mLatencyMillis;
+        if (mLatencyJitterMillis > 0) {
+            latencyMillis += mRandom.nextInt(mLatencyJitterMillis + 1);
+        }
+        if (latencyMillis > 0) {
+            SystemClock.sleep(latencyMillis);
+        }
+
+        //Applying the error rate
+        if (mErrorRate > 0f && mRandom.nextFloat() < mErrorRate) {
+            mErrorCount.incrementAndGet();
+            writeResponse(outputStream, 500, "application/json",
+                    "{\"message\":\"Injected error\"}".getBytes(UTF_8), 0);
+            return;
+        }
+
+        //Routing by the first Path segment: START
+        String firstPathSegment = requestUri.getPathSegments().isEmpty() ? "" : requestUri.getPathSegments().get(0);
+        if (MEDIA_PATH_SEGMENT.equals(firstPathSegment)) {
+            //For the image requests
+            writeResponse(outputStream, 200, "image/jpeg", mImageBytes, 0);
+            return;
+        }
+
+        if (SHOW_FIELDS_BODY.equals(requestUri.getQueryParameter(SHOW_FIELDS_PARAM))) {
+            //For the News Article body requests, made on the API URL of the News Article
+            writeResponse(outputStream, 200, "application/json",
+                    createArticleBodyJson(requestUri.getPath()).getBytes(UTF_8), 0);
+            return;
+        }
+
+        String fixturePath;
+        if (INTERNATIONAL_PATH_SEGMENT.equals(firstPathSegment)) {
+            //For the "Top Stories" and "Most Visited" requests
+            fixturePath = "true".equals(requestUri.getQueryParameter(MOST_VIEWED_PARAM)) ?
+                    MOST_VIEWED_FIXTURE : EDITORS_PICKS_FIXTURE;
+        } else if (SEARCH_PATH_SEGMENT.equals(firstPathSegment) || TextUtils.isEmpty(firstPathSegment)) {
+            //For the Search requests, replaying the default section fixture
+            fixturePath = DEFAULT_SECTION_FIXTURE;
+        } else {
+            //For the Section requests, replaying the fixture of the Section if recorded; else the default
+            fixturePath = String.format(Locale.US, SECTION_FIXTURE_FORMAT, firstPathSegment);
+        }
+        //Routing by the first Path segment: END
+
+        String fixtureContent = getFixture(fixturePath);
+        if (fixtureContent == null) {
+            fixtureContent = getFixture(DEFAULT_SECTION_FIXTURE);
+        }
+        if (fixtureContent == null) {
+            writeResponse(outputStream, 404, "application/json",
+                    "{\"message\":\"No fixture recorded\"}".getBytes(UTF_8), 0);
+            return;
+        }
+
+        //Writing the fixture
+        writeResponse(outputStream, 200, "application/json", fixtureContent.getBytes(UTF_8), 0);
+    }
+
+    /**
+     * Method that checks whether the current request exceeds the allowed rate per second
+     *
+     * @return <b>TRUE</b> when the request is to be throttled; <b>FALSE</b> otherwise
+     */
+    private synchronized boolean isThrottled() {
+        if (mMaxRequestsPerSecond <= 0) {
+            return false;
+        }
+        long nowMillis = SystemClock.elapsedRealtime();
+        if (nowMillis - mThrottleWindowStartMillis >= 1000) {
+            //Starting a new window every second
+            mThrottleWindowStartMillis = nowMillis;
+            mThrottleWindowCount = 0;
+        }
+        return ++mThrottleWindowCount > mMaxRequestsPerSecond;
+    }
+
+    /**
+     * Method that returns the fixture for the asset path passed, with the API and image links
+     * rewritten to be served by this server
+     *
+     * @param fixturePath is the String path of the fixture in the assets
+     * @return String containing the fixture, or null when not recorded
+     */
+    private String getFixture(String fixturePath) {
+        String fixtureContent = mFixtureCache.get(fixturePath);
+        if (fixtureContent == null) {
+            String assetContent = readAsset(fixturePath);
+            if (assetContent == null) {
+                return null;
+            }
+            String baseUrl = getBaseUrl();
+            fixtureContent = assetContent
+                    .replace(GUARDIAN_API_BASE_URL, baseUrl)
+                    .replace(GUARDIAN_MEDIA_BASE_URL, baseUrl + "/" + MEDIA_PATH_SEGMENT);
+            mFixtureCache.put(fixturePath, fixtureContent);
+        }
+        return fixtureContent;
+    }
+
+    /**
+     * Method that reads the content of the asset file passed
+     *
+     * @param assetPath is the String path of the asset file
+     * @return String containing the content of the asset file, or null when not recorded
+     */
+    @Nullable
+    private String readAsset(String assetPath) {
+        StringBuilder contentBuilder = new StringBuilder();
+        InputStream assetInputStream = null;
+        try {
+            assetInputStream = mAppContext.getAssets().open(assetPath);
+            BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(assetInputStream, UTF_8));
+            String readStr;
+            while ((readStr = bufferedReader.readLine()) != null) {
+                contentBuilder.append(readStr).append('\n');
+            }
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the asset " + assetPath + "\n", e);
+            return null;
+        } finally {
+            if (assetInputStream != null) {
+                try {
+                    assetInputStream.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error occurred while closing the asset stream\n", e);
+                }
+            }
+        }
+
+        //Returning the content read
+        return contentBuilder.toString();
+    }
+
+    /**
+     * Method that creates the JSON response for the body of the News Article requested,
+     * in the format of the single item response of the Guardian Content API
+     *
+     * @param articlePath is the Path of the API URL of the News Article, which is its ID
+     * @return String containing the JSON response
+     */
+    private String createArticleBodyJson(String articlePath) {
+        String articleId = articlePath != null && articlePath.startsWith("/") ? articlePath.substring(1) : articlePath;
+        return "{\"response\":{\"status\":\"ok\",\"content\":{\"id\":" + JSONObject.quote(articleId)
+                + ",\"fields\":{\"body\":" + JSONObject.quote(ARTICLE_BODY_HTML) + "}}}}";
+    }
+
+    /**
+     * Method that writes the HTTP response
+     *
+     * @param outputStream      is the {@link OutputStream} of the connection
+     * @param statusCode        is the HTTP status code of the response
+     * @param contentType       is the Content-Type of the response body
+     * @param body              is the bytes of the response body
+     * @param retryAfterSeconds is the value of the Retry-After header, or 0 when not required
+     * @throws IOException when an error occurs while writing the response
+     */
+    private void writeResponse(OutputStream outputStream, int statusCode, String contentType,
+                               byte[] body, int retryAfterSeconds) throws IOException {
+        StringBuilder headerBuilder = new StringBuilder();
+        headerBuilder.append("HTTP/1.1 ").append(statusCode).append(' ').append(getReasonPhrase(statusCode)).append("\r\n");
+        headerBuilder.append("Content-Type: ").append(contentType).append("\r\n");
+        headerBuilder.append("Content-Length: ").append(body.length).append("\r\n");
+        if (retryAfterSeconds > 0) {
+            headerBuilder.append("Retry-After: ").append(retryAfterSeconds).append("\r\n");
+        }
+        headerBuilder.append("Connection: close\r\n\r\n");
+        outputStream.write(headerBuilder.toString().getBytes(UTF_8));
+        outputStream.write(body);
+        outputStream.flush();
+    }
+
+    /**
+     * Method that returns the Reason phrase for the HTTP status code passed
+     *
+     * @param statusCode is the HTTP status code
+     * @return String containing the Reason phrase
+     */
+    private String getReasonPhrase(int statusCode) {
+        switch (statusCode) {
+            case 200:
+                return "OK";
+            case 400:
+                return "Bad Request";
+            case 404:
+                return "Not Found";
+            case 429:
+                return "Too Many Requests";
+            default:
+                return "Internal Server Error";
+        }
+    }
+
+    /**
+     * Method that creates the JPEG served for all the image requests,
+     * sized like the Guardian thumbnails
+     *
+     * @return The bytes of the JPEG image
+     */
+    private byte[] createImageBytes() {
+        Bitmap bitmap = Bitmap.createBitmap(500, 300, Bitmap.Config.RGB_565);
+        bitmap.eraseColor(Color.rgb(5, 41, 98));
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, 80, byteArrayOutputStream);
+        bitmap.recycle();
+        return byteArrayOutputStream.toByteArray();
+    }
+
+}
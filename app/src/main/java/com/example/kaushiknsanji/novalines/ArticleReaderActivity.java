@@ -0,0 +1,391 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines;
+
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.app.ActionBar;
+import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.Toolbar;
+import android.text.TextUtils;
+import android.text.method.LinkMovementMethod;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.ImageView;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import com.example.kaushiknsanji.novalines.cache.BitmapImageCache;
+import com.example.kaushiknsanji.novalines.cache.ReadLaterArticleStore;
+import com.example.kaushiknsanji.novalines.cache.RenderedArticleCache;
+import com.example.kaushiknsanji.novalines.cache.TrailTextSpannedCache;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.scheduler.CancellationToken;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScope;
+import com.example.kaushiknsanji.novalines.utils.ImageUtility;
+import com.example.kaushiknsanji.novalines.utils.IntentUtility;
+import com.example.kaushiknsanji.novalines.utils.NetworkUtility;
+import com.example.kaushiknsanji.novalines.workers.ArticleBodyRenderer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Activity that inflates the layout 'R.layout.activity_article_reader' to display
+ * the body of a News Article natively, on click of the News Article item views.
+ * <p>
+ * The body is shown right away when pre-rendered by the {@link ArticleBodyRenderer}, else it is
+ * loaded and rendered on the Feed lane at high priority. The images of the body are bound from the
+ * {@link BitmapImageCache} when shown, and those not present are downloaded on the Image lane and bound again.
+ * When the body is not available, the News Article is opened in a Web Browser when online.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class ArticleReaderActivity extends AppCompatActivity {
+
+    //Constant used as the Intent Extra Key for the News Article to be displayed
+    public static final String NEWS_ARTICLE_INFO_EXTRA_KEY = "ArticleReader.NewsArticleInfo";
+
+    //Handler to update the views on the main thread
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    //Scope of the loads, canceled when this Activity is destroyed
+    private final TaskScope mTaskScope = new TaskScope();
+
+    //For the custom Toolbar used as ActionBar
+    private Toolbar mToolbar;
+
+    //For the ImageView of the lead Image
+    private ImageView mLeadImageView;
+
+    //For the TextView of the body
+    private TextView mBodyTextView;
+
+    //For the Progress Indicator shown while the body loads
+    private ProgressBar mProgressBar;
+
+    //The News Article being displayed
+    private NewsArticleInfo mNewsArticleInfo;
+
+    //Saves whether the images of the body were requested for download
+    private boolean mImagesRequested;
+
+    /**
+     * Method that opens the News Article passed in the {@link ArticleReaderActivity}
+     *
+     * @param context         is the Context of the Calling Activity/Fragment
+     * @param newsArticleInfo is the {@link NewsArticleInfo} of the News Article to be displayed
+     */
+    public static void start(Context context, NewsArticleInfo newsArticleInfo) {
+        //Creating an explicit intent to ArticleReaderActivity with the News Article
+        Intent readerIntent = new Intent(context, ArticleReaderActivity.class);
+        readerIntent.putExtra(NEWS_ARTICLE_INFO_EXTRA_KEY, newsArticleInfo);
+        context.startActivity(readerIntent);
+    }
+
+    //Called when the activity is to be created
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_article_reader);
+
+        //Retrieving the News Article to be displayed
+        mNewsArticleInfo = getIntent().getParcelableExtra(NEWS_ARTICLE_INFO_EXTRA_KEY);
+        if (mNewsArticleInfo == null) {
+            //Finishing when there is nothing to display
+            finish();
+            return;
+        }
+
+        //Finding the Toolbar
+        mToolbar = findViewById(R.id.toolbar_id);
+        //Initializing the Toolbar as ActionBar
+        setupToolbar();
+
+        //Finding the Views
+        mLeadImageView = findViewById(R.id.reader_lead_image_id);
+        mBodyTextView = findViewById(R.id.reader_body_text_id);
+        mProgressBar = findViewById(R.id.reader_progress_id);
+        TextView titleTextView = findViewById(R.id.reader_title_text_id);
+        TextView publisherTextView = findViewById(R.id.reader_publisher_text_id);
+        TextView dateTextView = findViewById(R.id.reader_date_text_id);
+
+        //Setting the header of the News Article
+        titleTextView.setText(mNewsArticleInfo.getNewsTitle());
+        publisherTextView.setText(mNewsArticleInfo.getAuthor(getString(R.string.no_authors_found_default_text)));
+        dateTextView.setText(mNewsArticleInfo.getPublishedDate(getString(R.string.no_published_date_default_text)));
+
+        //Enabling the links in the body
+        mBodyTextView.setMovementMethod(LinkMovementMethod.getInstance());
+
+        //Loading the lead Image and the body
+        loadLeadImage();
+        loadBody();
+    }
+
+    /**
+     * Perform any final cleanup before an activity is destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        //Canceling the pending loads
+        mTaskScope.cancelAll();
+    }
+
+    /**
+     * Method that initializes the Toolbar as ActionBar
+     * and sets the Title to the Section of the News Article
+     */
+    private void setupToolbar() {
+        //Setting the Toolbar as the ActionBar
+        setSupportActionBar(mToolbar);
+
+        //Retrieving the Action Bar
+        ActionBar supportActionBar = getSupportActionBar();
+        if (supportActionBar != null) {
+            //Removing the default title text
+            supportActionBar.setDisplayShowTitleEnabled(false);
+            //Enabling home button to be used for Up navigation
+            supportActionBar.setDisplayHomeAsUpEnabled(true);
+            //Enabling home button
+            supportActionBar.setHomeButtonEnabled(true);
+        }
+
+        //Finding the TextView to set the Title
+        TextView titleTextView = mToolbar.findViewById(R.id.toolbar_title_text_id);
+        titleTextView.setText(mNewsArticleInfo.getSectionName());
+    }
+
+    /**
+     * Method that shows the body right away when pre-rendered, else loads and renders it in the background
+     */
+    private void loadBody() {
+        final Context appContext = getApplicationContext();
+        final NewsArticleInfo newsArticleInfo = mNewsArticleInfo;
+        final String articleKey = TrailTextSpannedCache.getArticleKey(newsArticleInfo);
+
+        //Showing the body pre-rendered if any
+        RenderedArticleCache.RenderedArticle renderedArticle = RenderedArticleCache.get(articleKey);
+        if (renderedArticle != null) {
+            bindBody(renderedArticle);
+            return;
+        }
+
+        //Displaying the Progress Indicator while the body loads
+        mProgressBar.setVisibility(View.VISIBLE);
+
+        //Loading and rendering the body at high priority, as the user is waiting for it
+        final CancellationToken token = mTaskScope.newToken();
+        TaskScheduler.getInstance().submit(TaskScheduler.LANE_FEED, TaskScheduler.PRIORITY_HIGH, new Runnable() {
+            @Override
+            public void run() {
+                final RenderedArticleCache.RenderedArticle loadedArticle
+                        = ArticleBodyRenderer.loadAndRender(appContext, newsArticleInfo, true);
+                token.throwIfCanceled();
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!token.isCanceled()) {
+                            mProgressBar.setVisibility(View.GONE);
+                            if (loadedArticle != null) {
+                                bindBody(loadedArticle);
+                            } else {
+                                onBodyUnavailable();
+                            }
+                        }
+                    }
+                });
+            }
+        }, token);
+    }
+
+    /**
+     * Method that shows the rendered body with its images bound from the {@link BitmapImageCache},
+     * and downloads the images of the body not yet available
+     *
+     * @param renderedArticle is the {@link RenderedArticleCache.RenderedArticle} of the body
+     */
+    private void bindBody(RenderedArticleCache.RenderedArticle renderedArticle) {
+        List<String> pendingImageURLs = new ArrayList<>();
+        mBodyTextView.setText(ArticleBodyRenderer.bindImages(this, renderedArticle.getSpanned(), pendingImageURLs));
+
+        if (!mImagesRequested && pendingImageURLs.size() > 0 && NetworkUtility.isNetworkConnected(this)) {
+            //Downloading the images only once, so that the images that failed are not retried endlessly
+            mImagesRequested = true;
+            loadBodyImages(renderedArticle, pendingImageURLs);
+        }
+    }
+
+    /**
+     * Method that downloads the images of the body into the {@link BitmapImageCache},
+     * and binds the body again with them once all the downloads complete
+     *
+     * @param renderedArticle  is the {@link RenderedArticleCache.RenderedArticle} of the body
+     * @param pendingImageURLs is the List of links of the images to be downloaded
+     */
+    private void loadBodyImages(final RenderedArticleCache.RenderedArticle renderedArticle, List<String> pendingImageURLs) {
+        final AtomicInteger remainingCount = new AtomicInteger(pendingImageURLs.size());
+
+        for (final String imageURLStr : pendingImageURLs) {
+            final CancellationToken token = mTaskScope.newToken();
+            TaskScheduler.getInstance().submit(TaskScheduler.LANE_IMAGE, TaskScheduler.PRIORITY_HIGH, new Runnable() {
+                @Override
+                public void run() {
+                    //Downloading the image into the Bitmap Cache
+                    ImageUtility.downloadFromURL(imageURLStr);
+                    token.throwIfCanceled();
+                    if (remainingCount.decrementAndGet() > 0) {
+                        //Waiting for the other downloads to complete
+                        return;
+                    }
+
+                    //Binding the body again with the images downloaded, when all complete
+                    sMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (!token.isCanceled()) {
+                                bindBody(renderedArticle);
+                            }
+                        }
+                    });
+                }
+            }, token);
+        }
+    }
+
+    /**
+     * Method that loads the lead Image from the {@link BitmapImageCache}, else from the
+     * {@link ReadLaterArticleStore} or the network in the background
+     */
+    private void loadLeadImage() {
+        final String imageURLStr = mNewsArticleInfo.getThumbImageUrl();
+        if (TextUtils.isEmpty(imageURLStr)) {
+            //Returning when the News Article has no lead Image
+            return;
+        }
+
+        //Showing the lead Image from the Memory Cache if present
+        Bitmap bitmap = BitmapImageCache.getBitmapFromCache(imageURLStr);
+        if (bitmap != null) {
+            showLeadImage(bitmap);
+            return;
+        }
+
+        //Loading the lead Image in the background
+        final Context appContext = getApplicationContext();
+        final String articleKey = TrailTextSpannedCache.getArticleKey(mNewsArticleInfo);
+        final CancellationToken token = mTaskScope.newToken();
+        TaskScheduler.getInstance().submit(TaskScheduler.LANE_IMAGE, TaskScheduler.PRIORITY_HIGH, new Runnable() {
+            @Override
+            public void run() {
+                //Reading the lead Image saved for 'Read Later', else downloading it when online
+                Bitmap leadBitmap = ReadLaterArticleStore.getLeadImage(appContext, articleKey);
+                if (leadBitmap == null && NetworkUtility.isNetworkConnected(appContext)) {
+                    leadBitmap = ImageUtility.downloadFromURL(imageURLStr);
+                }
+                token.throwIfCanceled();
+
+                final Bitmap loadedBitmap = leadBitmap;
+                if (loadedBitmap != null) {
+                    sMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (!token.isCanceled()) {
+                                showLeadImage(loadedBitmap);
+                            }
+                        }
+                    });
+                }
+            }
+        }, token);
+    }
+
+    /**
+     * Method that shows the lead Image passed
+     *
+     * @param bitmap is the Bitmap of the lead Image
+     */
+    private void showLeadImage(Bitmap bitmap) {
+        mLeadImageView.setImageBitmap(bitmap);
+        mLeadImageView.setVisibility(View.VISIBLE);
+    }
+
+    /**
+     * Method invoked when the body of the News Article is not available. Opens the News Article
+     * in a Web Browser when online, else informs the user that it is not available offline.
+     */
+    private void onBodyUnavailable() {
+        if (NetworkUtility.isNetworkConnected(this)) {
+            //Launching the News Article in a Web Browser, in place of this reader
+            IntentUtility.openLink(this, mNewsArticleInfo.getWebUrl());
+            finish();
+        } else {
+            //Displaying the message that the body is not available offline
+            mBodyTextView.setText(R.string.reader_body_unavailable_offline_text);
+        }
+    }
+
+    /**
+     * Initialize the contents of the Activity's standard options menu.
+     *
+     * @param menu The options menu in which you place your items.
+     * @return You must return true for the menu to be displayed;
+     * if you return false it will not be shown.
+     */
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.article_reader_menu, menu);
+        return true;
+    }
+
+    /**
+     * This hook is called whenever an item in your options menu is selected.
+     * The default implementation simply returns false to have the normal
+     * processing happen.
+     *
+     * @param item The menu item that was selected.
+     * @return boolean Return false to allow normal menu processing to
+     * proceed, true to consume it here.
+     * @see #onCreateOptionsMenu
+     */
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        //Handling the Menu Item selected based on their Id
+        switch (item.getItemId()) {
+            case android.R.id.home:
+                //Handling the action bar's home/up button
+                finish(); //Finishing the Activity
+                return true;
+            case R.id.open_in_browser_action_id:
+                //Launching the News Article in a Web Browser
+                IntentUtility.openLink(this, mNewsArticleInfo.getWebUrl());
+                return true;
+            default:
+                return super.onOptionsItemSelected(item);
+        }
+    }
+
+}
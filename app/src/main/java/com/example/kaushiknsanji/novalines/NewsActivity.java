@@ -16,9 +16,13 @@
 
 package com.example.kaushiknsanji.novalines;
 
+import android.content.Context;
 import android.content.Intent;
 import android.content.res.Configuration;
+import android.os.AsyncTask;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
@@ -37,16 +41,24 @@ import android.view.MenuItem;
 
 import com.example.kaushiknsanji.novalines.adapters.NavRecyclerAdapter;
 import com.example.kaushiknsanji.novalines.cache.BitmapImageCache;
+import com.example.kaushiknsanji.novalines.cache.MemoryTrimCallbacks;
+import com.example.kaushiknsanji.novalines.cache.NewsSectionSubscriptionStore;
+import com.example.kaushiknsanji.novalines.cache.TextMeasureCache;
+import com.example.kaushiknsanji.novalines.cache.TrailTextSpannedCache;
+import com.example.kaushiknsanji.novalines.dialogs.MetricsDialogFragment;
 import com.example.kaushiknsanji.novalines.drawerviews.BookmarksFragment;
 import com.example.kaushiknsanji.novalines.drawerviews.FavoritesFragment;
 import com.example.kaushiknsanji.novalines.drawerviews.HeadlinesFragment;
 import com.example.kaushiknsanji.novalines.drawerviews.RandomNewsFragment;
+import com.example.kaushiknsanji.novalines.mock.MockGuardianApi;
 import com.example.kaushiknsanji.novalines.models.NavDrawerItem;
 import com.example.kaushiknsanji.novalines.settings.SettingsActivity;
 import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
+import com.example.kaushiknsanji.novalines.utils.StartupTraceUtility;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 
 /**
  * The Main Activity of the App that inflates the layout 'R.layout.activity_news'
@@ -66,6 +78,21 @@ public class NewsActivity extends AppCompatActivity
     //Bundle Key constants used for saving/restoring the state
     private static final String SELTD_NAV_ITEM_TITLE_STR_KEY = "NavDrawer.SelectedItemTitle";
     private static final String SELTD_NAV_FRAGMENT_ITEM_TITLE_STR_KEY = "NavDrawer.SelectedFragmentItemTitle";
+    //Constants for the names of the Startup phases traced
+    private static final String PHASE_CONTENT_VIEW = "NewsActivity.setContentView";
+    private static final String PHASE_NAV_DRAWER = "NewsActivity.setupNavigationDrawer";
+    private static final String PHASE_OPEN_NAV_ITEM = "NewsActivity.openNavItem";
+    private static final String PHASE_DEFERRED = "NewsActivity.deferredStartup";
+    //Saves whether the Preferences were initialized in the current process
+    private static volatile boolean sPreferencesInitialized = false;
+    //Lock guarding the readiness of the Preferences and the callbacks waiting for it
+    private static final Object sPreferencesLock = new Object();
+    //Saves whether the Preferences are ready to be read in the current process
+    private static boolean sPreferencesReady = false;
+    //Saves the callbacks waiting for the Preferences to be ready
+    private static final List<Runnable> sPreferencesReadyCallbacks = new ArrayList<>();
+    //Handler to run the callbacks waiting for the Preferences, on the main thread
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
     //For the RecyclerView of the Navigation Drawer
     private RecyclerView mNavRecyclerView;
     //For the Adapter of the Navigation Drawer RecyclerView
@@ -78,6 +105,17 @@ public class NewsActivity extends AppCompatActivity
     private String mSelectedNavItemTitle;
     //For storing the Navigation Fragment item currently/previously selected
     private String mSelectedNavFragmentItemTitle;
+    //Saves whether the Navigation item selected on the Initial launch is yet to be opened
+    private boolean mFirstNavItemPending;
+    //Saves whether the first frame of the activity is drawn
+    private boolean mFirstFrameDrawn;
+    //Callback that opens the Navigation item selected on the Initial launch, once the Preferences are ready
+    private final Runnable mOpenFirstNavItemCallback = new Runnable() {
+        @Override
+        public void run() {
+            openFirstNavItem();
+        }
+    };
 
     //Initializing FragmentManager's FragmentLifecycleCallbacks
     //for setting up the Drawer Toggle for each Fragment containing custom Toolbar
@@ -111,15 +149,29 @@ public class NewsActivity extends AppCompatActivity
     //Called when the activity is to be created
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        //Tracing the Startup till the first frame is drawn
+        StartupTraceUtility.beginPhase(StartupTraceUtility.PHASE_FIRST_DRAW);
+
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_news);
 
-        //Initializing the Preferences
+        //Initializing the Preferences off the main thread, while the views are being set up
         setupPreferences();
 
+        StartupTraceUtility.beginPhase(PHASE_CONTENT_VIEW);
+        setContentView(R.layout.activity_news);
+        StartupTraceUtility.endPhase(PHASE_CONTENT_VIEW);
+
+        //Serving the News API from the local stand-in server when enabled for the debug build
+        MockGuardianApi.startIfEnabled(this);
+
+        //Reading the persisted Subscribed News Categories in the background, ahead of the Headlines
+        NewsSectionSubscriptionStore.preload(this);
+
         //Finding the RecyclerView for the Navigation Drawer
         mNavRecyclerView = findViewById(R.id.nav_recycler_view_id);
+        StartupTraceUtility.beginPhase(PHASE_NAV_DRAWER);
         setupNavigationDrawer();
+        StartupTraceUtility.endPhase(PHASE_NAV_DRAWER);
 
         //Finding the Drawer layout
         mDrawerLayout = findViewById(R.id.drawer_root);
@@ -127,23 +179,140 @@ public class NewsActivity extends AppCompatActivity
         if (savedInstanceState == null) {
             //On Initial Launch of the App
 
-            //Load the HeadlinesFragment by default
-            openNavItemByTitle(getString(R.string.headlines_title_str));
+            //Selecting the Headlines by default, which is opened after the first frame is drawn
+            //and the Preferences are ready, so that its first loads read the Preferences already defaulted
+            //(See #onDeferredStartup)
+            mSelectedNavItemTitle = getString(R.string.headlines_title_str);
+            mSelectedNavFragmentItemTitle = mSelectedNavItemTitle;
+            mNavRecyclerAdapter.setSelectedItemByTitle(mSelectedNavItemTitle);
+            mFirstNavItemPending = true;
+        }
+
+        //Deferring the non-critical startup work till the first frame is drawn
+        StartupTraceUtility.runAfterFirstDraw(mDrawerLayout, new Runnable() {
+            @Override
+            public void run() {
+                StartupTraceUtility.beginPhase(PHASE_DEFERRED);
+                onDeferredStartup();
+                StartupTraceUtility.endPhase(PHASE_DEFERRED);
+            }
+        });
+    }
+
+    /**
+     * Method that runs the non-critical startup work, after the first frame is drawn
+     */
+    private void onDeferredStartup() {
+        mFirstFrameDrawn = true;
+
+        if (mNavRecyclerView.getAdapter() == null) {
+            //Attaching the Adapter to the Navigation Drawer RecyclerView, which is hidden on launch,
+            //so that its items are inflated after the first frame
+            mNavRecyclerView.setAdapter(mNavRecyclerAdapter);
+        }
+
+        //Registering for the memory pressure callbacks to trim the Memory Caches
+        MemoryTrimCallbacks.register(this);
+        //Initializing the Bitmap Cache before the downloads of the first Fragment begin on the worker threads
+        BitmapImageCache.initialize();
+
+        if (mFirstNavItemPending) {
+            //Opening the Navigation item of the Initial launch, which inflates the Headlines
+            //and its ViewPager after the first frame, once the Preferences are ready
+            runWhenPreferencesReady(mOpenFirstNavItemCallback);
         }
     }
 
     /**
-     * Method that initializes the Preferences used by the app
+     * Method that initializes the Preferences used by the app, in a worker thread.
+     * This also warms up the {@link android.content.SharedPreferences} loaded from the disk,
+     * for the Fragments reading them. Runs only once per process. The callbacks waiting for the
+     * Preferences are run on the main thread once the initialization completes
+     * (See {@link #runWhenPreferencesReady(Runnable)}).
      */
     private void setupPreferences() {
-        //Manually defaulting the value of 'from-date' if not set
-        if (PreferencesUtility.getStartPeriodValue(this, 0) == 0) {
-            //When 'from-date' is NOT defaulted, setting the value to the current day date
-            PreferencesUtility.updateStartPeriodValue(this, Calendar.getInstance().getTimeInMillis());
+        if (sPreferencesInitialized) {
+            //Returning when already initialized in the current process
+            return;
+        }
+        sPreferencesInitialized = true;
+
+        //Retrieving the Application Context to not leak the Activity
+        final Context appContext = getApplicationContext();
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    //Manually defaulting the value of 'from-date' if not set
+                    if (PreferencesUtility.getStartPeriodValue(appContext, 0) == 0) {
+                        //When 'from-date' is NOT defaulted, setting the value to the current day date
+                        PreferencesUtility.updateStartPeriodValue(appContext, Calendar.getInstance().getTimeInMillis());
+                    }
+
+                    //Loading the default values for the Preferences on the first Initial launch after install
+                    //(This is a no-op on subsequent launches)
+                    PreferenceManager.setDefaultValues(appContext, R.xml.preferences, false);
+                } finally {
+                    //Running the callbacks waiting for the Preferences on the main thread, on every path
+                    synchronized (sPreferencesLock) {
+                        sPreferencesReady = true;
+                        for (Runnable callback : sPreferencesReadyCallbacks) {
+                            sMainHandler.post(callback);
+                        }
+                        sPreferencesReadyCallbacks.clear();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Method that runs the callback passed on the main thread, once the Preferences are initialized
+     * by {@link #setupPreferences()}. The callback is run immediately when they are already initialized.
+     *
+     * @param callback is the {@link Runnable} to be run once the Preferences are ready
+     */
+    private static void runWhenPreferencesReady(Runnable callback) {
+        synchronized (sPreferencesLock) {
+            if (!sPreferencesReady) {
+                //Deferring the callback till the Preferences are ready, when not already deferred
+                if (!sPreferencesReadyCallbacks.contains(callback)) {
+                    sPreferencesReadyCallbacks.add(callback);
+                }
+                return;
+            }
+        }
+
+        //Running the callback as the Preferences are already ready
+        callback.run();
+    }
+
+    /**
+     * Method that removes the callback passed from the callbacks waiting for the Preferences to be ready
+     *
+     * @param callback is the {@link Runnable} to be removed
+     */
+    private static void removePreferencesReadyCallback(Runnable callback) {
+        synchronized (sPreferencesLock) {
+            sPreferencesReadyCallbacks.remove(callback);
+        }
+        sMainHandler.removeCallbacks(callback);
+    }
+
+    /**
+     * Method that opens the Navigation item selected on the Initial launch, when it is not yet opened
+     * and the Fragment transactions are allowed. Otherwise, it is opened in {@link #onResumeFragments()}.
+     */
+    private void openFirstNavItem() {
+        FragmentManager supportFragmentManager = getSupportFragmentManager();
+        if (!mFirstNavItemPending || supportFragmentManager.isDestroyed() || supportFragmentManager.isStateSaved()) {
+            //Returning when already opened, or when the Fragments cannot be changed now
+            return;
         }
 
-        //Loading the default values for the Preferences on the first Initial launch after install
-        PreferenceManager.setDefaultValues(this, R.xml.preferences, false);
+        StartupTraceUtility.beginPhase(PHASE_OPEN_NAV_ITEM);
+        openNavItemByTitle(mSelectedNavItemTitle);
+        StartupTraceUtility.endPhase(PHASE_OPEN_NAV_ITEM);
     }
 
     /**
@@ -246,6 +415,22 @@ public class NewsActivity extends AppCompatActivity
         getSupportFragmentManager().registerFragmentLifecycleCallbacks(mFragmentLifecycleCallbacks, false);
     }
 
+    /**
+     * This is the fragment-orientated version of {@link #onResume()} that you
+     * can override to perform operations in the Activity at the same point
+     * where its fragments are resumed.
+     */
+    @Override
+    protected void onResumeFragments() {
+        super.onResumeFragments();
+
+        if (mFirstNavItemPending && mFirstFrameDrawn) {
+            //Opening the Navigation item of the Initial launch if it could not be opened
+            //while the state was saved, provided the Preferences are ready by now
+            runWhenPreferencesReady(mOpenFirstNavItemCallback);
+        }
+    }
+
     /**
      * Called as part of the activity lifecycle when an activity is going into
      * the background, but has not (yet) been killed.  The counterpart to
@@ -258,12 +443,27 @@ public class NewsActivity extends AppCompatActivity
         if (isFinishing()) {
             //Clearing the Bitmap Cache when the activity is finishing
             BitmapImageCache.clearCache();
+            //Clearing the Trailing Text Cache as well
+            TrailTextSpannedCache.clearCache();
+            //Clearing the Text measurements Cache as well
+            TextMeasureCache.clearCache();
         }
 
         //UnRegistering the FragmentLifecycleCallbacks
         getSupportFragmentManager().unregisterFragmentLifecycleCallbacks(mFragmentLifecycleCallbacks);
     }
 
+    /**
+     * Perform any final cleanup before an activity is destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        //Stop waiting for the Preferences, so that this activity is not retained by the callback
+        removePreferencesReadyCallback(mOpenFirstNavItemCallback);
+
+        super.onDestroy();
+    }
+
     /**
      * Method that initializes the {@link ActionBarDrawerToggle} with the {@link Toolbar} passed
      * to load the Hamburger icon, and to attach with the events of {@link DrawerLayout}
@@ -295,8 +495,10 @@ public class NewsActivity extends AppCompatActivity
     @Override
     public void onConfigurationChanged(Configuration newConfig) {
         super.onConfigurationChanged(newConfig);
-        //Passing any configuration change to the drawer toggles
-        mDrawerToggle.onConfigurationChanged(newConfig);
+        //Passing any configuration change to the drawer toggles, when set up by the Fragment shown
+        if (mDrawerToggle != null) {
+            mDrawerToggle.onConfigurationChanged(newConfig);
+        }
     }
 
     /**
@@ -312,7 +514,7 @@ public class NewsActivity extends AppCompatActivity
      */
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
-        if (mDrawerToggle.onOptionsItemSelected(item)) {
+        if (mDrawerToggle != null && mDrawerToggle.onOptionsItemSelected(item)) {
             //Returning true when the Drawer Toggle handles the event
             return true;
         }
@@ -336,8 +538,7 @@ public class NewsActivity extends AppCompatActivity
         //Registering the OnNavAdapterItemClickListener on the Adapter
         mNavRecyclerAdapter.setOnNavAdapterItemClickListener(this);
 
-        //Setting the Adapter on the RecyclerView
-        mNavRecyclerView.setAdapter(mNavRecyclerAdapter);
+        //(Adapter is set on the RecyclerView after the first frame, in #onDeferredStartup)
     }
 
     /**
@@ -367,6 +568,10 @@ public class NewsActivity extends AppCompatActivity
         navDrawerItemsList.add(new NavDrawerItem(R.layout.nav_item, R.drawable.ic_settings_accent, getString(R.string.settings_title_str)));
         //Item 7 is the About Menu
         navDrawerItemsList.add(new NavDrawerItem(R.layout.nav_item, R.drawable.ic_about_accent, getString(R.string.about_title_str)));
+        if (BuildConfig.DEBUG) {
+            //Item 8 is the Metrics Menu, shown only in the debug builds
+            navDrawerItemsList.add(new NavDrawerItem(R.layout.nav_item, R.drawable.ic_info_outline_orange, getString(R.string.metrics_title_str)));
+        }
 
         //Returning the prepared list of NavDrawerItem
         return navDrawerItemsList;
@@ -391,6 +596,9 @@ public class NewsActivity extends AppCompatActivity
      * to load the corresponding Navigation Drawer Item
      */
     private void openNavItem() {
+        //Clearing the Navigation item of the Initial launch if pending, as it is superseded now
+        mFirstNavItemPending = false;
+
         if (mSelectedNavItemTitle.equals(getString(R.string.headlines_title_str))) {
             //When Headlines Navigation Menu is clicked
             openHeadlines(); //Launching the Headlines Fragment
@@ -422,6 +630,10 @@ public class NewsActivity extends AppCompatActivity
         } else if (mSelectedNavItemTitle.equals(getString(R.string.about_title_str))) {
             //When "About" Navigation Menu is clicked
             openAbout();
+
+        } else if (mSelectedNavItemTitle.equals(getString(R.string.metrics_title_str))) {
+            //When Metrics Navigation Menu is clicked
+            openMetrics();
         }
 
         //Closing the Drawer if opened
@@ -500,6 +712,22 @@ public class NewsActivity extends AppCompatActivity
         startActivityForResult(aboutIntent, AboutActivity.REQ_CODE);
     }
 
+    /**
+     * Method that displays the {@link MetricsDialogFragment} with the report of the Metrics
+     * recorded on the hot paths. Available only in the debug builds.
+     */
+    private void openMetrics() {
+        if (getSupportFragmentManager().findFragmentByTag(MetricsDialogFragment.METRICS_DIALOG_FRAGMENT_TAG) == null) {
+            //Showing the dialog when not already shown
+            MetricsDialogFragment.newInstance().show(getSupportFragmentManager(), MetricsDialogFragment.METRICS_DIALOG_FRAGMENT_TAG);
+        }
+
+        //Copy the title of the last Fragment Drawer Item shown, since the dialog is not a Drawer Fragment Item
+        mSelectedNavItemTitle = mSelectedNavFragmentItemTitle;
+        //Mark the Drawer Item as selected
+        mNavRecyclerAdapter.setSelectedItemByTitle(mSelectedNavItemTitle);
+    }
+
     /**
      * Method that replaces the Fragment at 'R.id.fragment_frame_id' with the Fragment and its Tag passed.
      * Prior to replacing, it checks whether the given Fragment is already present at 'R.id.fragment_frame_id'
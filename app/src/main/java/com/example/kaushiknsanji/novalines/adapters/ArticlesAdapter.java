@@ -24,7 +24,6 @@ import android.os.Parcelable;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.transition.TransitionManager;
-import android.support.v4.app.FragmentActivity;
 import android.support.v4.app.LoaderManager;
 import android.support.v4.content.Loader;
 import android.support.v7.util.DiffUtil;
@@ -44,10 +43,13 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.cache.TextMeasureCache;
+import com.example.kaushiknsanji.novalines.cache.TrailTextSpannedCache;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
 import com.example.kaushiknsanji.novalines.utils.NewsArticleInfoDiffUtility;
-import com.example.kaushiknsanji.novalines.utils.TextAppearanceUtility;
-import com.example.kaushiknsanji.novalines.workers.ImageDownloaderFragment;
+import com.example.kaushiknsanji.novalines.workers.ArticleBodyRenderer;
+import com.example.kaushiknsanji.novalines.workers.ImageLoader;
 import com.example.kaushiknsanji.novalines.workers.NewsArticlesDiffLoader;
 
 import java.util.ArrayList;
@@ -93,6 +95,13 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
     //Stores a list of NewsArticleInfo objects which is the Dataset of the Adapter
     private List<NewsArticleInfo> mNewsArticleInfoList;
 
+    //Stores the width available for the Publisher Text and its measurement attributes, known after the first item is laid out
+    private int mPublisherTextWidth;
+    private TextMeasureCache.MeasureParams mPublisherMeasureParams;
+
+    //Stores the Max Lines count setting of the Publisher TextView in Collapsed state
+    private int mPublisherTextCollapsedMaxLines;
+
     //Stores the reference to the Listener OnAdapterItemClickListener
     private OnAdapterItemClickListener mItemClickListener;
 
@@ -102,6 +111,13 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
     //Stores the reference to the Listener OnAdapterItemPopupMenuClickListener
     private OnAdapterItemPopupMenuClickListener mItemPopupMenuClickListener;
 
+    //Items of the Popup Menu parsed once from 'R.menu.article_card_item_menu', and copied into
+    //the Popup Menu of every item view thereafter. Created on the first use
+    private List<PopupMenuItemTemplate> mPopupMenuTemplate;
+
+    //Loads the News Thumbnails of the item views, prioritized by their distance from the viewport
+    private ImageLoader mImageLoader;
+
     /**
      * Constructor of the Adapter {@link ArticlesAdapter}
      *
@@ -123,6 +139,12 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
         //Loading the Rotation Animators for TextView Expand/Collapse ImageButton anchors
         mRotateTo0Anim = AnimatorInflater.loadAnimator(mContext, R.animator.rotate_180_0);
         mRotateTo180Anim = AnimatorInflater.loadAnimator(mContext, R.animator.rotate_0_180);
+
+        //Reading the Max Lines count setting of the Publisher TextView in Collapsed state
+        mPublisherTextCollapsedMaxLines = mContext.getResources().getInteger(R.integer.article_publisher_text_max_lines_collapsed);
+
+        //Initializing the loader of the News Thumbnails
+        mImageLoader = new ImageLoader(mContext);
     }
 
     /**
@@ -190,7 +212,7 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
 
         //Instantiating the ViewHolder to initialize the reference to the view components in the item layout
         //and returning the same
-        return new ViewHolder(itemView);
+        return new ViewHolder(itemView, this);
     }
 
     /**
@@ -204,13 +226,19 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
      */
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        //Starting the timer for the bind
+        long startNanos = MetricsRegistry.startTimer();
+
         //Retrieving the NewsArticleInfo object at the current item position
         NewsArticleInfo newsArticleInfo = mNewsArticleInfoList.get(position);
 
+        //Saving this Adapter on the ViewHolder, as it could have been created by another Adapter sharing the pool
+        holder.boundAdapter = this;
+
         //Populating the data onto the Template View using the NewsArticleInfo object: START
 
         //Updating the News Thumbnail Image if link is present
-        updateNewsThumbnail(holder.articleThumbImageView, newsArticleInfo.getThumbImageUrl(), position);
+        updateNewsThumbnail(holder, newsArticleInfo.getThumbImageUrl());
 
         //Updating the Section of the News Article
         holder.articleSectionTextView.setText(newsArticleInfo.getSectionName());
@@ -219,7 +247,7 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
         holder.articleTitleTextView.setText(newsArticleInfo.getNewsTitle());
 
         //Updating the Trailing Text of the News Article
-        updateTrailText(holder.articleTrailTextView, newsArticleInfo.getTrailText());
+        updateTrailText(holder, TrailTextSpannedCache.getArticleKey(newsArticleInfo), newsArticleInfo.getTrailText());
 
         //Updating the Author of the News Article
         holder.articlePublisherTextView.setText(newsArticleInfo.getAuthor(mContext.getString(R.string.no_authors_found_default_text)));
@@ -230,10 +258,10 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
         //Updating the state of content expand button
         updateContentExpandButton(holder);
 
-        //Modifying the Popup Menu shown on News Article Card Item Views based on the current content
-        modifyPopupMenu(holder.popupMenu.getMenu(), newsArticleInfo);
-
         //Populating the data onto the Template View using the NewsArticleInfo object: END
+
+        //Recording the time taken for the bind
+        MetricsRegistry.stopTimer(MetricsRegistry.BIND_ARTICLE, startNanos);
     }
 
     /**
@@ -262,7 +290,7 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
                 switch (keyStr) {
                     case NewsArticleInfoDiffUtility.PAYLOAD_ARTICLE_IMAGE_LINK_STR_KEY:
                         //Updating the News Thumbnail Image if link is present
-                        updateNewsThumbnail(holder.articleThumbImageView, bundle.getString(keyStr), position);
+                        updateNewsThumbnail(holder, bundle.getString(keyStr));
                         break;
                     case NewsArticleInfoDiffUtility.PAYLOAD_ARTICLE_SECTION_NAME_STR_KEY:
                         //Updating the Section of the News Article
@@ -274,7 +302,7 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
                         break;
                     case NewsArticleInfoDiffUtility.PAYLOAD_ARTICLE_TRAIL_TEXT_STR_KEY:
                         //Updating the Trailing Text of the News Article
-                        updateTrailText(holder.articleTrailTextView, bundle.getString(keyStr));
+                        updateTrailText(holder, TrailTextSpannedCache.getArticleKey(mNewsArticleInfoList.get(position)), bundle.getString(keyStr));
                         break;
                     case NewsArticleInfoDiffUtility.PAYLOAD_ARTICLE_AUTHOR_STR_KEY:
                         //Updating the Author of the News Article
@@ -297,49 +325,146 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
 
             //Updating the state of content expand button
             updateContentExpandButton(holder);
-
-            //Modifying the Popup Menu shown on News Article Card Item Views based on the current content
-            modifyPopupMenu(holder.popupMenu.getMenu(), mNewsArticleInfoList.get(position));
         }
     }
 
     /**
      * Method that binds the News Thumbnail Image to the ImageView 'R.id.article_thumb_id'
      *
-     * @param imageView   is the ImageView that displays the News Thumbnail
+     * @param holder      is the ViewHolder of the item view whose ImageView displays the News Thumbnail
      * @param imageURLStr is the link to the Thumbnail image of the News Article
-     * @param position    is the position of the item within the adapter's data set.
      */
-    private void updateNewsThumbnail(ImageView imageView, String imageURLStr, int position) {
+    private void updateNewsThumbnail(ViewHolder holder, String imageURLStr) {
+        ImageView imageView = holder.articleThumbImageView;
         if (!TextUtils.isEmpty(imageURLStr)) {
             //Loading the Image when the link is present
             imageView.setVisibility(View.VISIBLE); //Ensuring the ImageView is Visible
-            ImageDownloaderFragment
-                    .newInstance(((FragmentActivity) mContext).getSupportFragmentManager(), position)
-                    .executeAndUpdate(imageView, imageURLStr, position);
+            mImageLoader.loadInto(imageView, imageURLStr, holder);
         } else {
+            //Canceling the download of the previous Thumbnail if any
+            mImageLoader.cancel(imageView);
             //Hiding the ImageView when the Thumbnail is not available
             imageView.setVisibility(View.GONE);
         }
     }
 
     /**
-     * Method that binds the Trailing Text of the News Article to the TextView 'R.id.article_trail_text_id'
+     * Called when a view created by this adapter has been recycled.
+     * Cancels the download of the News Thumbnail of the item view if still pending,
+     * as the item view is no longer displaying its News Article.
+     *
+     * @param holder The ViewHolder for the view being recycled
+     */
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        mImageLoader.cancel(holder.articleThumbImageView);
+    }
+
+    /**
+     * Method that cancels all the pending downloads of the News Thumbnails started by this Adapter.
+     * To be called when the RecyclerView using this Adapter is destroyed.
+     */
+    public void cancelPendingTasks() {
+        mImageLoader.cancelAll();
+    }
+
+    /**
+     * Method that prefetches the News Thumbnails of the item views in the range of positions passed,
+     * which are about to come on screen
+     *
+     * @param fromPosition is the position of the first item view of the range, inclusive
+     * @param toPosition   is the position of the last item view of the range, inclusive
+     */
+    public void prefetchThumbnails(int fromPosition, int toPosition) {
+        //Collecting the Thumbnail links of the range, bounded by the current dataset
+        List<String> imageURLStrList = new ArrayList<>();
+        for (int position = Math.max(0, fromPosition), lastPosition = Math.min(toPosition, mNewsArticleInfoList.size() - 1);
+             position <= lastPosition; position++) {
+            String imageURLStr = mNewsArticleInfoList.get(position).getThumbImageUrl();
+            if (!TextUtils.isEmpty(imageURLStr)) {
+                imageURLStrList.add(imageURLStr);
+            }
+        }
+
+        //Prefetching the Thumbnails
+        mImageLoader.prefetch(imageURLStrList);
+    }
+
+    /**
+     * Method that pre-renders the bodies of the News Articles of the item views in the range of
+     * positions passed, which are on the screen and hence the most likely to be opened next
+     *
+     * @param fromPosition is the position of the first item view of the range, inclusive
+     * @param toPosition   is the position of the last item view of the range, inclusive
+     */
+    public void prerenderArticles(int fromPosition, int toPosition) {
+        //Collecting the News Articles of the range, bounded by the current dataset
+        List<NewsArticleInfo> newsArticleInfoList = new ArrayList<>();
+        for (int position = Math.max(0, fromPosition), lastPosition = Math.min(toPosition, mNewsArticleInfoList.size() - 1);
+             position <= lastPosition; position++) {
+            newsArticleInfoList.add(mNewsArticleInfoList.get(position));
+        }
+
+        if (newsArticleInfoList.size() > 0) {
+            //Pre-rendering the bodies of the News Articles
+            ArticleBodyRenderer.prerender(mContext, newsArticleInfoList);
+        }
+    }
+
+    /**
+     * Method that returns the {@link ImageLoader} of the News Thumbnails, to be informed of
+     * the viewport and the scroll state of the RecyclerView using this Adapter
+     *
+     * @return The {@link ImageLoader} of the News Thumbnails
+     */
+    public ImageLoader getImageLoader() {
+        return mImageLoader;
+    }
+
+    /**
+     * Method that binds the Trailing Text of the News Article to the TextView 'R.id.article_trail_text_id'.
+     * The Html of the Trailing Text is never parsed here, as the TextView stays hidden till the content is expanded.
+     * The text converted previously is bound when available in {@link TrailTextSpannedCache},
+     * otherwise the conversion is deferred till the content is expanded.
      *
-     * @param textView     is the TextView that displays the Trailing Text
+     * @param holder       is the ViewHolder which should be updated to represent the contents of the item
+     * @param articleKey   is the Key identifying the News Article in the {@link TrailTextSpannedCache}
      * @param trailTextStr is the Trailing text of the News Headline of the Article
      */
-    private void updateTrailText(TextView textView, String trailTextStr) {
-        if (TextUtils.isEmpty(trailTextStr)) {
-            //Updating with the Empty string when not available
-            textView.setText(trailTextStr);
+    private void updateTrailText(ViewHolder holder, String articleKey, String trailTextStr) {
+        //Saving the Trailing Text for the conversion on expand
+        holder.trailTextArticleKey = articleKey;
+        holder.trailTextHtml = trailTextStr;
+
+        //Retrieving the Trailing Text previously converted if any
+        CharSequence trailTextSpanned = TrailTextSpannedCache.getSpannedFromCache(articleKey, trailTextStr);
+        if (trailTextSpanned != null) {
+            //Updating with the embedded Html formatting when already converted
+            holder.articleTrailTextView.setText(trailTextSpanned, TextView.BufferType.SPANNABLE);
         } else {
-            //Updating with the embedded Html formatting when the content is present
-            TextAppearanceUtility.setHtmlText(textView, trailTextStr);
+            //Clearing the previous content, to be converted and updated when expanded
+            holder.articleTrailTextView.setText(null);
         }
 
         //Hiding the TextView of Trailing Text
-        textView.setVisibility(View.GONE);
+        holder.articleTrailTextView.setVisibility(View.GONE);
+    }
+
+    /**
+     * Method that updates the TextView 'R.id.article_trail_text_id' with the Trailing Text
+     * converted from the Html, if not already updated. Invoked before the content is expanded.
+     *
+     * @param holder is the ViewHolder whose Trailing Text needs to be updated
+     */
+    private void ensureTrailTextConverted(ViewHolder holder) {
+        if (!TextUtils.isEmpty(holder.trailTextHtml) && TextUtils.isEmpty(holder.articleTrailTextView.getText())) {
+            //Updating with the embedded Html formatting, converting only when not present in the cache
+            holder.articleTrailTextView.setText(
+                    TrailTextSpannedCache.getOrCreateSpanned(holder.trailTextArticleKey, holder.trailTextHtml),
+                    TextView.BufferType.SPANNABLE
+            );
+        }
     }
 
     /**
@@ -349,10 +474,10 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
      * @param holder is the ViewHolder which should be updated to represent the contents of the item
      */
     private void updateContentExpandButton(ViewHolder holder) {
-        //Retrieving the Ellipse count for the Text in Author TextView
-        int publisherTextEllipseCount = getEllipseCountFromTextView(holder.articlePublisherTextView, holder.articlePublisherTextView.getLineCount());
+        //Evaluating whether the Text in Author TextView is ellipsized
+        boolean publisherTextEllipsized = isPublisherTextEllipsized(holder.articlePublisherTextView);
 
-        if (publisherTextEllipseCount > 0 || !TextUtils.isEmpty(holder.articleTrailTextView.getText())) {
+        if (publisherTextEllipsized || !TextUtils.isEmpty(holder.trailTextHtml)) {
             //Making the Content Expand Button visible when the Author Text is ellipsized
             //or the Title Trail Text is present
             holder.contentExpandButton.setVisibility(View.VISIBLE);
@@ -368,8 +493,7 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
                 holder.contentExpandButton.setTag(Boolean.FALSE); //Resetting the Tag to FALSE
 
                 //Resetting the Max Lines on Publisher Text
-                holder.articlePublisherTextView.setMaxLines(mContext.getResources().getInteger(
-                        R.integer.article_publisher_text_max_lines_collapsed));
+                holder.articlePublisherTextView.setMaxLines(mPublisherTextCollapsedMaxLines);
             }
 
         } else {
@@ -379,19 +503,53 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
         }
     }
 
+    /**
+     * Method that creates the Popup Menu shown on the overflow button of News Article Card Item.
+     * The menu 'R.menu.article_card_item_menu' is inflated only for the first Popup Menu created
+     * by the adapter, and its items are saved as a template that is copied into the Popup Menus
+     * created later, without parsing the menu resource again.
+     * Invoked only on the first tap of the overflow button, as the menu is rarely opened.
+     *
+     * @param anchorView is the overflow button 'R.id.news_item_popup_btn_id' that anchors the Popup Menu
+     * @return Instance of the {@link PopupMenu} created
+     */
+    private PopupMenu createPopupMenu(View anchorView) {
+        PopupMenu popupMenu = new PopupMenu(mContext, anchorView);
+        Menu menu = popupMenu.getMenu();
+
+        if (mPopupMenuTemplate == null) {
+            //Inflating the Popup Menu for the first time, and saving its items as the template
+            new MenuInflater(mContext).inflate(R.menu.article_card_item_menu, menu);
+            mPopupMenuTemplate = new ArrayList<>(menu.size());
+            for (int index = 0, size = menu.size(); index < size; index++) {
+                mPopupMenuTemplate.add(new PopupMenuItemTemplate(menu.getItem(index)));
+            }
+        } else {
+            //Copying the items of the template into the Popup Menu
+            for (PopupMenuItemTemplate itemTemplate : mPopupMenuTemplate) {
+                menu.add(itemTemplate.mGroupId, itemTemplate.mItemId, itemTemplate.mOrder, itemTemplate.mTitle);
+            }
+        }
+
+        //Returning the Popup Menu created
+        return popupMenu;
+    }
+
     /**
      * Method that modifies the Popup Menu shown on News Article Card Item Views
-     * based on the News Topic ID shown by the RecyclerView Fragment using this Adapter
+     * based on the News Topic ID shown by the RecyclerView Fragment using this Adapter.
+     * Invoked every time before the Popup Menu is shown, since the item view
+     * can be bound to a different {@link NewsArticleInfo} since the last time.
      *
      * @param popupMenu       is the {@link Menu} of the {@link PopupMenu} shown on the overflow button of News Article Card Item
      * @param newsArticleInfo is the {@link NewsArticleInfo} object at the position of the item within the adapter's data set.
      */
     private void modifyPopupMenu(Menu popupMenu, NewsArticleInfo newsArticleInfo) {
-        if (TextUtils.isEmpty(mNewsTopicId) || mNewsTopicId.equals(newsArticleInfo.getSectionId())) {
-            //Removing the "Open News Section" Menu item when the RecyclerView Fragment does not have a News Topic ID
-            //or when the News Items shown are for the same News Topic ID
-            popupMenu.removeItem(R.id.jump_section_action_id);
-        }
+        //Hiding the "Open News Section" Menu item when the RecyclerView Fragment does not have a News Topic ID
+        //or when the News Items shown are for the same News Topic ID
+        popupMenu.findItem(R.id.jump_section_action_id).setVisible(
+                !TextUtils.isEmpty(mNewsTopicId) && !mNewsTopicId.equals(newsArticleInfo.getSectionId())
+        );
     }
 
     /**
@@ -405,6 +563,62 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
         return mNewsArticleInfoList.size();
     }
 
+    /**
+     * Method that evaluates whether the Text in Author TextView is ellipsized in its Collapsed state.
+     * Uses the measurement done on the worker thread by {@link TextMeasureCache} when available,
+     * and falls back to scanning the current Layout of the TextView otherwise.
+     *
+     * @param publisherTextView is the TextView 'R.id.article_publisher_text_id' whose Text is already set
+     * @return TRUE when the Text is ellipsized; FALSE otherwise
+     */
+    private boolean isPublisherTextEllipsized(TextView publisherTextView) {
+        //Retrieving the width available for the Text, known only when the TextView is laid out
+        int publisherTextWidth = publisherTextView.getWidth() - publisherTextView.getTotalPaddingLeft() - publisherTextView.getTotalPaddingRight();
+        if (publisherTextWidth > 0 && publisherTextWidth != mPublisherTextWidth) {
+            //When the width is known for the first time or has changed,
+            //save it and pre-measure the Publisher Texts of the entire data set
+            mPublisherTextWidth = publisherTextWidth;
+            mPublisherMeasureParams = new TextMeasureCache.MeasureParams(publisherTextView);
+            preMeasurePublisherTexts(mPublisherMeasureParams, mNewsArticleInfoList);
+        }
+
+        if (publisherTextWidth > 0) {
+            //Looking up the pre-measured Ellipsis state
+            Boolean isEllipsized = TextMeasureCache.getEllipsizedFromCache(mPublisherMeasureParams,
+                    publisherTextWidth, mPublisherTextCollapsedMaxLines, publisherTextView.getText());
+            if (isEllipsized != null) {
+                return isEllipsized;
+            }
+        }
+
+        //Scanning the Layout of the TextView when not pre-measured
+        return getEllipseCountFromTextView(publisherTextView, publisherTextView.getLineCount()) > 0;
+    }
+
+    /**
+     * Method that pre-measures the Publisher Texts of the News Articles passed on a worker thread,
+     * for the width of the Publisher Text known so far. Does nothing when the width is not yet known.
+     *
+     * @param publisherMeasureParams is the {@link TextMeasureCache.MeasureParams} of the TextView 'R.id.article_publisher_text_id'
+     * @param newsArticleInfoList    is the List of {@link NewsArticleInfo} objects whose Publisher Texts are to be measured
+     */
+    private void preMeasurePublisherTexts(TextMeasureCache.MeasureParams publisherMeasureParams,
+                                          List<NewsArticleInfo> newsArticleInfoList) {
+        if (mPublisherTextWidth <= 0 || publisherMeasureParams == null) {
+            return;
+        }
+
+        //Preparing the list of Publisher Texts as displayed by the item views
+        String noAuthorsFoundStr = mContext.getString(R.string.no_authors_found_default_text);
+        List<String> publisherTexts = new ArrayList<>(newsArticleInfoList.size());
+        for (NewsArticleInfo newsArticleInfo : newsArticleInfoList) {
+            publisherTexts.add(newsArticleInfo.getAuthor(noAuthorsFoundStr));
+        }
+
+        //Measuring on a worker thread
+        TextMeasureCache.preMeasure(publisherMeasureParams, mPublisherTextWidth, mPublisherTextCollapsedMaxLines, publisherTexts);
+    }
+
     /**
      * Method that searches for the Ellipsis in the Text of a TextView and returns its total count
      *
@@ -437,6 +651,9 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
      * @param newArticleInfos is the new list of {@link NewsArticleInfo} objects which is the Dataset of the Adapter
      */
     public void swapItemData(@NonNull List<NewsArticleInfo> newArticleInfos) {
+        //Pre-measuring the Publisher Texts of the new list on a worker thread, alongside the difference computation
+        preMeasurePublisherTexts(mPublisherMeasureParams, newArticleInfos);
+
         //Loading the List of NewsArticleInfo objects as Bundle arguments to be passed to a Loader
         final Bundle args = new Bundle(2);
         args.putParcelableArrayList(OLD_LIST_STR_KEY, (ArrayList<? extends Parcelable>) mNewsArticleInfoList);
@@ -655,9 +872,37 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
     }
 
     /**
-     * ViewHolder class for caching View components of the template item view
+     * Class that saves an item of the Popup Menu inflated from 'R.menu.article_card_item_menu',
+     * for copying it into the Popup Menus created later.
      */
-    public class ViewHolder extends RecyclerView.ViewHolder
+    private static class PopupMenuItemTemplate {
+
+        //The Group ID, Item ID, Order and Title of the Menu item
+        private final int mGroupId;
+        private final int mItemId;
+        private final int mOrder;
+        private final CharSequence mTitle;
+
+        /**
+         * Constructor of {@link PopupMenuItemTemplate}
+         *
+         * @param menuItem is the {@link MenuItem} inflated from the menu resource, to be saved as the template
+         */
+        PopupMenuItemTemplate(MenuItem menuItem) {
+            mGroupId = menuItem.getGroupId();
+            mItemId = menuItem.getItemId();
+            mOrder = menuItem.getOrder();
+            mTitle = menuItem.getTitle();
+        }
+    }
+
+    /**
+     * ViewHolder class for caching View components of the template item view.
+     * Static, as the ViewHolders are shared across the Adapters of the Headlines tabs through a common
+     * {@link android.support.v7.widget.RecyclerView.RecycledViewPool}, and hence
+     * act on the Adapter that last bound them.
+     */
+    public static class ViewHolder extends RecyclerView.ViewHolder
             implements View.OnClickListener {
 
         //Declaring the View components of the template item view
@@ -669,17 +914,27 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
         private TextView articleTrailTextView;
         private ImageButton contentExpandButton;
         private ImageButton popupMenuButton;
+        //Popup Menu of the card, created on the first tap of the overflow button
         private PopupMenu popupMenu;
+        //Saves the Key of the News Article and its Trailing Text, for the conversion of the Html on expand
+        private String trailTextArticleKey;
+        private String trailTextHtml;
+        //The Adapter that last bound this ViewHolder
+        private ArticlesAdapter boundAdapter;
 
         /**
          * Constructor of the ViewHolder
          *
          * @param itemView is the inflated item layout View passed
          *                 for caching its View components
+         * @param adapter  is the {@link ArticlesAdapter} creating this ViewHolder
          */
-        ViewHolder(View itemView) {
+        ViewHolder(View itemView, ArticlesAdapter adapter) {
             super(itemView);
 
+            //Saving the Adapter creating this, till it is bound by another Adapter
+            boundAdapter = adapter;
+
             //Doing the view lookup for each of the item layout view's components
             articleThumbImageView = itemView.findViewById(R.id.article_thumb_id);
             articleSectionTextView = itemView.findViewById(R.id.article_section_text_id);
@@ -690,11 +945,6 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
             contentExpandButton = itemView.findViewById(R.id.news_item_expand_btn_id);
             popupMenuButton = itemView.findViewById(R.id.news_item_popup_btn_id);
 
-            //Inflating the Popup Menu for the card
-            popupMenu = new PopupMenu(mContext, popupMenuButton);
-            MenuInflater menuInflater = popupMenu.getMenuInflater();
-            menuInflater.inflate(R.menu.article_card_item_menu, popupMenu.getMenu());
-
             //Setting the Click Listener on the entire Item View
             itemView.setOnClickListener(this);
             //Setting the Click Listener on the Content Expand Button
@@ -715,19 +965,32 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
             if (adapterPosition > RecyclerView.NO_POSITION) {
                 //Verifying the validity of the position before proceeding
 
+                //Retrieving the Adapter that bound this ViewHolder
+                final ArticlesAdapter adapter = boundAdapter;
+
                 //Retrieving the data at the position
-                final NewsArticleInfo newsArticleInfo = mNewsArticleInfoList.get(adapterPosition);
+                final NewsArticleInfo newsArticleInfo = adapter.mNewsArticleInfoList.get(adapterPosition);
 
                 //Executing action based on the view being clicked
                 switch (view.getId()) {
                     case R.id.news_item_expand_btn_id:
                         //For the Content Expand Button
+                        //Converting the Trailing Text if not yet done, before the content is expanded
+                        adapter.ensureTrailTextConverted(this);
                         //Expanding/Collapsing the content of Title's Trailing Text and the Publisher Text of the Article
-                        toggleContentExpansion(contentExpandButton, articleTrailTextView, articlePublisherTextView);
+                        adapter.toggleContentExpansion(contentExpandButton, articleTrailTextView, articlePublisherTextView);
                         break;
                     case R.id.news_item_popup_btn_id:
                         //For the Popup Menu Button
 
+                        //Creating the Popup Menu on the first tap
+                        if (popupMenu == null) {
+                            popupMenu = adapter.createPopupMenu(popupMenuButton);
+                        }
+
+                        //Modifying the Popup Menu based on the current content
+                        adapter.modifyPopupMenu(popupMenu.getMenu(), newsArticleInfo);
+
                         //Registering the Menu Item Click Listener
                         popupMenu.setOnMenuItemClickListener(new PopupMenu.OnMenuItemClickListener() {
                             /**
@@ -744,30 +1007,30 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
                                 switch (item.getItemId()) {
                                     case R.id.share_action_id:
                                         //For the "Share News" action
-                                        if (mItemPopupMenuClickListener != null) {
+                                        if (adapter.mItemPopupMenuClickListener != null) {
                                             //Propagating the call to the listener
-                                            mItemPopupMenuClickListener.onShareNewsArticle(newsArticleInfo);
+                                            adapter.mItemPopupMenuClickListener.onShareNewsArticle(newsArticleInfo);
                                         }
                                         return true;
                                     case R.id.read_later_action_id:
                                         //For the "Read later" action
-                                        if (mItemPopupMenuClickListener != null) {
+                                        if (adapter.mItemPopupMenuClickListener != null) {
                                             //Propagating the call to the listener
-                                            mItemPopupMenuClickListener.onMarkForRead(newsArticleInfo);
+                                            adapter.mItemPopupMenuClickListener.onMarkForRead(newsArticleInfo);
                                         }
                                         return true;
                                     case R.id.mark_fav_action_id:
                                         //For the "Favorite this" action
-                                        if (mItemPopupMenuClickListener != null) {
+                                        if (adapter.mItemPopupMenuClickListener != null) {
                                             //Propagating the call to the listener
-                                            mItemPopupMenuClickListener.onMarkAsFav(newsArticleInfo);
+                                            adapter.mItemPopupMenuClickListener.onMarkAsFav(newsArticleInfo);
                                         }
                                         return true;
                                     case R.id.jump_section_action_id:
                                         //For the "Open News Section" action
-                                        if (mItemPopupMenuClickListener != null) {
+                                        if (adapter.mItemPopupMenuClickListener != null) {
                                             //Propagating the call to the listener
-                                            mItemPopupMenuClickListener.onOpenNewsSectionRequest(newsArticleInfo);
+                                            adapter.mItemPopupMenuClickListener.onOpenNewsSectionRequest(newsArticleInfo);
                                         }
                                         return true;
                                     default:
@@ -779,10 +1042,10 @@ public class ArticlesAdapter extends RecyclerView.Adapter<ArticlesAdapter.ViewHo
                         break;
                     default:
                         //For the entire Item View
-                        Log.d(LOG_TAG, "onClick: mItemClickListener " + mItemClickListener);
+                        Log.d(LOG_TAG, "onClick: mItemClickListener " + adapter.mItemClickListener);
                         //Propagating the call to the listener with the selected item's data
-                        if (mItemClickListener != null) {
-                            mItemClickListener.onItemClick(newsArticleInfo);
+                        if (adapter.mItemClickListener != null) {
+                            adapter.mItemClickListener.onItemClick(newsArticleInfo);
                         }
                         break;
                 }
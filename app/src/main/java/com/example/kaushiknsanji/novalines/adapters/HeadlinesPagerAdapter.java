@@ -22,26 +22,37 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentManager;
-import android.support.v4.app.FragmentStatePagerAdapter;
-import android.util.SparseArray;
+import android.support.v4.app.FragmentTransaction;
+import android.support.v4.view.PagerAdapter;
+import android.view.View;
 import android.view.ViewGroup;
 
 import java.util.ArrayList;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Custom {@link FragmentStatePagerAdapter} that provides the appropriate Fragment
- * for the ViewPager in {@link com.example.kaushiknsanji.novalines.drawerviews.HeadlinesFragment}
+ * Custom {@link PagerAdapter} that provides the appropriate Fragment
+ * for the ViewPager in {@link com.example.kaushiknsanji.novalines.drawerviews.HeadlinesFragment}.
+ * <p>
+ * Works like {@link android.support.v4.app.FragmentStatePagerAdapter}, except that the Fragments
+ * and their saved states are keyed by the Title of their Tab instead of their position. The Title
+ * serves as the stable Id of the page, which allows the Tabs to be inserted and removed
+ * without reloading the Fragments of the other Tabs.
+ * </p>
  *
  * @author Kaushik N Sanji
  */
-public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
+public class HeadlinesPagerAdapter extends PagerAdapter {
 
     //Constant used for logs
     private static final String LOG_TAG = HeadlinesPagerAdapter.class.getSimpleName();
 
-    //Sparse Array to keep track of the registered fragments in memory
-    private SparseArray<Fragment> mRegisteredFragments = new SparseArray<>();
+    //Constants used as the Bundle Key prefixes for saving the state of the Fragments
+    //For the saved state of the Fragments that are not active
+    private static final String SAVED_STATE_KEY_PREFIX = "s";
+    //For the Fragments that are active
+    private static final String FRAGMENT_KEY_PREFIX = "f";
 
     //List to store the ViewPager Fragments supplied
     private ArrayList<Fragment> mFragmentList = new ArrayList<>();
@@ -49,34 +60,79 @@ public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
     //List to save the title of the Fragments supplied
     private ArrayList<String> mFragmentTitleList = new ArrayList<>();
 
+    //Map of the Title of the Fragments to their position, for looking up the position in constant time
+    private Map<String, Integer> mPositionByTitle = new HashMap<>();
+
+    //Map of the Title to the Fragments instantiated, to keep track of the active fragments in memory
+    private Map<String, Fragment> mRegisteredFragments = new HashMap<>();
+
+    //Map of the Fragments instantiated to their Title, to resolve their position in constant time
+    private Map<Fragment, String> mRegisteredFragmentTitles = new HashMap<>();
+
+    //Map of the Title to the saved state of the Fragments that are not active
+    private Map<String, Fragment.SavedState> mSavedStates = new HashMap<>();
+
     //Stores a reference to the FragmentManager used
     private FragmentManager mFragmentManager;
 
+    //Stores the Transaction being built for the current update of the pages
+    private FragmentTransaction mCurTransaction;
+
     //Stores the Fragment currently set as Primary item to be shown
     private Fragment mPrimaryFragment;
-    //Stores the position of the Fragment currently set as Primary item
-    private int mPrimaryFragmentPos;
 
     /**
-     * Constructor of the FragmentStatePagerAdapter {@link HeadlinesPagerAdapter}
+     * Constructor of the PagerAdapter {@link HeadlinesPagerAdapter}
      *
      * @param fm is the FragmentManager to be used for managing the Fragments
      */
     public HeadlinesPagerAdapter(FragmentManager fm) {
-        super(fm);
         mFragmentManager = fm;
     }
 
     /**
-     * Method that adds/loads Fragments to the ViewPager's Adapter
+     * Method that adds/loads Fragments to the ViewPager's Adapter. The Fragments
+     * already present from the position are shifted to the right, without being reloaded,
+     * once the ViewPager is notified with {@link #notifyDataSetChanged()}.
      *
      * @param fragment is the Fragment to be added at the position specified
-     * @param tabTitle is the Title to be displayed on the Tab of the Fragment
+     * @param tabTitle is the Title to be displayed on the Tab of the Fragment, which is unique
      * @param position is the Integer value of the Fragment View's position in the Adapter
      */
     public void addFragment(Fragment fragment, String tabTitle, int position) {
         mFragmentList.add(position, fragment);
         mFragmentTitleList.add(position, tabTitle);
+        //Updating the positions of the Fragments from the position
+        updatePositionIndex(position);
+    }
+
+    /**
+     * Method that removes the Fragment at the position from the ViewPager's Adapter. The Fragments
+     * after the position are shifted to the left, without being reloaded,
+     * once the ViewPager is notified with {@link #notifyDataSetChanged()}.
+     *
+     * @param position is the Integer value of the Fragment View's position in the Adapter
+     */
+    public void removeFragment(int position) {
+        String tabTitle = mFragmentTitleList.remove(position);
+        mFragmentList.remove(position);
+        mPositionByTitle.remove(tabTitle);
+        //Discarding the saved state of the Fragment removed
+        mSavedStates.remove(tabTitle);
+        //Updating the positions of the Fragments from the position
+        updatePositionIndex(position);
+    }
+
+    /**
+     * Method that updates the index of the positions of the Fragments, for the Fragments
+     * starting from the position passed
+     *
+     * @param fromPosition is the Integer value of the first position to be updated
+     */
+    private void updatePositionIndex(int fromPosition) {
+        for (int index = fromPosition, size = mFragmentTitleList.size(); index < size; index++) {
+            mPositionByTitle.put(mFragmentTitleList.get(index), index);
+        }
     }
 
     /**
@@ -87,7 +143,8 @@ public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
      * <br/>-1 when the title is not present in the list
      */
     public int getItemPositionByTitle(String tabTitle) {
-        return mFragmentTitleList.indexOf(tabTitle);
+        Integer position = mPositionByTitle.get(tabTitle);
+        return position != null ? position : -1;
     }
 
     /**
@@ -95,7 +152,6 @@ public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
      *
      * @param position is the Integer value of the Fragment View's position in the Adapter
      */
-    @Override
     public Fragment getItem(int position) {
         //Returning the Fragment at the position
         return mFragmentList.get(position);
@@ -103,37 +159,113 @@ public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
 
     /**
      * Called when the host view is attempting to determine if an item's position
-     * has changed. Returns {@link #POSITION_UNCHANGED} if the position of the given
-     * item has not changed or {@link #POSITION_NONE} if the item is no longer present
-     * in the adapter.
+     * has changed. Returns the current position of the given item resolved through its Title,
+     * or {@link #POSITION_NONE} if the item is no longer present in the adapter.
      *
      * @param object Object representing an item, previously returned by a call to
      *               {@link #instantiateItem(ViewGroup, int)}.
      * @return object's new position index from [0, {@link #getCount()}),
-     * {@link #POSITION_UNCHANGED} if the object's position has not changed,
      * or {@link #POSITION_NONE} if the item is no longer present.
      */
     @Override
     public int getItemPosition(@NonNull Object object) {
-        //Casting to a Fragment (assuming that it is always a Fragment)
+        //Retrieving the Title of the Fragment (assuming that it is always a Fragment)
+        String tabTitle = mRegisteredFragmentTitles.get(object);
+        if (tabTitle != null) {
+            Integer position = mPositionByTitle.get(tabTitle);
+            if (position != null) {
+                //Returning the current position of the Fragment, which moves the Fragment
+                //without reloading when the position has changed
+                return position;
+            }
+        }
+        //On all else, Returning POSITION_NONE to remove the Fragment
+        return POSITION_NONE;
+    }
+
+    /**
+     * Called when a change in the shown pages is going to start being made.
+     *
+     * @param container The containing View which is displaying this adapter's page views.
+     */
+    @Override
+    public void startUpdate(@NonNull ViewGroup container) {
+        if (container.getId() == View.NO_ID) {
+            throw new IllegalStateException("ViewPager with adapter " + this + " requires a view id");
+        }
+    }
+
+    /**
+     * Create the page for the given position. Returns the Fragment already active
+     * for the Title of the position if any; else adds the Fragment of the position
+     * with its saved state if present.
+     *
+     * @param container The containing View in which the page will be shown.
+     * @param position  The page position to be instantiated.
+     * @return Returns the Fragment representing the new page.
+     */
+    @NonNull
+    @Override
+    public Object instantiateItem(@NonNull ViewGroup container, int position) {
+        //Retrieving the Title of the Fragment at the position
+        String tabTitle = mFragmentTitleList.get(position);
+
+        //Returning the Fragment already active for the Title if present
+        Fragment fragment = mRegisteredFragments.get(tabTitle);
+        if (fragment != null) {
+            return fragment;
+        }
+
+        if (mCurTransaction == null) {
+            mCurTransaction = mFragmentManager.beginTransaction();
+        }
+
+        //Retrieving the Fragment at the position and restoring its saved state if any
+        fragment = getItem(position);
+        Fragment.SavedState savedState = mSavedStates.remove(tabTitle);
+        if (savedState != null) {
+            fragment.setInitialSavedState(savedState);
+        }
+        fragment.setMenuVisibility(false);
+        fragment.setUserVisibleHint(false);
+
+        //Registering the Fragment against its Title
+        registerFragment(tabTitle, fragment);
+
+        //Adding the Fragment to the container
+        mCurTransaction.add(container.getId(), fragment);
+
+        return fragment;
+    }
+
+    /**
+     * Remove a page for the given position. The state of the Fragment is saved against its Title,
+     * unless the Fragment is no longer present in the adapter.
+     *
+     * @param container The containing View from which the page will be removed.
+     * @param position  The page position to be removed.
+     * @param object    The same object that was returned by {@link #instantiateItem(ViewGroup, int)}.
+     */
+    @Override
+    public void destroyItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
         Fragment fragment = (Fragment) object;
 
-        if (fragment.equals(mPrimaryFragment)) {
-            //When the Primary Item Fragment is same as the Fragment being checked for position change
-            if (mPrimaryFragmentPos == mFragmentList.indexOf(fragment)) {
-                //Returning POSITION_UNCHANGED when the positions are same
-                return POSITION_UNCHANGED;
-            } else {
-                //Returning POSITION_NONE to reload the Fragment when the positions are different
-                return POSITION_NONE;
+        if (mCurTransaction == null) {
+            mCurTransaction = mFragmentManager.beginTransaction();
+        }
+
+        //Unregistering the Fragment
+        String tabTitle = mRegisteredFragmentTitles.remove(fragment);
+        if (tabTitle != null) {
+            mRegisteredFragments.remove(tabTitle);
+            if (mPositionByTitle.containsKey(tabTitle) && fragment.isAdded()) {
+                //Saving the state of the Fragment when it is still present in the adapter
+                mSavedStates.put(tabTitle, mFragmentManager.saveFragmentInstanceState(fragment));
             }
-        } else if (mRegisteredFragments.indexOfValue(fragment) > -1) {
-            //Returning POSITION_UNCHANGED when not a Fragment of Primary Item
-            //and is present in the saved fragments list
-            return POSITION_UNCHANGED;
         }
-        //On all else, Returning POSITION_NONE to reload the Fragment
-        return POSITION_NONE;
+
+        //Removing the Fragment from the container
+        mCurTransaction.remove(fragment);
     }
 
     /**
@@ -145,12 +277,45 @@ public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
      * @param object    The same object that was returned by {@link #instantiateItem(ViewGroup, int)}.
      */
     @Override
-    public void setPrimaryItem(ViewGroup container, int position, Object object) {
-        super.setPrimaryItem(container, position, object);
-        //Saving the Primary Item Fragment shown
-        mPrimaryFragment = (Fragment) object;
-        //Saving the position of Primary Item Fragment
-        mPrimaryFragmentPos = position;
+    public void setPrimaryItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
+        Fragment fragment = (Fragment) object;
+        if (fragment != mPrimaryFragment) {
+            if (mPrimaryFragment != null) {
+                //Hiding the menu of the previous Primary Item Fragment
+                mPrimaryFragment.setMenuVisibility(false);
+                mPrimaryFragment.setUserVisibleHint(false);
+            }
+            fragment.setMenuVisibility(true);
+            fragment.setUserVisibleHint(true);
+            //Saving the Primary Item Fragment shown
+            mPrimaryFragment = fragment;
+        }
+    }
+
+    /**
+     * Called when the a change in the shown pages has been completed.
+     *
+     * @param container The containing View which is displaying this adapter's page views.
+     */
+    @Override
+    public void finishUpdate(@NonNull ViewGroup container) {
+        if (mCurTransaction != null) {
+            mCurTransaction.commitNowAllowingStateLoss();
+            mCurTransaction = null;
+        }
+    }
+
+    /**
+     * Determines whether a page View is associated with a specific key object
+     * as returned by {@link #instantiateItem(ViewGroup, int)}.
+     *
+     * @param view   Page View to check for association with <code>object</code>
+     * @param object Object to check for association with <code>view</code>
+     * @return true if <code>view</code> is associated with the key object <code>object</code>
+     */
+    @Override
+    public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
+        return ((Fragment) object).getView() == view;
     }
 
     /**
@@ -175,20 +340,15 @@ public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
         return mFragmentTitleList.get(position);
     }
 
-    //Registers the Fragment when the item is instantiated (for the first time) using #getItem
-    @NonNull
-    @Override
-    public Object instantiateItem(@NonNull ViewGroup container, int position) {
-        Fragment fragment = (Fragment) super.instantiateItem(container, position);
-        mRegisteredFragments.put(position, fragment);
-        return fragment;
-    }
-
-    //Unregisters the Fragment when the item is inactive
-    @Override
-    public void destroyItem(ViewGroup container, int position, Object object) {
-        mRegisteredFragments.delete(position);
-        super.destroyItem(container, position, object);
+    /**
+     * Method that registers the Fragment instantiated against its Title
+     *
+     * @param tabTitle is the Title displayed on the Tab of the Fragment
+     * @param fragment is the Fragment instantiated
+     */
+    private void registerFragment(String tabTitle, Fragment fragment) {
+        mRegisteredFragments.put(tabTitle, fragment);
+        mRegisteredFragmentTitles.put(fragment, tabTitle);
     }
 
     /**
@@ -199,40 +359,85 @@ public class HeadlinesPagerAdapter extends FragmentStatePagerAdapter {
      */
     @Nullable
     public Fragment getRegisteredFragment(int position) {
-        return mRegisteredFragments.get(position);
+        if (position < 0 || position >= mFragmentTitleList.size()) {
+            //Returning Null when the position is out of range
+            return null;
+        }
+        return mRegisteredFragments.get(mFragmentTitleList.get(position));
     }
 
     /**
-     * Overriding to restore the state of Registered Fragments array
+     * Save any instance state associated with this adapter and its pages,
+     * keyed by the Title of the pages.
+     *
+     * @return Parcelable state of the adapter, or null when there is nothing to save
+     */
+    @Override
+    public Parcelable saveState() {
+        Bundle state = null;
+
+        //Saving the states of the Fragments that are not active
+        for (Map.Entry<String, Fragment.SavedState> savedStateEntry : mSavedStates.entrySet()) {
+            if (state == null) {
+                state = new Bundle();
+            }
+            state.putParcelable(SAVED_STATE_KEY_PREFIX + savedStateEntry.getKey(), savedStateEntry.getValue());
+        }
+
+        //Saving the Fragments that are active
+        for (Map.Entry<String, Fragment> fragmentEntry : mRegisteredFragments.entrySet()) {
+            Fragment fragment = fragmentEntry.getValue();
+            if (fragment.isAdded()) {
+                if (state == null) {
+                    state = new Bundle();
+                }
+                mFragmentManager.putFragment(state, FRAGMENT_KEY_PREFIX + fragmentEntry.getKey(), fragment);
+            }
+        }
+
+        return state;
+    }
+
+    /**
+     * Restore any instance state associated with this adapter and its pages
+     * that was previously saved by {@link #saveState()}.
      *
      * @param state  is the Parcelable state
      * @param loader is the ClassLoader required for restoring the state
      */
     @Override
     public void restoreState(Parcelable state, ClassLoader loader) {
-        super.restoreState(state, loader);
         if (state != null) {
             //When the state is present
             Bundle bundle = (Bundle) state;
             //Setting the ClassLoader passed, onto the Bundle
             bundle.setClassLoader(loader);
 
-            //Retrieving the keys used in Bundle
-            Set<String> keyStringSet = bundle.keySet();
-            //Iterating over the Keys to find the Fragments
-            for (String keyString : keyStringSet) {
-                if (keyString.startsWith("f")) {
-                    //Fragment keys starts with 'f' followed by its position index
-                    int position = Integer.parseInt(keyString.substring(1));
+            //Clearing the states and Fragments that are held currently
+            mSavedStates.clear();
+            mRegisteredFragments.clear();
+            mRegisteredFragmentTitles.clear();
+
+            //Iterating over the Keys to find the saved states and the Fragments
+            for (String keyString : bundle.keySet()) {
+                if (keyString.startsWith(SAVED_STATE_KEY_PREFIX)) {
+                    //Saved state keys starts with 's' followed by the Title of the Fragment
+                    Fragment.SavedState savedState = bundle.getParcelable(keyString);
+                    if (savedState != null) {
+                        mSavedStates.put(keyString.substring(SAVED_STATE_KEY_PREFIX.length()), savedState);
+                    }
+                } else if (keyString.startsWith(FRAGMENT_KEY_PREFIX)) {
+                    //Fragment keys starts with 'f' followed by the Title of the Fragment
                     //Getting the Fragment from the Bundle using the Key through the FragmentManager
                     Fragment fragment = mFragmentManager.getFragment(bundle, keyString);
                     if (fragment != null) {
-                        //If Fragment is valid, then update the Sparse Array of Registered Fragments
-                        mRegisteredFragments.put(position, fragment);
+                        //If Fragment is valid, then register the Fragment against its Title
+                        fragment.setMenuVisibility(false);
+                        registerFragment(keyString.substring(FRAGMENT_KEY_PREFIX.length()), fragment);
                     }
                 }
             }
         }
     }
 
-}
\ No newline at end of file
+}
@@ -33,6 +33,7 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsSectionInfo;
 import com.example.kaushiknsanji.novalines.utils.NewsSectionInfoDiffUtility;
 import com.example.kaushiknsanji.novalines.workers.NewsHighlightsDiffLoader;
@@ -144,6 +145,9 @@ public class HighlightsAdapter extends RecyclerView.Adapter<HighlightsAdapter.Vi
      */
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        //Starting the timer for the bind
+        long startNanos = MetricsRegistry.startTimer();
+
         //Retrieving the NewsSectionInfo Object at the current item position
         NewsSectionInfo newsSectionInfo = mNewsSectionInfoList.get(position);
 
@@ -156,6 +160,9 @@ public class HighlightsAdapter extends RecyclerView.Adapter<HighlightsAdapter.Vi
         holder.newsSectionTextView.setText(newsSectionInfo.getSectionName());
 
         //Populating the data onto the Template View using the NewsSectionInfo object: END
+
+        //Recording the time taken for the bind
+        MetricsRegistry.stopTimer(MetricsRegistry.BIND_HIGHLIGHT, startNanos);
     }
 
     /**
@@ -21,6 +21,7 @@ import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
@@ -40,6 +41,7 @@ import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.example.kaushiknsanji.novalines.ArticleReaderActivity;
 import com.example.kaushiknsanji.novalines.R;
 import com.example.kaushiknsanji.novalines.adapters.ArticlesAdapter;
 import com.example.kaushiknsanji.novalines.drawerviews.HeadlinesFragment;
@@ -48,13 +50,15 @@ import com.example.kaushiknsanji.novalines.errorviews.NoFeedResolutionFragment;
 import com.example.kaushiknsanji.novalines.interfaces.IArticleActionView;
 import com.example.kaushiknsanji.novalines.interfaces.IRefreshActionView;
 import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.observers.ArticlePrerenderScrollListener;
 import com.example.kaushiknsanji.novalines.observers.BaseRecyclerViewScrollListener;
+import com.example.kaushiknsanji.novalines.observers.ImageViewportScrollListener;
 import com.example.kaushiknsanji.novalines.presenters.BookmarkActionPresenter;
 import com.example.kaushiknsanji.novalines.presenters.FavoriteActionPresenter;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
 import com.example.kaushiknsanji.novalines.utils.IntentUtility;
 import com.example.kaushiknsanji.novalines.utils.NewsURLGenerator;
 import com.example.kaushiknsanji.novalines.utils.PreferencesObserverUtility;
-import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
 import com.example.kaushiknsanji.novalines.utils.RecyclerViewItemDecorUtility;
 import com.example.kaushiknsanji.novalines.utils.RecyclerViewUtility;
 import com.example.kaushiknsanji.novalines.workers.NewsArticlesLoader;
@@ -92,6 +96,9 @@ public class ArticlesFragment extends Fragment
     //the last y items in RecyclerView to show/hide the pagination panel for Paginated Results
     private static final int VSCROLL_PAGINATION_TRIGGER_POS = 3;
 
+    //Constant for the number of News Article Item Views to be pre-inflated into the shared pool when idle
+    private static final int PRE_INFLATE_ITEM_VIEW_COUNT = 6;
+
     //Bundle Key Constant to save/restore the value of the top visible Adapter Item position
     private static final String VISIBLE_ITEM_VIEW_POSITION_INT_KEY = "RecyclerView.TopItemPosition";
     //Bundle Key Constant to save/restore the value of the visibility of "No Feed Layout"
@@ -118,6 +125,9 @@ public class ArticlesFragment extends Fragment
     //For the Adapter of RecyclerView
     private ArticlesAdapter mRecyclerAdapter;
 
+    //Saves whether the RecyclerView uses the pool of Item Views shared by all the Article tabs
+    private boolean mUsesSharedViewPool;
+
     //Stores reference to the URL Generator
     private NewsURLGenerator mUrlGenerator;
 
@@ -148,6 +158,12 @@ public class ArticlesFragment extends Fragment
     //Saves the top visible Adapter Item position
     private int mVisibleItemViewPosition;
 
+    //Saves whether the next load can be answered from the pages saved for a related query
+    private boolean mLocalQueryAllowed;
+
+    //Saves whether a refresh was requested by the user, which needs to load from the network
+    private boolean mRefreshPending;
+
     //Presenters for handling the Bookmark and Favorite Actions
     private BookmarkActionPresenter mBookmarkActionPresenter;
     private FavoriteActionPresenter mFavoriteActionPresenter;
@@ -242,8 +258,10 @@ public class ArticlesFragment extends Fragment
         //Reading the List of Preference Keys to exclude while triggering the loader to load data
         mKeysToExclude = PreferencesObserverUtility.getPreferenceKeysToExclude(getContext());
 
-        //Initializing the URL Generator for use with the NewsArticlesLoader
-        mUrlGenerator = new NewsURLGenerator(requireContext());
+        //Initializing the URL Generator for use with the NewsArticlesLoader,
+        //which requests the 'page' of the Pagination state of the Parent Fragment
+        mUrlGenerator = new NewsURLGenerator(requireContext(),
+                getParentFragment() != null ? ((HeadlinesFragment) getParentFragment()).getPaginationState() : null);
 
         //Finding the "Error View"
         mErrorView = rootView.findViewById(R.id.error_frame_id);
@@ -330,6 +348,19 @@ public class ArticlesFragment extends Fragment
         }
     }
 
+    /**
+     * Called when the view previously created by {@link #onCreateView} has
+     * been detached from the fragment.
+     */
+    @Override
+    public void onDestroyView() {
+        //Canceling the News Thumbnail downloads still pending for the RecyclerView
+        if (mRecyclerAdapter != null) {
+            mRecyclerAdapter.cancelPendingTasks();
+        }
+        super.onDestroyView();
+    }
+
     /**
      * Called to ask the fragment to save its current dynamic state, so it
      * can later be reconstructed in a new instance of its process if
@@ -431,6 +462,14 @@ public class ArticlesFragment extends Fragment
         //Setting the LayoutManager on the RecyclerView
         mRecyclerView.setLayoutManager(linearLayoutManager);
 
+        if (getParentFragment() instanceof HeadlinesFragment) {
+            //When shown as a tab of the Headlines, using the pool of Item Views shared by all the Article tabs
+            mRecyclerView.setRecycledViewPool(((HeadlinesFragment) getParentFragment()).getArticlesViewPool());
+            //Returning the Item Views to the shared pool when this RecyclerView is detached, for the other tabs to reuse
+            linearLayoutManager.setRecycleChildrenOnDetach(true);
+            mUsesSharedViewPool = true;
+        }
+
         //Initializing an empty ArrayList of NewsArticleInfo Objects as the dataset for the Adapter
         ArrayList<NewsArticleInfo> newsArticleInfoList = new ArrayList<>();
 
@@ -446,11 +485,19 @@ public class ArticlesFragment extends Fragment
         //Registering the OnAdapterItemPopupMenuClickListener
         mRecyclerAdapter.setOnAdapterItemPopupMenuClickListener(this);
 
+        //Registering the scroll listener that prioritizes the News Thumbnails of the item views on the screen
+        mRecyclerView.addOnScrollListener(new ImageViewportScrollListener(mRecyclerAdapter.getImageLoader()));
+
+        //Registering the scroll listener that pre-renders the News Articles on the screen for the reader
+        mRecyclerView.addOnScrollListener(new ArticlePrerenderScrollListener(mRecyclerAdapter));
+
+        //Registering the scroll listener on RecyclerView for pagination and for prefetching the News Thumbnails
+        //(Pagination events are propagated only for the paginated views)
+        mRecyclerView.addOnScrollListener(new RecyclerViewScrollListener(this, VSCROLL_PAGINATION_TRIGGER_POS));
+
         if (mIsPaginatedView) {
             //For Paginated Results
 
-            //Registering the pagination scroll listener on RecyclerView for paginated views
-            mRecyclerView.addOnScrollListener(new RecyclerViewScrollListener(this, VSCROLL_PAGINATION_TRIGGER_POS));
             //Setting the Item Decor on RecyclerView for proper Card Item and Paginated Buttons spacing
             mRecyclerView.addItemDecoration(new RecyclerViewItemDecorUtility(
                     getResources().getDimensionPixelOffset(R.dimen.card_item_spacing),
@@ -467,6 +514,47 @@ public class ArticlesFragment extends Fragment
 
         //Setting the Adapter on the RecyclerView
         mRecyclerView.setAdapter(mRecyclerAdapter);
+
+        if (mUsesSharedViewPool) {
+            //Warming up the shared pool with a few Item Views when the main thread is idle
+            preInflateItemViewsWhenIdle();
+        }
+    }
+
+    /**
+     * Method that registers an {@link MessageQueue.IdleHandler} to pre-inflate the News Article Item Views
+     * into the shared pool, one at a time whenever the main thread is idle,
+     * till the pool holds {@link #PRE_INFLATE_ITEM_VIEW_COUNT} Item Views.
+     */
+    private void preInflateItemViewsWhenIdle() {
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            /**
+             * Called when the message queue has run out of messages and will now
+             * wait for more.
+             *
+             * @return True to keep your idle handler active, false to have it
+             * removed.
+             */
+            @Override
+            public boolean queueIdle() {
+                if (getView() == null || mRecyclerView == null || mRecyclerAdapter == null) {
+                    //Removing the handler when the views of this Fragment are destroyed
+                    return false;
+                }
+
+                RecyclerView.RecycledViewPool recycledViewPool = mRecyclerView.getRecycledViewPool();
+                if (recycledViewPool.getRecycledViewCount(0) >= PRE_INFLATE_ITEM_VIEW_COUNT) {
+                    //Removing the handler when the pool is warm enough
+                    return false;
+                }
+
+                //Inflating one Item View and adding it to the pool
+                recycledViewPool.putRecycledView(mRecyclerAdapter.createViewHolder(mRecyclerView, 0));
+
+                //Keeping the handler active for the next Item View
+                return true;
+            }
+        });
     }
 
     /**
@@ -504,10 +592,11 @@ public class ArticlesFragment extends Fragment
         if (mIsPaginatedView) {
             //For Paginated Results
 
-            if (PreferencesUtility.getStartPageIndex(getContext(), mPreferences) > 1) {
-                //When not on first page, reset the 'page' setting value to 1
+            if (getStartPageIndex() > 1) {
+                //When not on first page, reset the 'page' index to 1
                 //to refresh the content and show the first page
                 if (getParentFragment() != null) {
+                    mRefreshPending = true;
                     ((HeadlinesFragment) getParentFragment()).resetStartPageIndex();
                 }
             } else {
@@ -618,7 +707,13 @@ public class ArticlesFragment extends Fragment
             //Returning the Instance of NewsArticlesLoader
             URL sectionURL = mUrlGenerator.createSectionURL(mNewsTopicId);
             Log.d(LOG_TAG + "_" + mNewsTopicId, "onCreateLoader: SectionURL " + sectionURL);
-            return new NewsArticlesLoader(getActivity(), sectionURL);
+            //Loading ahead of the other tabs when this tab is the one being viewed
+            NewsArticlesLoader articlesLoader = new NewsArticlesLoader(getActivity(), sectionURL,
+                    getUserVisibleHint() ? TaskScheduler.PRIORITY_HIGH : TaskScheduler.PRIORITY_NORMAL);
+            //Permitting the News Query to be answered locally only for the load triggered by the change in parameters
+            articlesLoader.setLocalQueryAllowed(mLocalQueryAllowed);
+            mLocalQueryAllowed = false;
+            return articlesLoader;
         }
 
         return null;
@@ -666,8 +761,8 @@ public class ArticlesFragment extends Fragment
                     Log.d(LOG_TAG + "_" + mNewsTopicId, "onLoadFinished: NO DATA RETURNED");
 
                     //Retrying for Paginated Results if the current page is not the first page
-                    if (mIsPaginatedView && PreferencesUtility.getStartPageIndex(getContext(), mPreferences) > 1) {
-                        //When not on first page, reset the 'page' setting value to 1,
+                    if (mIsPaginatedView && getStartPageIndex() > 1) {
+                        //When not on first page, reset the 'page' index to 1,
                         //to refresh the content and show the first page if possible
                         if (getParentFragment() != null) {
                             ((HeadlinesFragment) getParentFragment()).resetStartPageIndex();
@@ -751,12 +846,12 @@ public class ArticlesFragment extends Fragment
         } else {
             //Hiding the View components
             mSwipeContainer.setVisibility(View.GONE);
-            //Clearing the RecyclerView Pool if present : START
+            //Clearing the RecyclerView Pool if present and not shared with the other tabs : START
             RecyclerView.RecycledViewPool recycledViewPool = mRecyclerView.getRecycledViewPool();
-            if (recycledViewPool != null) {
+            if (recycledViewPool != null && !mUsesSharedViewPool) {
                 recycledViewPool.clear();
             }
-            //Clearing the RecyclerView Pool if present : END
+            //Clearing the RecyclerView Pool if present and not shared with the other tabs : END
         }
     }
 
@@ -840,6 +935,12 @@ public class ArticlesFragment extends Fragment
             public void run() {
                 //Scrolling over to first item after data load with a delay of 10ms
                 scrollToItemPosition(mVisibleItemViewPosition, false);
+
+                //Pre-rendering the News Articles on the screen for the reader
+                mRecyclerAdapter.prerenderArticles(
+                        RecyclerViewUtility.getFirstVisibleItemPosition(mRecyclerView),
+                        RecyclerViewUtility.getLastVisibleItemPosition(mRecyclerView)
+                );
             }
         }, 10); //This delay is for the animations to complete
     }
@@ -852,8 +953,8 @@ public class ArticlesFragment extends Fragment
      */
     @Override
     public void onItemClick(NewsArticleInfo newsArticleInfo) {
-        //Launching the News Article in a Web Browser
-        IntentUtility.openLink(requireContext(), newsArticleInfo.getWebUrl());
+        //Launching the News Article in the in-app reader
+        ArticleReaderActivity.start(requireContext(), newsArticleInfo);
     }
 
     /**
@@ -931,22 +1032,42 @@ public class ArticlesFragment extends Fragment
             Log.d(LOG_TAG + "_" + mNewsTopicId, "onSharedPreferenceChanged: key " + key);
             mVisibleItemViewPosition = 0;
 
-            if (getUserVisibleHint()) {
-                //When the current fragment is the one viewed by the user
-                if (key.equals(PreferencesUtility.getStartPageIndexKey(requireContext()))) {
-                    //On the change in 'page' setting value
-
-                    //Saving the 'page' setting value as the index of the last page viewed
-                    mLastViewedPageIndex = PreferencesUtility.getStartPageIndex(getContext(), mPreferences);
-                }
-            }
-
             //Triggering a new data load only if any parameters have changed
             //(This also prevents duplicate triggers)
             checkAndReloadData();
         }
     }
 
+    /**
+     * Method invoked by the Parent {@link HeadlinesFragment} when the index of the page
+     * to display has changed, to load the page when this is the fragment viewed by the user
+     *
+     * @param startPageIndex is the Integer value of the index of the page to display
+     */
+    public void onStartPageIndexChanged(int startPageIndex) {
+        Log.d(LOG_TAG + "_" + mNewsTopicId, "onStartPageIndexChanged: page " + startPageIndex);
+        mVisibleItemViewPosition = 0;
+
+        if (getUserVisibleHint()) {
+            //When the current fragment is the one viewed by the user
+
+            //Saving the 'page' index as the index of the last page viewed
+            mLastViewedPageIndex = startPageIndex;
+        }
+
+        //Triggering a new data load only if the page has changed
+        checkAndReloadData();
+    }
+
+    /**
+     * Method that returns the index of the page to display, from the Pagination state of the Parent Fragment
+     *
+     * @return Integer value of the index of the page to display
+     */
+    private int getStartPageIndex() {
+        return getParentFragment() != null ? ((HeadlinesFragment) getParentFragment()).getStartPageIndex() : 1;
+    }
+
     /**
      * Method that compares the URL previously used by an existing loader
      * with the URL generated using the current parameters to trigger a new data load only if necessary
@@ -970,9 +1091,13 @@ public class ArticlesFragment extends Fragment
                 if (!newRequestURLStr.equals(requestURLStr)) {
                     //When the URLs are different, reload the data
                     Log.d(LOG_TAG + "_" + mNewsTopicId, "checkAndReloadData: Reloading data");
+                    //(Permitting the News Query to be answered locally, unless a refresh was requested)
+                    mLocalQueryAllowed = !mRefreshPending;
                     triggerLoad(true);
                 }
             }
+            //Clearing the refresh request once the parameters were checked
+            mRefreshPending = false;
         }
     }
 
@@ -1030,12 +1155,26 @@ public class ArticlesFragment extends Fragment
          */
         @Override
         public void onBottomReached(int verticalScrollAmount) {
-            //Propagating the call to the Parent Fragment - HeadlinesFragment
-            if (getParentFragment() != null) {
+            //Propagating the call to the Parent Fragment - HeadlinesFragment, only for the Paginated Results
+            if (mIsPaginatedView && getParentFragment() != null) {
                 ((HeadlinesFragment) getParentFragment()).showPaginationPanel(fragment, verticalScrollAmount > 0);
             }
         }
 
+        /**
+         * Callback Method invoked with the range of item views that lie ahead in the direction
+         * of the scroll, for prefetching their News Thumbnails
+         *
+         * @param fromPosition is the position of the first item view of the range, inclusive
+         * @param toPosition   is the position of the last item view of the range, inclusive
+         */
+        @Override
+        public void onPrefetchRange(int fromPosition, int toPosition) {
+            if (mRecyclerAdapter != null) {
+                mRecyclerAdapter.prefetchThumbnails(fromPosition, toPosition);
+            }
+        }
+
     }
 
 }
\ No newline at end of file
@@ -41,6 +41,7 @@ import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import com.example.kaushiknsanji.novalines.R;
 import com.example.kaushiknsanji.novalines.adapters.HighlightsAdapter;
@@ -483,10 +484,18 @@ public class HighlightsFragment extends Fragment
      *                  <br/><b>FALSE</b> to forcefully start a new load process
      */
     private void triggerLoad(boolean forceLoad) {
-        if (getActivity() != null) {
-            //Triggering only when attached to an Activity
+        if (getActivity() != null && isSubscriptionsLoaded()) {
+            //Triggering only when attached to an Activity and the Subscribed News Categories are loaded
+            //(else, the load is triggered by #onSubscriptionsLoaded)
             LoaderManager loaderManager = getLoaderManager();
-            if (forceLoad) {
+            Loader<List<NewsSectionInfo>> loader = loaderManager.getLoader(NewsHighlightsLoader.HIGHLIGHTS_LOADER);
+            if (forceLoad && loader != null) {
+                //When forcefully triggered on an existing loader, refresh only the News Sections
+                //that are new or stale, retaining the ones that are still fresh
+                ((NewsHighlightsLoader) loader).setSubscribedNewsSectionIdsList(getSubscribedNewsSectionIdsCopy());
+                loader.onContentChanged();
+
+            } else if (forceLoad) {
                 //When forcefully triggered, restart the loader
                 loaderManager.restartLoader(NewsHighlightsLoader.HIGHLIGHTS_LOADER, null, this);
 
@@ -499,6 +508,40 @@ public class HighlightsFragment extends Fragment
         }
     }
 
+    /**
+     * Method that returns a copy of the list of Ids of the Subscribed News Categories
+     * of the Parent {@link HeadlinesFragment}, to be passed to the loader
+     * (Passing a copy, as the list is modified on the main thread when a News Category is subscribed)
+     *
+     * @return Copy of the list of Ids of the Subscribed News Categories, or null when not attached to the Parent
+     */
+    @Nullable
+    private ArrayList<String> getSubscribedNewsSectionIdsCopy() {
+        return getParentFragment() != null ? new ArrayList<>(((HeadlinesFragment) getParentFragment()).getSubscribedNewsSectionIdsList()) : null;
+    }
+
+    /**
+     * Method that returns whether the list of Subscribed News Categories is loaded
+     * by the Parent {@link HeadlinesFragment}
+     *
+     * @return <b>TRUE</b> when the list of Subscribed News Categories is loaded; <b>FALSE</b> otherwise
+     */
+    private boolean isSubscriptionsLoaded() {
+        return getParentFragment() instanceof HeadlinesFragment
+                && ((HeadlinesFragment) getParentFragment()).isSubscriptionsLoaded();
+    }
+
+    /**
+     * Method invoked by the Parent {@link HeadlinesFragment} when the list of Subscribed News Categories
+     * is loaded, to trigger the load of the Highlights that was held till then.
+     */
+    public void onSubscriptionsLoaded() {
+        if (getView() != null) {
+            //Triggering the Data load when the views are available
+            triggerLoad(false);
+        }
+    }
+
     /**
      * Method that sets the Layout Manager's currently viewing position to the item position specified
      *
@@ -545,9 +588,7 @@ public class HighlightsFragment extends Fragment
         switch (id) {
             case NewsHighlightsLoader.HIGHLIGHTS_LOADER:
                 //Returning the instance of NewsHighlightsLoader
-                return new NewsHighlightsLoader(requireActivity(),
-                        getParentFragment() != null ? ((HeadlinesFragment) getParentFragment()).getSubscribedNewsSectionIdsList() : null
-                );
+                return new NewsHighlightsLoader(requireActivity(), getSubscribedNewsSectionIdsCopy());
             default:
                 return null;
         }
@@ -583,6 +624,10 @@ public class HighlightsFragment extends Fragment
                             Log.d(LOG_TAG, "onLoadFinished: Network Failure");
                             //Displaying the "Network Error Layout"
                             showNetworkErrorLayout();
+                        } else if (newsSectionInfos == null) {
+                            //Reporting the failure to load the News Highlights when there is NO network issue
+                            Log.d(LOG_TAG, "onLoadFinished: Load Failure");
+                            Toast.makeText(getContext(), R.string.hl_load_error_msg, Toast.LENGTH_SHORT).show();
                         }
 
                     }
@@ -685,7 +730,8 @@ public class HighlightsFragment extends Fragment
      */
     @Override
     public void onRefresh() {
-        //Forcefully triggering a new data load when pulled/swiped for refresh
+        //Forcefully triggering a data load when pulled/swiped for refresh,
+        //which refetches only the News Sections that are stale
         triggerLoad(true);
     }
 
@@ -699,7 +745,9 @@ public class HighlightsFragment extends Fragment
         hideErrorView();
 
         //Hiding the Progress Indicator after the data load completion
-        mSwipeContainer.setRefreshing(false);
+        //(Retained while the News Sections are still being streamed by the loader)
+        Loader<List<NewsSectionInfo>> loader = getLoaderManager().getLoader(NewsHighlightsLoader.HIGHLIGHTS_LOADER);
+        mSwipeContainer.setRefreshing(loader != null && ((NewsHighlightsLoader) loader).isLoadInProgress());
 
         new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
             @Override
@@ -19,6 +19,9 @@ package com.example.kaushiknsanji.novalines.cache;
 import android.graphics.Bitmap;
 import android.support.v4.util.LruCache;
 
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.utils.ImageUtility;
+
 /**
  * Class that saves the Bitmaps downloaded, in a Memory Cache {@link LruCache}
  *
@@ -28,8 +31,9 @@ public class BitmapImageCache {
     //Constant for Cache size of the Memory Cache
     private static final int DEFAULT_CACHE_SIZE = 25 * 1024 * 1024; //25MB in bytes
 
-    //For the Singleton instance of this
-    private static BitmapImageCache sInstance;
+    //The Singleton instance of this, created eagerly when the class is initialized,
+    //as the class initialization is guaranteed to happen only once across the threads
+    private static final BitmapImageCache sInstance = new BitmapImageCache();
 
     //Memory Cache to save the Bitmaps downloaded
     private LruCache<String, Bitmap> mMemoryCache;
@@ -54,27 +58,32 @@ public class BitmapImageCache {
             @Override
             protected int sizeOf(String key, Bitmap bitmap) {
                 //Size of the cache now returned will be the size of the entries
-                //measured in bytes rather than the number of entries
-                return bitmap.getByteCount();
+                //measured in bytes rather than the number of entries, as per their actual config
+                //(Hardware Bitmaps are counted as well, to bound the graphics memory they hold)
+                return ImageUtility.getBitmapFootprint(bitmap);
             }
 
         };
     }
 
     /**
-     * Singleton Constructor of {@link BitmapImageCache}
+     * Singleton Constructor of {@link BitmapImageCache}.
+     * Returns the instance created eagerly, hence safe to be called from any thread.
      *
      * @return Instance of {@link BitmapImageCache}
      */
     private static BitmapImageCache getInstance() {
-        if (sInstance == null) {
-            //Creating the instance when not available
-            sInstance = new BitmapImageCache();
-        }
-        //Using the previously created instance
         return sInstance;
     }
 
+    /**
+     * Method that initializes the Memory Cache ahead of its first use, so that
+     * it is not initialized on a worker thread in the middle of the downloads.
+     */
+    public static void initialize() {
+        getInstance();
+    }
+
     /**
      * Method that retrieves the Bitmap Image from Memory Cache for the given Image URL
      *
@@ -82,20 +91,75 @@ public class BitmapImageCache {
      * @return Bitmap of the Image for the Image URL mentioned
      */
     public static Bitmap getBitmapFromCache(String imageURLStr) {
-        return getInstance().mMemoryCache.get(imageURLStr);
+        Bitmap bitmap = getInstance().mMemoryCache.get(imageURLStr);
+        //Counting the cache hit/miss
+        MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_BITMAP
+                + (bitmap != null ? MetricsRegistry.SUFFIX_HIT : MetricsRegistry.SUFFIX_MISS));
+        return bitmap;
     }
 
     /**
-     * Method that adds the Bitmap Image to Memory Cache with the Image URL String as the Key
+     * Method that adds the Bitmap Image to Memory Cache with the Image URL String as the Key,
+     * only when the Memory Cache does not already have a Bitmap for the Key. The check and the add
+     * are done atomically, so that the concurrent downloads of the same Image always end up with
+     * a single entry, which is returned to all of them.
      *
      * @param imageURLStr String containing the Image URL used as the Key to store in Memory Cache
      * @param bitmap      Bitmap Image downloaded from the Image URL passed
+     * @return The Bitmap in the Memory Cache for the Key, which is either the Bitmap passed
+     * or the one added previously; or the Bitmap passed when it could not be added
      */
-    public static void addBitmapToCache(String imageURLStr, Bitmap bitmap) {
-        if (getBitmapFromCache(imageURLStr) == null
-                && bitmap != null) {
-            getInstance().mMemoryCache.put(imageURLStr, bitmap);
+    public static Bitmap addBitmapToCache(String imageURLStr, Bitmap bitmap) {
+        if (imageURLStr == null || bitmap == null) {
+            //Returning the Bitmap passed as it cannot be added
+            return bitmap;
         }
+
+        LruCache<String, Bitmap> memoryCache = getInstance().mMemoryCache;
+        //Synchronizing on the Memory Cache, which is also the lock used by its own operations
+        synchronized (memoryCache) {
+            Bitmap cachedBitmap = memoryCache.get(imageURLStr);
+            if (cachedBitmap != null) {
+                //Returning the Bitmap already present
+                return cachedBitmap;
+            }
+            memoryCache.put(imageURLStr, bitmap);
+        }
+
+        //Returning the Bitmap added
+        return bitmap;
+    }
+
+    /**
+     * Method that trims the Memory Cache to the fraction of its maximum size passed,
+     * by evicting the least recently used Bitmaps. The Cache can grow back to its maximum size later.
+     *
+     * @param retainFraction is the fraction of the maximum size to be retained, from 0 to 1
+     * @return The number of bytes released
+     */
+    public static int trimToFraction(float retainFraction) {
+        LruCache<String, Bitmap> memoryCache = getInstance().mMemoryCache;
+        int sizeBefore = memoryCache.size();
+        memoryCache.trimToSize((int) (memoryCache.maxSize() * retainFraction));
+        return sizeBefore - memoryCache.size();
+    }
+
+    /**
+     * Method that returns the total size of the Bitmaps in the Memory Cache
+     *
+     * @return The size of the Memory Cache in bytes
+     */
+    static int getSize() {
+        return getInstance().mMemoryCache.size();
+    }
+
+    /**
+     * Method that returns the maximum size of the Bitmaps that the Memory Cache can hold
+     *
+     * @return The maximum size of the Memory Cache in bytes
+     */
+    static int getMaxSize() {
+        return getInstance().mMemoryCache.maxSize();
     }
 
     /**
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+
+/**
+ * {@link ComponentCallbacks2} registered with the Application, that trims the Memory Caches
+ * of the App in tiers by the level of the memory pressure reported by the system -
+ * <ul>
+ * <li>While running with moderate pressure, the Bitmaps are trimmed to three-fourths</li>
+ * <li>While running low or when the UI is hidden, the Bitmaps are trimmed to half
+ * and the Text measurements are cleared</li>
+ * <li>While running critically low or when in the background LRU list, the Bitmaps are trimmed to a fourth,
+ * the Trailing Texts and the rendered bodies of the reader to half and the Text measurements are cleared</li>
+ * <li>When about to be killed, all the Memory Caches are cleared</li>
+ * </ul>
+ * The amounts released are recorded in the {@link MetricsRegistry}.
+ * The Disk Cache of the News Article pages holds no memory and is not trimmed.
+ *
+ * @author Kaushik N Sanji
+ */
+public class MemoryTrimCallbacks implements ComponentCallbacks2 {
+
+    //Constant used for logs
+    private static final String LOG_TAG = MemoryTrimCallbacks.class.getSimpleName();
+
+    //Saves whether the callbacks are registered in the current process
+    private static boolean sRegistered = false;
+
+    /**
+     * Private Constructor of {@link MemoryTrimCallbacks}
+     */
+    private MemoryTrimCallbacks() {
+    }
+
+    /**
+     * Method that registers the callbacks with the Application, once per process.
+     * To be called from the main thread.
+     *
+     * @param context is the Context of the Activity or App
+     */
+    public static void register(Context context) {
+        if (sRegistered) {
+            //Returning when already registered in the current process
+            return;
+        }
+        sRegistered = true;
+        context.getApplicationContext().registerComponentCallbacks(new MemoryTrimCallbacks());
+    }
+
+    /**
+     * Called when the operating system has determined that it is a good
+     * time for a process to trim unneeded memory from its process.
+     *
+     * @param level The context of the trim, giving a hint of the amount of
+     *              trimming the application may like to perform.
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        //Counting the trims by the level
+        MetricsRegistry.incrementCounter(MetricsRegistry.MEMORY_TRIM_LEVEL_PREFIX + level);
+
+        if (level >= TRIM_MEMORY_MODERATE) {
+            //When the process is in the middle of the background LRU list or about to be killed
+            trimCaches(0f, 0f, 0f);
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            //When the process is at the start of the background LRU list or the device is critically low on memory
+            trimCaches(0.25f, 0.5f, 0f);
+        } else if (level >= TRIM_MEMORY_UI_HIDDEN || level == TRIM_MEMORY_RUNNING_LOW) {
+            //When the UI is hidden or the device is low on memory
+            trimCaches(0.5f, 1f, 0f);
+        } else if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+            //When the device is beginning to run low on memory
+            trimCaches(0.75f, 1f, 1f);
+        }
+    }
+
+    /**
+     * This is called when the overall system is running low on memory,
+     * and actively running processes should trim their memory usage.
+     */
+    @Override
+    public void onLowMemory() {
+        //Clearing all the Memory Caches
+        trimCaches(0f, 0f, 0f);
+    }
+
+    /**
+     * Called by the system when the device configuration changes while your
+     * component is running.
+     *
+     * @param newConfig The new device configuration.
+     */
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        //No-op
+    }
+
+    /**
+     * Method that trims the Memory Caches to the fractions of their maximum sizes passed,
+     * and records the amounts released
+     *
+     * @param bitmapFraction      is the fraction of the Bitmap Cache to be retained
+     * @param trailTextFraction   is the fraction of the Trailing Text Cache and the rendered bodies Cache to be retained
+     * @param textMeasureFraction is the fraction of the Text measurements Cache to be retained
+     */
+    private void trimCaches(float bitmapFraction, float trailTextFraction, float textMeasureFraction) {
+        int releasedBitmapBytes = BitmapImageCache.trimToFraction(bitmapFraction);
+        int releasedTrailTexts = TrailTextSpannedCache.trimToFraction(trailTextFraction);
+        int releasedRenderedArticles = RenderedArticleCache.trimToFraction(trailTextFraction);
+        int releasedMeasurements = TextMeasureCache.trimToFraction(textMeasureFraction);
+
+        //Recording the amounts released
+        MetricsRegistry.recordValue(MetricsRegistry.MEMORY_TRIM_BITMAP_BYTES, releasedBitmapBytes);
+        MetricsRegistry.incrementCounter(MetricsRegistry.MEMORY_TRIM_TRAIL_TEXT_ENTRIES, releasedTrailTexts);
+        MetricsRegistry.incrementCounter(MetricsRegistry.MEMORY_TRIM_TEXT_MEASURE_ENTRIES, releasedMeasurements);
+        MetricsRegistry.incrementCounter(MetricsRegistry.MEMORY_TRIM_RENDERED_ARTICLE_ENTRIES, releasedRenderedArticles);
+
+        Log.d(LOG_TAG, "trimCaches: Released " + releasedBitmapBytes + " bytes of Bitmaps, "
+                + releasedTrailTexts + " Trailing Texts, " + releasedRenderedArticles + " rendered bodies and "
+                + releasedMeasurements + " Text measurements");
+    }
+
+}
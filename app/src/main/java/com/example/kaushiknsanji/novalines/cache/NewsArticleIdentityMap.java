@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.text.TextUtils;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide identity map of the News Articles, keyed by the unique ID of the News Article
+ * assigned by the News API, that lets the same News Article shown in several tabs and pages share a single
+ * {@link NewsArticleInfo} instance. The instances are weakly referenced, hence retained only
+ * as long as some list of News Articles still holds them.
+ * <p>
+ * A canonical instance is never modified. When a News Article is parsed again with a different content,
+ * the new instance replaces the canonical one, so that the DiffUtil still sees the change.
+ * The repeated Section and Author Strings are also interned to a single instance.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class NewsArticleIdentityMap {
+
+    //Map of the canonical News Articles, keyed by the unique ID of the News Article
+    private static final Map<String, ArticleReference> sArticleMap = new HashMap<>();
+
+    //Queue of the canonical News Articles that were garbage collected, to purge their entries
+    private static final ReferenceQueue<NewsArticleInfo> sReferenceQueue = new ReferenceQueue<>();
+
+    //Pool of the interned Strings, weakly keyed so that the Strings no longer used are released
+    private static final Map<String, WeakReference<String>> sStringPool = new WeakHashMap<>();
+
+    /**
+     * Private Constructor of {@link NewsArticleIdentityMap}
+     */
+    private NewsArticleIdentityMap() {
+    }
+
+    /**
+     * Method that returns the canonical instance of the News Article passed. The Section and Author
+     * Strings of the News Article passed are interned prior to the lookup.
+     *
+     * @param newsArticleInfo is the {@link NewsArticleInfo} just parsed/decoded
+     * @return The canonical {@link NewsArticleInfo} when its content is the same as that of the one passed;
+     * else the one passed, which becomes the canonical instance.
+     */
+    public static NewsArticleInfo canonicalize(NewsArticleInfo newsArticleInfo) {
+        //Interning the repeated Strings of the News Article
+        newsArticleInfo.setSectionId(intern(newsArticleInfo.getSectionId()));
+        newsArticleInfo.setSectionName(intern(newsArticleInfo.getSectionName()));
+        newsArticleInfo.setAuthor(intern(newsArticleInfo.getAuthor("")));
+
+        //Retrieving the unique ID of the News Article
+        String articleKey = newsArticleInfo.getArticleId();
+        if (TextUtils.isEmpty(articleKey)) {
+            //Returning the same when the News Article has no ID
+            return newsArticleInfo;
+        }
+
+        synchronized (sArticleMap) {
+            //Purging the entries of the canonical News Articles garbage collected
+            purgeClearedReferences();
+
+            ArticleReference articleReference = sArticleMap.get(articleKey);
+            NewsArticleInfo canonicalArticleInfo = articleReference != null ? articleReference.get() : null;
+            if (canonicalArticleInfo != null && isSameContent(canonicalArticleInfo, newsArticleInfo)) {
+                //Returning the canonical instance when the content is the same
+                MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_ARTICLE_IDENTITY + MetricsRegistry.SUFFIX_HIT);
+                return canonicalArticleInfo;
+            }
+
+            //Saving the News Article passed as the canonical instance, when new or changed
+            MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_ARTICLE_IDENTITY + MetricsRegistry.SUFFIX_MISS);
+            sArticleMap.put(articleKey, new ArticleReference(articleKey, newsArticleInfo, sReferenceQueue));
+            return newsArticleInfo;
+        }
+    }
+
+    /**
+     * Method that returns the interned instance of the String passed
+     *
+     * @param value is the String to be interned
+     * @return The interned instance of the String, or null when the String passed is null
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        synchronized (sStringPool) {
+            WeakReference<String> internedReference = sStringPool.get(value);
+            String internedValue = internedReference != null ? internedReference.get() : null;
+            if (internedValue == null) {
+                //Saving the String passed as the interned instance, when not yet interned
+                sStringPool.put(value, new WeakReference<>(value));
+                internedValue = value;
+            }
+            return internedValue;
+        }
+    }
+
+    /**
+     * Method that returns the number of canonical News Articles currently retained
+     *
+     * @return Number of canonical News Articles currently retained
+     */
+    public static int size() {
+        synchronized (sArticleMap) {
+            purgeClearedReferences();
+            return sArticleMap.size();
+        }
+    }
+
+    /**
+     * Method that removes the entries of the canonical News Articles that were garbage collected.
+     * Should be called while holding the lock on {@link #sArticleMap}.
+     */
+    private static void purgeClearedReferences() {
+        ArticleReference clearedReference;
+        while ((clearedReference = (ArticleReference) sReferenceQueue.poll()) != null) {
+            //Removing only when the entry was not already replaced by a newer instance
+            if (sArticleMap.get(clearedReference.mArticleKey) == clearedReference) {
+                sArticleMap.remove(clearedReference.mArticleKey);
+            }
+        }
+    }
+
+    /**
+     * Method that compares the content of two News Articles of the same ID, on the fields displayed
+     *
+     * @param oldArticleInfo is the canonical {@link NewsArticleInfo}
+     * @param newArticleInfo is the {@link NewsArticleInfo} just parsed/decoded
+     * @return <b>TRUE</b> when the content is the same; <b>FALSE</b> otherwise
+     */
+    private static boolean isSameContent(NewsArticleInfo oldArticleInfo, NewsArticleInfo newArticleInfo) {
+        return TextUtils.equals(oldArticleInfo.getSectionId(), newArticleInfo.getSectionId())
+                && TextUtils.equals(oldArticleInfo.getSectionName(), newArticleInfo.getSectionName())
+                && TextUtils.equals(oldArticleInfo.getPublishedDateRaw(), newArticleInfo.getPublishedDateRaw())
+                && TextUtils.equals(oldArticleInfo.getNewsTitle(), newArticleInfo.getNewsTitle())
+                && TextUtils.equals(oldArticleInfo.getWebUrl(), newArticleInfo.getWebUrl())
+                && TextUtils.equals(oldArticleInfo.getApiUrl(), newArticleInfo.getApiUrl())
+                && TextUtils.equals(oldArticleInfo.getTrailText(), newArticleInfo.getTrailText())
+                && TextUtils.equals(oldArticleInfo.getAuthor(""), newArticleInfo.getAuthor(""))
+                && TextUtils.equals(oldArticleInfo.getThumbImageUrl(), newArticleInfo.getThumbImageUrl());
+    }
+
+    /**
+     * {@link WeakReference} to a canonical News Article, that remembers its key
+     * to purge its entry once the News Article is garbage collected.
+     */
+    private static class ArticleReference extends WeakReference<NewsArticleInfo> {
+
+        //The unique ID of the News Article
+        private final String mArticleKey;
+
+        /**
+         * Constructor of {@link ArticleReference}
+         *
+         * @param articleKey      is the unique ID of the News Article
+         * @param newsArticleInfo is the canonical {@link NewsArticleInfo}
+         * @param referenceQueue  is the queue to which the reference is enqueued once cleared
+         */
+        ArticleReference(String articleKey, NewsArticleInfo newsArticleInfo, ReferenceQueue<NewsArticleInfo> referenceQueue) {
+            super(newsArticleInfo, referenceQueue);
+            mArticleKey = articleKey;
+        }
+    }
+}
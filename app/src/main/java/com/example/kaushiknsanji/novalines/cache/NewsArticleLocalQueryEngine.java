@@ -0,0 +1,470 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.content.Context;
+import android.net.Uri;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that answers a News Query from the pages of News Articles saved in the {@link NewsArticlePageCache},
+ * when the pages saved for a query of the same Section/Search hold its complete result set.
+ * <p>
+ * A News Query differing only in its 'order-by', 'page-size' and 'page', or in a 'from-date' that is
+ * not earlier than that of the pages saved, is answered by re-filtering the News Articles saved
+ * on their date of publication, re-sorting them and slicing the page requested. Supported only for
+ * the News Queries sorted on the date of publication, as that is the only date held by the News Articles.
+ * The queries of the pages saved are indexed in memory as the pages are saved.
+ * </p>
+ * <p>
+ * Only the pages of a query that share the Generation of its first page are read together, as the pages
+ * requested against a different first page may overlap or miss the News Articles shifted between them.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class NewsArticleLocalQueryEngine {
+
+    //Constant used for logs
+    private static final String LOG_TAG = NewsArticleLocalQueryEngine.class.getSimpleName();
+
+    //Constant for the maximum number of queries indexed
+    private static final int MAX_INDEXED_QUERIES = 64;
+
+    //Constant for the maximum age in millis of the pages saved, that can be used for answering a query
+    private static final long MAX_PAGE_AGE_MILLIS = 15 * 60 * 1000;
+
+    //Constant for the maximum number of pages of a query read for answering a query
+    private static final int MAX_SOURCE_PAGES = 10;
+
+    //Constants for the 'order-by' and 'order-date' values supported
+    private static final String ORDER_BY_OLDEST = "oldest";
+    private static final String ORDER_DATE_PUBLISHED = "published";
+
+    //Index of the queries of the pages saved, keyed by the query without its 'page', in the order of their access
+    private static final Map<String, IndexedQuery> sQueryIndex = new LinkedHashMap<String, IndexedQuery>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, IndexedQuery> eldest) {
+            return size() > MAX_INDEXED_QUERIES;
+        }
+    };
+
+    /**
+     * Private Constructor of {@link NewsArticleLocalQueryEngine}
+     */
+    private NewsArticleLocalQueryEngine() {
+    }
+
+    /**
+     * Method invoked by the {@link NewsArticlePageCache} when a page is saved, to index its query
+     *
+     * @param context       is the Context of the Activity/Fragment or App
+     * @param requestURLStr is the String containing the Request URL of the page saved
+     * @param pagesCount    is the Integer value of the total number of pages available for the News Query
+     */
+    static void onPageSaved(Context context, String requestURLStr, int pagesCount) {
+        Uri requestUri = Uri.parse(requestURLStr);
+        String pageIndexKeyStr = PreferencesUtility.getStartPageIndexKey(context);
+        synchronized (sQueryIndex) {
+            sQueryIndex.put(
+                    rebuildQuery(requestUri, new String[]{pageIndexKeyStr}),
+                    new IndexedQuery(requestURLStr, getFamilyKey(context, requestUri), pagesCount)
+            );
+        }
+    }
+
+    /**
+     * Method that returns the Generation to be saved with the page of a News Query requested in full,
+     * as described in {@link NewsArticlePageCodec}. The first page starts a new Generation, while the
+     * following pages take the Generation of the first page saved recently for the same query.
+     *
+     * @param context         is the Context of the Activity/Fragment or App
+     * @param requestURLStr   is the String containing the Request URL of the page requested
+     * @param fetchTimeMillis is the time in millis when the page was requested
+     * @return Generation of the page, or 0 when the page does not belong to the first page saved
+     */
+    public static long getFullFetchGeneration(Context context, String requestURLStr, long fetchTimeMillis) {
+        Uri requestUri = Uri.parse(requestURLStr);
+        String pageIndexKeyStr = PreferencesUtility.getStartPageIndexKey(context);
+        if (parseInt(requestUri.getQueryParameter(pageIndexKeyStr), PreferencesUtility.getDefaultStartPageIndex(context)) <= 1) {
+            //Starting a new Generation for the first page
+            return fetchTimeMillis;
+        }
+
+        //Reading the Generation of the first page, when saved recently
+        String firstPageURLStr = rebuildQuery(requestUri, pageIndexKeyStr, String.valueOf(1));
+        long firstPageSavedTime = NewsArticlePageCache.getPageSavedTime(context, firstPageURLStr);
+        if (firstPageSavedTime <= 0 || fetchTimeMillis - firstPageSavedTime > MAX_PAGE_AGE_MILLIS) {
+            return 0;
+        }
+        NewsArticlePageCodec.PageReader pageReader = NewsArticlePageCache.openPage(context, firstPageURLStr);
+        if (pageReader == null) {
+            return 0;
+        }
+        try {
+            return pageReader.getGeneration();
+        } finally {
+            try {
+                pageReader.close();
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Error occurred while closing the cached page\n", e);
+            }
+        }
+    }
+
+    /**
+     * Method that answers the News Query passed from the pages saved in the {@link NewsArticlePageCache}, when possible
+     *
+     * @param context          is the Context of the Activity/Fragment or App
+     * @param requestURLObject is the URL object of the News Query
+     * @return The {@link QueryResult} of the News Query, or null when the pages saved do not hold
+     * its complete result set, in which case the News Query needs to be requested over the network
+     */
+    @Nullable
+    public static QueryResult query(Context context, URL requestURLObject) {
+        if (requestURLObject == null) {
+            return null;
+        }
+
+        Uri requestUri = Uri.parse(requestURLObject.toExternalForm());
+
+        //Reading the parameters of the News Query to be answered: START
+        if (!ORDER_DATE_PUBLISHED.equals(requestUri.getQueryParameter(PreferencesUtility.getSortBasedOnKey(context)))) {
+            //Not supported when not sorted on the date of publication
+            return null;
+        }
+        boolean sortOldestFirst = ORDER_BY_OLDEST.equals(requestUri.getQueryParameter(PreferencesUtility.getSortByKey(context)));
+        String fromDateStr = requestUri.getQueryParameter(PreferencesUtility.getStartPeriodKey(context));
+        int pageSize = parseInt(requestUri.getQueryParameter(PreferencesUtility.getItemsPerPageKey(context)), 0);
+        int pageIndex = parseInt(requestUri.getQueryParameter(PreferencesUtility.getStartPageIndexKey(context)),
+                PreferencesUtility.getDefaultStartPageIndex(context));
+        if (fromDateStr == null || pageSize <= 0 || pageIndex <= 0) {
+            return null;
+        }
+        //Reading the parameters of the News Query to be answered: END
+
+        //Finding an indexed query of the same Section/Search whose pages saved hold the complete result set
+        List<NewsArticleInfo> sourceArticleInfoList = readCompleteResultSet(context, getFamilyKey(context, requestUri), fromDateStr);
+        if (sourceArticleInfoList == null) {
+            MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_LOCAL_QUERY + MetricsRegistry.SUFFIX_MISS);
+            return null;
+        }
+
+        //Re-filtering the News Articles on the 'from-date' of the News Query
+        List<NewsArticleInfo> filteredArticleInfoList = new ArrayList<>(sourceArticleInfoList.size());
+        for (NewsArticleInfo newsArticleInfo : sourceArticleInfoList) {
+            String publishedDateStr = newsArticleInfo.getPublishedDateRaw();
+            if (publishedDateStr != null && publishedDateStr.compareTo(fromDateStr) >= 0) {
+                filteredArticleInfoList.add(newsArticleInfo);
+            }
+        }
+
+        //Re-sorting the News Articles on their date of publication, as per the 'order-by' of the News Query
+        final int sortDirection = sortOldestFirst ? 1 : -1;
+        Collections.sort(filteredArticleInfoList, new Comparator<NewsArticleInfo>() {
+            @Override
+            public int compare(NewsArticleInfo articleInfo1, NewsArticleInfo articleInfo2) {
+                return sortDirection * articleInfo1.getPublishedDateRaw().compareTo(articleInfo2.getPublishedDateRaw());
+            }
+        });
+
+        //Slicing the page requested: START
+        int pagesCount = (filteredArticleInfoList.size() + pageSize - 1) / pageSize;
+        if (pageIndex > pagesCount) {
+            //Leaving it to the network when the page requested is not available
+            MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_LOCAL_QUERY + MetricsRegistry.SUFFIX_MISS);
+            return null;
+        }
+        int fromIndex = (pageIndex - 1) * pageSize;
+        int toIndex = Math.min(fromIndex + pageSize, filteredArticleInfoList.size());
+        List<NewsArticleInfo> pageArticleInfoList = new ArrayList<>(filteredArticleInfoList.subList(fromIndex, toIndex));
+        //Slicing the page requested: END
+
+        //Returning the page answered locally
+        MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_LOCAL_QUERY + MetricsRegistry.SUFFIX_HIT);
+        return new QueryResult(pageArticleInfoList, pagesCount);
+    }
+
+    /**
+     * Method that finds an indexed query of the family passed, whose pages saved recently hold its
+     * complete result set for a 'from-date' not later than the one passed, and reads all its News Articles.
+     * All the pages read need to share the Generation of the first page.
+     *
+     * @param context     is the Context of the Activity/Fragment or App
+     * @param familyKey   is the query of the Section/Search without its sorting, date and page related parameters
+     * @param fromDateStr is the 'from-date' of the News Query to be answered
+     * @return List of all the {@link NewsArticleInfo} objects of the query found, or null when not found
+     */
+    @Nullable
+    private static List<NewsArticleInfo> readCompleteResultSet(Context context, String familyKey, String fromDateStr) {
+        //Collecting the indexed queries of the same family
+        List<IndexedQuery> candidateQueries = new ArrayList<>();
+        synchronized (sQueryIndex) {
+            for (IndexedQuery indexedQuery : sQueryIndex.values()) {
+                if (indexedQuery.mFamilyKey.equals(familyKey)) {
+                    candidateQueries.add(indexedQuery);
+                }
+            }
+        }
+
+        String startPeriodKeyStr = PreferencesUtility.getStartPeriodKey(context);
+        String pageIndexKeyStr = PreferencesUtility.getStartPageIndexKey(context);
+        long nowMillis = System.currentTimeMillis();
+
+        for (IndexedQuery indexedQuery : candidateQueries) {
+            Uri sourceUri = Uri.parse(indexedQuery.mRequestURLStr);
+            String sourceFromDateStr = sourceUri.getQueryParameter(startPeriodKeyStr);
+            if (sourceFromDateStr == null || sourceFromDateStr.compareTo(fromDateStr) > 0
+                    || indexedQuery.mPagesCount <= 0 || indexedQuery.mPagesCount > MAX_SOURCE_PAGES) {
+                //Skipping the query that does not cover the 'from-date', or has too many pages
+                continue;
+            }
+
+            //Reading all the pages of the query, when they are all saved recently in the same Generation: START
+            Map<String, NewsArticleInfo> sourceArticleMap = new LinkedHashMap<>();
+            long sourceGeneration = 0;
+            boolean complete = true;
+            for (int pageIndex = 1; pageIndex <= indexedQuery.mPagesCount && complete; pageIndex++) {
+                String pageURLStr = rebuildQuery(sourceUri, pageIndexKeyStr, String.valueOf(pageIndex));
+                long pageSavedTime = NewsArticlePageCache.getPageSavedTime(context, pageURLStr);
+                long pageGeneration = (pageSavedTime > 0 && nowMillis - pageSavedTime <= MAX_PAGE_AGE_MILLIS)
+                        ? readPage(context, pageURLStr, sourceGeneration, sourceArticleMap) : 0;
+                if (pageIndex == 1) {
+                    //The first page decides the Generation of the rest
+                    sourceGeneration = pageGeneration;
+                }
+                complete = pageGeneration != 0 && pageGeneration == sourceGeneration;
+            }
+            //Reading all the pages of the query, when they are all saved recently in the same Generation: END
+
+            if (complete) {
+                //Returning the complete result set of the query
+                return new ArrayList<>(sourceArticleMap.values());
+            }
+        }
+
+        //Returning null when none of the queries hold the complete result set
+        return null;
+    }
+
+    /**
+     * Method that reads the page saved for the Request URL passed, into the Map passed keyed by the identity of the News Article,
+     * when the page belongs to the Generation passed
+     *
+     * @param context            is the Context of the Activity/Fragment or App
+     * @param pageURLStr         is the String containing the Request URL of the page
+     * @param expectedGeneration is the Generation the page needs to belong to, or 0 when the page can belong to any
+     * @param sourceArticleMap   is the Map of {@link NewsArticleInfo} objects read, keyed by the identity of the News Article
+     * @return Generation of the page when read; 0 otherwise
+     */
+    private static long readPage(Context context, String pageURLStr, long expectedGeneration,
+                                 Map<String, NewsArticleInfo> sourceArticleMap) {
+        NewsArticlePageCodec.PageReader pageReader = NewsArticlePageCache.openPage(context, pageURLStr);
+        if (pageReader == null) {
+            return 0;
+        }
+
+        try {
+            long pageGeneration = pageReader.getGeneration();
+            if (expectedGeneration != 0 && pageGeneration != expectedGeneration) {
+                //Skipping the rows of the page that belongs to a different Generation
+                return 0;
+            }
+            while (pageReader.hasNext()) {
+                NewsArticleInfo newsArticleInfo = pageReader.next();
+                if (newsArticleInfo.getPublishedDateRaw() != null) {
+                    sourceArticleMap.put(TrailTextSpannedCache.getArticleKey(newsArticleInfo), newsArticleInfo);
+                }
+            }
+            return pageGeneration;
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the cached page\n", e);
+        } finally {
+            try {
+                pageReader.close();
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Error occurred while closing the cached page\n", e);
+            }
+        }
+
+        //Returning 0 on failure
+        return 0;
+    }
+
+    /**
+     * Method that returns the family of the News Query passed, which is the query without its sorting,
+     * date and page related parameters. Queries of the same family share the same complete result set
+     * for a given 'from-date'.
+     *
+     * @param context    is the Context of the Activity/Fragment or App
+     * @param requestUri is the Uri of the News Query
+     * @return String of the family of the News Query
+     */
+    private static String getFamilyKey(Context context, Uri requestUri) {
+        return rebuildQuery(requestUri, new String[]{
+                PreferencesUtility.getSortByKey(context),
+                PreferencesUtility.getSortBasedOnKey(context),
+                PreferencesUtility.getStartPeriodKey(context),
+                PreferencesUtility.getItemsPerPageKey(context),
+                PreferencesUtility.getStartPageIndexKey(context)
+        });
+    }
+
+    /**
+     * Method that rebuilds the query passed without the parameters passed
+     *
+     * @param requestUri        is the Uri of the News Query
+     * @param excludedParamKeys is the Array of the names of the parameters to be excluded
+     * @return String of the query rebuilt
+     */
+    private static String rebuildQuery(Uri requestUri, String[] excludedParamKeys) {
+        Uri.Builder uriBuilder = requestUri.buildUpon().clearQuery();
+        for (String parameterName : requestUri.getQueryParameterNames()) {
+            boolean excluded = false;
+            for (String excludedParamKey : excludedParamKeys) {
+                if (excludedParamKey.equals(parameterName)) {
+                    excluded = true;
+                    break;
+                }
+            }
+            if (!excluded) {
+                for (String parameterValue : requestUri.getQueryParameters(parameterName)) {
+                    uriBuilder.appendQueryParameter(parameterName, parameterValue);
+                }
+            }
+        }
+        return uriBuilder.build().toString();
+    }
+
+    /**
+     * Method that rebuilds the query passed with the value of the parameter passed replaced in place,
+     * so that the query matches the Request URL of its page as generated
+     *
+     * @param requestUri is the Uri of the News Query
+     * @param paramKey   is the name of the parameter to be replaced
+     * @param paramValue is the new value of the parameter
+     * @return String of the query rebuilt
+     */
+    private static String rebuildQuery(Uri requestUri, String paramKey, String paramValue) {
+        Uri.Builder uriBuilder = requestUri.buildUpon().clearQuery();
+        for (String parameterName : requestUri.getQueryParameterNames()) {
+            if (parameterName.equals(paramKey)) {
+                uriBuilder.appendQueryParameter(parameterName, paramValue);
+            } else {
+                for (String parameterValue : requestUri.getQueryParameters(parameterName)) {
+                    uriBuilder.appendQueryParameter(parameterName, parameterValue);
+                }
+            }
+        }
+        return uriBuilder.build().toString();
+    }
+
+    /**
+     * Method that parses the Integer value passed
+     *
+     * @param value        is the String to be parsed
+     * @param defaultValue is the value returned when the String cannot be parsed
+     * @return Integer value parsed, or the default value
+     */
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Class that holds a page of News Articles answered locally
+     */
+    public static class QueryResult {
+
+        //The News Articles of the page
+        private final List<NewsArticleInfo> mNewsArticleInfoList;
+        //The Number of Pages of data available for the News Query
+        private final int mPagesCount;
+
+        /**
+         * Constructor of {@link QueryResult}
+         *
+         * @param newsArticleInfoList is the List of News Articles of the page
+         * @param pagesCount          is the Number of Pages of data available for the News Query
+         */
+        QueryResult(List<NewsArticleInfo> newsArticleInfoList, int pagesCount) {
+            mNewsArticleInfoList = newsArticleInfoList;
+            mPagesCount = pagesCount;
+        }
+
+        /**
+         * Method that returns the News Articles of the page
+         *
+         * @return List of {@link NewsArticleInfo} objects of the page
+         */
+        public List<NewsArticleInfo> getNewsArticleInfoList() {
+            return mNewsArticleInfoList;
+        }
+
+        /**
+         * Method that returns the Number of Pages of data available for the News Query
+         *
+         * @return Number of Pages of data available for the News Query
+         */
+        public int getPagesCount() {
+            return mPagesCount;
+        }
+    }
+
+    /**
+     * Class that holds a query indexed, of the pages saved
+     */
+    private static class IndexedQuery {
+
+        //The Request URL of a page saved for the query
+        private final String mRequestURLStr;
+        //The family of the query
+        private final String mFamilyKey;
+        //The Number of Pages of data available for the query
+        private final int mPagesCount;
+
+        /**
+         * Constructor of {@link IndexedQuery}
+         *
+         * @param requestURLStr is the Request URL of a page saved for the query
+         * @param familyKey     is the family of the query
+         * @param pagesCount    is the Number of Pages of data available for the query
+         */
+        IndexedQuery(String requestURLStr, String familyKey, int pagesCount) {
+            mRequestURLStr = requestURLStr;
+            mFamilyKey = familyKey;
+            mPagesCount = pagesCount;
+        }
+    }
+}
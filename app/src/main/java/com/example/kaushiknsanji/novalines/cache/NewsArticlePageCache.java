@@ -0,0 +1,246 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.utils.FileStoreUtility;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class that saves the pages of News Articles downloaded, in a Disk Cache
+ * using the compact binary format of {@link NewsArticlePageCodec}, keyed by the Request URL of the page.
+ * <p>
+ * Used for serving the News Feed pages when offline, without re-parsing the JSON response.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class NewsArticlePageCache {
+
+    //Constant used for logs
+    private static final String LOG_TAG = NewsArticlePageCache.class.getSimpleName();
+
+    //Constant for the name of the Cache directory
+    private static final String CACHE_DIR_NAME = "news_pages";
+
+    //Constant for the extension of the Cache files
+    private static final String CACHE_FILE_EXTENSION = ".nvpg";
+
+    //Constant for the maximum number of pages retained in the Disk Cache
+    private static final int MAX_CACHED_PAGES = 64;
+
+    //Lock used for serializing the writes and trims of the Disk Cache
+    private static final Object sWriteLock = new Object();
+
+    /**
+     * Method that saves the page of {@link NewsArticleInfo} objects to the Disk Cache
+     * for the Request URL passed
+     *
+     * @param context             is the Context of the Activity/Fragment or App
+     * @param requestURLStr       is the String containing the Request URL of the page, used as the Key
+     * @param newsArticleInfoList is the List of {@link NewsArticleInfo} objects of the page
+     * @param pagesCount          is the Integer value of the total number of pages available for the News Query
+     * @param totalArticleCount   is the Integer value of the total count of articles found for the News Query
+     * @param fullFetchTime       is the time in millis when the page was last requested in full
+     * @param generation          is the Generation of the pages of the News Query that the page belongs to,
+     *                            as described in {@link NewsArticlePageCodec}
+     */
+    public static void savePage(Context context, String requestURLStr, final List<NewsArticleInfo> newsArticleInfoList,
+                                final int pagesCount, final int totalArticleCount,
+                                final long fullFetchTime, final long generation) {
+        if (newsArticleInfoList == null || newsArticleInfoList.size() == 0) {
+            //Returning when there is nothing to save
+            return;
+        }
+
+        //Retrieving the Cache directory
+        File cacheDir = getCacheDir(context);
+        if (cacheDir == null) {
+            return;
+        }
+
+        synchronized (sWriteLock) {
+            //Writing the page through a temporary file, so that the readers never see a partially written page
+            if (FileStoreUtility.writeFile(new File(cacheDir, getCacheFileName(requestURLStr)),
+                    new FileStoreUtility.StreamWriter() {
+                        @Override
+                        public void writeTo(OutputStream outputStream) throws IOException {
+                            NewsArticlePageCodec.encode(newsArticleInfoList, pagesCount, totalArticleCount,
+                                    fullFetchTime, generation, outputStream);
+                        }
+                    })) {
+                //Indexing the query of the page, for answering the related queries locally
+                NewsArticleLocalQueryEngine.onPageSaved(context, requestURLStr, pagesCount);
+            }
+
+            //Trimming the Disk Cache to its bounds
+            trimToSize(cacheDir, MAX_CACHED_PAGES);
+        }
+    }
+
+    /**
+     * Method that opens a {@link NewsArticlePageCodec.PageReader} on the page saved
+     * in the Disk Cache for the Request URL passed, for reading the rows lazily.
+     * The caller must close the reader after use.
+     *
+     * @param context       is the Context of the Activity/Fragment or App
+     * @param requestURLStr is the String containing the Request URL of the page
+     * @return Instance of {@link NewsArticlePageCodec.PageReader} for the page saved,
+     * or null when the page is not present or could not be read
+     */
+    @Nullable
+    public static NewsArticlePageCodec.PageReader openPage(Context context, String requestURLStr) {
+        //Retrieving the Cache directory
+        File cacheDir = getCacheDir(context);
+        if (cacheDir == null) {
+            return null;
+        }
+
+        File cacheFile = new File(cacheDir, getCacheFileName(requestURLStr));
+        if (!cacheFile.exists()) {
+            //Returning null when the page is not cached
+            return null;
+        }
+
+        FileInputStream fileInputStream = null;
+        try {
+            fileInputStream = new FileInputStream(cacheFile);
+            //Returning the Reader opened on the page
+            return NewsArticlePageCodec.openReader(new BufferedInputStream(fileInputStream));
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the page for the URL " + requestURLStr + "\n", e);
+            if (fileInputStream != null) {
+                try {
+                    fileInputStream.close();
+                } catch (IOException ioe) {
+                    Log.e(LOG_TAG, "Error occurred while closing the cached page stream\n", ioe);
+                }
+            }
+            //Removing the unreadable page
+            if (!cacheFile.delete()) {
+                Log.e(LOG_TAG, "Error occurred while deleting the unreadable page " + cacheFile.getName());
+            }
+        }
+
+        //Returning null on failure
+        return null;
+    }
+
+    /**
+     * Method that returns the time when the page for the Request URL passed was last saved to the Disk Cache,
+     * either in full or by an incremental refresh
+     *
+     * @param context       is the Context of the Activity/Fragment or App
+     * @param requestURLStr is the String containing the Request URL of the page
+     * @return Time in millis when the page was last saved, or 0 when the page is not cached
+     */
+    public static long getPageSavedTime(Context context, String requestURLStr) {
+        //Retrieving the Cache directory
+        File cacheDir = getCacheDir(context);
+        if (cacheDir == null) {
+            return 0;
+        }
+
+        //Returning the last modified time of the page, which is 0 when not present
+        return new File(cacheDir, getCacheFileName(requestURLStr)).lastModified();
+    }
+
+    /**
+     * Method that clears the entire Disk Cache
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     */
+    public static void clearCache(Context context) {
+        File cacheDir = getCacheDir(context);
+        if (cacheDir != null) {
+            synchronized (sWriteLock) {
+                trimToSize(cacheDir, 0);
+            }
+        }
+    }
+
+    /**
+     * Method that returns the Cache directory, creating it if not present
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     * @return The {@link File} of the Cache directory, or null when it could not be created
+     */
+    @Nullable
+    private static File getCacheDir(Context context) {
+        File cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR_NAME);
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            Log.e(LOG_TAG, "Error occurred while creating the Cache directory " + cacheDir.getPath());
+            return null;
+        }
+        return cacheDir;
+    }
+
+    /**
+     * Method that evicts the least recently written pages till the number of pages is within the limit passed
+     *
+     * @param cacheDir is the {@link File} of the Cache directory
+     * @param maxPages is the Integer value of the maximum number of pages to be retained
+     */
+    private static void trimToSize(File cacheDir, int maxPages) {
+        File[] cacheFiles = cacheDir.listFiles();
+        if (cacheFiles == null || cacheFiles.length <= maxPages) {
+            //Returning when within the limit
+            return;
+        }
+
+        //Sorting the pages by their last modified time, oldest first
+        Arrays.sort(cacheFiles, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                long lastModified1 = file1.lastModified();
+                long lastModified2 = file2.lastModified();
+                return lastModified1 < lastModified2 ? -1 : (lastModified1 == lastModified2 ? 0 : 1);
+            }
+        });
+
+        //Deleting the oldest pages beyond the limit
+        for (int index = 0, countToDelete = cacheFiles.length - maxPages; index < countToDelete; index++) {
+            if (!cacheFiles[index].delete()) {
+                Log.e(LOG_TAG, "Error occurred while evicting the page " + cacheFiles[index].getName());
+            }
+        }
+    }
+
+    /**
+     * Method that generates the name of the Cache file for the Request URL passed,
+     * which is the MD5 hash of the URL
+     *
+     * @param requestURLStr is the String containing the Request URL of the page
+     * @return String containing the name of the Cache file
+     */
+    private static String getCacheFileName(String requestURLStr) {
+        return FileStoreUtility.getHashedFileName(requestURLStr) + CACHE_FILE_EXTENSION;
+    }
+
+}
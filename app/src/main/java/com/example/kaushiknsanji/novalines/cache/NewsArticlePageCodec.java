@@ -0,0 +1,557 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.annotation.SuppressLint;
+
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Codec Class that encodes/decodes a page of {@link NewsArticleInfo} objects
+ * to/from a compact versioned binary format, used for caching the News Feed pages.
+ * <p>
+ * Layout of the format:
+ * <pre>
+ *     MAGIC (int) | VERSION (byte) | PAGES COUNT (varint) | TOTAL ARTICLE COUNT (varint) | FULL FETCH TIME (varint) | GENERATION (varint)
+ *     STRING TABLE SIZE (varint) | STRING TABLE ENTRIES (varint length + UTF-8 bytes)...
+ *     ROW COUNT (varint) | ROWS...
+ * </pre>
+ * The repeated Section ID and Section Name values of the rows are written once into the String table
+ * and referred by their index in the rows. The Published Date is stored as varint epoch seconds.
+ * </p>
+ * <p>
+ * The Generation identifies the full request of the first page of the News Query that the page belongs to,
+ * so that the pages of a News Query requested at different times can be told apart.
+ * </p>
+ * <p>
+ * Rows are decoded lazily, one at a time, through the {@link PageReader}.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class NewsArticlePageCodec {
+
+    //Constant for the Magic number that identifies the format ('NVPG')
+    private static final int MAGIC = 0x4E565047;
+
+    //Constant for the current version of the format
+    private static final byte VERSION = 4;
+
+    //Constant for the Charset used for encoding the Strings
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    //Constant for the DateTime format used in the Published Date of the News article
+    private static final String ISO_DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+
+    //Constants used as the tags for the Published Date value: START
+    //When the Published Date is not present
+    private static final int DATE_TAG_NULL = 0;
+    //When the Published Date could not be converted to epoch and is stored AS-IS
+    private static final int DATE_TAG_RAW = 1;
+    //Base offset added to the epoch seconds of the Published Date
+    private static final int DATE_TAG_EPOCH_BASE = 2;
+    //Constants used as the tags for the Published Date value: END
+
+    /**
+     * Method that encodes the list of {@link NewsArticleInfo} objects of a page into the
+     * {@link OutputStream} passed. The stream is not closed by this method.
+     *
+     * @param newsArticleInfoList is the List of {@link NewsArticleInfo} objects of a page to be encoded
+     * @param pagesCount          is the Integer value of the total number of pages available for the News Query
+     * @param totalArticleCount   is the Integer value of the total count of articles found for the News Query
+     * @param fullFetchTime       is the time in millis when the page was last requested in full
+     * @param generation          is the Generation of the pages of the News Query that the page belongs to
+     * @param outputStream        is the {@link OutputStream} to write the encoded data to
+     * @throws IOException when an error occurs while writing to the stream
+     */
+    public static void encode(List<NewsArticleInfo> newsArticleInfoList, int pagesCount, int totalArticleCount,
+                              long fullFetchTime, long generation, OutputStream outputStream) throws IOException {
+        //Wrapping the stream passed to write primitives
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+
+        //Building the String table for the repeated Section ID and Section Name values: START
+        List<String> stringTable = new ArrayList<>();
+        Map<String, Integer> stringIndexMap = new HashMap<>();
+        for (NewsArticleInfo newsArticleInfo : newsArticleInfoList) {
+            addToStringTable(newsArticleInfo.getSectionId(), stringTable, stringIndexMap);
+            addToStringTable(newsArticleInfo.getSectionName(), stringTable, stringIndexMap);
+        }
+        //Building the String table for the repeated Section ID and Section Name values: END
+
+        //Writing the Header
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeByte(VERSION);
+        writeVarInt(dataOutputStream, pagesCount);
+        writeVarInt(dataOutputStream, totalArticleCount);
+        writeVarLong(dataOutputStream, fullFetchTime);
+        writeVarLong(dataOutputStream, generation);
+
+        //Writing the String table
+        writeVarInt(dataOutputStream, stringTable.size());
+        for (String tableEntry : stringTable) {
+            writeString(dataOutputStream, tableEntry);
+        }
+
+        //Reusing the Date parser for all the rows
+        SimpleDateFormat dateFormat = createDateFormat();
+
+        //Writing the Rows: START
+        writeVarInt(dataOutputStream, newsArticleInfoList.size());
+        for (NewsArticleInfo newsArticleInfo : newsArticleInfoList) {
+            //Writing the String table index of the Section ID and Section Name (shifted by 1 for nulls)
+            writeVarInt(dataOutputStream, getStringTableRef(newsArticleInfo.getSectionId(), stringIndexMap));
+            writeVarInt(dataOutputStream, getStringTableRef(newsArticleInfo.getSectionName(), stringIndexMap));
+            //Writing the unique ID of the Article
+            writeString(dataOutputStream, newsArticleInfo.getArticleId());
+            //Writing the Published Date
+            writePublishedDate(dataOutputStream, newsArticleInfo.getPublishedDateRaw(), dateFormat);
+            //Writing the remaining String fields
+            writeString(dataOutputStream, newsArticleInfo.getNewsTitle());
+            writeString(dataOutputStream, newsArticleInfo.getWebUrl());
+            writeString(dataOutputStream, newsArticleInfo.getApiUrl());
+            writeString(dataOutputStream, newsArticleInfo.getTrailText());
+            writeString(dataOutputStream, newsArticleInfo.getAuthor(null));
+            writeString(dataOutputStream, newsArticleInfo.getThumbImageUrl());
+        }
+        //Writing the Rows: END
+
+        //Flushing the data written
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Method that opens a {@link PageReader} on the {@link InputStream} passed, to decode the rows lazily.
+     *
+     * @param inputStream is the {@link InputStream} containing the encoded data
+     * @return Instance of {@link PageReader} positioned at the first row
+     * @throws IOException when the data is not in the expected format/version or when the stream could not be read
+     */
+    public static PageReader openReader(InputStream inputStream) throws IOException {
+        return new PageReader(inputStream);
+    }
+
+    /**
+     * Method that adds the String value to the String table if not present already
+     *
+     * @param value          is the String value to be added
+     * @param stringTable    is the List of Strings which is the String table
+     * @param stringIndexMap is the Map of String values to their index in the String table
+     */
+    private static void addToStringTable(String value, List<String> stringTable, Map<String, Integer> stringIndexMap) {
+        if (value != null && !stringIndexMap.containsKey(value)) {
+            //Adding the value when not present
+            stringIndexMap.put(value, stringTable.size());
+            stringTable.add(value);
+        }
+    }
+
+    /**
+     * Method that returns the reference to the String table entry of the value, shifted by 1
+     * to reserve 0 for null values
+     *
+     * @param value          is the String value whose reference is required
+     * @param stringIndexMap is the Map of String values to their index in the String table
+     * @return Integer reference to the String table entry, or 0 when the value is null
+     */
+    private static int getStringTableRef(String value, Map<String, Integer> stringIndexMap) {
+        return value == null ? 0 : stringIndexMap.get(value) + 1;
+    }
+
+    /**
+     * Method that creates the {@link SimpleDateFormat} used for converting the Published Date
+     * to and from the epoch seconds
+     *
+     * @return Instance of {@link SimpleDateFormat} in GMT
+     */
+    @SuppressLint("SimpleDateFormat")
+    private static SimpleDateFormat createDateFormat() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(ISO_DATE_TIME_FORMAT);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        //Parsing strictly, so that the value encoded can be reproduced exactly
+        dateFormat.setLenient(false);
+        return dateFormat;
+    }
+
+    /**
+     * Method that writes the Published Date as varint epoch seconds when the value can be reproduced
+     * exactly from the epoch; else writes the value AS-IS
+     *
+     * @param dataOutputStream is the {@link DataOutputStream} to write to
+     * @param publishedDate    is the raw String value of the Published Date
+     * @param dateFormat       is the {@link SimpleDateFormat} used for parsing the value
+     * @throws IOException when an error occurs while writing to the stream
+     */
+    private static void writePublishedDate(DataOutputStream dataOutputStream, String publishedDate,
+                                           SimpleDateFormat dateFormat) throws IOException {
+        if (publishedDate == null) {
+            //Writing the tag for null value
+            writeVarInt(dataOutputStream, DATE_TAG_NULL);
+            return;
+        }
+
+        try {
+            //Parsing the value to get the epoch seconds
+            long epochSeconds = dateFormat.parse(publishedDate).getTime() / 1000L;
+            if (epochSeconds >= 0 && dateFormat.format(new Date(epochSeconds * 1000L)).equals(publishedDate)) {
+                //Writing the epoch seconds when the value can be reproduced exactly
+                writeVarLong(dataOutputStream, epochSeconds + DATE_TAG_EPOCH_BASE);
+                return;
+            }
+        } catch (ParseException e) {
+            //Ignoring, as the value will be written AS-IS
+        }
+
+        //Writing the value AS-IS when it could not be converted
+        writeVarInt(dataOutputStream, DATE_TAG_RAW);
+        writeString(dataOutputStream, publishedDate);
+    }
+
+    /**
+     * Method that writes an unsigned Integer value in the varint format
+     *
+     * @param dataOutputStream is the {@link DataOutputStream} to write to
+     * @param value            is the non-negative Integer value to be written
+     * @throws IOException when an error occurs while writing to the stream
+     */
+    private static void writeVarInt(DataOutputStream dataOutputStream, int value) throws IOException {
+        writeVarLong(dataOutputStream, value);
+    }
+
+    /**
+     * Method that writes an unsigned Long value in the varint format, 7 bits at a time
+     *
+     * @param dataOutputStream is the {@link DataOutputStream} to write to
+     * @param value            is the non-negative Long value to be written
+     * @throws IOException when an error occurs while writing to the stream
+     */
+    private static void writeVarLong(DataOutputStream dataOutputStream, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            //Writing the lower 7 bits with the continuation bit set
+            dataOutputStream.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        //Writing the last 7 bits
+        dataOutputStream.writeByte((int) value);
+    }
+
+    /**
+     * Method that writes a nullable String as varint length (shifted by 1 for nulls) followed by its UTF-8 bytes
+     *
+     * @param dataOutputStream is the {@link DataOutputStream} to write to
+     * @param value            is the String value to be written
+     * @throws IOException when an error occurs while writing to the stream
+     */
+    private static void writeString(DataOutputStream dataOutputStream, String value) throws IOException {
+        if (value == null) {
+            //Writing 0 for null value
+            writeVarInt(dataOutputStream, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarInt(dataOutputStream, bytes.length + 1);
+        dataOutputStream.write(bytes);
+    }
+
+    /**
+     * Reader Class that decodes the rows of {@link NewsArticleInfo} lazily, one at a time,
+     * from the data encoded by {@link #encode(List, int, int, long, long, OutputStream)}
+     */
+    public static final class PageReader implements Closeable {
+
+        //The stream to read the encoded data from
+        private final DataInputStream mDataInputStream;
+
+        //The String table decoded from the header
+        private final String[] mStringTable;
+
+        //The total number of pages available for the News Query
+        private final int mPagesCount;
+
+        //The total count of articles found for the News Query
+        private final int mTotalArticleCount;
+
+        //The time in millis when the page was last requested in full
+        private final long mFullFetchTime;
+
+        //The Generation of the pages of the News Query that the page belongs to
+        private final long mGeneration;
+
+        //The total number of rows encoded
+        private final int mRowCount;
+
+        //The Date formatter used for converting the epoch seconds to the Published Date
+        private final SimpleDateFormat mDateFormat;
+
+        //The number of rows read so far
+        private int mRowsRead;
+
+        /**
+         * Constructor of {@link PageReader} that reads the Header and the String table
+         *
+         * @param inputStream is the {@link InputStream} containing the encoded data
+         * @throws IOException when the data is not in the expected format/version or when the stream could not be read
+         */
+        private PageReader(InputStream inputStream) throws IOException {
+            mDataInputStream = new DataInputStream(inputStream);
+
+            //Validating the Header: START
+            if (mDataInputStream.readInt() != MAGIC) {
+                throw new IOException("Not a News Article page");
+            }
+            byte version = mDataInputStream.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported News Article page version " + version);
+            }
+            //Validating the Header: END
+
+            //Reading the Pages count and the total Article count
+            mPagesCount = readVarInt();
+            mTotalArticleCount = readVarInt();
+
+            //Reading the time of the last full request of the page
+            mFullFetchTime = readVarLong();
+
+            //Reading the Generation of the pages of the News Query that the page belongs to
+            mGeneration = readVarLong();
+
+            //Reading the String table
+            mStringTable = new String[readVarInt()];
+            for (int index = 0; index < mStringTable.length; index++) {
+                mStringTable[index] = readString();
+            }
+
+            //Reading the Row count
+            mRowCount = readVarInt();
+
+            //Initializing the Date formatter
+            mDateFormat = createDateFormat();
+        }
+
+        /**
+         * Method that returns the total number of pages available for the News Query
+         *
+         * @return Integer value of the total number of pages
+         */
+        public int getPagesCount() {
+            return mPagesCount;
+        }
+
+        /**
+         * Method that returns the total count of articles found for the News Query
+         *
+         * @return Integer value of the total count of articles
+         */
+        public int getTotalArticleCount() {
+            return mTotalArticleCount;
+        }
+
+        /**
+         * Method that returns the time when the page was last requested in full, which is not
+         * updated by the incremental refreshes of the page
+         *
+         * @return Time in millis when the page was last requested in full
+         */
+        public long getFullFetchTime() {
+            return mFullFetchTime;
+        }
+
+        /**
+         * Method that returns the Generation of the pages of the News Query that the page belongs to.
+         * Pages of a News Query with the same Generation were requested against the same first page.
+         *
+         * @return Generation of the page, or 0 when it does not belong to any
+         */
+        public long getGeneration() {
+            return mGeneration;
+        }
+
+        /**
+         * Method that returns the total number of rows encoded
+         *
+         * @return Integer value of the total number of rows
+         */
+        public int getRowCount() {
+            return mRowCount;
+        }
+
+        /**
+         * Method that checks whether there are more rows to be read
+         *
+         * @return <b>TRUE</b> when there are more rows to be read; <b>FALSE</b> otherwise
+         */
+        public boolean hasNext() {
+            return mRowsRead < mRowCount;
+        }
+
+        /**
+         * Method that decodes the next row
+         *
+         * @return The {@link NewsArticleInfo} of the next row
+         * @throws IOException when there are no more rows or when the stream could not be read
+         */
+        public NewsArticleInfo next() throws IOException {
+            if (!hasNext()) {
+                throw new EOFException("No more rows to read");
+            }
+
+            NewsArticleInfo newsArticleInfo = new NewsArticleInfo();
+            newsArticleInfo.setSectionId(readStringTableRef());
+            newsArticleInfo.setSectionName(readStringTableRef());
+            newsArticleInfo.setArticleId(readString());
+            newsArticleInfo.setPublishedDate(readPublishedDate());
+            newsArticleInfo.setNewsTitle(readString());
+            newsArticleInfo.setWebUrl(readString());
+            newsArticleInfo.setApiUrl(readString());
+            newsArticleInfo.setTrailText(readString());
+            newsArticleInfo.setAuthor(readString());
+            newsArticleInfo.setThumbImageUrl(readString());
+
+            //Incrementing the rows read
+            mRowsRead++;
+
+            //Returning the canonical instance of the decoded row
+            return NewsArticleIdentityMap.canonicalize(newsArticleInfo);
+        }
+
+        /**
+         * Method that decodes all the remaining rows
+         *
+         * @return List of {@link NewsArticleInfo} objects of the remaining rows
+         * @throws IOException when the stream could not be read
+         */
+        public List<NewsArticleInfo> readAll() throws IOException {
+            List<NewsArticleInfo> newsArticleInfoList = new ArrayList<>(mRowCount - mRowsRead);
+            while (hasNext()) {
+                newsArticleInfoList.add(next());
+            }
+            return newsArticleInfoList;
+        }
+
+        /**
+         * Closes the underlying stream
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        @Override
+        public void close() throws IOException {
+            mDataInputStream.close();
+        }
+
+        /**
+         * Method that reads the String value referred from the String table
+         *
+         * @return String value from the String table, or null when not referred
+         * @throws IOException when the reference is invalid or when the stream could not be read
+         */
+        private String readStringTableRef() throws IOException {
+            int ref = readVarInt();
+            if (ref == 0) {
+                //Returning null for no reference
+                return null;
+            }
+            if (ref > mStringTable.length) {
+                throw new IOException("Invalid String table reference " + ref);
+            }
+            return mStringTable[ref - 1];
+        }
+
+        /**
+         * Method that reads the Published Date
+         *
+         * @return String containing the raw value of the Published Date
+         * @throws IOException when the stream could not be read
+         */
+        private String readPublishedDate() throws IOException {
+            long tag = readVarLong();
+            if (tag == DATE_TAG_NULL) {
+                return null;
+            } else if (tag == DATE_TAG_RAW) {
+                return readString();
+            }
+            //Formatting the epoch seconds back to the raw value
+            return mDateFormat.format(new Date((tag - DATE_TAG_EPOCH_BASE) * 1000L));
+        }
+
+        /**
+         * Method that reads an unsigned Integer value in the varint format
+         *
+         * @return Integer value read
+         * @throws IOException when the value is malformed or when the stream could not be read
+         */
+        private int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("Malformed varint");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Method that reads an unsigned Long value in the varint format, 7 bits at a time
+         *
+         * @return Long value read
+         * @throws IOException when the value is malformed or when the stream could not be read
+         */
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte currentByte = mDataInputStream.readByte();
+                value |= (long) (currentByte & 0x7F) << shift;
+                if ((currentByte & 0x80) == 0) {
+                    //Returning when the continuation bit is not set
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        /**
+         * Method that reads a nullable String written as varint length (shifted by 1 for nulls)
+         * followed by its UTF-8 bytes
+         *
+         * @return String value read
+         * @throws IOException when the stream could not be read
+         */
+        private String readString() throws IOException {
+            int length = readVarInt();
+            if (length == 0) {
+                //Returning null for 0 length
+                return null;
+            }
+            byte[] bytes = new byte[length - 1];
+            mDataInputStream.readFully(bytes);
+            return new String(bytes, UTF_8);
+        }
+    }
+}
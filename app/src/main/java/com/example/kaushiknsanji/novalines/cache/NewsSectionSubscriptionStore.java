@@ -0,0 +1,398 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
+import com.example.kaushiknsanji.novalines.utils.FileStoreUtility;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class that persists the ordered list of the Subscribed News Sections in a file of the App,
+ * so that the Subscriptions made by the user survive a cold start.
+ * <p>
+ * The Subscriptions are read once per process on the {@link TaskScheduler#LANE_FEED} lane, and are
+ * delivered on the main thread to the {@link OnSubscriptionsLoadedListener}s waiting for them.
+ * Until the file is written for the first time, the fixed list of News Sections
+ * 'R.array.news_fixed_section_ids' is used.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class NewsSectionSubscriptionStore {
+
+    //Constant used for logs
+    private static final String LOG_TAG = NewsSectionSubscriptionStore.class.getSimpleName();
+
+    //Constant for the name of the file that stores the Subscriptions
+    private static final String STORE_FILE_NAME = "news_section_subscriptions";
+
+    //Constant for the separator of the Section Id and the Section Name on a line of the file
+    private static final char FIELD_SEPARATOR = '\t';
+
+    //Lock used for guarding the Subscriptions and the listeners waiting for them
+    private static final Object sLock = new Object();
+
+    //Lock used for serializing the writes of the file
+    private static final Object sWriteLock = new Object();
+
+    //Lists of the Ids and the Names of the Subscribed News Sections, in order. Null till loaded.
+    private static ArrayList<String> sSectionIdsList;
+    private static ArrayList<String> sSectionNamesList;
+
+    //Lists of the Ids and the Names of the News Sections subscribed before the Subscriptions were loaded
+    private static ArrayList<String> sPendingSectionIdsList = new ArrayList<>();
+    private static ArrayList<String> sPendingSectionNamesList = new ArrayList<>();
+
+    //Saves whether the Subscriptions are being loaded
+    private static boolean sLoading = false;
+
+    //List of the listeners waiting for the Subscriptions to be loaded
+    private static final List<OnSubscriptionsLoadedListener> sListeners = new ArrayList<>();
+
+    //Handler for delivering the Subscriptions loaded, on the main thread
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Private Constructor of {@link NewsSectionSubscriptionStore}
+     */
+    private NewsSectionSubscriptionStore() {
+    }
+
+    /**
+     * Method that starts loading the Subscriptions in the background when not yet loaded,
+     * so that they are ready by the time they are requested. To be called early during the startup.
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     */
+    public static void preload(Context context) {
+        final Context appContext = context.getApplicationContext();
+        synchronized (sLock) {
+            if (sSectionIdsList != null || sLoading) {
+                //Returning when already loaded or being loaded
+                return;
+            }
+            sLoading = true;
+        }
+
+        //Reading the Subscriptions ahead of the other feeds, as the Headlines depend on them
+        TaskScheduler.getInstance().submit(TaskScheduler.LANE_FEED, TaskScheduler.PRIORITY_HIGH, new Runnable() {
+            @Override
+            public void run() {
+                loadSubscriptions(appContext);
+            }
+        });
+    }
+
+    /**
+     * Method that returns whether the Subscriptions are loaded
+     *
+     * @return <b>TRUE</b> when the Subscriptions are loaded; <b>FALSE</b> otherwise
+     */
+    public static boolean isLoaded() {
+        synchronized (sLock) {
+            return sSectionIdsList != null;
+        }
+    }
+
+    /**
+     * Method that delivers the Subscriptions to the listener passed. When the Subscriptions are loaded,
+     * the listener is called immediately; else it is called on the main thread once they are loaded.
+     * To be called from the main thread.
+     *
+     * @param context  is the Context of the Activity/Fragment or App
+     * @param listener is the {@link OnSubscriptionsLoadedListener} to deliver the Subscriptions to
+     */
+    public static void getSubscriptions(Context context, OnSubscriptionsLoadedListener listener) {
+        ArrayList<String> sectionIdsList;
+        ArrayList<String> sectionNamesList;
+        synchronized (sLock) {
+            if (sSectionIdsList == null) {
+                //Waiting for the Subscriptions to be loaded
+                if (!sListeners.contains(listener)) {
+                    sListeners.add(listener);
+                }
+                sectionIdsList = null;
+                sectionNamesList = null;
+            } else {
+                //Copying the Subscriptions loaded
+                sectionIdsList = new ArrayList<>(sSectionIdsList);
+                sectionNamesList = new ArrayList<>(sSectionNamesList);
+            }
+        }
+
+        if (sectionIdsList == null) {
+            //Starting the load if not yet started
+            preload(context);
+        } else {
+            //Delivering the Subscriptions already loaded
+            listener.onSubscriptionsLoaded(sectionIdsList, sectionNamesList);
+        }
+    }
+
+    /**
+     * Method that removes the listener passed from the listeners waiting for the Subscriptions.
+     *
+     * @param listener is the {@link OnSubscriptionsLoadedListener} to be removed
+     */
+    public static void removeListener(OnSubscriptionsLoadedListener listener) {
+        synchronized (sLock) {
+            sListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Method that appends the News Section to the Subscriptions when not already subscribed,
+     * and saves the Subscriptions in the background.
+     *
+     * @param context        is the Context of the Activity/Fragment or App
+     * @param sectionIdStr   is the Id of the News Section subscribed
+     * @param sectionNameStr is the Name of the News Section subscribed
+     */
+    public static void addSubscription(Context context, String sectionIdStr, String sectionNameStr) {
+        final Context appContext = context.getApplicationContext();
+        synchronized (sLock) {
+            if (sSectionIdsList == null) {
+                //Keeping the Subscription aside to be applied once the Subscriptions are loaded
+                if (!sPendingSectionIdsList.contains(sectionIdStr)) {
+                    sPendingSectionIdsList.add(sectionIdStr);
+                    sPendingSectionNamesList.add(sectionNameStr);
+                }
+                return;
+            }
+
+            if (sSectionIdsList.contains(sectionIdStr)) {
+                //Returning when already subscribed
+                return;
+            }
+
+            //Appending the Subscription
+            sSectionIdsList.add(sectionIdStr);
+            sSectionNamesList.add(sectionNameStr);
+        }
+
+        //Saving the Subscriptions in the background
+        saveSubscriptionsAsync(appContext);
+    }
+
+    /**
+     * Method that reads the Subscriptions from the file, or from the fixed list of News Sections
+     * when the file is not present, and delivers them to the listeners waiting.
+     * Called on a worker thread.
+     *
+     * @param appContext is the Context of the App
+     */
+    private static void loadSubscriptions(Context appContext) {
+        ArrayList<String> sectionIdsList = new ArrayList<>();
+        ArrayList<String> sectionNamesList = new ArrayList<>();
+
+        if (!readSubscriptions(getStoreFile(appContext), sectionIdsList, sectionNamesList)) {
+            //Using the fixed list of News Sections when the file is not present or could not be read
+            sectionIdsList.clear();
+            sectionNamesList.clear();
+            sectionIdsList.addAll(Arrays.asList(appContext.getResources().getStringArray(R.array.news_fixed_section_ids)));
+            sectionNamesList.addAll(Arrays.asList(appContext.getResources().getStringArray(R.array.news_fixed_section_names)));
+        }
+
+        final List<OnSubscriptionsLoadedListener> listeners;
+        final ArrayList<String> loadedSectionIdsList;
+        final ArrayList<String> loadedSectionNamesList;
+        boolean pendingApplied = false;
+        synchronized (sLock) {
+            //Applying the Subscriptions made while loading
+            for (int index = 0, size = sPendingSectionIdsList.size(); index < size; index++) {
+                if (!sectionIdsList.contains(sPendingSectionIdsList.get(index))) {
+                    sectionIdsList.add(sPendingSectionIdsList.get(index));
+                    sectionNamesList.add(sPendingSectionNamesList.get(index));
+                    pendingApplied = true;
+                }
+            }
+            sPendingSectionIdsList.clear();
+            sPendingSectionNamesList.clear();
+
+            //Publishing the Subscriptions loaded
+            sSectionIdsList = sectionIdsList;
+            sSectionNamesList = sectionNamesList;
+            sLoading = false;
+
+            //Taking the listeners waiting, along with a copy of the Subscriptions for them
+            listeners = new ArrayList<>(sListeners);
+            sListeners.clear();
+            loadedSectionIdsList = new ArrayList<>(sectionIdsList);
+            loadedSectionNamesList = new ArrayList<>(sectionNamesList);
+        }
+
+        if (pendingApplied) {
+            //Saving the Subscriptions when modified
+            saveSubscriptions(appContext);
+        }
+
+        if (listeners.size() > 0) {
+            //Delivering the Subscriptions on the main thread
+            sMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    for (OnSubscriptionsLoadedListener listener : listeners) {
+                        listener.onSubscriptionsLoaded(
+                                new ArrayList<>(loadedSectionIdsList),
+                                new ArrayList<>(loadedSectionNamesList)
+                        );
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Method that reads the Subscriptions from the file passed, into the lists passed
+     *
+     * @param storeFile        is the {@link File} that stores the Subscriptions
+     * @param sectionIdsList   is the List to read the Ids of the News Sections into
+     * @param sectionNamesList is the List to read the Names of the News Sections into
+     * @return <b>TRUE</b> when the Subscriptions were read; <b>FALSE</b> when the file is not present
+     * or could not be read
+     */
+    private static boolean readSubscriptions(File storeFile, List<String> sectionIdsList, List<String> sectionNamesList) {
+        if (!storeFile.exists()) {
+            //Returning false when the Subscriptions were never saved
+            return false;
+        }
+
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(new FileInputStream(storeFile), "UTF-8");
+            BufferedReader bufferedReader = new BufferedReader(reader);
+            String lineStr;
+            while ((lineStr = bufferedReader.readLine()) != null) {
+                int separatorIndex = lineStr.indexOf(FIELD_SEPARATOR);
+                if (separatorIndex > 0) {
+                    sectionIdsList.add(lineStr.substring(0, separatorIndex));
+                    sectionNamesList.add(lineStr.substring(separatorIndex + 1));
+                }
+            }
+            //Returning true when read
+            return sectionIdsList.size() > 0;
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the Subscriptions\n", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error occurred while closing the Subscriptions stream\n", e);
+                }
+            }
+        }
+
+        //Returning false on failure
+        return false;
+    }
+
+    /**
+     * Method that saves the Subscriptions to the file on the {@link TaskScheduler#LANE_FEED} lane
+     *
+     * @param appContext is the Context of the App
+     */
+    private static void saveSubscriptionsAsync(final Context appContext) {
+        TaskScheduler.getInstance().submit(TaskScheduler.LANE_FEED, TaskScheduler.PRIORITY_LOW, new Runnable() {
+            @Override
+            public void run() {
+                saveSubscriptions(appContext);
+            }
+        });
+    }
+
+    /**
+     * Method that saves the current Subscriptions to the file. As the current Subscriptions are read
+     * at the time of the write, the last write always saves the latest Subscriptions.
+     * Called on a worker thread.
+     *
+     * @param appContext is the Context of the App
+     */
+    private static void saveSubscriptions(Context appContext) {
+        synchronized (sWriteLock) {
+            //Copying the current Subscriptions
+            final ArrayList<String> sectionIdsList;
+            final ArrayList<String> sectionNamesList;
+            synchronized (sLock) {
+                if (sSectionIdsList == null) {
+                    //Returning when the Subscriptions are not loaded
+                    return;
+                }
+                sectionIdsList = new ArrayList<>(sSectionIdsList);
+                sectionNamesList = new ArrayList<>(sSectionNamesList);
+            }
+
+            //Writing through a temporary file, so that the reads never see a partially written file
+            FileStoreUtility.writeFile(getStoreFile(appContext), new FileStoreUtility.StreamWriter() {
+                @Override
+                public void writeTo(OutputStream outputStream) throws IOException {
+                    Writer writer = new OutputStreamWriter(outputStream, "UTF-8");
+                    for (int index = 0, size = sectionIdsList.size(); index < size; index++) {
+                        writer.write(sectionIdsList.get(index));
+                        writer.write(FIELD_SEPARATOR);
+                        writer.write(sectionNamesList.get(index));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                }
+            });
+        }
+    }
+
+    /**
+     * Method that returns the file that stores the Subscriptions
+     *
+     * @param appContext is the Context of the App
+     * @return The {@link File} that stores the Subscriptions
+     */
+    private static File getStoreFile(Context appContext) {
+        return new File(appContext.getFilesDir(), STORE_FILE_NAME);
+    }
+
+    /**
+     * Interface to be implemented by the components that need the Subscriptions,
+     * to be notified when they are loaded.
+     */
+    public interface OnSubscriptionsLoadedListener {
+        /**
+         * Method invoked on the main thread with the Subscriptions loaded
+         *
+         * @param sectionIdsList   is the List of the Ids of the Subscribed News Sections, in order
+         * @param sectionNamesList is the List of the Names of the Subscribed News Sections, in order
+         */
+        void onSubscriptionsLoaded(ArrayList<String> sectionIdsList, ArrayList<String> sectionNamesList);
+    }
+
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.utils.FileStoreUtility;
+import com.example.kaushiknsanji.novalines.utils.ImageUtility;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Class that saves the body and the lead Image of the News Articles marked for 'Read Later'
+ * in a bounded local store, keyed by the identity of the News Article, for reading them offline.
+ * <p>
+ * The HTML body is saved GZIP compressed, while the lead Image is saved as downloaded, which is already compressed.
+ * The store is bounded by its size in bytes, and evicts the least recently used News Articles beyond it.
+ * It is kept in the App's files directory, so that the system does not clear it as a Cache.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class ReadLaterArticleStore {
+
+    //Constant used for logs
+    private static final String LOG_TAG = ReadLaterArticleStore.class.getSimpleName();
+
+    //Constant for the name of the Store directory
+    private static final String STORE_DIR_NAME = "read_later";
+
+    //Constants for the extensions of the files of the body and the lead Image
+    private static final String BODY_FILE_EXTENSION = ".body";
+    private static final String IMAGE_FILE_EXTENSION = ".img";
+
+    //Constant for the maximum size in bytes of the Store
+    private static final long MAX_STORE_BYTES = 16 * 1024 * 1024;
+
+    //Constant for the Charset of the body
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    //Lock used for serializing the writes and trims of the Store
+    private static final Object sWriteLock = new Object();
+
+    /**
+     * Private Constructor of {@link ReadLaterArticleStore}
+     */
+    private ReadLaterArticleStore() {
+    }
+
+    /**
+     * Method that saves the HTML body of the News Article to the Store
+     *
+     * @param context    is the Context of the Activity/Fragment or App
+     * @param articleKey is the identity of the News Article
+     * @param bodyHtml   is the String containing the HTML body of the News Article
+     * @return <b>TRUE</b> when saved; <b>FALSE</b> otherwise
+     */
+    public static boolean saveArticleBody(Context context, String articleKey, String bodyHtml) {
+        File storeDir = getStoreDir(context);
+        if (storeDir == null) {
+            return false;
+        }
+
+        //Saving the body compressed
+        return writeFile(new File(storeDir, getFileBaseName(articleKey) + BODY_FILE_EXTENSION),
+                bodyHtml.getBytes(UTF_8), true);
+    }
+
+    /**
+     * Method that saves the encoded lead Image of the News Article to the Store
+     *
+     * @param context        is the Context of the Activity/Fragment or App
+     * @param articleKey     is the identity of the News Article
+     * @param imageByteArray is the Byte Array of the encoded lead Image, as downloaded
+     * @return <b>TRUE</b> when saved; <b>FALSE</b> otherwise
+     */
+    public static boolean saveLeadImage(Context context, String articleKey, byte[] imageByteArray) {
+        File storeDir = getStoreDir(context);
+        if (storeDir == null) {
+            return false;
+        }
+
+        //Saving the Image as downloaded, which is already compressed
+        return writeFile(new File(storeDir, getFileBaseName(articleKey) + IMAGE_FILE_EXTENSION),
+                imageByteArray, false);
+    }
+
+    /**
+     * Method that returns whether the body of the News Article is present in the Store
+     *
+     * @param context    is the Context of the Activity/Fragment or App
+     * @param articleKey is the identity of the News Article
+     * @return <b>TRUE</b> when the body is present; <b>FALSE</b> otherwise
+     */
+    public static boolean hasArticleBody(Context context, String articleKey) {
+        File storeDir = getStoreDir(context);
+        return storeDir != null && new File(storeDir, getFileBaseName(articleKey) + BODY_FILE_EXTENSION).exists();
+    }
+
+    /**
+     * Method that reads and returns the HTML body of the News Article from the Store,
+     * marking the News Article as recently used
+     *
+     * @param context    is the Context of the Activity/Fragment or App
+     * @param articleKey is the identity of the News Article
+     * @return String containing the HTML body of the News Article, or null when not present
+     */
+    @Nullable
+    public static String getArticleBody(Context context, String articleKey) {
+        File storeDir = getStoreDir(context);
+        if (storeDir == null) {
+            return null;
+        }
+
+        File bodyFile = new File(storeDir, getFileBaseName(articleKey) + BODY_FILE_EXTENSION);
+        byte[] bodyByteArray = readFile(bodyFile, true);
+        if (bodyByteArray == null) {
+            MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_READ_LATER + MetricsRegistry.SUFFIX_MISS);
+            return null;
+        }
+
+        //Marking the News Article as recently used
+        touch(storeDir, articleKey);
+        MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_READ_LATER + MetricsRegistry.SUFFIX_HIT);
+        return new String(bodyByteArray, UTF_8);
+    }
+
+    /**
+     * Method that reads and decodes the lead Image of the News Article from the Store
+     *
+     * @param context    is the Context of the Activity/Fragment or App
+     * @param articleKey is the identity of the News Article
+     * @return Down Sampled Bitmap of the lead Image, or null when not present
+     */
+    @Nullable
+    public static Bitmap getLeadImage(Context context, String articleKey) {
+        File storeDir = getStoreDir(context);
+        if (storeDir == null) {
+            return null;
+        }
+
+        return ImageUtility.decodeSampledBitmap(
+                readFile(new File(storeDir, getFileBaseName(articleKey) + IMAGE_FILE_EXTENSION), false)
+        );
+    }
+
+    /**
+     * Method that removes the body and the lead Image of the News Article from the Store
+     *
+     * @param context    is the Context of the Activity/Fragment or App
+     * @param articleKey is the identity of the News Article
+     */
+    public static void removeArticle(Context context, String articleKey) {
+        File storeDir = getStoreDir(context);
+        if (storeDir == null) {
+            return;
+        }
+
+        synchronized (sWriteLock) {
+            deleteArticleFiles(storeDir, getFileBaseName(articleKey));
+        }
+    }
+
+    /**
+     * Method that writes the bytes passed to the file passed, through a temporary file,
+     * and trims the Store to its bounds thereafter
+     *
+     * @param file      is the {@link File} to be written
+     * @param byteArray is the Byte Array to be written
+     * @param compress  is a Boolean that when <b>TRUE</b> compresses the bytes with GZIP
+     * @return <b>TRUE</b> when written; <b>FALSE</b> otherwise
+     */
+    private static boolean writeFile(File file, final byte[] byteArray, final boolean compress) {
+        if (byteArray == null || byteArray.length == 0) {
+            //Returning when there is nothing to save
+            return false;
+        }
+
+        synchronized (sWriteLock) {
+            //Writing through a temporary file, so that the readers never see a partially written file
+            boolean written = FileStoreUtility.writeFile(file, new FileStoreUtility.StreamWriter() {
+                @Override
+                public void writeTo(OutputStream outputStream) throws IOException {
+                    if (compress) {
+                        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+                        gzipOutputStream.write(byteArray);
+                        gzipOutputStream.close();
+                    } else {
+                        outputStream.write(byteArray);
+                    }
+                }
+            });
+
+            //Trimming the Store to its bounds
+            trimToSize(file.getParentFile(), MAX_STORE_BYTES);
+
+            return written;
+        }
+    }
+
+    /**
+     * Method that reads and returns the bytes of the file passed
+     *
+     * @param file       is the {@link File} to be read
+     * @param decompress is a Boolean that when <b>TRUE</b> decompresses the bytes with GZIP
+     * @return Byte Array read, or null when the file is not present or could not be read
+     */
+    @Nullable
+    private static byte[] readFile(File file, boolean decompress) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        InputStream inputStream = null;
+        try {
+            inputStream = new BufferedInputStream(new FileInputStream(file));
+            if (decompress) {
+                inputStream = new GZIPInputStream(inputStream);
+            }
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            byte[] byteBuff = new byte[4096];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(byteBuff, 0, byteBuff.length)) > 0) {
+                byteArrayOutputStream.write(byteBuff, 0, bytesRead);
+            }
+            return byteArrayOutputStream.toByteArray();
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the file " + file.getName() + "\n", e);
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error occurred while closing the file stream\n", e);
+                }
+            }
+        }
+
+        //Returning null on failure
+        return null;
+    }
+
+    /**
+     * Method that marks the News Article as recently used, by updating the last modified time of its files
+     *
+     * @param storeDir   is the {@link File} of the Store directory
+     * @param articleKey is the identity of the News Article
+     */
+    private static void touch(File storeDir, String articleKey) {
+        long nowMillis = System.currentTimeMillis();
+        String fileBaseName = getFileBaseName(articleKey);
+        //(Failures are ignored, as they only affect the order of eviction)
+        new File(storeDir, fileBaseName + BODY_FILE_EXTENSION).setLastModified(nowMillis);
+        new File(storeDir, fileBaseName + IMAGE_FILE_EXTENSION).setLastModified(nowMillis);
+    }
+
+    /**
+     * Method that evicts the least recently used News Articles till the size of the Store is within the limit passed
+     *
+     * @param storeDir is the {@link File} of the Store directory
+     * @param maxBytes is the maximum size in bytes of the Store
+     */
+    private static void trimToSize(File storeDir, long maxBytes) {
+        File[] storeFiles = storeDir.listFiles();
+        if (storeFiles == null) {
+            return;
+        }
+
+        //Computing the size of the Store
+        long storeBytes = 0;
+        for (File storeFile : storeFiles) {
+            storeBytes += storeFile.length();
+        }
+        if (storeBytes <= maxBytes) {
+            //Returning when within the limit
+            return;
+        }
+
+        //Sorting the files by their last modified time, least recently used first
+        Arrays.sort(storeFiles, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                long lastModified1 = file1.lastModified();
+                long lastModified2 = file2.lastModified();
+                return lastModified1 < lastModified2 ? -1 : (lastModified1 == lastModified2 ? 0 : 1);
+            }
+        });
+
+        //Deleting both the files of the least recently used News Articles beyond the limit
+        for (int index = 0; index < storeFiles.length && storeBytes > maxBytes; index++) {
+            String fileName = storeFiles[index].getName();
+            int extensionIndex = fileName.lastIndexOf('.');
+            if (storeFiles[index].exists() && extensionIndex > 0) {
+                storeBytes -= deleteArticleFiles(storeDir, fileName.substring(0, extensionIndex));
+            }
+        }
+    }
+
+    /**
+     * Method that deletes the files of the News Article
+     *
+     * @param storeDir     is the {@link File} of the Store directory
+     * @param fileBaseName is the name of the files of the News Article, without the extension
+     * @return The number of bytes freed
+     */
+    private static long deleteArticleFiles(File storeDir, String fileBaseName) {
+        long bytesFreed = 0;
+        for (String extension : new String[]{BODY_FILE_EXTENSION, IMAGE_FILE_EXTENSION}) {
+            File articleFile = new File(storeDir, fileBaseName + extension);
+            long fileBytes = articleFile.length();
+            if (articleFile.exists()) {
+                if (articleFile.delete()) {
+                    bytesFreed += fileBytes;
+                } else {
+                    Log.e(LOG_TAG, "Error occurred while deleting the file " + articleFile.getName());
+                }
+            }
+        }
+        return bytesFreed;
+    }
+
+    /**
+     * Method that returns the Store directory, creating it if not present
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     * @return The {@link File} of the Store directory, or null when it could not be created
+     */
+    @Nullable
+    private static File getStoreDir(Context context) {
+        File storeDir = new File(context.getApplicationContext().getFilesDir(), STORE_DIR_NAME);
+        if (!storeDir.exists() && !storeDir.mkdirs()) {
+            Log.e(LOG_TAG, "Error occurred while creating the Store directory " + storeDir.getPath());
+            return null;
+        }
+        return storeDir;
+    }
+
+    /**
+     * Method that generates the name of the files of the News Article, without the extension,
+     * which is the MD5 hash of the identity of the News Article
+     *
+     * @param articleKey is the identity of the News Article
+     * @return String containing the name of the files of the News Article
+     */
+    private static String getFileBaseName(String articleKey) {
+        return FileStoreUtility.getHashedFileName(articleKey);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+import android.text.TextUtils;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+
+/**
+ * Class that saves the bodies of the News Articles rendered from Html for the in-app reader,
+ * in a Memory Cache {@link LruCache} keyed by the identity of the News Article,
+ * so that the reader shows a News Article pre-rendered in the background without any delay.
+ * <p>
+ * The bodies are saved without their images, which are bound from the {@link BitmapImageCache}
+ * when shown, so that the Bitmaps held here are always accounted for by the {@link BitmapImageCache}.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class RenderedArticleCache {
+
+    //Constant for the maximum number of rendered bodies retained in the Memory Cache
+    private static final int MAX_CACHED_ARTICLES = 8;
+
+    //Memory Cache to save the rendered bodies
+    private static final LruCache<String, RenderedArticle> sMemoryCache = new LruCache<>(MAX_CACHED_ARTICLES);
+
+    /**
+     * Private Constructor of {@link RenderedArticleCache}
+     */
+    private RenderedArticleCache() {
+    }
+
+    /**
+     * Method that retrieves the rendered body of the News Article from the Memory Cache
+     *
+     * @param articleKey is the identity of the News Article
+     * @return The {@link RenderedArticle}, or null when not present
+     */
+    @Nullable
+    public static RenderedArticle get(String articleKey) {
+        RenderedArticle renderedArticle = TextUtils.isEmpty(articleKey) ? null : sMemoryCache.get(articleKey);
+
+        //Counting the cache hit/miss
+        MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_RENDERED_ARTICLE
+                + (renderedArticle != null ? MetricsRegistry.SUFFIX_HIT : MetricsRegistry.SUFFIX_MISS));
+
+        return renderedArticle;
+    }
+
+    /**
+     * Method that returns whether the rendered body of the News Article is present in the Memory Cache,
+     * without counting it as a use
+     *
+     * @param articleKey is the identity of the News Article
+     * @return <b>TRUE</b> when present; <b>FALSE</b> otherwise
+     */
+    public static boolean contains(String articleKey) {
+        return !TextUtils.isEmpty(articleKey) && sMemoryCache.snapshot().containsKey(articleKey);
+    }
+
+    /**
+     * Method that saves the rendered body of the News Article to the Memory Cache
+     *
+     * @param articleKey      is the identity of the News Article
+     * @param renderedArticle is the {@link RenderedArticle} to be saved
+     */
+    public static void put(String articleKey, RenderedArticle renderedArticle) {
+        if (!TextUtils.isEmpty(articleKey) && renderedArticle != null) {
+            sMemoryCache.put(articleKey, renderedArticle);
+        }
+    }
+
+    /**
+     * Method that trims the Memory Cache to the fraction of its maximum size passed,
+     * by evicting the least recently used bodies. The Cache can grow back to its maximum size later.
+     *
+     * @param retainFraction is the fraction of the maximum size to be retained, from 0 to 1
+     * @return The number of bodies evicted
+     */
+    public static int trimToFraction(float retainFraction) {
+        int sizeBefore = sMemoryCache.size();
+        sMemoryCache.trimToSize((int) (sMemoryCache.maxSize() * retainFraction));
+        return sizeBefore - sMemoryCache.size();
+    }
+
+    /**
+     * Method that clears the entire Memory Cache
+     */
+    public static void clearCache() {
+        sMemoryCache.evictAll();
+    }
+
+    /**
+     * Class that holds the body of a News Article rendered for the reader
+     */
+    public static class RenderedArticle {
+
+        //The source Html of the body
+        private final String mBodyHtml;
+        //The rendered body, with placeholders for its images
+        private final CharSequence mSpanned;
+
+        /**
+         * Constructor of {@link RenderedArticle}
+         *
+         * @param bodyHtml is the String containing the source Html of the body
+         * @param spanned  is the rendered body, with placeholders for its images
+         */
+        public RenderedArticle(String bodyHtml, CharSequence spanned) {
+            mBodyHtml = bodyHtml;
+            mSpanned = spanned;
+        }
+
+        /**
+         * Method that returns the source Html of the body
+         *
+         * @return String containing the source Html of the body
+         */
+        public String getBodyHtml() {
+            return mBodyHtml;
+        }
+
+        /**
+         * Method that returns the rendered body, with placeholders for its images
+         * that are to be bound when shown
+         *
+         * @return The rendered body
+         */
+        public CharSequence getSpanned() {
+            return mSpanned;
+        }
+    }
+}
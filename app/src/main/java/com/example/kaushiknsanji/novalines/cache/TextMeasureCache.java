@@ -0,0 +1,283 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.widget.TextView;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class that saves the Ellipsis state of the Texts pre-measured on a worker thread,
+ * in a Memory Cache {@link LruCache} keyed by the Text, the width available and the style of the Text,
+ * so that the item views can be bound without walking the Layout of their TextViews on the main thread.
+ * <p>
+ * The Texts are laid out with the same line breaking attributes as their TextView, captured in the
+ * {@link MeasureParams}, so that the measurement agrees with the Layout of the TextView.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class TextMeasureCache {
+
+    //Constant for the maximum number of Texts whose measurements are retained in the Memory Cache
+    private static final int MAX_CACHED_MEASUREMENTS = 512;
+
+    //For the Singleton instance of this
+    private static TextMeasureCache sInstance;
+
+    //Memory Cache to save the Ellipsis state of the Texts measured
+    private LruCache<String, Boolean> mMemoryCache;
+
+    /**
+     * Private Constructor of {@link TextMeasureCache}
+     */
+    private TextMeasureCache() {
+        mMemoryCache = new LruCache<>(MAX_CACHED_MEASUREMENTS);
+    }
+
+    /**
+     * Singleton Constructor of {@link TextMeasureCache}.
+     * Synchronized as it is accessed from the main thread as well as the worker threads.
+     *
+     * @return Instance of {@link TextMeasureCache}
+     */
+    private static synchronized TextMeasureCache getInstance() {
+        if (sInstance == null) {
+            //Creating the instance when not available
+            sInstance = new TextMeasureCache();
+        }
+        //Using the previously created instance
+        return sInstance;
+    }
+
+    /**
+     * Method that retrieves the Ellipsis state of the Text from the Memory Cache, without measuring it when not present.
+     *
+     * @param measureParams is the {@link MeasureParams} of the TextView that displays the Text
+     * @param width         is the width available for the Text in pixels, excluding the paddings
+     * @param maxLines      is the maximum number of lines of the TextView, beyond which the Text is ellipsized
+     * @param text          is the Text to be displayed
+     * @return TRUE when the Text is ellipsized; FALSE when not ellipsized; or null when not measured yet
+     */
+    @Nullable
+    public static Boolean getEllipsizedFromCache(MeasureParams measureParams, int width, int maxLines, CharSequence text) {
+        Boolean isEllipsized = getInstance().mMemoryCache.get(getMeasureKey(measureParams, width, maxLines, text));
+
+        //Counting the cache hit/miss
+        MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_TEXT_MEASURE
+                + (isEllipsized != null ? MetricsRegistry.SUFFIX_HIT : MetricsRegistry.SUFFIX_MISS));
+
+        return isEllipsized;
+    }
+
+    /**
+     * Method that measures the Texts passed and saves their Ellipsis state in the Memory Cache, on a worker thread
+     * of the {@link TaskScheduler}.
+     *
+     * @param measureParams is the {@link MeasureParams} of the TextView that displays the Texts
+     * @param width         is the width available for the Texts in pixels, excluding the paddings
+     * @param maxLines      is the maximum number of lines of the TextView, beyond which the Text is ellipsized
+     * @param texts         is the List of Texts to be measured
+     */
+    public static void preMeasure(final MeasureParams measureParams, final int width, final int maxLines,
+                                  List<? extends CharSequence> texts) {
+        if (width <= 0 || texts == null || texts.size() == 0) {
+            //Returning when there is nothing to measure
+            return;
+        }
+
+        //Copying the Texts, as these are to be read on the worker thread
+        final List<CharSequence> textsCopy = new ArrayList<>(texts);
+
+        //Measuring on the Diff lane, behind the diffs of the feeds as the measurements are only an optimization
+        TaskScheduler.getInstance().submit(TaskScheduler.LANE_DIFF, TaskScheduler.PRIORITY_LOW, new Runnable() {
+            @Override
+            public void run() {
+                for (CharSequence text : textsCopy) {
+                    String measureKey = getMeasureKey(measureParams, width, maxLines, text);
+                    if (getInstance().mMemoryCache.get(measureKey) == null) {
+                        //Measuring only the Texts not measured before
+                        getInstance().mMemoryCache.put(measureKey, measureEllipsized(measureParams, width, maxLines, text));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Method that measures whether the Text passed gets ellipsized when displayed in the maximum number of lines passed.
+     * The Text with the End Ellipsis gets ellipsized only when it needs more lines than the maximum,
+     * hence the Text is laid out without the line limit and its line count is compared.
+     *
+     * @param measureParams is the {@link MeasureParams} to measure the Text with
+     * @param width         is the width available for the Text in pixels
+     * @param maxLines      is the maximum number of lines of the TextView, beyond which the Text is ellipsized
+     * @param text          is the Text to be measured
+     * @return TRUE when the Text is ellipsized; FALSE otherwise
+     */
+    private static boolean measureEllipsized(MeasureParams measureParams, int width, int maxLines, CharSequence text) {
+        if (TextUtils.isEmpty(text)) {
+            return false;
+        }
+        StaticLayout staticLayout;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            //For Android M and above, laying out with the line breaking of the TextView
+            staticLayout = buildStaticLayout(measureParams, width, text);
+        } else {
+            //For older versions, which break the lines the same way for all the TextViews
+            staticLayout = new StaticLayout(text, measureParams.mTextPaint, width, Layout.Alignment.ALIGN_NORMAL,
+                    measureParams.mSpacingMult, measureParams.mSpacingAdd, measureParams.mIncludePad);
+        }
+        return staticLayout.getLineCount() > maxLines;
+    }
+
+    /**
+     * Method that builds the {@link StaticLayout} of the Text with the {@link StaticLayout.Builder},
+     * applying the line breaking attributes of the TextView
+     *
+     * @param measureParams is the {@link MeasureParams} to lay out the Text with
+     * @param width         is the width available for the Text in pixels
+     * @param text          is the Text to be laid out
+     * @return The {@link StaticLayout} of the Text
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    private static StaticLayout buildStaticLayout(MeasureParams measureParams, int width, CharSequence text) {
+        return StaticLayout.Builder.obtain(text, 0, text.length(), measureParams.mTextPaint, width)
+                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                .setLineSpacing(measureParams.mSpacingAdd, measureParams.mSpacingMult)
+                .setIncludePad(measureParams.mIncludePad)
+                .setBreakStrategy(measureParams.mBreakStrategy)
+                .setHyphenationFrequency(measureParams.mHyphenationFrequency)
+                .build();
+    }
+
+    /**
+     * Method that generates the Key of the Memory Cache for the measurement of the Text,
+     * from the style of the Text, the width available and the Text itself
+     *
+     * @param measureParams is the {@link MeasureParams} of the TextView that displays the Text
+     * @param width         is the width available for the Text in pixels
+     * @param maxLines      is the maximum number of lines of the TextView
+     * @param text          is the Text to be measured
+     * @return String containing the Key of the measurement
+     */
+    private static String getMeasureKey(MeasureParams measureParams, int width, int maxLines, CharSequence text) {
+        return new StringBuilder()
+                .append(width).append('|')
+                .append(maxLines).append('|')
+                .append(measureParams.mStyleKey).append('|')
+                .append(text)
+                .toString();
+    }
+
+    /**
+     * Method that trims the Memory Cache to the fraction of its maximum size passed,
+     * by evicting the least recently used measurements. The Cache can grow back to its maximum size later.
+     *
+     * @param retainFraction is the fraction of the maximum size to be retained, from 0 to 1
+     * @return The number of measurements evicted
+     */
+    public static int trimToFraction(float retainFraction) {
+        LruCache<String, Boolean> memoryCache = getInstance().mMemoryCache;
+        int sizeBefore = memoryCache.size();
+        memoryCache.trimToSize((int) (memoryCache.maxSize() * retainFraction));
+        return sizeBefore - memoryCache.size();
+    }
+
+    /**
+     * Method that clears the entire Memory Cache
+     */
+    public static void clearCache() {
+        getInstance().mMemoryCache.evictAll();
+    }
+
+    /**
+     * Class that captures the style and the line breaking attributes of a TextView, that decide
+     * how its Text is laid out. Holds a copy of the {@link TextPaint} of the TextView,
+     * hence can be read on a worker thread.
+     */
+    public static class MeasureParams {
+
+        //Copy of the Paint of the TextView
+        private final TextPaint mTextPaint;
+        //Whether the TextView includes the font padding
+        private final boolean mIncludePad;
+        //The line spacing multiplier and extra of the TextView
+        private final float mSpacingMult;
+        private final float mSpacingAdd;
+        //The break strategy and the hyphenation frequency of the TextView, used on Android M and above
+        private final int mBreakStrategy;
+        private final int mHyphenationFrequency;
+        //The part of the Key of the measurements, generated from the attributes captured
+        private final String mStyleKey;
+
+        /**
+         * Constructor of {@link MeasureParams} that captures the attributes of the TextView passed
+         *
+         * @param textView is the TextView whose attributes are to be captured
+         */
+        public MeasureParams(TextView textView) {
+            mTextPaint = new TextPaint(textView.getPaint());
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                //For Android JB and above
+                mIncludePad = textView.getIncludeFontPadding();
+                mSpacingMult = textView.getLineSpacingMultiplier();
+                mSpacingAdd = textView.getLineSpacingExtra();
+            } else {
+                //For older versions, which use the defaults of the TextView
+                mIncludePad = true;
+                mSpacingMult = 1f;
+                mSpacingAdd = 0f;
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                //For Android M and above
+                mBreakStrategy = textView.getBreakStrategy();
+                mHyphenationFrequency = textView.getHyphenationFrequency();
+            } else {
+                //For older versions, which do not support these
+                mBreakStrategy = 0;
+                mHyphenationFrequency = 0;
+            }
+
+            mStyleKey = new StringBuilder()
+                    .append(mTextPaint.getTextSize()).append('|')
+                    .append(mTextPaint.getTextScaleX()).append('|')
+                    .append(mTextPaint.getTextSkewX()).append('|')
+                    .append(mTextPaint.getFlags()).append('|')
+                    .append(mTextPaint.getTypeface() != null ? mTextPaint.getTypeface().getStyle() : 0).append('|')
+                    .append(mIncludePad).append('|')
+                    .append(mSpacingMult).append('|')
+                    .append(mSpacingAdd).append('|')
+                    .append(mBreakStrategy).append('|')
+                    .append(mHyphenationFrequency)
+                    .toString();
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.cache;
+
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+import android.text.SpannedString;
+import android.text.TextUtils;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.utils.TextAppearanceUtility;
+
+import java.util.List;
+
+/**
+ * Class that saves the Trailing Texts of the News Articles converted from Html,
+ * in a Memory Cache {@link LruCache} keyed by the identity of the News Article,
+ * so that the Html is parsed at most once per Article and never on the bind of the item views.
+ *
+ * @author Kaushik N Sanji
+ */
+public class TrailTextSpannedCache {
+
+    //Constant for the maximum number of Trailing Texts retained in the Memory Cache
+    private static final int MAX_CACHED_TRAIL_TEXTS = 256;
+
+    //For the Singleton instance of this
+    private static TrailTextSpannedCache sInstance;
+
+    //Memory Cache to save the Trailing Texts converted
+    private LruCache<String, TrailTextEntry> mMemoryCache;
+
+    /**
+     * Private Constructor of {@link TrailTextSpannedCache}
+     */
+    private TrailTextSpannedCache() {
+        mMemoryCache = new LruCache<>(MAX_CACHED_TRAIL_TEXTS);
+    }
+
+    /**
+     * Singleton Constructor of {@link TrailTextSpannedCache}.
+     * Synchronized as it is accessed from the main thread as well as the worker threads.
+     *
+     * @return Instance of {@link TrailTextSpannedCache}
+     */
+    private static synchronized TrailTextSpannedCache getInstance() {
+        if (sInstance == null) {
+            //Creating the instance when not available
+            sInstance = new TrailTextSpannedCache();
+        }
+        //Using the previously created instance
+        return sInstance;
+    }
+
+    /**
+     * Method that returns the Key identifying the News Article passed, which is its Web URL,
+     * falling back to its API URL when the Web URL is not available
+     *
+     * @param newsArticleInfo is the {@link NewsArticleInfo} object of the News Article
+     * @return String containing the Key of the News Article
+     */
+    public static String getArticleKey(NewsArticleInfo newsArticleInfo) {
+        return TextUtils.isEmpty(newsArticleInfo.getWebUrl()) ? newsArticleInfo.getApiUrl() : newsArticleInfo.getWebUrl();
+    }
+
+    /**
+     * Method that retrieves the converted Trailing Text from the Memory Cache, without converting it when not present.
+     * Used on the bind of the item views, which should never parse the Html.
+     *
+     * @param articleKey   is the Key of the News Article, as returned by {@link #getArticleKey(NewsArticleInfo)}
+     * @param trailTextStr is the String containing the Html markup of the Trailing Text
+     * @return The converted Trailing Text, or null when not present in the Memory Cache
+     */
+    @Nullable
+    public static CharSequence getSpannedFromCache(String articleKey, String trailTextStr) {
+        if (TextUtils.isEmpty(articleKey) || TextUtils.isEmpty(trailTextStr)) {
+            return null;
+        }
+
+        TrailTextEntry trailTextEntry = getInstance().mMemoryCache.get(articleKey);
+        //Validating the Html of the entry, since the Trailing Text of an Article can be updated
+        CharSequence spanned = (trailTextEntry != null && trailTextEntry.mHtmlText.equals(trailTextStr)) ? trailTextEntry.mSpanned : null;
+
+        //Counting the cache hit/miss
+        MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_TRAIL_TEXT
+                + (spanned != null ? MetricsRegistry.SUFFIX_HIT : MetricsRegistry.SUFFIX_MISS));
+
+        return spanned;
+    }
+
+    /**
+     * Method that retrieves the converted Trailing Text from the Memory Cache,
+     * converting the Html and saving the result when not present.
+     *
+     * @param articleKey   is the Key of the News Article, as returned by {@link #getArticleKey(NewsArticleInfo)}
+     * @param trailTextStr is the String containing the Html markup of the Trailing Text
+     * @return The converted Trailing Text
+     */
+    public static CharSequence getOrCreateSpanned(String articleKey, String trailTextStr) {
+        if (TextUtils.isEmpty(trailTextStr)) {
+            //Returning the Empty string when there is no Trailing Text
+            return "";
+        }
+
+        TrailTextEntry trailTextEntry = TextUtils.isEmpty(articleKey) ? null : getInstance().mMemoryCache.get(articleKey);
+        if (trailTextEntry != null && trailTextEntry.mHtmlText.equals(trailTextStr)) {
+            //Returning the Trailing Text previously converted
+            return trailTextEntry.mSpanned;
+        }
+
+        //Converting the Html, copying it into an immutable text since it is shared across the item views
+        CharSequence spanned = new SpannedString(TextAppearanceUtility.fromHtml(trailTextStr));
+        if (!TextUtils.isEmpty(articleKey)) {
+            //Saving the converted text when the Article has an identity
+            getInstance().mMemoryCache.put(articleKey, new TrailTextEntry(trailTextStr, spanned));
+        }
+
+        //Returning the converted Trailing Text
+        return spanned;
+    }
+
+    /**
+     * Method that converts and saves the Trailing Texts of the News Articles passed, if not already present.
+     * To be called from a worker thread, ahead of the item views being expanded.
+     *
+     * @param newsArticleInfoList is the List of {@link NewsArticleInfo} objects whose Trailing Texts are to be converted
+     */
+    public static void prerender(List<NewsArticleInfo> newsArticleInfoList) {
+        if (newsArticleInfoList == null) {
+            return;
+        }
+
+        //Converting only up to the capacity of the Memory Cache, so that the Articles converted first are not evicted
+        for (int index = 0, count = Math.min(newsArticleInfoList.size(), MAX_CACHED_TRAIL_TEXTS); index < count; index++) {
+            NewsArticleInfo newsArticleInfo = newsArticleInfoList.get(index);
+            getOrCreateSpanned(getArticleKey(newsArticleInfo), newsArticleInfo.getTrailText());
+        }
+    }
+
+    /**
+     * Method that trims the Memory Cache to the fraction of its maximum size passed,
+     * by evicting the least recently used Trailing Texts. The Cache can grow back to its maximum size later.
+     *
+     * @param retainFraction is the fraction of the maximum size to be retained, from 0 to 1
+     * @return The number of Trailing Texts evicted
+     */
+    public static int trimToFraction(float retainFraction) {
+        LruCache<String, TrailTextEntry> memoryCache = getInstance().mMemoryCache;
+        int sizeBefore = memoryCache.size();
+        memoryCache.trimToSize((int) (memoryCache.maxSize() * retainFraction));
+        return sizeBefore - memoryCache.size();
+    }
+
+    /**
+     * Method that clears the entire Memory Cache
+     */
+    public static void clearCache() {
+        getInstance().mMemoryCache.evictAll();
+    }
+
+    /**
+     * Entry of the Memory Cache that saves the converted Trailing Text along with its source Html
+     */
+    private static class TrailTextEntry {
+
+        //The source Html of the Trailing Text
+        private final String mHtmlText;
+        //The converted Trailing Text
+        private final CharSequence mSpanned;
+
+        /**
+         * Constructor of {@link TrailTextEntry}
+         *
+         * @param htmlText is the String containing the source Html of the Trailing Text
+         * @param spanned  is the converted Trailing Text
+         */
+        TrailTextEntry(String htmlText, CharSequence spanned) {
+            mHtmlText = htmlText;
+            mSpanned = spanned;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.dialogs;
+
+import android.app.AlertDialog;
+import android.app.Dialog;
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.v4.app.DialogFragment;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+
+import java.io.File;
+
+/**
+ * {@link DialogFragment} class that inflates the layout 'R.layout.metrics_dialog'
+ * to display the report of the {@link MetricsRegistry}, with the options to reset
+ * the Metrics and dump them to a file. Shown only in the debug builds.
+ *
+ * @author Kaushik N Sanji
+ */
+public class MetricsDialogFragment extends DialogFragment implements View.OnClickListener {
+
+    //Constant used as a Fragment Tag identifier
+    public static final String METRICS_DIALOG_FRAGMENT_TAG = MetricsDialogFragment.class.getSimpleName();
+
+    //The TextView that displays the report of the Metrics
+    private TextView mReportTextView;
+
+    /**
+     * Static constructor of the DialogFragment {@link MetricsDialogFragment}
+     *
+     * @return Instance of the Fragment {@link MetricsDialogFragment}
+     */
+    public static MetricsDialogFragment newInstance() {
+        return new MetricsDialogFragment();
+    }
+
+    /**
+     * Method invoked by the system to create the Dialog to be shown.
+     * The layout 'R.layout.metrics_dialog' which contains the report
+     * of the Metrics will be inflated and returned as a Dialog.
+     *
+     * @param savedInstanceState The last saved instance state of the Fragment,
+     *                           or null if this is a freshly created Fragment.
+     * @return Return a new Dialog instance to be displayed by the Fragment.
+     */
+    @NonNull
+    @Override
+    public Dialog onCreateDialog(Bundle savedInstanceState) {
+        //Building the Dialog using the AlertDialog.Builder
+        AlertDialog.Builder dialogBuilder = new AlertDialog.Builder(getActivity());
+
+        //Inflating the layout of the Metrics report
+        //(Passing null as we are attaching the layout ourselves to a dialog)
+        View metricsLayoutView = LayoutInflater.from(getContext()).inflate(R.layout.metrics_dialog, null);
+
+        //Retrieving the TextView of the report and updating it with the current Metrics
+        mReportTextView = metricsLayoutView.findViewById(R.id.metrics_report_text_id);
+        updateReport();
+
+        //Retrieving the action buttons
+        Button resetButton = metricsLayoutView.findViewById(R.id.metrics_reset_btn_id);
+        Button dumpButton = metricsLayoutView.findViewById(R.id.metrics_dump_btn_id);
+        Button closeButton = metricsLayoutView.findViewById(R.id.metrics_close_btn_id);
+
+        //Setting the click listener on the buttons
+        resetButton.setOnClickListener(this);
+        dumpButton.setOnClickListener(this);
+        closeButton.setOnClickListener(this);
+
+        //Setting this prepared layout onto the dialog's builder
+        dialogBuilder.setView(metricsLayoutView);
+
+        //Returning the Dialog instance built
+        return dialogBuilder.create();
+    }
+
+    /**
+     * Method that updates the TextView with the current report of the Metrics
+     */
+    private void updateReport() {
+        mReportTextView.setText(MetricsRegistry.getReport());
+    }
+
+    /**
+     * Called when a view has been clicked.
+     *
+     * @param view The view that was clicked.
+     */
+    @Override
+    public void onClick(View view) {
+        //Evaluating based on the View's id
+        switch (view.getId()) {
+            case R.id.metrics_reset_btn_id:
+                //When the Reset button is clicked
+
+                //Clearing the Metrics recorded and refreshing the report
+                MetricsRegistry.reset();
+                updateReport();
+                break;
+            case R.id.metrics_dump_btn_id:
+                //When the Dump button is clicked
+
+                //Writing the report to a file and displaying its path
+                File dumpFile = MetricsRegistry.dumpToFile(requireContext());
+                if (dumpFile != null) {
+                    Toast.makeText(getContext(), getString(R.string.metrics_dialog_dump_success_msg, dumpFile.getPath()), Toast.LENGTH_LONG).show();
+                } else {
+                    Toast.makeText(getContext(), R.string.metrics_dialog_dump_error_msg, Toast.LENGTH_SHORT).show();
+                }
+                break;
+            case R.id.metrics_close_btn_id:
+                //When the Close button is clicked
+
+                //Dismissing the dialog
+                dismiss();
+                break;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.DialogFragment;
+import android.support.v4.app.Fragment;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.Button;
@@ -29,11 +30,13 @@ import android.widget.NumberPicker;
 import android.widget.Toast;
 
 import com.example.kaushiknsanji.novalines.R;
-import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
+import com.example.kaushiknsanji.novalines.interfaces.IPaginationView;
 
 /**
  * {@link DialogFragment} class that inflates the layout 'R.layout.page_number_picker_dialog'
- * to display the Number Picker for the user to select and jump to the page selected
+ * to display the Number Picker for the user to select and jump to the page selected.
+ * The page selected is delivered to the Target Fragment, which is the {@link IPaginationView}
+ * that showed the dialog.
  *
  * @author Kaushik N Sanji
  */
@@ -47,6 +50,7 @@ public class PaginationNumberPickerDialogFragment extends DialogFragment
     //Bundle Key constants for Dialog Fragment Arguments
     private static final String NUMBER_PICKER_MAX_VALUE_INT_KEY = "NumberPicker.MaxValue";
     private static final String NUMBER_PICKER_MIN_VALUE_INT_KEY = "NumberPicker.MinValue";
+    private static final String NUMBER_PICKER_CURRENT_VALUE_INT_KEY = "NumberPicker.CurrentValue";
 
     //Bundle Key constant used for restoring the value selected
     private static final String NUMBER_PICKER_SEL_VALUE_INT_KEY = "NumberPicker.SelectedValue";
@@ -57,18 +61,20 @@ public class PaginationNumberPickerDialogFragment extends DialogFragment
     /**
      * Static constructor of the DialogFragment {@link PaginationNumberPickerDialogFragment}
      *
-     * @param minValue is the Integer value of the Minimum number to be set on the Number Picker
-     * @param maxValue is the Integer value of the Maximum number to be set on the Number Picker
+     * @param minValue     is the Integer value of the Minimum number to be set on the Number Picker
+     * @param maxValue     is the Integer value of the Maximum number to be set on the Number Picker
+     * @param currentValue is the Integer value of the current page, preselected on the Number Picker
      * @return Instance of the Fragment {@link PaginationNumberPickerDialogFragment}
      */
-    public static PaginationNumberPickerDialogFragment newInstance(int minValue, int maxValue) {
+    public static PaginationNumberPickerDialogFragment newInstance(int minValue, int maxValue, int currentValue) {
         //Initializing this DialogFragment
         PaginationNumberPickerDialogFragment dialogFragment = new PaginationNumberPickerDialogFragment();
 
         //Storing the Arguments in a Bundle: START
-        final Bundle bundleArgs = new Bundle(2);
+        final Bundle bundleArgs = new Bundle(3);
         bundleArgs.putInt(NUMBER_PICKER_MIN_VALUE_INT_KEY, minValue);
         bundleArgs.putInt(NUMBER_PICKER_MAX_VALUE_INT_KEY, maxValue);
+        bundleArgs.putInt(NUMBER_PICKER_CURRENT_VALUE_INT_KEY, currentValue);
         //Storing the Arguments in a Bundle: END
 
         //Setting the Arguments
@@ -117,9 +123,9 @@ public class PaginationNumberPickerDialogFragment extends DialogFragment
         if (savedInstanceState != null) {
             //Restoring the selected value when instance have been saved
             mSelectedValue = savedInstanceState.getInt(NUMBER_PICKER_SEL_VALUE_INT_KEY);
-        } else {
-            //Defaulting the selected value to the current value of the 'page' (Page to Display) setting
-            mSelectedValue = PreferencesUtility.getStartPageIndex(getContext());
+        } else if (getArguments() != null) {
+            //Defaulting the selected value to the current value of the 'page' (Page to Display) index
+            mSelectedValue = getArguments().getInt(NUMBER_PICKER_CURRENT_VALUE_INT_KEY);
         }
         numberPicker.setValue(mSelectedValue);
         //Updating the preselected value of the NumberPicker: END
@@ -154,8 +160,11 @@ public class PaginationNumberPickerDialogFragment extends DialogFragment
             case R.id.page_number_picker_set_btn_id:
                 //When the Positive button is clicked
 
-                //Updating the 'page' value
-                PreferencesUtility.updateStartPageIndex(getContext(), mSelectedValue);
+                //Delivering the 'page' value selected to the view that showed the dialog
+                Fragment targetFragment = getTargetFragment();
+                if (targetFragment instanceof IPaginationView) {
+                    ((IPaginationView) targetFragment).onPaginationPageSelected(mSelectedValue);
+                }
 
                 dismiss(); //Dismissing the dialog in the end
 
@@ -17,7 +17,6 @@
 package com.example.kaushiknsanji.novalines.drawerviews;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -26,7 +25,7 @@ import android.support.v4.app.Fragment;
 import android.support.v4.view.ViewPager;
 import android.support.v7.app.ActionBar;
 import android.support.v7.app.AppCompatActivity;
-import android.support.v7.preference.PreferenceManager;
+import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.Toolbar;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -41,12 +40,12 @@ import com.example.kaushiknsanji.novalines.adapters.HeadlinesPagerAdapter;
 import com.example.kaushiknsanji.novalines.adapterviews.ArticlesFragment;
 import com.example.kaushiknsanji.novalines.adapterviews.HighlightsFragment;
 import com.example.kaushiknsanji.novalines.adapterviews.MoreNewsFragment;
+import com.example.kaushiknsanji.novalines.cache.NewsSectionSubscriptionStore;
 import com.example.kaushiknsanji.novalines.interfaces.IPaginationView;
+import com.example.kaushiknsanji.novalines.models.PaginationState;
 import com.example.kaushiknsanji.novalines.presenters.PaginationPresenter;
-import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 
 /**
  * Drawer Fragment that inflates the Coordinator layout 'R.layout.headlines_layout'
@@ -62,7 +61,8 @@ import java.util.Arrays;
 public class HeadlinesFragment extends Fragment
         implements TabLayout.OnTabSelectedListener,
         View.OnClickListener,
-        SharedPreferences.OnSharedPreferenceChangeListener, IPaginationView {
+        IPaginationView,
+        NewsSectionSubscriptionStore.OnSubscriptionsLoadedListener {
 
     //Constant used for logs
     private static final String LOG_TAG = HeadlinesFragment.class.getSimpleName();
@@ -74,6 +74,8 @@ public class HeadlinesFragment extends Fragment
     private static final String NEWS_SECTION_NAMES_LIST_KEY = "SubscribedNewsSectionNames";
     //Bundle key constant to save/restore the list of Subscribed News Category Ids
     private static final String NEWS_SECTION_IDS_LIST_KEY = "SubscribedNewsSectionIds";
+    //Constant for the maximum number of News Article Item Views retained in the pool shared by the Article tabs
+    private static final int ARTICLES_VIEW_POOL_MAX_SIZE = 15;
     //For the custom Toolbar used as ActionBar
     private Toolbar mToolbar;
     //For the ViewPager
@@ -84,8 +86,6 @@ public class HeadlinesFragment extends Fragment
     private TabLayout mTabLayout;
     //For the Pagination of content
     private View mPaginationPanel;
-    //For the Settings SharedPreferences
-    private SharedPreferences mPreferences;
     //For the Pagination buttons displayed at the bottom (when visible)
     private ImageButton mPageFirstButton;
     private ImageButton mPageLastButton;
@@ -97,6 +97,10 @@ public class HeadlinesFragment extends Fragment
     //For managing the subscribed list of News categories
     private ArrayList<String> mSubscribedNewsSectionNamesList;
     private ArrayList<String> mSubscribedNewsSectionIdsList;
+    //Saves whether the list of Subscribed News Categories is loaded
+    private boolean mSubscriptionsLoaded = false;
+    //For the pool of News Article Item Views shared by the RecyclerViews of all the Article tabs
+    private RecyclerView.RecycledViewPool mArticlesViewPool;
 
     /**
      * Constructor of {@link HeadlinesFragment}
@@ -130,12 +134,15 @@ public class HeadlinesFragment extends Fragment
         //Initializing the Toolbar as ActionBar
         setupToolBar();
 
-        //Retrieving the instance of SharedPreferences
-        mPreferences = PreferenceManager.getDefaultSharedPreferences(requireContext());
-
         //ViewPager for swiping through the Fragments
         mViewPager = rootView.findViewById(R.id.view_pager_id);
 
+        //Registering the Pagination Presenter ahead of the Tabs, as they read its Pagination state
+        mPaginationPresenter = new PaginationPresenter();
+        mPaginationPresenter.attachView(this);
+        //Restoring the Pagination state if previously saved
+        mPaginationPresenter.restoreState(savedInstanceState);
+
         //Adapter for ViewPager to display the correct fragment at the active position
         mViewPagerAdapter = new HeadlinesPagerAdapter(getChildFragmentManager());
 
@@ -148,6 +155,12 @@ public class HeadlinesFragment extends Fragment
         //Binding the Adapter to ViewPager
         mViewPager.setAdapter(mViewPagerAdapter);
 
+        if (!mSubscriptionsLoaded) {
+            //Requesting the persisted Subscribed News Categories when not restored from the saved state,
+            //which are loaded in the background and added as Tabs when ready (See #onSubscriptionsLoaded)
+            NewsSectionSubscriptionStore.getSubscriptions(requireContext(), this);
+        }
+
         //Tabs to be shown for the Fragments displayed in the ViewPager
         mTabLayout = rootView.findViewById(R.id.sliding_tabs_id);
 
@@ -171,10 +184,6 @@ public class HeadlinesFragment extends Fragment
         mPagePreviousButton.setOnClickListener(this);
         mPageMoreButton.setOnClickListener(this);
 
-        //Registering the Pagination Presenter
-        mPaginationPresenter = new PaginationPresenter();
-        mPaginationPresenter.attachView(this);
-
         if (savedInstanceState == null) {
             //On initial launch of this Fragment
 
@@ -209,6 +218,8 @@ public class HeadlinesFragment extends Fragment
         //Saving the subscribed list of News Categories
         outState.putStringArrayList(NEWS_SECTION_NAMES_LIST_KEY, mSubscribedNewsSectionNamesList);
         outState.putStringArrayList(NEWS_SECTION_IDS_LIST_KEY, mSubscribedNewsSectionIdsList);
+        //Saving the Pagination state
+        mPaginationPresenter.saveState(outState);
 
         super.onSaveInstanceState(outState);
     }
@@ -224,9 +235,6 @@ public class HeadlinesFragment extends Fragment
 
         //Registering the Listener on TabLayout
         mTabLayout.addOnTabSelectedListener(this);
-
-        //Registering the Preference Change Listener
-        mPreferences.registerOnSharedPreferenceChangeListener(this);
     }
 
     /**
@@ -240,25 +248,22 @@ public class HeadlinesFragment extends Fragment
         //UnRegistering the Listener on TabLayout
         mTabLayout.removeOnTabSelectedListener(this);
 
-        //UnRegistering the Preference Change Listener
-        mPreferences.unregisterOnSharedPreferenceChangeListener(this);
-
     }
 
     /**
-     * Method that resets the 'page' (Page to Display) setting to 1, when not 1
+     * Method that resets the 'page' (Page to Display) index to 1, when not 1
      */
     public void resetStartPageIndex() {
         mPaginationPresenter.resetStartPageIndex();
     }
 
     /**
-     * Method that resets/reapplies the value for the 'endIndex' preference setting
+     * Method that resets/reapplies the value for the 'endIndex' of the Pagination state
      *
      * @param endIndexValue Integer value of the last page index (specific to the fragment)
-     *                      to be applied to the 'endIndex' preference setting.
-     *                      When the value is <=0, the default value of 'page' preference setting
-     *                      will be applied to 'endIndex' preference setting
+     *                      to be applied to the 'endIndex'.
+     *                      When the value is <=0, the default value of 'page' index
+     *                      will be applied to 'endIndex'
      */
     public void resetEndPageIndex(int endIndexValue) {
         mPaginationPresenter.resetEndPageIndex(endIndexValue);
@@ -273,7 +278,8 @@ public class HeadlinesFragment extends Fragment
     }
 
     /**
-     * Method that loads the list of Subscribed News Categories.
+     * Method that loads the list of Subscribed News Categories from the saved state if present.
+     * Otherwise, the lists are left empty to be loaded from the {@link NewsSectionSubscriptionStore}.
      *
      * @param savedInstanceState If non-null, this fragment is being re-constructed
      *                           from a previous saved state which will contain
@@ -284,13 +290,11 @@ public class HeadlinesFragment extends Fragment
         if (savedInstanceState == null) {
             //On initial launch of this Fragment
 
-            //Initializing the lists to store the Subscribed News Categories
+            //Initializing the lists to store the Subscribed News Categories,
+            //which will be loaded from the persisted Subscriptions
             mSubscribedNewsSectionIdsList = new ArrayList<>();
             mSubscribedNewsSectionNamesList = new ArrayList<>();
-
-            //Retrieving the initial list of Subscribed News Categories
-            mSubscribedNewsSectionIdsList.addAll(Arrays.asList(getResources().getStringArray(R.array.news_fixed_section_ids)));
-            mSubscribedNewsSectionNamesList.addAll(Arrays.asList(getResources().getStringArray(R.array.news_fixed_section_names)));
+            mSubscriptionsLoaded = false;
 
         } else {
             //On subsequent launch of this Fragment
@@ -298,7 +302,52 @@ public class HeadlinesFragment extends Fragment
             //Retrieving the last saved list of Subscribed News Categories
             mSubscribedNewsSectionIdsList = savedInstanceState.getStringArrayList(NEWS_SECTION_IDS_LIST_KEY);
             mSubscribedNewsSectionNamesList = savedInstanceState.getStringArrayList(NEWS_SECTION_NAMES_LIST_KEY);
+            mSubscriptionsLoaded = true;
+        }
+    }
+
+    /**
+     * Method invoked on the main thread by the {@link NewsSectionSubscriptionStore}
+     * with the persisted Subscriptions. Inserts the Tabs of the Subscribed News Categories
+     * ahead of the "More News" Tab and triggers the load of the {@link HighlightsFragment}.
+     *
+     * @param sectionIdsList   is the List of the Ids of the Subscribed News Sections, in order
+     * @param sectionNamesList is the List of the Names of the Subscribed News Sections, in order
+     */
+    @Override
+    public void onSubscriptionsLoaded(ArrayList<String> sectionIdsList, ArrayList<String> sectionNamesList) {
+        if (mSubscriptionsLoaded || mViewPagerAdapter == null) {
+            //Returning when already loaded or the views are not available
+            return;
         }
+        mSubscriptionsLoaded = true;
+
+        //Inserting the Tabs of the Subscribed News Categories, after the "Highlights" Tab
+        for (int index = 0, size = sectionIdsList.size(); index < size; index++) {
+            mViewPagerAdapter.addFragment(
+                    ArticlesFragment.newInstance(sectionIdsList.get(index), index + 1),
+                    sectionNamesList.get(index),
+                    index + 1
+            );
+            addNewsSectionSubscribed(sectionNamesList.get(index), sectionIdsList.get(index));
+        }
+        //Notifying the ViewPager of the Tabs inserted, which only shifts the MoreNewsFragment
+        mViewPagerAdapter.notifyDataSetChanged();
+
+        //Triggering the load of Highlights for the Subscribed News Categories
+        Fragment fragment = mViewPagerAdapter.getRegisteredFragment(0);
+        if (fragment instanceof HighlightsFragment) {
+            ((HighlightsFragment) fragment).onSubscriptionsLoaded();
+        }
+    }
+
+    /**
+     * Method that returns whether the list of Subscribed News Categories is loaded
+     *
+     * @return <b>TRUE</b> when the list of Subscribed News Categories is loaded; <b>FALSE</b> otherwise
+     */
+    public boolean isSubscriptionsLoaded() {
+        return mSubscriptionsLoaded;
     }
 
     /**
@@ -512,38 +561,69 @@ public class HeadlinesFragment extends Fragment
     }
 
     /**
-     * Called when a shared preference is changed, added, or removed. This
-     * may be called even if a preference is set to its existing value.
+     * Method invoked by the {@link PaginationPresenter} when the index of the page to display has changed.
+     * Updates the Pagination Buttons and loads the page in the current Tab's Fragment.
      *
-     * @param sharedPreferences The {@link SharedPreferences} that received
-     *                          the change.
-     * @param key               The key of the preference that was changed, added, or removed
+     * @param startPageIndex is the Integer value of the index of the page to display
      */
     @Override
-    public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
-        if (key.equals(PreferencesUtility.getStartPageIndexKey(requireContext())) || key.equals(PreferencesUtility.getLastPageIndexKey(requireContext()))) {
-            //When the 'page' (Page to Display) setting  or the 'endIndex' setting value is changed
-            Log.d(LOG_TAG, "onSharedPreferenceChanged: Updating " + key);
+    public void onStartPageIndexChanged(int startPageIndex) {
+        Log.d(LOG_TAG, "onStartPageIndexChanged: Updating to page " + startPageIndex);
 
-            //Retrieving the current Tab's Fragment
-            Fragment fragment = mViewPagerAdapter.getRegisteredFragment(mViewPager.getCurrentItem());
-            if (fragment instanceof ArticlesFragment) {
-                //Casting to ArticlesFragment
-                ArticlesFragment articlesFragment = (ArticlesFragment) fragment;
-                Log.d(LOG_TAG, "onSharedPreferenceChanged: Updating for " + articlesFragment.getNewsTopicId());
-                Log.d(LOG_TAG, "onSharedPreferenceChanged: isVisible " + articlesFragment.getUserVisibleHint());
-                if (articlesFragment.isPaginatedView() && articlesFragment.getUserVisibleHint()) {
-                    //When the fragment is having paginated results
-                    //and is the one currently being viewed by the user
-
-                    //Updating the state of Pagination Buttons
-                    updatePaginationButtonsState();
-                }
+        if (mViewPagerAdapter == null) {
+            //Returning when the views are not available
+            return;
+        }
+
+        //Retrieving the current Tab's Fragment
+        Fragment fragment = mViewPagerAdapter.getRegisteredFragment(mViewPager.getCurrentItem());
+        if (fragment instanceof ArticlesFragment) {
+            //Casting to ArticlesFragment
+            ArticlesFragment articlesFragment = (ArticlesFragment) fragment;
+            Log.d(LOG_TAG, "onStartPageIndexChanged: Updating for " + articlesFragment.getNewsTopicId());
+            if (articlesFragment.isPaginatedView() && articlesFragment.getUserVisibleHint()) {
+                //When the fragment is having paginated results
+                //and is the one currently being viewed by the user
+
+                //Updating the state of Pagination Buttons
+                updatePaginationButtonsState();
             }
 
+            //Loading the page in the fragment
+            articlesFragment.onStartPageIndexChanged(startPageIndex);
         }
     }
 
+    /**
+     * Method invoked by the {@link com.example.kaushiknsanji.novalines.dialogs.PaginationNumberPickerDialogFragment}
+     * when the user has selected the page to jump to
+     *
+     * @param pageIndex is the Integer value of the index of the page selected
+     */
+    @Override
+    public void onPaginationPageSelected(int pageIndex) {
+        mPaginationPresenter.onPageSelected(pageIndex);
+    }
+
+    /**
+     * Method that returns the Pagination state of the Tabs, which provides the 'page'
+     * to be requested by the {@link ArticlesFragment}s
+     *
+     * @return The {@link PaginationState} of the Tabs
+     */
+    public PaginationState getPaginationState() {
+        return mPaginationPresenter.getPaginationState();
+    }
+
+    /**
+     * Method that returns the index of the page to display
+     *
+     * @return Integer value of the index of the page to display
+     */
+    public int getStartPageIndex() {
+        return mPaginationPresenter.getStartPageIndex();
+    }
+
     /**
      * Method that displays/hides the Pagination Panel
      * based on the value of visibility passed.
@@ -619,9 +699,12 @@ public class HeadlinesFragment extends Fragment
                 newsCategoryTitleStr,
                 currentMoreFragmentPosition //inserting at the same position of the MoreNewsFragment
         );
+        //Persisting the Subscription, so that it is not lost on a cold start
+        NewsSectionSubscriptionStore.addSubscription(requireContext(), newsCategoryIdStr, newsCategoryTitleStr);
         //Resetting 'page' setting value to 1
         resetStartPageIndex();
-        //Triggering the adapter to reload the stuff which invokes the adapter's getItemPosition method
+        //Notifying the ViewPager of the Tab inserted, which only shifts the MoreNewsFragment
+        //to the right, without reloading the Fragments of the other Tabs
         mViewPagerAdapter.notifyDataSetChanged();
         //Launching the News Category Tab added
         mViewPager.setCurrentItem(currentMoreFragmentPosition, true);
@@ -649,6 +732,43 @@ public class HeadlinesFragment extends Fragment
         return mViewPager;
     }
 
+    /**
+     * Getter method for the {@link RecyclerView.RecycledViewPool} shared by the RecyclerViews
+     * of all the {@link ArticlesFragment} tabs, so that switching the tabs reuses the
+     * News Article Item Views instead of inflating them again. Created on the first use.
+     *
+     * @return the {@link RecyclerView.RecycledViewPool} of the News Article Item Views
+     */
+    public RecyclerView.RecycledViewPool getArticlesViewPool() {
+        if (mArticlesViewPool == null) {
+            //Creating the pool when not available
+            mArticlesViewPool = new RecyclerView.RecycledViewPool();
+            //Retaining more views than the default, as the pool serves all the Article tabs
+            //(ArticlesAdapter uses the default view type)
+            mArticlesViewPool.setMaxRecycledViews(0, ARTICLES_VIEW_POOL_MAX_SIZE);
+        }
+        return mArticlesViewPool;
+    }
+
+    /**
+     * Called when the view previously created by {@link #onCreateView} has
+     * been detached from the fragment.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        //Stop waiting for the Subscriptions if not yet loaded
+        NewsSectionSubscriptionStore.removeListener(this);
+        //Releasing the Adapter of the ViewPager, so that the Subscriptions
+        //already dispatched to this Fragment are ignored (See #onSubscriptionsLoaded)
+        mViewPagerAdapter = null;
+        //Releasing the pooled Item Views along with the views of this Fragment
+        if (mArticlesViewPool != null) {
+            mArticlesViewPool.clear();
+            mArticlesViewPool = null;
+        }
+    }
+
     /**
      * Called when the fragment is no longer in use.  This is called
      * after {@link #onStop()} and before {@link #onDetach()}.
@@ -49,6 +49,7 @@ import android.view.ViewGroup;
 import android.widget.ImageButton;
 import android.widget.TextView;
 
+import com.example.kaushiknsanji.novalines.ArticleReaderActivity;
 import com.example.kaushiknsanji.novalines.R;
 import com.example.kaushiknsanji.novalines.adapters.ArticlesAdapter;
 import com.example.kaushiknsanji.novalines.errorviews.NetworkErrorFragment;
@@ -57,14 +58,16 @@ import com.example.kaushiknsanji.novalines.interfaces.IArticleActionView;
 import com.example.kaushiknsanji.novalines.interfaces.IPaginationView;
 import com.example.kaushiknsanji.novalines.interfaces.IRefreshActionView;
 import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.observers.ArticlePrerenderScrollListener;
 import com.example.kaushiknsanji.novalines.observers.BaseRecyclerViewScrollListener;
+import com.example.kaushiknsanji.novalines.observers.ImageViewportScrollListener;
 import com.example.kaushiknsanji.novalines.presenters.BookmarkActionPresenter;
 import com.example.kaushiknsanji.novalines.presenters.FavoriteActionPresenter;
 import com.example.kaushiknsanji.novalines.presenters.PaginationPresenter;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
 import com.example.kaushiknsanji.novalines.utils.IntentUtility;
 import com.example.kaushiknsanji.novalines.utils.NewsURLGenerator;
 import com.example.kaushiknsanji.novalines.utils.PreferencesObserverUtility;
-import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
 import com.example.kaushiknsanji.novalines.utils.RecyclerViewItemDecorUtility;
 import com.example.kaushiknsanji.novalines.utils.RecyclerViewUtility;
 import com.example.kaushiknsanji.novalines.utils.TextAppearanceUtility;
@@ -177,6 +180,12 @@ public class RandomNewsFragment extends Fragment
     //Saves the top visible Adapter Item position
     private int mVisibleItemViewPosition;
 
+    //Saves whether the next load can be answered from the pages saved for a related query
+    private boolean mLocalQueryAllowed;
+
+    //Saves whether a refresh was requested by the user, which needs to load from the network
+    private boolean mRefreshPending;
+
     //For the Pagination buttons displayed at the bottom (when visible)
     private ImageButton mPageFirstButton;
     private ImageButton mPageLastButton;
@@ -248,9 +257,6 @@ public class RandomNewsFragment extends Fragment
         //Reading the List of Preference Keys to exclude while triggering the loader to load data
         mKeysToExclude = PreferencesObserverUtility.getPreferenceKeysToExclude(requireContext());
 
-        //Initializing the URL Generator for use with the NewsArticlesLoader
-        mUrlGenerator = new NewsURLGenerator(requireContext());
-
         //Initializing the Array of Loader IDs: START
         mLoaderIds = new int[LOADER_COUNT_PER_FRAG];
         int startLoaderId = getId();
@@ -307,6 +313,12 @@ public class RandomNewsFragment extends Fragment
         //Registering the Pagination Presenter
         mPaginationPresenter = new PaginationPresenter();
         mPaginationPresenter.attachView(this);
+        //Restoring the Pagination state if previously saved
+        mPaginationPresenter.restoreState(savedInstanceState);
+
+        //Initializing the URL Generator for use with the NewsArticlesLoader,
+        //which requests the 'page' of the Pagination state
+        mUrlGenerator = new NewsURLGenerator(requireContext(), mPaginationPresenter.getPaginationState());
 
         //Finding the "Error View"
         mErrorView = mSearchResultsView.findViewById(R.id.error_frame_id);
@@ -414,6 +426,8 @@ public class RandomNewsFragment extends Fragment
         outState.putString(SEARCH_VIEW_QUERY_STR_KEY, mSearchQueryStr);
         //Saving the Search Query being entered by the user
         outState.putString(SEARCH_VIEW_QUERY_IN_PROGRESS_STR_KEY, mSearchQueryInProgressStr);
+        //Saving the Pagination state
+        mPaginationPresenter.saveState(outState);
 
         super.onSaveInstanceState(outState);
     }
@@ -669,6 +683,12 @@ public class RandomNewsFragment extends Fragment
         //Registering the OnAdapterItemPopupMenuClickListener
         mRecyclerAdapter.setOnAdapterItemPopupMenuClickListener(this);
 
+        //Registering the scroll listener that prioritizes the News Thumbnails of the item views on the screen
+        mRecyclerView.addOnScrollListener(new ImageViewportScrollListener(mRecyclerAdapter.getImageLoader()));
+
+        //Registering the scroll listener that pre-renders the News Articles on the screen for the reader
+        mRecyclerView.addOnScrollListener(new ArticlePrerenderScrollListener(mRecyclerAdapter));
+
         //Registering the pagination scroll listener on RecyclerView for paginated views
         mRecyclerView.addOnScrollListener(new RecyclerViewScrollListener(this, VSCROLL_PAGINATION_TRIGGER_POS));
         //Setting the Item Decor on RecyclerView for proper Card Item and Paginated Buttons spacing
@@ -728,6 +748,19 @@ public class RandomNewsFragment extends Fragment
         }
     }
 
+    /**
+     * Called when the view previously created by {@link #onCreateView} has
+     * been detached from the fragment.
+     */
+    @Override
+    public void onDestroyView() {
+        //Canceling the News Thumbnail downloads still pending for the RecyclerView
+        if (mRecyclerAdapter != null) {
+            mRecyclerAdapter.cancelPendingTasks();
+        }
+        super.onDestroyView();
+    }
+
     /**
      * Called when the fragment is no longer in use.  This is called
      * after {@link #onStop()} and before {@link #onDetach()}.
@@ -756,6 +789,12 @@ public class RandomNewsFragment extends Fragment
             public void run() {
                 //Scrolling over to first item after data load with a delay of 10ms
                 scrollToItemPosition(mVisibleItemViewPosition, false);
+
+                //Pre-rendering the News Articles on the screen for the reader
+                mRecyclerAdapter.prerenderArticles(
+                        RecyclerViewUtility.getFirstVisibleItemPosition(mRecyclerView),
+                        RecyclerViewUtility.getLastVisibleItemPosition(mRecyclerView)
+                );
             }
         }, 10); //This delay is for the animations to complete
 
@@ -839,8 +878,8 @@ public class RandomNewsFragment extends Fragment
      */
     @Override
     public void onItemClick(NewsArticleInfo newsArticleInfo) {
-        //Launching the News Article in a Web Browser
-        IntentUtility.openLink(requireContext(), newsArticleInfo.getWebUrl());
+        //Launching the News Article in the in-app reader
+        ArticleReaderActivity.start(requireContext(), newsArticleInfo);
     }
 
     /**
@@ -924,6 +963,32 @@ public class RandomNewsFragment extends Fragment
         }
     }
 
+    /**
+     * Method invoked by the {@link PaginationPresenter} when the index of the page to display has changed
+     *
+     * @param startPageIndex is the Integer value of the index of the page to display
+     */
+    @Override
+    public void onStartPageIndexChanged(int startPageIndex) {
+        Log.d(LOG_TAG, "onStartPageIndexChanged: page " + startPageIndex);
+        //Resetting to the position of top item
+        mVisibleItemViewPosition = 0;
+
+        //Triggering a new data load only if the page has changed
+        checkAndReloadData();
+    }
+
+    /**
+     * Method invoked by the {@link com.example.kaushiknsanji.novalines.dialogs.PaginationNumberPickerDialogFragment}
+     * when the user has selected the page to jump to
+     *
+     * @param pageIndex is the Integer value of the index of the page selected
+     */
+    @Override
+    public void onPaginationPageSelected(int pageIndex) {
+        mPaginationPresenter.onPageSelected(pageIndex);
+    }
+
     /**
      * Method that compares the URL previously used by an existing loader
      * with the URL generated using the current parameters to trigger a new data load only if necessary
@@ -947,9 +1012,13 @@ public class RandomNewsFragment extends Fragment
                 if (!newRequestURLStr.equals(requestURLStr)) {
                     //When the URLs are different, reload the data
                     Log.d(LOG_TAG, "checkAndReloadData: Reloading data");
+                    //(Permitting the News Query to be answered locally, unless a refresh was requested)
+                    mLocalQueryAllowed = !mRefreshPending;
                     triggerLoad(true);
                 }
             }
+            //Clearing the refresh request once the parameters were checked
+            mRefreshPending = false;
         }
     }
 
@@ -988,7 +1057,12 @@ public class RandomNewsFragment extends Fragment
             //Returning the Instance of NewsArticlesLoader
             URL searchURL = mUrlGenerator.createSearchURL(mSearchQueryStr);
             Log.d(LOG_TAG, "onCreateLoader: SearchURL " + searchURL);
-            return new NewsArticlesLoader(getActivity(), searchURL);
+            //Loading at high priority as the search results are always in view
+            NewsArticlesLoader articlesLoader = new NewsArticlesLoader(getActivity(), searchURL, TaskScheduler.PRIORITY_HIGH);
+            //Permitting the News Query to be answered locally only for the load triggered by the change in parameters
+            articlesLoader.setLocalQueryAllowed(mLocalQueryAllowed);
+            mLocalQueryAllowed = false;
+            return articlesLoader;
         }
         return null;
     }
@@ -1032,8 +1106,8 @@ public class RandomNewsFragment extends Fragment
                     Log.d(LOG_TAG, "onLoadFinished: NO DATA RETURNED");
 
                     //Retrying if the current page is not the first page
-                    if (PreferencesUtility.getStartPageIndex(getContext(), mPreferences) > 1) {
-                        //When not on first page, reset the 'page' setting value to 1,
+                    if (mPaginationPresenter.getStartPageIndex() > 1) {
+                        //When not on first page, reset the 'page' index to 1,
                         //to refresh the content and show the first page if possible
                         mPaginationPresenter.resetStartPageIndex();
 
@@ -1192,9 +1266,10 @@ public class RandomNewsFragment extends Fragment
         //Resetting the top visible item position to 0, prior to refresh
         mVisibleItemViewPosition = 0;
 
-        if (PreferencesUtility.getStartPageIndex(getContext(), mPreferences) > 1) {
-            //When not on first page, reset the 'page' setting value to 1
+        if (mPaginationPresenter.getStartPageIndex() > 1) {
+            //When not on first page, reset the 'page' index to 1
             //to refresh the content and show the first page
+            mRefreshPending = true;
             mPaginationPresenter.resetStartPageIndex();
         } else {
             //Else, forcefully trigger a new data load
@@ -1221,7 +1296,7 @@ public class RandomNewsFragment extends Fragment
         mSearchQueryInProgressStr = "";
         //Ensuring that the Intro view is hidden
         hideIntroView();
-        //Triggering content refresh (instead of trigger load since the 'page' setting value might be > 1)
+        //Triggering content refresh (instead of trigger load since the 'page' index might be > 1)
         triggerRefresh();
         //Clearing the focus on SearchView
         mSearchView.clearFocus();
@@ -1280,5 +1355,19 @@ public class RandomNewsFragment extends Fragment
             showPaginationPanel(verticalScrollAmount > 0);
         }
 
+        /**
+         * Callback Method invoked with the range of item views that lie ahead in the direction
+         * of the scroll, for prefetching their News Thumbnails
+         *
+         * @param fromPosition is the position of the first item view of the range, inclusive
+         * @param toPosition   is the position of the last item view of the range, inclusive
+         */
+        @Override
+        public void onPrefetchRange(int fromPosition, int toPosition) {
+            if (mRecyclerAdapter != null) {
+                mRecyclerAdapter.prefetchThumbnails(fromPosition, toPosition);
+            }
+        }
+
     }
 }
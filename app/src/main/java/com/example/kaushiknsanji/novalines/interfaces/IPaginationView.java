@@ -79,4 +79,20 @@ public interface IPaginationView extends IGenericView {
      */
     ImageButton getPageMoreButton();
 
+    /**
+     * Method invoked by the {@link com.example.kaushiknsanji.novalines.presenters.PaginationPresenter}
+     * when the index of the page to display has changed, to load the page
+     *
+     * @param startPageIndex is the Integer value of the index of the page to display
+     */
+    void onStartPageIndexChanged(int startPageIndex);
+
+    /**
+     * Method invoked by the {@link com.example.kaushiknsanji.novalines.dialogs.PaginationNumberPickerDialogFragment}
+     * when the user has selected the page to jump to
+     *
+     * @param pageIndex is the Integer value of the index of the page selected
+     */
+    void onPaginationPageSelected(int pageIndex);
+
 }
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.metrics;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lightweight process-wide registry of the Metrics of the hot paths of the App -
+ * <ul>
+ * <li>Counters, for counting events like the cache hits and misses</li>
+ * <li>Timers, for recording the latencies into a histogram with exponential buckets</li>
+ * <li>Histograms, for recording other values like the response sizes</li>
+ * </ul>
+ * All the methods are thread-safe and cheap enough to be called from the hot paths.
+ * Counter pairs named with the suffixes {@link #SUFFIX_HIT} and {@link #SUFFIX_MISS}
+ * are reported along with their hit ratio.
+ *
+ * @author Kaushik N Sanji
+ */
+public class MetricsRegistry {
+
+    //Constants for the suffixes of the Counter pairs reported with the hit ratio
+    public static final String SUFFIX_HIT = ".hit";
+    public static final String SUFFIX_MISS = ".miss";
+    //Constants for the names of the Metrics recorded by the App: START
+    //For the News API requests
+    public static final String NET_JSON_REQUEST = "net.json.request";
+    public static final String NET_JSON_FAILURE = "net.json.failure";
+    public static final String NET_JSON_RESPONSE_CHARS = "net.json.responseChars";
+    //For the News Feed requests that shared the result of an identical request in flight
+    public static final String NET_JSON_COALESCED = "net.json.coalesced";
+    //For the refreshes of the News Feed pages, done in full or incrementally
+    public static final String FEED_SYNC_FULL = "feed.sync.full";
+    public static final String FEED_SYNC_INCREMENTAL = "feed.sync.incremental";
+    //For the parsing of the News API responses
+    public static final String PARSE_ARTICLES = "parse.articles";
+    public static final String PARSE_SECTION = "parse.section";
+    //For the Image downloads and decodes
+    public static final String NET_IMAGE_REQUEST = "net.image.request";
+    public static final String NET_IMAGE_FAILURE = "net.image.failure";
+    public static final String IMAGE_DECODE = "image.decode";
+    public static final String IMAGE_FOOTPRINT_BYTES = "image.footprintBytes";
+    //For the Image requests parked when far outside the viewport, and reordered by their distance from the viewport
+    public static final String IMAGE_REQUEST_PARKED = "image.request.parked";
+    public static final String IMAGE_REQUEST_REPRIORITIZED = "image.request.reprioritized";
+    //For the Images prefetched ahead of the scroll
+    public static final String IMAGE_PREFETCH = "image.prefetch";
+    //For the Bitmap Memory Cache, reported with the hit ratio
+    public static final String CACHE_BITMAP = "cache.bitmap";
+    //For the Disk Cache of the News Article pages, reported with the hit ratio
+    public static final String CACHE_PAGE = "cache.page";
+    //For the Memory Cache of the Trail Text Spans, reported with the hit ratio
+    public static final String CACHE_TRAIL_TEXT = "cache.trailText";
+    //For the Memory Cache of the Text measurements, reported with the hit ratio
+    public static final String CACHE_TEXT_MEASURE = "cache.textMeasure";
+    //For the canonical News Articles shared across the tabs and pages, reported with the hit ratio
+    public static final String CACHE_ARTICLE_IDENTITY = "cache.articleIdentity";
+    //For the News queries answered from the pages saved, reported with the hit ratio
+    public static final String CACHE_LOCAL_QUERY = "cache.localQuery";
+    //For the fresh News Sections reused by the Highlights refresh, reported with the hit ratio,
+    //and the retries of the News Sections that failed to load
+    public static final String CACHE_HIGHLIGHT_SECTION = "cache.highlightSection";
+    public static final String HIGHLIGHT_SECTION_RETRY = "highlight.section.retry";
+    //For the downloads of the News Articles marked for 'Read Later', and their Store read for offline, reported with the hit ratio
+    public static final String READ_LATER_PREFETCH = "readLater.prefetch";
+    public static final String READ_LATER_PREFETCH_FAILURE = "readLater.prefetch.failure";
+    public static final String CACHE_READ_LATER = "cache.readLater";
+    //For the bodies of the News Articles rendered for the in-app reader: the Memory Cache reported with the hit ratio,
+    //the time taken to render, and the bodies rendered ahead of being opened
+    public static final String CACHE_RENDERED_ARTICLE = "cache.renderedArticle";
+    public static final String READER_RENDER = "reader.render";
+    public static final String READER_PRERENDER = "reader.prerender";
+    //For the DiffUtil computations
+    public static final String DIFF_ARTICLES = "diff.articles";
+    public static final String DIFF_HIGHLIGHTS = "diff.highlights";
+    //For the RecyclerView binds
+    public static final String BIND_ARTICLE = "bind.article";
+    public static final String BIND_HIGHLIGHT = "bind.highlight";
+    //For the trims of the Memory Caches on memory pressure: the trims by the level, and the amounts released
+    public static final String MEMORY_TRIM_LEVEL_PREFIX = "memory.trim.level.";
+    public static final String MEMORY_TRIM_BITMAP_BYTES = "memory.trim.bitmapBytes";
+    public static final String MEMORY_TRIM_TRAIL_TEXT_ENTRIES = "memory.trim.trailTextEntries";
+    public static final String MEMORY_TRIM_TEXT_MEASURE_ENTRIES = "memory.trim.textMeasureEntries";
+    public static final String MEMORY_TRIM_RENDERED_ARTICLE_ENTRIES = "memory.trim.renderedArticleEntries";
+    //Prefix for the Startup phases
+    public static final String STARTUP_PREFIX = "startup.";
+    //Prefixes for the tasks of the Scheduler lanes, suffixed by the name of the lane
+    public static final String SCHEDULER_WAIT_PREFIX = "scheduler.wait.";
+    public static final String SCHEDULER_CANCELED_PREFIX = "scheduler.canceled.";
+    //Constants for the names of the Metrics recorded by the App: END
+    //Constant used for logs
+    private static final String LOG_TAG = MetricsRegistry.class.getSimpleName();
+    //Constant for the name of the directory of the Metrics dumps
+    private static final String DUMP_DIR_NAME = "metrics";
+
+    //Saves the Counters by their names
+    private static final ConcurrentHashMap<String, AtomicLong> sCounters = new ConcurrentHashMap<>();
+
+    //Saves the Histograms by their names
+    private static final ConcurrentHashMap<String, Histogram> sHistograms = new ConcurrentHashMap<>();
+
+    /**
+     * Method that increments the Counter of the name passed by 1
+     *
+     * @param name is the String name of the Counter
+     */
+    public static void incrementCounter(String name) {
+        incrementCounter(name, 1L);
+    }
+
+    /**
+     * Method that increments the Counter of the name passed by the value passed
+     *
+     * @param name  is the String name of the Counter
+     * @param delta is the value to be added to the Counter
+     */
+    public static void incrementCounter(String name, long delta) {
+        AtomicLong counter = sCounters.get(name);
+        if (counter == null) {
+            //Registering the Counter when not present
+            AtomicLong newCounter = new AtomicLong();
+            counter = sCounters.putIfAbsent(name, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        counter.addAndGet(delta);
+    }
+
+    /**
+     * Method that returns the current value of the Counter of the name passed
+     *
+     * @param name is the String name of the Counter
+     * @return The current value of the Counter, or 0 when not registered
+     */
+    public static long getCounter(String name) {
+        AtomicLong counter = sCounters.get(name);
+        return counter == null ? 0L : counter.get();
+    }
+
+    /**
+     * Method that starts a Timer, to be stopped with {@link #stopTimer(String, long)}
+     *
+     * @return The start time of the Timer in nanoseconds
+     */
+    public static long startTimer() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Method that stops the Timer started with {@link #startTimer()} and records
+     * the time elapsed in microseconds, into the Histogram of the name passed
+     *
+     * @param name       is the String name of the Timer
+     * @param startNanos is the start time of the Timer in nanoseconds
+     * @return The time elapsed in microseconds
+     */
+    public static long stopTimer(String name, long startNanos) {
+        long elapsedMicros = (System.nanoTime() - startNanos) / 1000L;
+        recordValue(name, elapsedMicros);
+        return elapsedMicros;
+    }
+
+    /**
+     * Method that records the value passed into the Histogram of the name passed
+     *
+     * @param name  is the String name of the Histogram
+     * @param value is the non-negative value to be recorded
+     */
+    public static void recordValue(String name, long value) {
+        Histogram histogram = sHistograms.get(name);
+        if (histogram == null) {
+            //Registering the Histogram when not present
+            Histogram newHistogram = new Histogram();
+            histogram = sHistograms.putIfAbsent(name, newHistogram);
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+        histogram.record(value);
+    }
+
+    /**
+     * Method that clears all the Metrics recorded
+     */
+    public static void reset() {
+        sCounters.clear();
+        sHistograms.clear();
+    }
+
+    /**
+     * Method that returns the report of all the Metrics recorded, sorted by their names
+     *
+     * @return String containing the report of all the Metrics
+     */
+    public static String getReport() {
+        StringBuilder reportBuilder = new StringBuilder();
+
+        //Reporting the Counters: START
+        reportBuilder.append("COUNTERS\n");
+        Map<String, AtomicLong> sortedCounters = new TreeMap<>(sCounters);
+        for (Map.Entry<String, AtomicLong> counterEntry : sortedCounters.entrySet()) {
+            reportBuilder.append(counterEntry.getKey()).append(" = ").append(counterEntry.getValue().get()).append('\n');
+        }
+        //Reporting the Counters: END
+
+        //Reporting the Hit ratios: START
+        reportBuilder.append("\nHIT RATIOS\n");
+        for (String counterName : sortedCounters.keySet()) {
+            if (counterName.endsWith(SUFFIX_HIT)) {
+                String baseName = counterName.substring(0, counterName.length() - SUFFIX_HIT.length());
+                long hits = getCounter(counterName);
+                long total = hits + getCounter(baseName + SUFFIX_MISS);
+                reportBuilder.append(baseName).append(" = ")
+                        .append(total == 0 ? "n/a" : String.format(Locale.US, "%.1f%%", hits * 100f / total))
+                        .append(" of ").append(total).append('\n');
+            }
+        }
+        //Reporting the Hit ratios: END
+
+        //Reporting the Histograms: START
+        reportBuilder.append("\nTIMERS (us) / HISTOGRAMS\n");
+        Map<String, Histogram> sortedHistograms = new TreeMap<>(sHistograms);
+        for (Map.Entry<String, Histogram> histogramEntry : sortedHistograms.entrySet()) {
+            reportBuilder.append(histogramEntry.getKey()).append(" : ").append(histogramEntry.getValue()).append('\n');
+        }
+        //Reporting the Histograms: END
+
+        //Returning the report prepared
+        return reportBuilder.toString();
+    }
+
+    /**
+     * Method that writes the report of all the Metrics recorded to a timestamped file
+     * in the App's files directory
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     * @return The {@link File} written, or null when the report could not be written
+     */
+    @Nullable
+    public static File dumpToFile(Context context) {
+        //Retrieving the directory of the dumps
+        File dumpDir = new File(context.getApplicationContext().getFilesDir(), DUMP_DIR_NAME);
+        if (!dumpDir.exists() && !dumpDir.mkdirs()) {
+            Log.e(LOG_TAG, "Error occurred while creating the directory " + dumpDir.getPath());
+            return null;
+        }
+
+        //Creating the timestamped file
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File dumpFile = new File(dumpDir, "metrics-" + timestamp + ".txt");
+
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(dumpFile), "UTF-8");
+            writer.write(getReport());
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while writing the Metrics to " + dumpFile.getPath() + "\n", e);
+            return null;
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error occurred while closing the Metrics file\n", e);
+                }
+            }
+        }
+
+        //Returning the file written
+        return dumpFile;
+    }
+
+    /**
+     * Histogram with exponential (power of 2) buckets, that records the count, sum, maximum
+     * and the distribution of the values to estimate the percentiles
+     */
+    private static class Histogram {
+
+        //Constant for the number of buckets, covering the values up to 2^39
+        private static final int BUCKET_COUNT = 40;
+
+        //The count of values recorded in each bucket, where the bucket 'i' holds the values below 2^i
+        private final long[] mBuckets = new long[BUCKET_COUNT];
+        //The count of values recorded
+        private long mCount;
+        //The sum of values recorded
+        private long mSum;
+        //The maximum value recorded
+        private long mMax;
+
+        /**
+         * Method that records the value passed
+         *
+         * @param value is the non-negative value to be recorded
+         */
+        synchronized void record(long value) {
+            long safeValue = Math.max(0L, value);
+            int bucketIndex = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(safeValue));
+            mBuckets[bucketIndex]++;
+            mCount++;
+            mSum += safeValue;
+            mMax = Math.max(mMax, safeValue);
+        }
+
+        /**
+         * Method that estimates the upper bound of the percentile passed from the buckets
+         *
+         * @param percentile is the percentile to be estimated, from 0 to 1
+         * @return The estimated upper bound of the percentile
+         */
+        private long estimatePercentile(double percentile) {
+            long threshold = (long) Math.ceil(mCount * percentile);
+            long cumulativeCount = 0;
+            for (int index = 0; index < BUCKET_COUNT; index++) {
+                cumulativeCount += mBuckets[index];
+                if (cumulativeCount >= threshold) {
+                    //Returning the upper bound of the bucket, capped by the maximum value recorded
+                    return Math.min(mMax, (1L << index) - 1);
+                }
+            }
+            return mMax;
+        }
+
+        /**
+         * Returns a string representation of the Histogram.
+         *
+         * @return String containing the count, mean, percentiles and the maximum value recorded
+         */
+        @Override
+        public synchronized String toString() {
+            if (mCount == 0) {
+                return "count=0";
+            }
+            return String.format(Locale.US, "count=%d mean=%d p50<=%d p90<=%d p99<=%d max=%d",
+                    mCount, mSum / mCount, estimatePercentile(0.5), estimatePercentile(0.9),
+                    estimatePercentile(0.99), mMax);
+        }
+    }
+
+}
@@ -69,12 +69,12 @@ public class NewsArticleInfo implements Parcelable {
     };
     //Constant for the DateTime format used in the Published Date of the News article
     private static final String ISO_DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    //Stores the unique ID of the News article, as assigned by the News API
+    private String mArticleId;
     //Stores the Section ID of a particular News article
     private String mSectionId;
     //Stores the Section Name of the News article
     private String mSectionName;
-    //Stores the total count of articles found for the News query
-    private int mNewsArticleCount;
     //Stores the Published Date of the News article
     private String mPublishedDate;
     //Stores the Title of the News Article
@@ -102,9 +102,9 @@ public class NewsArticleInfo implements Parcelable {
      * @param in is the Instance of the Parcel class containing the serialized data
      */
     protected NewsArticleInfo(Parcel in) {
+        mArticleId = in.readString();
         mSectionId = in.readString();
         mSectionName = in.readString();
-        mNewsArticleCount = in.readInt();
         mPublishedDate = in.readString();
         mNewsTitle = in.readString();
         mWebUrl = in.readString();
@@ -123,9 +123,9 @@ public class NewsArticleInfo implements Parcelable {
      */
     @Override
     public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(mArticleId);
         dest.writeString(mSectionId);
         dest.writeString(mSectionName);
-        dest.writeInt(mNewsArticleCount);
         dest.writeString(mPublishedDate);
         dest.writeString(mNewsTitle);
         dest.writeString(mWebUrl);
@@ -147,6 +147,24 @@ public class NewsArticleInfo implements Parcelable {
         return 0; //Indicating with no mask
     }
 
+    /**
+     * Method that returns the unique ID of the News article, as assigned by the News API
+     *
+     * @return String containing the unique ID of the News article
+     */
+    public String getArticleId() {
+        return mArticleId;
+    }
+
+    /**
+     * Setter Method for the unique ID of the News article
+     *
+     * @param articleId is a String containing the unique ID of the News article, as assigned by the News API
+     */
+    public void setArticleId(String articleId) {
+        this.mArticleId = articleId;
+    }
+
     /**
      * Method that returns the 'Section ID' of the News article
      *
@@ -183,24 +201,6 @@ public class NewsArticleInfo implements Parcelable {
         this.mSectionName = sectionName;
     }
 
-    /**
-     * Method that returns the total article count found for the News query
-     *
-     * @return Integer for the total article count, found for the News query
-     */
-    public int getNewsArticleCount() {
-        return mNewsArticleCount;
-    }
-
-    /**
-     * Setter Method for the Article count found for the News query
-     *
-     * @param newsArticleCount is an Integer for the total article count, found for the News query
-     */
-    public void setNewsArticleCount(int newsArticleCount) {
-        this.mNewsArticleCount = newsArticleCount;
-    }
-
     /**
      * Method that returns the Published DateTime of the News Article
      * in the User's locale, in the sample format 'on Jan 14, 2018 at 1:50:00PM IST'
@@ -248,6 +248,16 @@ public class NewsArticleInfo implements Parcelable {
         return MessageFormat.format("on {0} at {1}", parsedDateStr, parsedTimeStr);
     }
 
+    /**
+     * Method that returns the Published DateTime of the News Article AS-IS,
+     * as received in the News Query response (in the ISO format 'yyyy-MM-ddTHH:mm:ssZ')
+     *
+     * @return String containing the raw Published DateTime of the News Article
+     */
+    public String getPublishedDateRaw() {
+        return mPublishedDate;
+    }
+
     /**
      * Setter Method for the Published Date of the News article
      *
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.models;
+
+import android.os.Bundle;
+
+/**
+ * Model class for storing the Pagination state of a screen with paginated results,
+ * which is the index of the page to display and the index of the last page available.
+ * <p>
+ * Held in memory by the {@link com.example.kaushiknsanji.novalines.presenters.PaginationPresenter}
+ * of the screen, and saved/restored along with the instance state of the screen.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class PaginationState {
+
+    //Bundle Key constants used for saving/restoring the state
+    private static final String START_PAGE_INDEX_INT_KEY = "PaginationState.StartPageIndex";
+    private static final String LAST_PAGE_INDEX_INT_KEY = "PaginationState.LastPageIndex";
+
+    //Stores the index of the first page, which is the default page to display
+    private final int mDefaultPageIndex;
+    //Stores the index of the page to display
+    private int mStartPageIndex;
+    //Stores the index of the last page available. 0 when not yet determined.
+    private int mLastPageIndex;
+
+    /**
+     * Constructor to initialize the {@link PaginationState}
+     *
+     * @param defaultPageIndex is the Integer value of the index of the first page, which is the default page to display
+     */
+    public PaginationState(int defaultPageIndex) {
+        mDefaultPageIndex = defaultPageIndex;
+        mStartPageIndex = defaultPageIndex;
+        mLastPageIndex = 0;
+    }
+
+    /**
+     * Method that returns the index of the first page, which is the default page to display
+     *
+     * @return Integer value of the index of the first page
+     */
+    public int getDefaultPageIndex() {
+        return mDefaultPageIndex;
+    }
+
+    /**
+     * Method that returns the index of the page to display
+     *
+     * @return Integer value of the index of the page to display
+     */
+    public int getStartPageIndex() {
+        return mStartPageIndex;
+    }
+
+    /**
+     * Method that updates the index of the page to display
+     *
+     * @param startPageIndex is the Integer value of the index of the page to display
+     */
+    public void setStartPageIndex(int startPageIndex) {
+        mStartPageIndex = startPageIndex;
+    }
+
+    /**
+     * Method that returns the index of the last page available
+     *
+     * @param defaultPageIndex is the Default value to return when the index of the last page is not yet determined
+     * @return Integer value of the index of the last page available
+     */
+    public int getLastPageIndex(int defaultPageIndex) {
+        return mLastPageIndex > 0 ? mLastPageIndex : defaultPageIndex;
+    }
+
+    /**
+     * Method that updates the index of the last page available
+     *
+     * @param lastPageIndex is the Integer value of the index of the last page available
+     */
+    public void setLastPageIndex(int lastPageIndex) {
+        mLastPageIndex = lastPageIndex;
+    }
+
+    /**
+     * Method that saves the state to the Bundle passed
+     *
+     * @param outState is the Bundle in which to place the state
+     */
+    public void saveState(Bundle outState) {
+        outState.putInt(START_PAGE_INDEX_INT_KEY, mStartPageIndex);
+        outState.putInt(LAST_PAGE_INDEX_INT_KEY, mLastPageIndex);
+    }
+
+    /**
+     * Method that restores the state from the Bundle passed, when present
+     *
+     * @param savedInstanceState is the Bundle containing the state previously saved by {@link #saveState(Bundle)}
+     */
+    public void restoreState(Bundle savedInstanceState) {
+        if (savedInstanceState != null) {
+            mStartPageIndex = savedInstanceState.getInt(START_PAGE_INDEX_INT_KEY, mDefaultPageIndex);
+            mLastPageIndex = savedInstanceState.getInt(LAST_PAGE_INDEX_INT_KEY, 0);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.observers;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.example.kaushiknsanji.novalines.adapters.ArticlesAdapter;
+import com.example.kaushiknsanji.novalines.utils.RecyclerViewUtility;
+import com.example.kaushiknsanji.novalines.workers.ArticleBodyRenderer;
+
+/**
+ * Class that extends the RecyclerView.OnScrollListener to pre-render the bodies of the
+ * News Articles on the screen through the {@link ArticleBodyRenderer}, once the RecyclerView
+ * settles, so that the ones opened from there are shown by the reader without any delay.
+ *
+ * @author Kaushik N Sanji
+ */
+public class ArticlePrerenderScrollListener extends RecyclerView.OnScrollListener {
+
+    //Stores the reference to the Adapter of the RecyclerView
+    private ArticlesAdapter mArticlesAdapter;
+
+    /**
+     * Constructor of {@link ArticlePrerenderScrollListener}
+     *
+     * @param articlesAdapter is the {@link ArticlesAdapter} of the RecyclerView
+     */
+    public ArticlePrerenderScrollListener(ArticlesAdapter articlesAdapter) {
+        mArticlesAdapter = articlesAdapter;
+    }
+
+    /**
+     * Callback method invoked when RecyclerView's scroll state changes.
+     *
+     * @param recyclerView The RecyclerView whose scroll state has changed.
+     * @param newState     The updated scroll state.
+     */
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        super.onScrollStateChanged(recyclerView, newState);
+
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            //Pre-rendering the News Articles on the screen, only when the RecyclerView settles
+            mArticlesAdapter.prerenderArticles(
+                    RecyclerViewUtility.getFirstVisibleItemPosition(recyclerView),
+                    RecyclerViewUtility.getLastVisibleItemPosition(recyclerView)
+            );
+        }
+    }
+
+}
@@ -16,6 +16,7 @@
 
 package com.example.kaushiknsanji.novalines.observers;
 
+import android.os.SystemClock;
 import android.support.v7.widget.RecyclerView;
 
 import com.example.kaushiknsanji.novalines.utils.RecyclerViewUtility;
@@ -23,12 +24,24 @@ import com.example.kaushiknsanji.novalines.utils.RecyclerViewUtility;
 /**
  * Abstract Class that extends the RecyclerView.OnScrollListener to inform
  * the subclass when the scroll has reached the last item view or scrolled away
- * from the last item view
+ * from the last item view. Also informs the subclass of the range of item views
+ * that lie ahead in the direction of the scroll, for prefetching their content,
+ * where the range grows with the velocity of the scroll.
  *
  * @author Kaushik N Sanji
  */
 public abstract class BaseRecyclerViewScrollListener extends RecyclerView.OnScrollListener {
 
+    //Constants for the minimum and maximum number of item views to prefetch ahead of the scroll
+    private static final int MIN_PREFETCH_ITEM_COUNT = 2;
+    private static final int MAX_PREFETCH_ITEM_COUNT = 8;
+
+    //Constant for the number of additional item views to prefetch for every 1dp/ms of the scroll velocity
+    private static final float PREFETCH_ITEMS_PER_VELOCITY = 1.5f;
+
+    //Constant for the weight of the latest scroll velocity in the smoothed scroll velocity
+    private static final float VELOCITY_SMOOTHING_WEIGHT = 0.4f;
+
     //Flag to keep a tab on the scroll, whether it has reached the bottom or not
     //to avoid invoking callbacks multiple times
     private boolean mIsScrolledToBottomEnd = false;
@@ -37,6 +50,14 @@ public abstract class BaseRecyclerViewScrollListener extends RecyclerView.OnScro
     // reaches/leaves the last y items in RecyclerView
     private int mBottomYEndItemPosForTrigger;
 
+    //Stores the smoothed velocity of the vertical scroll in dp/ms, and the time of the last scroll
+    private float mScrollVelocity;
+    private long mLastScrolledTimeMillis;
+
+    //Stores the range of the item view positions last informed for prefetch
+    private int mLastPrefetchFromPosition = RecyclerView.NO_POSITION;
+    private int mLastPrefetchToPosition = RecyclerView.NO_POSITION;
+
     /**
      * Constructor of {@link BaseRecyclerViewScrollListener}
      *
@@ -94,6 +115,9 @@ public abstract class BaseRecyclerViewScrollListener extends RecyclerView.OnScro
             //Retrieving the current last seen item position
             int lastItemPosition = RecyclerViewUtility.getLastVisibleItemPosition(recyclerView);
 
+            //Informing the range of item views ahead of the scroll for prefetch
+            informPrefetchRange(recyclerView, dy, totalItems, lastItemPosition);
+
             if ((totalItems - mBottomYEndItemPosForTrigger) <= mBottomYEndItemPosForTrigger) {
                 //When there is less number of items for scroll
 
@@ -137,6 +161,71 @@ public abstract class BaseRecyclerViewScrollListener extends RecyclerView.OnScro
         }
     }
 
+    /**
+     * Method that computes the range of item views ahead in the direction of the scroll,
+     * sized by the smoothed velocity of the scroll, and informs it via {@link #onPrefetchRange(int, int)}
+     * when the range has changed
+     *
+     * @param recyclerView     The RecyclerView which scrolled.
+     * @param dy               The amount of vertical scroll.
+     * @param totalItems       The current number of items in the RecyclerView
+     * @param lastItemPosition The position of the last visible item view
+     */
+    private void informPrefetchRange(RecyclerView recyclerView, int dy, int totalItems, int lastItemPosition) {
+        //Updating the smoothed velocity of the scroll in dp/ms
+        long currentTimeMillis = SystemClock.uptimeMillis();
+        long elapsedMillis = Math.max(1L, currentTimeMillis - mLastScrolledTimeMillis);
+        float latestVelocity = Math.abs(dy) / recyclerView.getResources().getDisplayMetrics().density / elapsedMillis;
+        if (elapsedMillis > 100L) {
+            //Restarting the smoothing when the scroll was not continuous
+            mScrollVelocity = latestVelocity;
+        } else {
+            mScrollVelocity += VELOCITY_SMOOTHING_WEIGHT * (latestVelocity - mScrollVelocity);
+        }
+        mLastScrolledTimeMillis = currentTimeMillis;
+
+        //Computing the number of item views to prefetch for the velocity
+        int prefetchItemCount = Math.min(MAX_PREFETCH_ITEM_COUNT,
+                MIN_PREFETCH_ITEM_COUNT + (int) (mScrollVelocity * PREFETCH_ITEMS_PER_VELOCITY));
+
+        //Computing the range of item views ahead in the direction of the scroll
+        int fromPosition;
+        int toPosition;
+        if (dy > 0) {
+            //When scrolling to the bottom, the range follows the last visible item view
+            fromPosition = lastItemPosition + 1;
+            toPosition = Math.min(totalItems - 1, lastItemPosition + prefetchItemCount);
+        } else {
+            //When scrolling to the top, the range precedes the first visible item view
+            int firstItemPosition = RecyclerViewUtility.getFirstVisibleItemPosition(recyclerView);
+            fromPosition = Math.max(0, firstItemPosition - prefetchItemCount);
+            toPosition = firstItemPosition - 1;
+        }
+
+        if (lastItemPosition == RecyclerView.NO_POSITION || fromPosition > toPosition
+                || (fromPosition == mLastPrefetchFromPosition && toPosition == mLastPrefetchToPosition)) {
+            //Returning when there is nothing ahead or the range is unchanged
+            return;
+        }
+
+        //Saving and informing the new range
+        mLastPrefetchFromPosition = fromPosition;
+        mLastPrefetchToPosition = toPosition;
+        onPrefetchRange(fromPosition, toPosition);
+    }
+
+    /**
+     * Callback Method that can be overridden to prefetch the content of the item views
+     * that lie ahead in the direction of the scroll, so that the content is ready
+     * when the item views come on screen. Does nothing by default.
+     *
+     * @param fromPosition is the position of the first item view of the range, inclusive
+     * @param toPosition   is the position of the last item view of the range, inclusive
+     */
+    public void onPrefetchRange(int fromPosition, int toPosition) {
+        //No-op by default
+    }
+
     /**
      * Callback Method to be implemented to receive events when the
      * scroll has reached/left the last y items in the {@link RecyclerView}
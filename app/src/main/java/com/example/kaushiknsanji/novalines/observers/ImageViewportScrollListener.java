@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.observers;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.example.kaushiknsanji.novalines.utils.RecyclerViewUtility;
+import com.example.kaushiknsanji.novalines.workers.ImageLoader;
+
+/**
+ * Class that extends the RecyclerView.OnScrollListener to keep the {@link ImageLoader}
+ * informed of the viewport of the RecyclerView, so that the Images of the item views
+ * on the screen are downloaded first. The downloads are paused while the RecyclerView
+ * is flung, and resumed when the RecyclerView settles or is dragged.
+ *
+ * @author Kaushik N Sanji
+ */
+public class ImageViewportScrollListener extends RecyclerView.OnScrollListener {
+
+    //Stores the reference to the ImageLoader of the RecyclerView
+    private ImageLoader mImageLoader;
+
+    /**
+     * Constructor of {@link ImageViewportScrollListener}
+     *
+     * @param imageLoader is the {@link ImageLoader} of the RecyclerView's Adapter
+     */
+    public ImageViewportScrollListener(ImageLoader imageLoader) {
+        mImageLoader = imageLoader;
+    }
+
+    /**
+     * Callback method invoked when RecyclerView's scroll state changes.
+     *
+     * @param recyclerView The RecyclerView whose scroll state has changed.
+     * @param newState     The updated scroll state.
+     */
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        super.onScrollStateChanged(recyclerView, newState);
+
+        if (newState == RecyclerView.SCROLL_STATE_SETTLING) {
+            //Pausing the downloads while flung, as the item views bound are mostly scrolled past
+            mImageLoader.pause();
+        } else {
+            //Updating the viewport and resuming the downloads when the RecyclerView is idle or dragged
+            updateViewport(recyclerView);
+            mImageLoader.resume();
+        }
+    }
+
+    /**
+     * Callback method invoked when the RecyclerView has been scrolled. This will be
+     * called after the scroll has completed.
+     *
+     * @param recyclerView The RecyclerView which scrolled.
+     * @param dx           The amount of horizontal scroll.
+     * @param dy           The amount of vertical scroll.
+     */
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        super.onScrolled(recyclerView, dx, dy);
+
+        if (recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_SETTLING) {
+            //Updating the viewport when not flung, as the viewport is updated anyway when the fling ends
+            updateViewport(recyclerView);
+        }
+    }
+
+    /**
+     * Method that informs the {@link ImageLoader} of the item view positions currently visible
+     *
+     * @param recyclerView The RecyclerView whose viewport is to be informed
+     */
+    private void updateViewport(RecyclerView recyclerView) {
+        mImageLoader.updateViewport(
+                RecyclerViewUtility.getFirstVisibleItemPosition(recyclerView),
+                RecyclerViewUtility.getLastVisibleItemPosition(recyclerView)
+        );
+    }
+
+}
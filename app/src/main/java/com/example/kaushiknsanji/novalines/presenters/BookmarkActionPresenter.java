@@ -26,7 +26,9 @@ import com.example.kaushiknsanji.novalines.R;
 import com.example.kaushiknsanji.novalines.interfaces.IArticleActionView;
 import com.example.kaushiknsanji.novalines.interfaces.IGenericPresenter;
 import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.scheduler.CancellationToken;
 import com.example.kaushiknsanji.novalines.utils.TextAppearanceUtility;
+import com.example.kaushiknsanji.novalines.workers.ReadLaterPrefetcher;
 
 /**
  * A Presenter Interface for the 'Read Later' Popup Menu action shown
@@ -35,6 +37,10 @@ import com.example.kaushiknsanji.novalines.utils.TextAppearanceUtility;
  * Responsible for adding/removing the News Articles from the Bookmarks list (database)
  * and responding to the user's actions through a {@link Snackbar}.
  * </p>
+ * <p>
+ * The body and the lead Image of the News Articles added are downloaded in the background
+ * by the {@link ReadLaterPrefetcher}, for reading them offline.
+ * </p>
  *
  * @author Kaushik N Sanji
  */
@@ -78,11 +84,14 @@ public class BookmarkActionPresenter implements IGenericPresenter<IArticleAction
     public void addBookmark(NewsArticleInfo newsArticleInfo) {
         //(Adding entry to the Bookmarks table in future implementation)
 
+        //Queuing the download of the News Article for reading offline
+        CancellationToken prefetchToken = ReadLaterPrefetcher.prefetch(mContext, newsArticleInfo);
+
         //Displaying the Snackbar on success: START
         //Initializing an empty Snackbar
         Snackbar snackbar = Snackbar.make(mBookmarkActionView.getRootView(), "", Snackbar.LENGTH_LONG);
         //Setting the Action
-        snackbar.setAction(mContext.getString(R.string.snackbar_action_undo), new AddBookmarkUndoListener(newsArticleInfo));
+        snackbar.setAction(mContext.getString(R.string.snackbar_action_undo), new AddBookmarkUndoListener(newsArticleInfo, prefetchToken));
         //Setting the Action Text Color
         snackbar.setActionTextColor(ContextCompat.getColor(mContext, R.color.snackBarActionTextColorAmberA400));
         //Setting the Text along with replacing the placeholders for drawables with their corresponding resource: START
@@ -99,10 +108,17 @@ public class BookmarkActionPresenter implements IGenericPresenter<IArticleAction
      *
      * @param newsArticleInfo is the {@link NewsArticleInfo} object of the entry
      *                        that was added to the Bookmarks which needs to be undone
+     * @param prefetchToken   is the {@link CancellationToken} of the download of the News Article, if queued
      */
-    private void undoAddBookmark(NewsArticleInfo newsArticleInfo) {
+    private void undoAddBookmark(NewsArticleInfo newsArticleInfo, CancellationToken prefetchToken) {
         //(Removing the entry added to the Bookmarks table in future implementation)
 
+        //Canceling the download of the News Article, and removing what it saved for reading offline
+        //(When no download was queued, the News Article saved earlier if any is retained)
+        if (prefetchToken != null) {
+            ReadLaterPrefetcher.cancel(mContext, prefetchToken);
+        }
+
         //Displaying the Snackbar on success of the removal of the entry
         Snackbar.make(mBookmarkActionView.getRootView(), mContext.getString(R.string.article_bookmarked_undo_snack), Snackbar.LENGTH_SHORT).show();
     }
@@ -117,13 +133,18 @@ public class BookmarkActionPresenter implements IGenericPresenter<IArticleAction
         //The NewsArticleInfo object of the entry that was added to the Bookmarks
         final NewsArticleInfo newsArticleInfo;
 
+        //The CancellationToken of the download of the News Article, if queued
+        final CancellationToken prefetchToken;
+
         /**
          * Constructor of {@link AddBookmarkUndoListener}
          *
          * @param newsArticleInfo is the {@link NewsArticleInfo} object of the entry that was added to the Bookmarks
+         * @param prefetchToken   is the {@link CancellationToken} of the download of the News Article, if queued
          */
-        private AddBookmarkUndoListener(NewsArticleInfo newsArticleInfo) {
+        private AddBookmarkUndoListener(NewsArticleInfo newsArticleInfo, CancellationToken prefetchToken) {
             this.newsArticleInfo = newsArticleInfo;
+            this.prefetchToken = prefetchToken;
         }
 
         /**
@@ -133,7 +154,7 @@ public class BookmarkActionPresenter implements IGenericPresenter<IArticleAction
          */
         @Override
         public void onClick(View view) {
-            undoAddBookmark(newsArticleInfo);
+            undoAddBookmark(newsArticleInfo, prefetchToken);
         }
     }
 }
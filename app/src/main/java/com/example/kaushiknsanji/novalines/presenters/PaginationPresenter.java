@@ -17,7 +17,8 @@
 package com.example.kaushiknsanji.novalines.presenters;
 
 import android.content.Context;
-import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentActivity;
 import android.support.v4.app.FragmentManager;
 import android.view.View;
@@ -27,6 +28,7 @@ import com.example.kaushiknsanji.novalines.R;
 import com.example.kaushiknsanji.novalines.dialogs.PaginationNumberPickerDialogFragment;
 import com.example.kaushiknsanji.novalines.interfaces.IGenericPresenter;
 import com.example.kaushiknsanji.novalines.interfaces.IPaginationView;
+import com.example.kaushiknsanji.novalines.models.PaginationState;
 import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
 
 /**
@@ -34,7 +36,9 @@ import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
  * hosted by fragments that have paginated results.
  * <p>
  * Responsible for managing the buttons involved in pagination and the
- * page index values stored in {@link SharedPreferences}.
+ * page index values of the screen, held in memory by {@link PaginationState}.
+ * The changes to the page to display are notified to the {@link IPaginationView}
+ * through {@link IPaginationView#onStartPageIndexChanged(int)}, without any disk I/O.
  * </p>
  *
  * @author Kaushik N Sanji
@@ -45,6 +49,8 @@ public class PaginationPresenter implements IGenericPresenter<IPaginationView> {
     private IPaginationView mPaginationView;
     //For the Context of the Activity/Fragment
     private Context mContext;
+    //For the Pagination state of the view
+    private PaginationState mPaginationState;
 
     /**
      * Default Constructor of {@link PaginationPresenter}
@@ -64,6 +70,10 @@ public class PaginationPresenter implements IGenericPresenter<IPaginationView> {
         //Associating this Presenter with the Pagination View passed
         mPaginationView = view;
         mContext = mPaginationView.getViewContext();
+        if (mPaginationState == null) {
+            //Initializing the Pagination state to the first page
+            mPaginationState = new PaginationState(PreferencesUtility.getDefaultStartPageIndex(mContext));
+        }
     }
 
     /**
@@ -78,88 +88,132 @@ public class PaginationPresenter implements IGenericPresenter<IPaginationView> {
     }
 
     /**
-     * Method that resets the 'page' (Page to Display) setting to 1, when not 1
+     * Method that returns the Pagination state of the view
+     *
+     * @return The {@link PaginationState} of the view
+     */
+    public PaginationState getPaginationState() {
+        return mPaginationState;
+    }
+
+    /**
+     * Method that saves the Pagination state to the Bundle passed
+     *
+     * @param outState is the Bundle in which to place the state
+     */
+    public void saveState(Bundle outState) {
+        mPaginationState.saveState(outState);
+    }
+
+    /**
+     * Method that restores the Pagination state from the Bundle passed, when present
+     *
+     * @param savedInstanceState is the Bundle containing the state previously saved by {@link #saveState(Bundle)}
+     */
+    public void restoreState(Bundle savedInstanceState) {
+        mPaginationState.restoreState(savedInstanceState);
+    }
+
+    /**
+     * Method that returns the index of the page to display
+     *
+     * @return Integer value of the index of the page to display
+     */
+    public int getStartPageIndex() {
+        return mPaginationState.getStartPageIndex();
+    }
+
+    /**
+     * Method that resets the 'page' (Page to Display) index to 1, when not 1
      */
     public void resetStartPageIndex() {
-        if (PreferencesUtility.getStartPageIndex(mContext) != 1) {
-            //When the 'page' setting value is not equal to 1
+        if (mPaginationState.getStartPageIndex() != mPaginationState.getDefaultPageIndex()) {
+            //When the 'page' index is not equal to 1
 
             //Updating to its default value, which is 1
-            PreferencesUtility.updateStartPageIndex(mContext, PreferencesUtility.getDefaultStartPageIndex(mContext));
+            updateStartPageIndex(mPaginationState.getDefaultPageIndex());
         }
     }
 
     /**
-     * Method that resets the 'page' (Page to Display) setting of a particular paginated view to 1, when not 1
+     * Method that resets the 'page' (Page to Display) index of a particular paginated view to 1, when not 1
      *
      * @param lastViewedPageIndex is the index of the last page viewed by the user
-     *                            which is specific to the paginated view and not stored as a SharedPreference
+     *                            which is specific to the paginated view
      */
     public void resetLastViewedPageIndex(int lastViewedPageIndex) {
         if (lastViewedPageIndex > 1) {
             //When the index of the last page viewed is greater than 1
 
-            //Updating the 'page' setting value to lastViewedPageIndex
-            PreferencesUtility.updateStartPageIndex(mContext, lastViewedPageIndex);
-
-            //Updating the 'page' setting value to its default value, which is 1
-            //(This reapplication resets the start page to the first page for the current paginated view)
-            PreferencesUtility.updateStartPageIndex(mContext, PreferencesUtility.getDefaultStartPageIndex(mContext));
+            //Updating the 'page' index to its default value, which is 1, and notifying
+            //even when the 'page' index is already 1, as the paginated view is still on the page last viewed
+            mPaginationState.setStartPageIndex(mPaginationState.getDefaultPageIndex());
+            mPaginationView.onStartPageIndexChanged(mPaginationState.getStartPageIndex());
 
-        } else if (PreferencesUtility.getStartPageIndex(mContext) > 1) {
-            //When the 'page' (Page to Display) setting is greater than 1 but not the last page viewed
+        } else {
+            //When the 'page' (Page to Display) index is greater than 1 but not the last page viewed
 
-            //Resetting the 'page' (Page to Display) setting value to 1
+            //Resetting the 'page' (Page to Display) index to 1
             resetStartPageIndex();
         }
     }
 
     /**
-     * Method that resets/reapplies the value for the 'endIndex' preference setting
+     * Method that resets/reapplies the value for the 'endIndex' and updates the state of the Pagination Buttons
      *
      * @param endIndexValue Integer value of the last page index (specific to the paginated view)
-     *                      to be applied to the 'endIndex' preference setting.
-     *                      When the value is <=0, the default value of 'page' preference setting
-     *                      will be applied to 'endIndex' preference setting
+     *                      to be applied to the 'endIndex'.
+     *                      When the value is <=0, the default value of 'page' index
+     *                      will be applied to 'endIndex'
      */
     public void resetEndPageIndex(int endIndexValue) {
-        //Flag to check whether the state of Pagination Buttons needs an update
-        boolean updateButtonsStateReqd = false;
-
         if (endIndexValue <= 0) {
-            //Defaulting the 'endIndex' setting to the default value of 'page' setting when
+            //Defaulting the 'endIndex' to the default value of 'page' index when
             //the value passed is 0 (or less)
-            PreferencesUtility.updateLastPageIndex(mContext, PreferencesUtility.getDefaultStartPageIndex(mContext));
+            mPaginationState.setLastPageIndex(mPaginationState.getDefaultPageIndex());
         } else {
-            //When the endIndex value specific to the paginated view is more than 0
-
-            if (PreferencesUtility.getLastPageIndex(mContext) == endIndexValue) {
-                //When the endIndex value is same as that in preference, there will be no change in Preference value
-                //Hence manual update of Pagination Buttons state is required
-                updateButtonsStateReqd = true;
-            }
-
             //honouring the value passed when greater than 0
-            PreferencesUtility.updateLastPageIndex(mContext, endIndexValue);
+            mPaginationState.setLastPageIndex(endIndexValue);
         }
 
-        if (updateButtonsStateReqd) {
-            //When set to true, updating the state of Pagination Buttons
-            updatePaginationButtonsState();
+        //Updating the state of Pagination Buttons
+        updatePaginationButtonsState();
+    }
+
+    /**
+     * Method that updates the 'page' (Page to Display) index to the value passed
+     * and notifies the {@link IPaginationView} when changed
+     *
+     * @param newValue Integer value of the new 'page' index
+     */
+    private void updateStartPageIndex(int newValue) {
+        if (mPaginationState.getStartPageIndex() != newValue) {
+            mPaginationState.setStartPageIndex(newValue);
+            mPaginationView.onStartPageIndexChanged(newValue);
         }
     }
 
+    /**
+     * Method invoked when the user has selected the page to jump to, in the
+     * {@link PaginationNumberPickerDialogFragment}
+     *
+     * @param pageIndex is the Integer value of the index of the page selected
+     */
+    public void onPageSelected(int pageIndex) {
+        updateStartPageIndex(pageIndex);
+    }
+
     /**
      * Method that updates the state of the Pagination Buttons
      * based on the current setting
      */
     public void updatePaginationButtonsState() {
 
-        //Retrieving the 'page' (Page to Display) setting value
-        int startIndex = PreferencesUtility.getStartPageIndex(mContext);
+        //Retrieving the 'page' (Page to Display) index
+        int startIndex = mPaginationState.getStartPageIndex();
 
-        //Retrieving the 'endIndex' preference value
-        int endIndex = PreferencesUtility.getLastPageIndex(mContext, startIndex);
+        //Retrieving the 'endIndex' value
+        int endIndex = mPaginationState.getLastPageIndex(startIndex);
 
         if (startIndex == endIndex && startIndex != 1) {
             //When the last page is reached
@@ -230,23 +284,23 @@ public class PaginationPresenter implements IGenericPresenter<IPaginationView> {
      * <b>FALSE</b> otherwise
      */
     public boolean onPaginationButtonClick(View view) {
-        //Retrieving the current 'page' (Page to Display) setting value
-        int startIndex = PreferencesUtility.getStartPageIndex(mContext);
+        //Retrieving the current 'page' (Page to Display) index
+        int startIndex = mPaginationState.getStartPageIndex();
 
         //Executing the click action based on the view's id
         switch (view.getId()) {
             case R.id.page_first_button_id:
-                //On Page First action, updating the 'page' setting to 1
-                PreferencesUtility.updateStartPageIndex(mContext, 1);
+                //On Page First action, updating the 'page' index to 1
+                updateStartPageIndex(1);
                 //Displaying a Toast Message
                 Toast.makeText(mContext, mContext.getString(R.string.navigate_page_first_msg), Toast.LENGTH_SHORT).show();
                 return true;
 
             case R.id.page_previous_button_id:
-                //On Page Previous action, updating the 'page' setting
+                //On Page Previous action, updating the 'page' index
                 //to a value less than itself by 1
                 startIndex = startIndex - 1;
-                PreferencesUtility.updateStartPageIndex(mContext, startIndex);
+                updateStartPageIndex(startIndex);
                 //Displaying a Toast Message
                 Toast.makeText(mContext, mContext.getString(R.string.navigate_page_x_msg, startIndex), Toast.LENGTH_SHORT).show();
                 return true;
@@ -267,10 +321,17 @@ public class PaginationPresenter implements IGenericPresenter<IPaginationView> {
                     numberPickerDialogFragment = PaginationNumberPickerDialogFragment.newInstance(
                             //Using the default 'Page to Display' setting value as the minimum value
                             PreferencesUtility.getDefaultStartPageIndex(mContext),
-                            //Using the 'endIndex' setting value as the maximum value
-                            PreferencesUtility.getLastPageIndex(mContext)
+                            //Using the 'endIndex' value as the maximum value
+                            mPaginationState.getLastPageIndex(mPaginationState.getDefaultPageIndex()),
+                            //Using the current 'page' index as the value selected
+                            startIndex
                     );
 
+                    if (mPaginationView instanceof Fragment) {
+                        //Delivering the page selected to the view (See IPaginationView#onPaginationPageSelected)
+                        numberPickerDialogFragment.setTargetFragment((Fragment) mPaginationView, 0);
+                    }
+
                     //Displaying the DialogFragment
                     numberPickerDialogFragment.show(fragmentManager,
                             PaginationNumberPickerDialogFragment.PAGN_DIALOG_FRAGMENT_TAG);
@@ -278,19 +339,18 @@ public class PaginationPresenter implements IGenericPresenter<IPaginationView> {
                 return true;
 
             case R.id.page_next_button_id:
-                //On Page Next action, updating the 'page' setting
+                //On Page Next action, updating the 'page' index
                 //to a value greater than itself by 1
                 startIndex = startIndex + 1;
-                PreferencesUtility.updateStartPageIndex(mContext, startIndex);
+                updateStartPageIndex(startIndex);
                 //Displaying a Toast Message
                 Toast.makeText(mContext, mContext.getString(R.string.navigate_page_x_msg, startIndex), Toast.LENGTH_SHORT).show();
                 return true;
 
             case R.id.page_last_button_id:
-                //On Page Last action, updating the 'page' setting to
-                //a value equal to that of the predetermined 'endIndex' preference value
-                PreferencesUtility.updateStartPageIndex(mContext,
-                        PreferencesUtility.getLastPageIndex(mContext, startIndex));
+                //On Page Last action, updating the 'page' index to
+                //a value equal to that of the predetermined 'endIndex' value
+                updateStartPageIndex(mPaginationState.getLastPageIndex(startIndex));
                 //Displaying a Toast Message
                 Toast.makeText(mContext, mContext.getString(R.string.navigate_page_last_msg), Toast.LENGTH_SHORT).show();
                 return true;
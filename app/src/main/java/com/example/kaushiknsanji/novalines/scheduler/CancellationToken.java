@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.scheduler;
+
+import android.support.v4.os.OperationCanceledException;
+
+/**
+ * Token passed along with a task submitted to the {@link TaskScheduler}, that allows
+ * the task to be canceled before or while it runs. A task canceled before it runs is skipped,
+ * while a running task is expected to check the token at its safe points.
+ * <p>
+ * A listener can be set to be notified once the task finishes running or is skipped, so that
+ * the state held for the task is released even when the task never runs.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class CancellationToken {
+
+    //Saves whether the task is canceled
+    private volatile boolean mCanceled;
+
+    //Saves whether the task has finished running or was skipped
+    private volatile boolean mFinished;
+
+    //Listener notified once the task finishes running or is skipped
+    private Runnable mOnFinishedListener;
+
+    /**
+     * Method that cancels the task of this token. Does nothing if already canceled.
+     */
+    public void cancel() {
+        mCanceled = true;
+    }
+
+    /**
+     * Method that returns whether the task of this token is canceled
+     *
+     * @return <b>TRUE</b> when canceled; <b>FALSE</b> otherwise
+     */
+    public boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * Method that throws {@link OperationCanceledException} when the task of this token is canceled.
+     * To be called by the running task at its safe points.
+     *
+     * @throws OperationCanceledException when the task of this token is canceled
+     */
+    public void throwIfCanceled() {
+        if (mCanceled) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    /**
+     * Method that returns whether the task of this token is no longer pending,
+     * i.e., it has finished running, was skipped, or is canceled
+     *
+     * @return <b>TRUE</b> when no longer pending; <b>FALSE</b> otherwise
+     */
+    boolean isFinished() {
+        return mFinished || mCanceled;
+    }
+
+    /**
+     * Method that sets the listener to be notified once the task of this token finishes running,
+     * or is skipped as it was canceled while waiting. The listener is notified on the thread of the lane,
+     * or right away on the calling thread when the task has already finished.
+     *
+     * @param onFinishedListener is the {@link Runnable} to be run once the task is no longer pending
+     */
+    public void setOnFinishedListener(Runnable onFinishedListener) {
+        synchronized (this) {
+            if (!mFinished) {
+                //Saving the listener to be notified later, when the task is still pending
+                mOnFinishedListener = onFinishedListener;
+                return;
+            }
+        }
+
+        //Notifying right away when the task has already finished
+        onFinishedListener.run();
+    }
+
+    /**
+     * Method invoked by the {@link TaskScheduler} when the task of this token finishes running or is skipped
+     */
+    void markFinished() {
+        Runnable onFinishedListener;
+        synchronized (this) {
+            if (mFinished) {
+                //Returning when already marked
+                return;
+            }
+            mFinished = true;
+            onFinishedListener = mOnFinishedListener;
+            mOnFinishedListener = null;
+        }
+
+        if (onFinishedListener != null) {
+            //Notifying the listener once
+            onFinishedListener.run();
+        }
+    }
+
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.scheduler;
+
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.v4.os.OperationCanceledException;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide Scheduler that runs the background work of the App on separate lanes,
+ * so that the work of one kind never queues behind the work of another kind -
+ * <ul>
+ * <li>{@link #LANE_FEED} - For downloading and parsing the News feeds</li>
+ * <li>{@link #LANE_DIFF} - For computing the differences of the News feeds with the data shown</li>
+ * <li>{@link #LANE_IMAGE} - For downloading and decoding the Images</li>
+ * <li>{@link #LANE_PREFETCH} - For the speculative work ahead of the user, such as pre-rendering the News Articles,
+ * on a single thread so that it never takes more than one request away from the others</li>
+ * </ul>
+ * Each lane runs its tasks on a dedicated pool of background threads, in the order of their priority,
+ * and the tasks of the same priority in the order of their submission. Tasks can be canceled
+ * through the {@link CancellationToken} returned on submission, and the canceled tasks still waiting
+ * in the lane are skipped without running.
+ *
+ * @author Kaushik N Sanji
+ */
+public class TaskScheduler {
+
+    //Constants for the lanes of the Scheduler
+    public static final int LANE_FEED = 0;
+    public static final int LANE_DIFF = 1;
+    public static final int LANE_IMAGE = 2;
+    public static final int LANE_PREFETCH = 3;
+
+    //Constants for the common priorities of the tasks. Tasks with the higher value run first.
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_NORMAL = 5;
+    public static final int PRIORITY_HIGH = 10;
+
+    //Constant used for logs
+    private static final String LOG_TAG = TaskScheduler.class.getSimpleName();
+
+    //Constants for the names of the lanes, used for the threads and the Metrics
+    private static final String[] LANE_NAMES = {"feed", "diff", "image", "prefetch"};
+
+    //Constants for the number of threads of each lane
+    private static final int[] LANE_THREAD_COUNTS = {2, 1, 3, 1};
+
+    //Constant for the time in seconds after which the idle threads of a lane are terminated
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 30L;
+
+    //For the Singleton instance of this
+    private static TaskScheduler sInstance;
+
+    //The executors of the lanes, indexed by the lane
+    private final ThreadPoolExecutor[] mLaneExecutors = new ThreadPoolExecutor[LANE_NAMES.length];
+
+    //Generates the sequence numbers of the tasks, to run the tasks of the same priority in the order of their submission
+    private final AtomicLong mTaskSequence = new AtomicLong();
+
+    /**
+     * Private Constructor of {@link TaskScheduler}
+     */
+    private TaskScheduler() {
+        for (int lane = 0; lane < LANE_NAMES.length; lane++) {
+            ThreadPoolExecutor laneExecutor = new ThreadPoolExecutor(
+                    LANE_THREAD_COUNTS[lane], LANE_THREAD_COUNTS[lane],
+                    THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new PriorityBlockingQueue<Runnable>(),
+                    new LaneThreadFactory(LANE_NAMES[lane])
+            );
+            //Releasing the threads when the lane stays idle
+            laneExecutor.allowCoreThreadTimeOut(true);
+            mLaneExecutors[lane] = laneExecutor;
+        }
+    }
+
+    /**
+     * Singleton Constructor of {@link TaskScheduler}.
+     * Synchronized as it is accessed from the main thread as well as the worker threads.
+     *
+     * @return Instance of {@link TaskScheduler}
+     */
+    public static synchronized TaskScheduler getInstance() {
+        if (sInstance == null) {
+            //Creating the instance when not available
+            sInstance = new TaskScheduler();
+        }
+        //Using the previously created instance
+        return sInstance;
+    }
+
+    /**
+     * Method that submits the task to the lane passed, with the priority passed
+     *
+     * @param lane     is the lane to run the task on, one of {@link #LANE_FEED}, {@link #LANE_DIFF}, {@link #LANE_IMAGE} or {@link #LANE_PREFETCH}
+     * @param priority is the priority of the task. Tasks with the higher value run first.
+     * @param task     is the {@link Runnable} task to be run
+     * @return The {@link CancellationToken} to cancel the task
+     */
+    public CancellationToken submit(int lane, int priority, Runnable task) {
+        return submit(lane, priority, task, new CancellationToken());
+    }
+
+    /**
+     * Method that submits the task to the lane passed, with the priority passed
+     * and the {@link CancellationToken} passed, which is usually obtained from a {@link TaskScope}
+     *
+     * @param lane     is the lane to run the task on, one of {@link #LANE_FEED}, {@link #LANE_DIFF}, {@link #LANE_IMAGE} or {@link #LANE_PREFETCH}
+     * @param priority is the priority of the task. Tasks with the higher value run first.
+     * @param task     is the {@link Runnable} task to be run
+     * @param token    is the {@link CancellationToken} to cancel the task
+     * @return The same {@link CancellationToken} passed
+     */
+    public CancellationToken submit(int lane, int priority, Runnable task, CancellationToken token) {
+        if (token.isCanceled()) {
+            //Not submitting the task when already canceled
+            token.markFinished();
+            MetricsRegistry.incrementCounter(MetricsRegistry.SCHEDULER_CANCELED_PREFIX + LANE_NAMES[lane]);
+            return token;
+        }
+
+        //Queuing the task on the lane
+        mLaneExecutors[lane].execute(new ScheduledTask(lane, priority, mTaskSequence.getAndIncrement(), task, token));
+
+        //Returning the token of the task
+        return token;
+    }
+
+    /**
+     * Method that changes the priority of the task of the token passed, when the task is still waiting in the lane.
+     * The task keeps its place among the tasks of the new priority, as per the order of its submission.
+     *
+     * @param lane     is the lane of the task, one of {@link #LANE_FEED}, {@link #LANE_DIFF}, {@link #LANE_IMAGE} or {@link #LANE_PREFETCH}
+     * @param token    is the {@link CancellationToken} returned on the submission of the task
+     * @param priority is the new priority of the task
+     * @return <b>TRUE</b> when the task was found waiting and reordered; <b>FALSE</b> otherwise
+     */
+    public boolean reprioritize(int lane, CancellationToken token, int priority) {
+        ThreadPoolExecutor laneExecutor = mLaneExecutors[lane];
+        for (Runnable queuedRunnable : laneExecutor.getQueue()) {
+            ScheduledTask scheduledTask = (ScheduledTask) queuedRunnable;
+            if (scheduledTask.mToken == token) {
+                if (scheduledTask.mPriority == priority) {
+                    //Returning when the priority is unchanged
+                    return true;
+                }
+
+                //Removing the task and queuing it again with the new priority, when not yet taken by a thread
+                if (laneExecutor.remove(scheduledTask)) {
+                    laneExecutor.execute(new ScheduledTask(scheduledTask, priority));
+                    return true;
+                }
+                break;
+            }
+        }
+
+        //Returning false when the task is no longer waiting
+        return false;
+    }
+
+    /**
+     * Method that returns the number of tasks waiting in the lane passed
+     *
+     * @param lane is the lane, one of {@link #LANE_FEED}, {@link #LANE_DIFF}, {@link #LANE_IMAGE} or {@link #LANE_PREFETCH}
+     * @return The number of tasks waiting in the lane
+     */
+    public int getPendingTaskCount(int lane) {
+        return mLaneExecutors[lane].getQueue().size();
+    }
+
+    /**
+     * {@link ThreadFactory} that creates the background threads of a lane, named after the lane
+     */
+    private static class LaneThreadFactory implements ThreadFactory {
+
+        //The name of the lane of the threads
+        private final String mLaneName;
+        //Generates the sequence numbers of the threads
+        private final AtomicInteger mThreadCount = new AtomicInteger(1);
+
+        /**
+         * Constructor of {@link LaneThreadFactory}
+         *
+         * @param laneName is the name of the lane of the threads
+         */
+        LaneThreadFactory(String laneName) {
+            mLaneName = laneName;
+        }
+
+        /**
+         * Constructs a new {@code Thread}.
+         *
+         * @param runnable a runnable to be executed by new thread instance
+         * @return constructed thread
+         */
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    //Running at the background priority, so that the main thread is not starved
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "TaskScheduler-" + mLaneName + "-" + mThreadCount.getAndIncrement());
+        }
+    }
+
+    /**
+     * Task queued on a lane, ordered by its priority and then by the order of its submission
+     */
+    private static class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+        //The lane of the task
+        private final int mLane;
+        //The priority of the task
+        private final int mPriority;
+        //The sequence number of the task
+        private final long mSequence;
+        //The actual task to be run
+        private final Runnable mTask;
+        //The token to cancel the task
+        private final CancellationToken mToken;
+        //The time of submission of the task in nanoseconds
+        private final long mSubmitNanos;
+
+        /**
+         * Constructor of {@link ScheduledTask}
+         *
+         * @param lane     is the lane of the task
+         * @param priority is the priority of the task
+         * @param sequence is the sequence number of the task
+         * @param task     is the actual task to be run
+         * @param token    is the token to cancel the task
+         */
+        ScheduledTask(int lane, int priority, long sequence, Runnable task, CancellationToken token) {
+            mLane = lane;
+            mPriority = priority;
+            mSequence = sequence;
+            mTask = task;
+            mToken = token;
+            mSubmitNanos = MetricsRegistry.startTimer();
+        }
+
+        /**
+         * Constructor of {@link ScheduledTask} that copies the task passed with a new priority
+         *
+         * @param scheduledTask is the task to be copied
+         * @param priority      is the new priority of the task
+         */
+        ScheduledTask(ScheduledTask scheduledTask, int priority) {
+            mLane = scheduledTask.mLane;
+            mPriority = priority;
+            mSequence = scheduledTask.mSequence;
+            mTask = scheduledTask.mTask;
+            mToken = scheduledTask.mToken;
+            mSubmitNanos = scheduledTask.mSubmitNanos;
+        }
+
+        /**
+         * Runs the actual task when not canceled
+         */
+        @Override
+        public void run() {
+            //Recording the time the task waited in the lane
+            MetricsRegistry.stopTimer(MetricsRegistry.SCHEDULER_WAIT_PREFIX + LANE_NAMES[mLane], mSubmitNanos);
+
+            try {
+                if (mToken.isCanceled()) {
+                    //Skipping the task when canceled while waiting
+                    MetricsRegistry.incrementCounter(MetricsRegistry.SCHEDULER_CANCELED_PREFIX + LANE_NAMES[mLane]);
+                    return;
+                }
+
+                //Running the actual task
+                mTask.run();
+            } catch (OperationCanceledException e) {
+                //Task was canceled while it was running
+                MetricsRegistry.incrementCounter(MetricsRegistry.SCHEDULER_CANCELED_PREFIX + LANE_NAMES[mLane]);
+            } catch (RuntimeException e) {
+                //Logging the failure of the task, so that the thread of the lane is retained
+                Log.e(LOG_TAG, "Error occurred while running the task on the lane " + LANE_NAMES[mLane] + "\n", e);
+            } finally {
+                mToken.markFinished();
+            }
+        }
+
+        /**
+         * Compares this task with the specified task for order, where the task
+         * of higher priority comes first, and the tasks of the same priority
+         * are in the order of their submission.
+         *
+         * @param other the task to be compared.
+         * @return a negative integer, zero, or a positive integer as this task
+         * is to run before, along with, or after the specified task.
+         */
+        @Override
+        public int compareTo(@NonNull ScheduledTask other) {
+            if (mPriority != other.mPriority) {
+                return mPriority > other.mPriority ? -1 : 1;
+            }
+            return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.scheduler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Class that groups the {@link CancellationToken}s of the tasks submitted on behalf of a component
+ * like an Activity, Fragment or Adapter, so that all its pending tasks can be canceled together
+ * when the component is destroyed, by calling {@link #cancelAll()} from its lifecycle callback.
+ * <p>
+ * To be used only from the main thread.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class TaskScope {
+
+    //Saves the tokens of the tasks that are still pending
+    private final List<CancellationToken> mTokens = new ArrayList<>();
+
+    //Saves whether this scope is canceled
+    private boolean mCanceled;
+
+    /**
+     * Method that creates a new {@link CancellationToken} tracked by this scope.
+     * The token returned is already canceled when this scope is canceled.
+     *
+     * @return New instance of {@link CancellationToken}
+     */
+    public CancellationToken newToken() {
+        CancellationToken token = new CancellationToken();
+        if (mCanceled) {
+            //Canceling the token right away when the scope is no longer active
+            token.cancel();
+            return token;
+        }
+
+        //Dropping the tokens no longer pending, before tracking the new one
+        pruneFinishedTokens();
+        mTokens.add(token);
+
+        return token;
+    }
+
+    /**
+     * Method that cancels all the pending tasks of this scope. Tokens requested
+     * from this scope after this call, are returned as canceled.
+     * Usually called from the {@code onDestroy} of the component owning this scope.
+     */
+    public void cancelAll() {
+        mCanceled = true;
+        for (CancellationToken token : mTokens) {
+            token.cancel();
+        }
+        mTokens.clear();
+    }
+
+    /**
+     * Method that returns whether this scope is canceled
+     *
+     * @return <b>TRUE</b> when canceled; <b>FALSE</b> otherwise
+     */
+    public boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * Method that removes the tokens of the tasks no longer pending
+     */
+    private void pruneFinishedTokens() {
+        Iterator<CancellationToken> tokenIterator = mTokens.iterator();
+        while (tokenIterator.hasNext()) {
+            if (tokenIterator.next().isFinished()) {
+                tokenIterator.remove();
+            }
+        }
+    }
+
+}
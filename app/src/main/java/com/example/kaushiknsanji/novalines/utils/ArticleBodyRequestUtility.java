@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.utils;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URL;
+
+/**
+ * Utility Class that requests the HTML body of a News Article through its API URL,
+ * and parses it from the response.
+ *
+ * @author Kaushik N Sanji
+ */
+public class ArticleBodyRequestUtility {
+
+    //Constant used for logs
+    private static final String LOG_TAG = ArticleBodyRequestUtility.class.getSimpleName();
+
+    /**
+     * Private Constructor of {@link ArticleBodyRequestUtility}
+     */
+    private ArticleBodyRequestUtility() {
+    }
+
+    /**
+     * Method that requests and returns the HTML body of the News Article whose API URL is passed.
+     * To be called from a worker thread.
+     *
+     * @param context   is the Context of the Activity/Fragment or App
+     * @param apiUrlStr is the String containing the API URL of the News Article
+     * @return String containing the HTML body of the News Article, or null when not available
+     */
+    public static String downloadArticleBody(Context context, String apiUrlStr) {
+        URL bodyURL = new NewsURLGenerator(context).createArticleBodyURL(apiUrlStr);
+        return bodyURL != null ? parseArticleBody(JsonUtility.getJsonResponse(bodyURL)) : null;
+    }
+
+    /**
+     * Method that parses and returns the HTML body of the News Article from the JSON response passed
+     *
+     * @param jsonResponse is the JSON response of the News Article requested with its body
+     * @return String containing the HTML body of the News Article, or null when not present
+     */
+    private static String parseArticleBody(String jsonResponse) {
+        if (TextUtils.isEmpty(jsonResponse)) {
+            return null;
+        }
+
+        try {
+            JSONObject fieldsJsonObject = new JSONObject(jsonResponse)
+                    .getJSONObject("response")
+                    .getJSONObject("content")
+                    .optJSONObject("fields");
+            return fieldsJsonObject != null ? fieldsJsonObject.optString("body", null) : null;
+        } catch (JSONException e) {
+            Log.e(LOG_TAG, "Error occurred while parsing the News Article body\n", e);
+        }
+
+        //Returning null on failure
+        return null;
+    }
+}
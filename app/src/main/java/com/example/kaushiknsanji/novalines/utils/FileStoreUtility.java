@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.utils;
+
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility class that deals with the files of the local Stores and Disk Caches of the App,
+ * for writing them safely and naming them by their Keys.
+ *
+ * @author Kaushik N Sanji
+ */
+public class FileStoreUtility {
+
+    //Constant used for logs
+    private static final String LOG_TAG = FileStoreUtility.class.getSimpleName();
+
+    //Constant for the extension of the temporary files written
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    /**
+     * Private Constructor of {@link FileStoreUtility}
+     */
+    private FileStoreUtility() {
+    }
+
+    /**
+     * Method that writes the content of the file passed through a temporary file, which then replaces
+     * the file, so that the readers never see a partially written file. The temporary file is removed
+     * when the write fails. The callers must serialize the writes of the same file.
+     *
+     * @param file         is the {@link File} to be written
+     * @param streamWriter is the {@link StreamWriter} that writes the content of the file
+     * @return <b>TRUE</b> when the file was written; <b>FALSE</b> otherwise
+     */
+    public static boolean writeFile(File file, StreamWriter streamWriter) {
+        File tempFile = new File(file.getParentFile(), file.getName() + TEMP_FILE_EXTENSION);
+        OutputStream outputStream = null;
+        boolean written = false;
+        try {
+            outputStream = new BufferedOutputStream(new FileOutputStream(tempFile));
+            streamWriter.writeTo(outputStream);
+            outputStream.close();
+            outputStream = null;
+
+            //Replacing the previous file if any
+            written = tempFile.renameTo(file);
+            if (!written) {
+                Log.e(LOG_TAG, "Error occurred while renaming the file " + file.getName());
+            }
+
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while saving the file " + file.getName() + "\n", e);
+        } finally {
+            if (outputStream != null) {
+                try {
+                    outputStream.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error occurred while closing the file stream\n", e);
+                }
+            }
+            //Removing the temporary file if left behind
+            if (tempFile.exists() && !tempFile.delete()) {
+                Log.e(LOG_TAG, "Error occurred while deleting the temporary file " + tempFile.getName());
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * Method that generates the name of the file for the Key passed, without any extension,
+     * which is the MD5 hash of the Key
+     *
+     * @param keyStr is the String containing the Key of the file
+     * @return String containing the name of the file
+     */
+    public static String getHashedFileName(String keyStr) {
+        try {
+            //Generating the MD5 hash of the Key
+            MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+            byte[] digest = messageDigest.digest(keyStr.getBytes(Charset.forName("UTF-8")));
+            StringBuilder fileNameBuilder = new StringBuilder(digest.length * 2);
+            for (byte digestByte : digest) {
+                fileNameBuilder.append(Character.forDigit((digestByte >> 4) & 0xF, 16))
+                        .append(Character.forDigit(digestByte & 0xF, 16));
+            }
+            return fileNameBuilder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            //Falling back to the Hash Code of the Key
+            return Integer.toHexString(keyStr.hashCode());
+        }
+    }
+
+    /**
+     * Interface to be implemented by the callers of {@link #writeFile(File, StreamWriter)}
+     * for writing the content of the file.
+     */
+    public interface StreamWriter {
+        /**
+         * Method invoked to write the content of the file to the stream passed. Any stream wrapping
+         * the one passed must be flushed or closed before returning. The stream passed is closed by the caller.
+         *
+         * @param outputStream is the {@link OutputStream} of the file being written
+         * @throws IOException when the content could not be written
+         */
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+}
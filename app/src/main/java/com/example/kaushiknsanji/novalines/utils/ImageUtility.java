@@ -22,7 +22,9 @@ import android.os.Build;
 import android.text.TextUtils;
 import android.util.Log;
 
+import com.example.kaushiknsanji.novalines.BuildConfig;
 import com.example.kaushiknsanji.novalines.cache.BitmapImageCache;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
@@ -40,9 +42,48 @@ import java.net.URL;
  */
 public class ImageUtility {
 
+    //Constants for the modes of the Bitmap config used for decoding the Images
+    //Decodes all the Images to ARGB_8888
+    public static final int DECODE_MODE_ARGB_8888 = 0;
+    //Decodes the opaque Images to RGB_565 which takes half the memory, and the rest to ARGB_8888
+    public static final int DECODE_MODE_RGB_565 = 1;
+    //Decodes the Images to Hardware Bitmaps that keep their pixels only in the graphics memory,
+    //where supported (Android O and above). Falls back to DECODE_MODE_RGB_565 otherwise.
+    public static final int DECODE_MODE_HARDWARE = 2;
+
     //Constant used for logs
     private static final String LOG_TAG = ImageUtility.class.getSimpleName();
 
+    //Constant for the Mime Type of the JPEG Images, which are always opaque
+    private static final String MIME_TYPE_JPEG = "image/jpeg";
+
+    //Saves the mode of the Bitmap config used for decoding the Images, defaulted to the one configured for the build
+    private static volatile int sDecodeMode = BuildConfig.IMAGE_DECODE_MODE;
+
+    /**
+     * Method that sets the mode of the Bitmap config used for decoding the Images downloaded later
+     *
+     * @param decodeMode is one of {@link #DECODE_MODE_ARGB_8888}, {@link #DECODE_MODE_RGB_565}
+     *                   or {@link #DECODE_MODE_HARDWARE}
+     */
+    public static void setDecodeMode(int decodeMode) {
+        sDecodeMode = decodeMode;
+    }
+
+    /**
+     * Method that returns the memory taken by the Bitmap passed, which is the size
+     * of its allocation as it can be larger than the pixels of the Bitmap when reused
+     *
+     * @param bitmap is the Bitmap whose memory is to be measured
+     * @return The size of the Bitmap in bytes
+     */
+    public static int getBitmapFootprint(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return bitmap.getAllocationByteCount();
+        }
+        return bitmap.getByteCount();
+    }
+
     /**
      * Method that downloads and returns the Image from the URL mentioned
      * Also adds the Image to Memory Cache when successfully downloaded
@@ -67,6 +108,9 @@ public class ImageUtility {
         //Declaring the HTTP Input Stream
         InputStream imageInputStream = null;
 
+        //Starting the timer for the request
+        long startNanos = MetricsRegistry.startTimer();
+
         try {
             urlConnection = (HttpURLConnection) imageURL.openConnection();
             urlConnection.setConnectTimeout(10000); //10seconds as Connection Timeout
@@ -98,9 +142,16 @@ public class ImageUtility {
                 }
             }
 
+            //Recording the time taken for the request including the decode
+            MetricsRegistry.stopTimer(MetricsRegistry.NET_IMAGE_REQUEST, startNanos);
+
             //Adding the Bitmap to Memory Cache if generated
             if (bitmap != null) {
-                BitmapImageCache.addBitmapToCache(imageURLStr, bitmap);
+                //Using the Bitmap from the Memory Cache, which could have been added meanwhile by another download
+                bitmap = BitmapImageCache.addBitmapToCache(imageURLStr, bitmap);
+            } else {
+                //Counting the failed download
+                MetricsRegistry.incrementCounter(MetricsRegistry.NET_IMAGE_FAILURE);
             }
         }
 
@@ -108,6 +159,66 @@ public class ImageUtility {
         return bitmap;
     }
 
+    /**
+     * Method that downloads and returns the encoded bytes of the Image from the URL mentioned,
+     * without decoding them. Used for saving the Image as downloaded, which is already compressed.
+     *
+     * @param imageURLStr String containing the Image URL from which the Image needs to be downloaded
+     * @return Byte Array of the encoded Image downloaded, or null on failure
+     */
+    public static byte[] downloadBytesFromURL(String imageURLStr) {
+        //Creating the URL
+        URL imageURL = createURL(imageURLStr);
+
+        //Returning NULL when the URL of the Image URL string is not prepared due to some failure
+        if (imageURL == null) {
+            return null;
+        }
+
+        //Declaring the Byte Array to store the image downloaded
+        byte[] imageByteArray = null;
+
+        //Declaring the HTTP Connection
+        HttpURLConnection urlConnection = null;
+
+        //Starting the timer for the request
+        long startNanos = MetricsRegistry.startTimer();
+
+        try {
+            urlConnection = (HttpURLConnection) imageURL.openConnection();
+            urlConnection.setConnectTimeout(10000); //10seconds as Connection Timeout
+            urlConnection.connect(); //Connecting to the Image URL
+
+            if (urlConnection.getResponseCode() == HttpURLConnection.HTTP_OK) {
+                //When the Response code is OK(200), then read the Image bytes
+                //(The stream is closed after reading)
+                imageByteArray = getImageByteArrayForProcessing(urlConnection.getInputStream());
+            } else {
+                //When the response is not OK(200), then log the error code
+                Log.e(LOG_TAG, "HTTP Request to Image URL failed with the code " + urlConnection.getResponseCode());
+            }
+
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while opening connection to the Image URL\n", e);
+        } finally {
+            if (urlConnection != null) {
+                //Disconnecting in the end if the connection was established
+                urlConnection.disconnect();
+            }
+
+            //Recording the time taken for the request
+            MetricsRegistry.stopTimer(MetricsRegistry.NET_IMAGE_REQUEST, startNanos);
+
+            if (imageByteArray == null) {
+                //Counting the failed download
+                MetricsRegistry.incrementCounter(MetricsRegistry.NET_IMAGE_FAILURE);
+            }
+        }
+
+        //Returning the Image bytes downloaded
+        return imageByteArray;
+    }
+
     /**
      * Method that downloads, processes and constructs a Down Sampled Bitmap Image
      *
@@ -115,19 +226,44 @@ public class ImageUtility {
      * @return Down Sampled Bitmap Image downloaded from the Stream specified
      */
     private static Bitmap getSampledBitmapImage(InputStream imageInputStream) {
-        //Retrieving the Image Byte Array for downsampling
-        byte[] imageByteArray = getImageByteArrayForProcessing(imageInputStream);
+        //Retrieving the Image Byte Array for downsampling, and decoding the same
+        return decodeSampledBitmap(getImageByteArrayForProcessing(imageInputStream));
+    }
 
+    /**
+     * Method that decodes and returns a Down Sampled Bitmap Image from the encoded Image bytes passed
+     *
+     * @param imageByteArray The Byte Array of the encoded Image, as downloaded
+     * @return Down Sampled Bitmap Image decoded, or null when the Byte Array passed is null
+     */
+    public static Bitmap decodeSampledBitmap(byte[] imageByteArray) {
         //Returning NULL when the Image Byte array was not generated due to some failure
         if (imageByteArray == null) {
             return null;
         }
 
+        //Starting the timer for the decode
+        long startNanos = MetricsRegistry.startTimer();
+
+        //Decoding the Image Bounds and the Mime Type
+        BitmapFactory.Options boundsOptions = getImageBounds(imageByteArray);
+
         //Retrieving the Down Sampling factor to downsample the image if necessary
-        int downScalingFactorSize = getDownSamplingFactor(imageByteArray);
+        int downScalingFactorSize = getDownSamplingFactor(boundsOptions);
+
+        //Decoding the Down Sampled Bitmap Image with the config suitable for the Image
+        Bitmap bitmap = getDownSampledImage(imageByteArray, downScalingFactorSize,
+                MIME_TYPE_JPEG.equals(boundsOptions.outMimeType));
+
+        //Recording the time taken for the decode
+        MetricsRegistry.stopTimer(MetricsRegistry.IMAGE_DECODE, startNanos);
+        if (bitmap != null) {
+            //Recording the memory taken by the Bitmap decoded
+            MetricsRegistry.recordValue(MetricsRegistry.IMAGE_FOOTPRINT_BYTES, getBitmapFootprint(bitmap));
+        }
 
         //Returning the Down Sampled Bitmap Image
-        return getDownSampledImage(imageByteArray, downScalingFactorSize);
+        return bitmap;
     }
 
     /**
@@ -135,9 +271,10 @@ public class ImageUtility {
      *
      * @param imageByteArray        Image Byte Array generated for Image processing/downsampling
      * @param downScalingFactorSize Integer value of the downsampling factor to down scale the image
+     * @param isOpaque              Boolean indicating whether the Image is known to be opaque
      * @return Down Scaled Bitmap Image
      */
-    private static Bitmap getDownSampledImage(byte[] imageByteArray, int downScalingFactorSize) {
+    private static Bitmap getDownSampledImage(byte[] imageByteArray, int downScalingFactorSize, boolean isOpaque) {
         //Rendering the Downscaled Bitmap image through the BitmapFactory Options
         BitmapFactory.Options bitmapOptions = new BitmapFactory.Options();
         bitmapOptions.inJustDecodeBounds = false;
@@ -150,18 +287,31 @@ public class ImageUtility {
         //Setting the Down Scaling factor determined
         bitmapOptions.inSampleSize = downScalingFactorSize;
 
+        //Setting the Bitmap config as per the decode mode: START
+        int decodeMode = sDecodeMode;
+        if (decodeMode == DECODE_MODE_HARDWARE && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            //Hardware Bitmaps are always premultiplied
+            bitmapOptions.inPreferredConfig = Bitmap.Config.HARDWARE;
+            bitmapOptions.inPremultiplied = true;
+        } else if (decodeMode != DECODE_MODE_ARGB_8888 && isOpaque) {
+            //Opaque Images lose nothing with RGB_565, which takes half the memory of ARGB_8888
+            bitmapOptions.inPreferredConfig = Bitmap.Config.RGB_565;
+        } else {
+            bitmapOptions.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        }
+        //Setting the Bitmap config as per the decode mode: END
+
         //Returning the Down Scaled Image
         return BitmapFactory.decodeByteArray(imageByteArray, 0, imageByteArray.length, bitmapOptions);
     }
 
     /**
-     * Method that determines and returns the downsampling factor to down scale the image
-     * if necessary
+     * Method that decodes only the Image Bounds and the Mime Type of the Image
      *
      * @param imageByteArray Image Byte Array generated for Image processing/downsampling
-     * @return Integer value of the downsampling factor to down scale the image
+     * @return BitmapFactory Options containing the Image Bounds and the Mime Type decoded
      */
-    private static int getDownSamplingFactor(byte[] imageByteArray) {
+    private static BitmapFactory.Options getImageBounds(byte[] imageByteArray) {
         //Rendering only the Image Bounds through the BitmapFactory Options
         BitmapFactory.Options bitmapOptions = new BitmapFactory.Options();
         bitmapOptions.inJustDecodeBounds = true;
@@ -174,6 +324,18 @@ public class ImageUtility {
         //Decoding the Image Bounds
         BitmapFactory.decodeByteArray(imageByteArray, 0, imageByteArray.length, bitmapOptions);
 
+        //Returning the Options with the Image Bounds decoded
+        return bitmapOptions;
+    }
+
+    /**
+     * Method that determines and returns the downsampling factor to down scale the image
+     * if necessary
+     *
+     * @param bitmapOptions BitmapFactory Options containing the Image Bounds decoded
+     * @return Integer value of the downsampling factor to down scale the image
+     */
+    private static int getDownSamplingFactor(BitmapFactory.Options bitmapOptions) {
         //Setting the required dimensions of the Image to (400 x 300)
         int reqdWidth = 400;
         int reqdHeight = 300;
@@ -18,6 +18,8 @@ package com.example.kaushiknsanji.novalines.utils;
 
 import android.util.Log;
 
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -44,19 +46,28 @@ public class JsonUtility {
      */
     public static String getJsonResponse(final URL requestURLObject) {
         String jsonResponse = "";
+        //Starting the timer for the request
+        long startNanos = MetricsRegistry.startTimer();
         try {
             //Making the HTTP Request to retrieve the JSON Response
             jsonResponse = makeHttpGetRequest(requestURLObject);
         } catch (IOException e) {
             Log.e(LOG_TAG, "Error occurred while closing the URL Stream\n", e);
         }
+        //Recording the time taken for the request
+        MetricsRegistry.stopTimer(MetricsRegistry.NET_JSON_REQUEST, startNanos);
 
         //If the response received is null or empty, then return as NULL
         if (jsonResponse == null
                 || jsonResponse.trim().length() == 0) {
+            //Counting the failed request
+            MetricsRegistry.incrementCounter(MetricsRegistry.NET_JSON_FAILURE);
             return null;
         }
 
+        //Recording the size of the response
+        MetricsRegistry.recordValue(MetricsRegistry.NET_JSON_RESPONSE_CHARS, jsonResponse.length());
+
         //Returning the response received
         return jsonResponse;
     }
@@ -19,6 +19,7 @@ package com.example.kaushiknsanji.novalines.utils;
 import android.content.Context;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
+import android.support.v4.net.ConnectivityManagerCompat;
 
 /**
  * Utility class that deals with the Network related stuff
@@ -44,4 +45,20 @@ public class NetworkUtility {
         return activeNetworkInfo != null && activeNetworkInfo.isConnectedOrConnecting();
     }
 
+    /**
+     * Method that evaluates whether the current active data network is metered, which is
+     * to be considered for the downloads done ahead of the user's need
+     *
+     * @param context is the Context of the Application
+     * @return a Boolean representing whether the active data network is metered
+     * <br/><b>TRUE</b> if the active data network is metered, or when it cannot be determined
+     * <br/><b>FALSE</b> otherwise
+     */
+    public static boolean isActiveNetworkMetered(Context context) {
+        //Retrieving the Connectivity Manager from the Context
+        ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        //Treating as metered when the Connectivity Manager is not available
+        return connectivityManager == null || ConnectivityManagerCompat.isActiveNetworkMetered(connectivityManager);
+    }
+
 }
@@ -20,6 +20,8 @@ import android.content.Context;
 import android.util.Log;
 
 import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.cache.NewsArticleIdentityMap;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
 
 import org.json.JSONArray;
@@ -48,6 +50,9 @@ public class NewsArticleInfoParserUtility {
     //Stores the Number of Pages of data available for the News Query
     private int mPagesCount;
 
+    //Stores the total count of articles found for the News Query
+    private int mTotalArticleCount;
+
     /**
      * Constructor of {@link NewsArticleInfoParserUtility}
      *
@@ -75,11 +80,27 @@ public class NewsArticleInfoParserUtility {
         //Firing a Request to the URL and retrieving the JSON Response
         String jsonResponse = JsonUtility.getJsonResponse(requestURLObject);
 
+        //Parsing and returning the list of NewsArticleInfo objects
+        return parseNewsArticleFeed(jsonResponse);
+    }
+
+    /**
+     * Method that extracts the News Articles information from the JSON Response passed
+     * and builds a list of {@link NewsArticleInfo} objects.
+     *
+     * @param jsonResponse is the String containing the JSON Response of a News query
+     * @return List of {@link NewsArticleInfo} objects containing the parsed information of all
+     * the News articles found in the JSON Response
+     */
+    public List<NewsArticleInfo> parseNewsArticleFeed(final String jsonResponse) {
         //Returning Null when there is no JSON Response
         if (jsonResponse == null) {
             return null;
         }
 
+        //Starting the timer for the parse
+        long startNanos = MetricsRegistry.startTimer();
+
         //Initializing an ArrayList of NewsArticleInfo objects to store the data parsed
         ArrayList<NewsArticleInfo> newsArticleInfoList = new ArrayList<>();
 
@@ -117,6 +138,9 @@ public class NewsArticleInfoParserUtility {
             Log.e(LOG_TAG, "Error occurred while parsing the JSON Response\n", e);
         }
 
+        //Recording the time taken for the parse
+        MetricsRegistry.stopTimer(MetricsRegistry.PARSE_ARTICLES, startNanos);
+
         //Returning the list of NewsArticleInfo objects parsed
         return newsArticleInfoList;
     }
@@ -143,8 +167,8 @@ public class NewsArticleInfoParserUtility {
         mPagesCount = responseJsonObject.optInt("pages", 0);
         //Retrieving the number of News Articles found in the active page
         int activePageArticleCount = resultsJsonArray.length();
-        //Determining the total number of News Articles
-        int totalArticleCount = mPagesCount > 0 ? responseJsonObject.getInt("total") : activePageArticleCount;
+        //Determining the total number of News Articles. This will be used for pagination if required
+        mTotalArticleCount = mPagesCount > 0 ? responseJsonObject.getInt("total") : activePageArticleCount;
 
         //Iterating over the News articles found to extract the data
         for (int index = 0; index < activePageArticleCount; index++) {
@@ -155,10 +179,9 @@ public class NewsArticleInfoParserUtility {
             NewsArticleInfo newsArticleInfo = new NewsArticleInfo();
 
             //Updating the NewsArticleInfo Object with the details: START
+            newsArticleInfo.setArticleId(itemResultJsonObject.optString("id", ""));
             newsArticleInfo.setSectionId(itemResultJsonObject.getString("sectionId"));
             newsArticleInfo.setSectionName(itemResultJsonObject.getString("sectionName"));
-            //Storing the total article count found. This will be used for pagination if required
-            newsArticleInfo.setNewsArticleCount(totalArticleCount);
             newsArticleInfo.setPublishedDate(itemResultJsonObject.optString("webPublicationDate", ""));
             newsArticleInfo.setNewsTitle(itemResultJsonObject.getString("webTitle"));
             newsArticleInfo.setWebUrl(itemResultJsonObject.getString("webUrl"));
@@ -173,8 +196,9 @@ public class NewsArticleInfoParserUtility {
             newsArticleInfo.setThumbImageUrl(newsFieldsJsonObject.optString("thumbnail", ""));
             //Updating the NewsArticleInfo Object with the details: END
 
-            //Appending the NewsArticleInfo Object to the list
-            newsArticleInfoList.add(newsArticleInfo);
+            //Appending the canonical instance of the NewsArticleInfo Object to the list,
+            //shared with the other tabs and pages showing the same News Article
+            newsArticleInfoList.add(NewsArticleIdentityMap.canonicalize(newsArticleInfo));
         }
 
     }
@@ -188,4 +212,13 @@ public class NewsArticleInfoParserUtility {
         return mPagesCount;
     }
 
+    /**
+     * Method that returns the total count of articles found for the News Query
+     *
+     * @return Total count of articles found for the News Query
+     */
+    public int getTotalArticleCount() {
+        return mTotalArticleCount;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.utils;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Utility Class that fires the News Feed requests and parses their response, coalescing
+ * the concurrent requests for the same News Query URL into a single network call and parse.
+ * <p>
+ * The first caller of a News Query URL performs the request, while the callers of the same URL
+ * arriving before it completes wait for and share its result. The URLs are normalized on their
+ * scheme, host and the order of their query parameters, prior to matching.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class NewsFeedRequestUtility {
+
+    //Constant used for logs
+    private static final String LOG_TAG = NewsFeedRequestUtility.class.getSimpleName();
+
+    //Saves the requests in flight, keyed by their normalized News Query URL
+    private static final Map<String, FeedRequest> sInFlightRequests = new HashMap<>();
+
+    /**
+     * Private Constructor of {@link NewsFeedRequestUtility}
+     */
+    private NewsFeedRequestUtility() {
+    }
+
+    /**
+     * Method that makes a request to the News Query URL passed and returns the News Articles parsed from
+     * the response. When a request for the same URL is already in flight, waits for and shares its result instead.
+     * To be called from a worker thread.
+     *
+     * @param context          is the Context of the Activity/Fragment or App
+     * @param requestURLObject is the URL object for a particular News query
+     * @return The {@link FeedResult} holding the News Articles parsed, and the Number of Pages and the total count
+     * of articles available
+     */
+    public static FeedResult getNewsArticleFeed(Context context, final URL requestURLObject) {
+        //Returning an empty result when there is no URL
+        if (requestURLObject == null) {
+            return new FeedResult(null, 0, 0, false);
+        }
+
+        //Retrieving the normalized URL to match the requests in flight
+        String requestKey = normalizeURL(requestURLObject);
+
+        //Joining the request in flight if any, else registering a new request: START
+        FeedRequest feedRequest;
+        boolean isLeader = false;
+        synchronized (sInFlightRequests) {
+            feedRequest = sInFlightRequests.get(requestKey);
+            if (feedRequest == null) {
+                feedRequest = new FeedRequest();
+                sInFlightRequests.put(requestKey, feedRequest);
+                isLeader = true;
+            }
+        }
+        //Joining the request in flight if any, else registering a new request: END
+
+        if (!isLeader) {
+            //Waiting for the result of the request in flight, and sharing the same
+            MetricsRegistry.incrementCounter(MetricsRegistry.NET_JSON_COALESCED);
+            return feedRequest.awaitResult();
+        }
+
+        //Performing the request, as the first caller of the URL
+        List<NewsArticleInfo> newsArticleInfoList = null;
+        int pagesCount = 0;
+        int totalArticleCount = 0;
+        try {
+            NewsArticleInfoParserUtility articleInfoParserUtility = new NewsArticleInfoParserUtility(context);
+            newsArticleInfoList = articleInfoParserUtility.getNewsArticleFeed(requestURLObject);
+            pagesCount = articleInfoParserUtility.getPagesCount();
+            totalArticleCount = articleInfoParserUtility.getTotalArticleCount();
+        } finally {
+            //Unregistering the request, so that the callers arriving later make a new request
+            synchronized (sInFlightRequests) {
+                sInFlightRequests.remove(requestKey);
+            }
+            //Publishing the result to the callers waiting
+            feedRequest.setResult(newsArticleInfoList, pagesCount, totalArticleCount);
+        }
+
+        //Returning the result of the request
+        return new FeedResult(newsArticleInfoList, pagesCount, totalArticleCount, false);
+    }
+
+    /**
+     * Method that normalizes the URL passed on its scheme, host and the order of its query parameters
+     *
+     * @param requestURLObject is the URL object to be normalized
+     * @return String of the normalized URL
+     */
+    private static String normalizeURL(URL requestURLObject) {
+        Uri requestUri = Uri.parse(requestURLObject.toExternalForm());
+
+        //Rebuilding the URL with the lowercase scheme and host, without the query parameters
+        Uri.Builder uriBuilder = requestUri.buildUpon().clearQuery();
+        if (requestUri.getScheme() != null) {
+            uriBuilder.scheme(requestUri.getScheme().toLowerCase(Locale.US));
+        }
+        if (requestUri.getEncodedAuthority() != null) {
+            uriBuilder.encodedAuthority(requestUri.getEncodedAuthority().toLowerCase(Locale.US));
+        }
+
+        //Appending the query parameters sorted by their names
+        for (String parameterName : new TreeSet<>(requestUri.getQueryParameterNames())) {
+            for (String parameterValue : requestUri.getQueryParameters(parameterName)) {
+                uriBuilder.appendQueryParameter(parameterName, parameterValue);
+            }
+        }
+
+        return uriBuilder.build().toString();
+    }
+
+    /**
+     * Class that holds the result of a News Feed request
+     */
+    public static class FeedResult {
+
+        //The News Articles parsed, or null when the request failed
+        private final List<NewsArticleInfo> mNewsArticleInfoList;
+        //The Number of Pages of data available for the News Query
+        private final int mPagesCount;
+        //The total count of articles found for the News Query
+        private final int mTotalArticleCount;
+        //Whether the result was shared from the request of another caller
+        private final boolean mShared;
+
+        /**
+         * Constructor of {@link FeedResult}
+         *
+         * @param newsArticleInfoList is the List of News Articles parsed, or null when the request failed
+         * @param pagesCount          is the Number of Pages of data available for the News Query
+         * @param totalArticleCount   is the total count of articles found for the News Query
+         * @param shared              is whether the result was shared from the request of another caller
+         */
+        FeedResult(List<NewsArticleInfo> newsArticleInfoList, int pagesCount, int totalArticleCount, boolean shared) {
+            mNewsArticleInfoList = newsArticleInfoList;
+            mPagesCount = pagesCount;
+            mTotalArticleCount = totalArticleCount;
+            mShared = shared;
+        }
+
+        /**
+         * Method that returns the News Articles parsed
+         *
+         * @return List of {@link NewsArticleInfo} objects parsed, or null when the request failed
+         */
+        public List<NewsArticleInfo> getNewsArticleInfoList() {
+            return mNewsArticleInfoList;
+        }
+
+        /**
+         * Method that returns the Number of Pages of data available for the News Query
+         *
+         * @return Number of Pages of data available for the News Query
+         */
+        public int getPagesCount() {
+            return mPagesCount;
+        }
+
+        /**
+         * Method that returns the total count of articles found for the News Query
+         *
+         * @return Total count of articles found for the News Query
+         */
+        public int getTotalArticleCount() {
+            return mTotalArticleCount;
+        }
+
+        /**
+         * Method that returns whether the result was shared from the request of another caller
+         *
+         * @return <b>TRUE</b> when shared from the request of another caller;
+         * <b>FALSE</b> when this caller made the request
+         */
+        public boolean isShared() {
+            return mShared;
+        }
+    }
+
+    /**
+     * Class for a News Feed request in flight, on which the callers of the same URL wait for its result
+     */
+    private static class FeedRequest {
+
+        //Latch released when the result is available
+        private final CountDownLatch mResultLatch = new CountDownLatch(1);
+        //The News Articles parsed, or null when the request failed
+        private volatile List<NewsArticleInfo> mNewsArticleInfoList;
+        //The Number of Pages of data available for the News Query
+        private volatile int mPagesCount;
+        //The total count of articles found for the News Query
+        private volatile int mTotalArticleCount;
+
+        /**
+         * Method that publishes the result of the request and releases the callers waiting
+         *
+         * @param newsArticleInfoList is the List of News Articles parsed, or null when the request failed
+         * @param pagesCount          is the Number of Pages of data available for the News Query
+         * @param totalArticleCount   is the total count of articles found for the News Query
+         */
+        void setResult(List<NewsArticleInfo> newsArticleInfoList, int pagesCount, int totalArticleCount) {
+            mNewsArticleInfoList = newsArticleInfoList;
+            mPagesCount = pagesCount;
+            mTotalArticleCount = totalArticleCount;
+            mResultLatch.countDown();
+        }
+
+        /**
+         * Method that waits for the result of the request and returns it. Each caller receives
+         * its own List, holding the same canonical News Articles.
+         *
+         * @return The {@link FeedResult} shared, or an empty result when interrupted
+         */
+        FeedResult awaitResult() {
+            try {
+                mResultLatch.await();
+            } catch (InterruptedException e) {
+                Log.e(LOG_TAG, "Error occurred while waiting for the News Feed request in flight\n", e);
+                //Restoring the interrupt status
+                Thread.currentThread().interrupt();
+                return new FeedResult(null, 0, 0, true);
+            }
+
+            List<NewsArticleInfo> newsArticleInfoList = mNewsArticleInfoList;
+            return new FeedResult(newsArticleInfoList != null ? new ArrayList<>(newsArticleInfoList) : null,
+                    mPagesCount, mTotalArticleCount, true);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import android.content.Context;
 import android.util.Log;
 
 import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsSectionInfo;
 
 import org.json.JSONArray;
@@ -59,11 +60,28 @@ public class NewsSectionInfoParserUtility {
         //Firing a Request to the URL and retrieving the JSON Response
         String jsonResponse = JsonUtility.getJsonResponse(requestURLObject);
 
+        //Parsing and returning the NewsSectionInfo object
+        return parseNewsSectionInfo(sectionIdStr, appContext, jsonResponse);
+    }
+
+    /**
+     * Method that extracts the News Section information from the JSON Response passed
+     * and builds the {@link NewsSectionInfo} object for the News 'Section ID'.
+     *
+     * @param sectionIdStr is the Section ID of the News to be extracted for info
+     * @param appContext   is the Application {@link Context}
+     * @param jsonResponse is the String containing the JSON Response of the News section
+     * @return {@link NewsSectionInfo} object updated the News Section related information
+     */
+    public static NewsSectionInfo parseNewsSectionInfo(final String sectionIdStr, final Context appContext, final String jsonResponse) {
         //Returning Null when there is no JSON Response
         if (jsonResponse == null) {
             return null;
         }
 
+        //Starting the timer for the parse
+        long startNanos = MetricsRegistry.startTimer();
+
         //Creating the NewsSectionInfo object
         NewsSectionInfo newsSectionInfo = new NewsSectionInfo();
 
@@ -120,6 +138,9 @@ public class NewsSectionInfoParserUtility {
             Log.e(LOG_TAG, "Error occurred while parsing the JSON Response\n", e);
         }
 
+        //Recording the time taken for the parse
+        MetricsRegistry.stopTimer(MetricsRegistry.PARSE_SECTION, startNanos);
+
         //Returning the NewsSectionInfo object for the News Section URL
         return newsSectionInfo;
     }
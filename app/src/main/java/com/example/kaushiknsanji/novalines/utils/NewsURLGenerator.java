@@ -24,12 +24,14 @@ import android.util.Log;
 
 import com.example.kaushiknsanji.novalines.BuildConfig;
 import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.models.PaginationState;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
 /**
  * Utility Class that generates News Request URLs for -
@@ -46,6 +48,9 @@ public class NewsURLGenerator {
     private static final String LOG_TAG = NewsURLGenerator.class.getSimpleName();
     //Base URL Constant used for the News API Calls
     private static final String NEWS_BASE_URL = "https://content.guardianapis.com";
+    //Stores the Base URL currently used for the News API Calls, which can be overridden
+    //to point to a stand-in server such as the MockGuardianServer
+    private static volatile String sBaseUrl = NEWS_BASE_URL;
     //Constant for the International Path Segment of the Base URL
     private static final String INTERNATIONAL_PATH_SEGMENT = "international";
     //Constant for the Search Path Segment of the Base URL
@@ -54,10 +59,23 @@ public class NewsURLGenerator {
     private static final String API_KEY_PARAM_NAME = "api-key";
     private static final String API_KEY_PARAM_VALUE = BuildConfig.GUARDIAN_API_KEY; //The Actual API KEY value
     private static final String API_KEY_PARAM_VALUE_DEMO = "test"; //The Demo API KEY used when Actual Key is not available
+    //Constants for the 'use-date' Query Parameter used by the incremental requests
+    private static final String USE_DATE_PARAM_NAME = "use-date";
+    private static final String USE_DATE_LAST_MODIFIED = "last-modified";
+    //Constants for the 'order-by' and 'order-date' values that support the incremental requests
+    private static final String ORDER_BY_NEWEST = "newest";
+    private static final String ORDER_DATE_PUBLISHED = "published";
+    private static final String ORDER_DATE_LAST_MODIFIED = "last-modified";
+    //Constant for the format of the 'from-date' used by the incremental requests, which is in UTC
+    private static final String DELTA_FROM_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+    //Constant for the 'show-fields' value that requests the body of the News Article
+    private static final String SHOW_FIELDS_BODY = "body";
     //Stores reference to App Context
     private Context mAppContext;
     //Stores whether the URL Generation is required for only Article Count purposes
     private boolean mCountMode;
+    //Stores the Pagination state of the screen, that provides the 'page' to request
+    private PaginationState mPaginationState;
 
     /**
      * Constructor that gives the instance of {@link NewsURLGenerator}
@@ -85,6 +103,38 @@ public class NewsURLGenerator {
         mCountMode = countMode;
     }
 
+    /**
+     * Constructor that gives the instance of {@link NewsURLGenerator}
+     * for the Generic purpose, that requests the 'page' of the Pagination state passed
+     *
+     * @param context         is the Context of the Activity/Fragment or App
+     * @param paginationState is the {@link PaginationState} of the screen, which when null,
+     *                        requests the first page
+     */
+    public NewsURLGenerator(Context context, PaginationState paginationState) {
+        mAppContext = context.getApplicationContext();
+        mCountMode = false;
+        mPaginationState = paginationState;
+    }
+
+    /**
+     * Method that overrides the Base URL used for the News API Calls
+     *
+     * @param baseUrl is the String containing the Base URL to be used, or null to restore the default
+     */
+    public static void setBaseUrl(String baseUrl) {
+        sBaseUrl = TextUtils.isEmpty(baseUrl) ? NEWS_BASE_URL : baseUrl;
+    }
+
+    /**
+     * Method that returns the Base URL currently used for the News API Calls
+     *
+     * @return String containing the Base URL currently used
+     */
+    public static String getBaseUrl() {
+        return sBaseUrl;
+    }
+
     /**
      * Method that prepares and returns a URL based on the News 'Section ID' being passed
      *
@@ -97,8 +147,8 @@ public class NewsURLGenerator {
             return null;
         }
 
-        //Forming the Base URI with the BASE URL constant
-        Uri uriObject = Uri.parse(NEWS_BASE_URL);
+        //Forming the Base URI with the BASE URL currently used
+        Uri uriObject = Uri.parse(sBaseUrl);
 
         //Retrieving the URI Builder
         Uri.Builder uriBuilder = uriObject.buildUpon();
@@ -130,8 +180,8 @@ public class NewsURLGenerator {
             return null;
         }
 
-        //Forming the Base URI with the BASE URL constant
-        Uri uriObject = Uri.parse(NEWS_BASE_URL);
+        //Forming the Base URI with the BASE URL currently used
+        Uri uriObject = Uri.parse(sBaseUrl);
 
         //Retrieving the URI Builder
         Uri.Builder uriBuilder = uriObject.buildUpon();
@@ -146,6 +196,104 @@ public class NewsURLGenerator {
         return buildURL(uriBuilder);
     }
 
+    /**
+     * Method that prepares and returns the URL of an incremental request for the News Query URL passed,
+     * that requests only the News Articles modified since the time passed. Supported only for the first page
+     * of the Section and Search queries sorted by the newest, on the date of publication or the last update.
+     *
+     * @param requestURLObject is the URL object of the News Query, as generated by this class
+     * @param sinceMillis      is the time in millis since which the modified News Articles are to be requested
+     * @return URL object of the incremental request, or null when the News Query passed does not support it
+     */
+    @SuppressLint("SimpleDateFormat")
+    public URL createDeltaURL(final URL requestURLObject, long sinceMillis) {
+        //Returning NULL when there is no URL
+        if (requestURLObject == null) {
+            return null;
+        }
+
+        Uri requestUri = Uri.parse(requestURLObject.toExternalForm());
+
+        //Validating the News Query for the incremental request: START
+        if (requestUri.getPathSegments().contains(INTERNATIONAL_PATH_SEGMENT)) {
+            //Not supported for the "Top Stories" and "Most Visited" News, which are not paginated
+            return null;
+        }
+
+        String pageIndexKeyStr = PreferencesUtility.getStartPageIndexKey(mAppContext);
+        String pageIndexStr = requestUri.getQueryParameter(pageIndexKeyStr);
+        if (pageIndexStr != null
+                && !pageIndexStr.equals(String.valueOf(PreferencesUtility.getDefaultStartPageIndex(mAppContext)))) {
+            //Supported only for the first page
+            return null;
+        }
+
+        String sortByKeyStr = PreferencesUtility.getSortByKey(mAppContext);
+        String sortBasedOnKeyStr = PreferencesUtility.getSortBasedOnKey(mAppContext);
+        String sortBasedOnStr = requestUri.getQueryParameter(sortBasedOnKeyStr);
+        if (!ORDER_BY_NEWEST.equals(requestUri.getQueryParameter(sortByKeyStr))
+                || !(ORDER_DATE_PUBLISHED.equals(sortBasedOnStr) || ORDER_DATE_LAST_MODIFIED.equals(sortBasedOnStr))) {
+            //Supported only when sorted by the newest, on the date of publication or the last update
+            return null;
+        }
+        //Validating the News Query for the incremental request: END
+
+        //Rebuilding the URI with the Query Parameters of the News Query, except the date and page related ones: START
+        String startPeriodKeyStr = PreferencesUtility.getStartPeriodKey(mAppContext);
+        Uri.Builder uriBuilder = requestUri.buildUpon().clearQuery();
+        for (String parameterName : requestUri.getQueryParameterNames()) {
+            if (parameterName.equals(startPeriodKeyStr)
+                    || parameterName.equals(pageIndexKeyStr)
+                    || parameterName.equals(USE_DATE_PARAM_NAME)) {
+                continue;
+            }
+            for (String parameterValue : requestUri.getQueryParameters(parameterName)) {
+                uriBuilder.appendQueryParameter(parameterName, parameterValue);
+            }
+        }
+        //Rebuilding the URI with the Query Parameters of the News Query, except the date and page related ones: END
+
+        //Appending the 'from-date' as the time since which the modified News Articles are to be requested
+        SimpleDateFormat deltaFromDateFormat = new SimpleDateFormat(DELTA_FROM_DATE_FORMAT);
+        deltaFromDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        uriBuilder.appendQueryParameter(startPeriodKeyStr, deltaFromDateFormat.format(new Date(sinceMillis)));
+
+        //Appending the 'use-date' to apply the 'from-date' on the date of the last update
+        uriBuilder.appendQueryParameter(USE_DATE_PARAM_NAME, USE_DATE_LAST_MODIFIED);
+
+        //Appending the first 'page'
+        uriBuilder.appendQueryParameter(pageIndexKeyStr,
+                String.valueOf(PreferencesUtility.getDefaultStartPageIndex(mAppContext)));
+
+        //Preparing and returning the URL Object formed
+        return buildURL(uriBuilder);
+    }
+
+    /**
+     * Method that prepares and returns the URL for the body of the News Article, whose API URL is passed
+     *
+     * @param apiUrlStr is the String containing the API URL of the News Article
+     * @return URL object for the body of the News Article
+     */
+    public URL createArticleBodyURL(final String apiUrlStr) {
+        //Returning NULL when the API URL string is empty
+        if (TextUtils.isEmpty(apiUrlStr)) {
+            return null;
+        }
+
+        //Retrieving the URI Builder of the API URL
+        Uri.Builder uriBuilder = Uri.parse(apiUrlStr).buildUpon();
+
+        //Appending the field for the body of the News Article
+        uriBuilder.appendQueryParameter(mAppContext.getString(R.string.show_fields_parameter), SHOW_FIELDS_BODY);
+
+        //Appending the API KEY for the request
+        appendApiKeyParam(uriBuilder);
+
+        //Preparing and returning the URL Object formed
+        return buildURL(uriBuilder);
+    }
+
     /**
      * Method that forms the URL from the URI built
      *
@@ -301,10 +449,11 @@ public class NewsURLGenerator {
                     String.valueOf(PreferencesUtility.getDefaultStartPageIndex(mAppContext))
             );
         } else {
-            //Using the current 'page' setting value for Generic purpose
+            //Using the current 'page' index of the screen for Generic purpose
             uriBuilder.appendQueryParameter(
                     pageIndexKeyStr,
-                    String.valueOf(PreferencesUtility.getStartPageIndex(mAppContext))
+                    String.valueOf(mPaginationState != null ?
+                            mPaginationState.getStartPageIndex() : PreferencesUtility.getDefaultStartPageIndex(mAppContext))
             );
         }
         //Appending the 'page' preference setting: END
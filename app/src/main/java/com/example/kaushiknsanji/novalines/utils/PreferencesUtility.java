@@ -237,130 +237,6 @@ public class PreferencesUtility {
         return context.getString(R.string.pref_today_date_key);
     }
 
-    /**
-     * Method that returns the current 'page' (Page to Display) setting value
-     * from the SharedPreferences
-     *
-     * @param context is the Context of the Fragment/Activity
-     * @return Integer value of the current 'page' (Page to Display) setting
-     */
-    public static int getStartPageIndex(Context context) {
-        return getStartPageIndex(context, PreferenceManager.getDefaultSharedPreferences(context));
-    }
-
-    /**
-     * Method that returns the current 'page' (Page to Display) setting value
-     * from the SharedPreferences
-     *
-     * @param context           is the Context of the Fragment/Activity
-     * @param sharedPreferences is the instance of the {@link SharedPreferences}
-     * @return Integer value of the current 'page' (Page to Display) setting
-     */
-    public static int getStartPageIndex(Context context, SharedPreferences sharedPreferences) {
-        //Returning the current value of 'page' (Page to Display) setting
-        return sharedPreferences.getInt(
-                getStartPageIndexKey(context),
-                getDefaultStartPageIndex(context)
-        );
-    }
-
-    /**
-     * Method that updates the current 'page' (Page to Display) setting value
-     * with the given new value #newValue
-     *
-     * @param context  is the Context of the Fragment/Activity
-     * @param newValue Integer value to be updated on the current 'page' (Page to Display) setting
-     */
-    public static void updateStartPageIndex(Context context, int newValue) {
-        updateStartPageIndex(context, PreferenceManager.getDefaultSharedPreferences(context), newValue);
-    }
-
-    /**
-     * Method that updates the current 'page' (Page to Display) setting value
-     * with the given new value #newValue
-     *
-     * @param context           is the Context of the Fragment/Activity
-     * @param sharedPreferences is the instance of the {@link SharedPreferences}
-     * @param newValue          Integer value to be updated on the current 'page' (Page to Display) setting
-     */
-    public static void updateStartPageIndex(Context context, SharedPreferences sharedPreferences, int newValue) {
-        //Opening the Editor to update the value
-        SharedPreferences.Editor prefEditor = sharedPreferences.edit();
-        //Updating with the given new value
-        prefEditor.putInt(
-                getStartPageIndexKey(context),
-                newValue
-        );
-        prefEditor.apply(); //applying the changes
-    }
-
-    /**
-     * Method that returns the current 'endIndex' setting value which is the Maximum value of the 'Page to Display' setting
-     *
-     * @param context is the Context of the Fragment/Activity
-     * @return Integer value of the current 'endIndex' setting which is the Maximum value of the 'Page to Display' setting
-     * This method uses the default value of 'page' (Page to Display) setting while retrieving the value of current 'endIndex'.
-     */
-    public static int getLastPageIndex(Context context) {
-        return getLastPageIndex(context, PreferenceManager.getDefaultSharedPreferences(context), getDefaultStartPageIndex(context));
-    }
-
-    /**
-     * Method that returns the current 'endIndex' setting value which is the Maximum value of the 'Page to Display' setting
-     *
-     * @param context          is the Context of the Fragment/Activity
-     * @param defaultPageIndex is the Default value to return when the 'endIndex' is not set
-     * @return Integer value of the current 'endIndex' setting which is the Maximum value of the 'Page to Display' setting
-     */
-    public static int getLastPageIndex(Context context, int defaultPageIndex) {
-        return getLastPageIndex(context, PreferenceManager.getDefaultSharedPreferences(context), defaultPageIndex);
-    }
-
-    /**
-     * Method that returns the current 'endIndex' setting value which is the Maximum value of the 'Page to Display' setting
-     *
-     * @param context           is the Context of the Fragment/Activity
-     * @param sharedPreferences is the instance of the {@link SharedPreferences}
-     * @param defaultPageIndex  is the Default value to return when the 'endIndex' is not set
-     * @return Integer value of the current 'endIndex' setting which is the Maximum value of the 'Page to Display' setting
-     */
-    public static int getLastPageIndex(Context context, SharedPreferences sharedPreferences, int defaultPageIndex) {
-        return sharedPreferences.getInt(
-                getLastPageIndexKey(context),
-                defaultPageIndex
-        );
-    }
-
-    /**
-     * Method that updates the current 'endIndex' setting which is the Maximum value of the 'Page to Display' setting
-     * with the given new value #newValue
-     *
-     * @param context  is the Context of the Fragment/Activity
-     * @param newValue Integer value to be updated on the current 'endIndex' setting
-     */
-    public static void updateLastPageIndex(Context context, int newValue) {
-        updateLastPageIndex(context, PreferenceManager.getDefaultSharedPreferences(context), newValue);
-    }
-
-    /**
-     * Method that updates the current 'endIndex' setting which is the Maximum value of the 'Page to Display' setting
-     * with the given new value #newValue
-     *
-     * @param context           is the Context of the Fragment/Activity
-     * @param sharedPreferences is the instance of the {@link SharedPreferences}
-     * @param newValue          Integer value to be updated on the current 'endIndex' setting
-     */
-    public static void updateLastPageIndex(Context context, SharedPreferences sharedPreferences, int newValue) {
-        //Opening the Editor to update the value
-        SharedPreferences.Editor prefEditor = sharedPreferences.edit();
-        //Updating with the given new value
-        prefEditor.putInt(
-                getLastPageIndexKey(context),
-                newValue
-        );
-        prefEditor.apply(); //applying the changes
-    }
-
     /**
      * Method that returns the value of "Start Period Preset/Manual" CheckBoxPreference
      *
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utility class that records the timings of the phases of the App startup,
+ * and runs the non-critical startup work deferred till the first frame is drawn.
+ * <p>
+ * All the methods are to be called from the main thread.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class StartupTraceUtility {
+
+    //Constant used for logs
+    private static final String LOG_TAG = StartupTraceUtility.class.getSimpleName();
+
+    //Constant for the name of the phase that ends with the first frame drawn
+    public static final String PHASE_FIRST_DRAW = "FirstDraw";
+
+    //Saves the start time of the phases in progress, by their names
+    private static final Map<String, Long> sPhaseStartMillis = new LinkedHashMap<>();
+
+    //Saves the duration of the phases completed, by their names, in the order of completion
+    private static final Map<String, Long> sPhaseDurationMillis = new LinkedHashMap<>();
+
+    /**
+     * Method that marks the start of a startup phase
+     *
+     * @param phaseName is the String name of the phase
+     */
+    public static void beginPhase(String phaseName) {
+        sPhaseStartMillis.put(phaseName, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Method that marks the end of a startup phase previously started with {@link #beginPhase(String)}
+     * and records its duration
+     *
+     * @param phaseName is the String name of the phase
+     */
+    public static void endPhase(String phaseName) {
+        Long startMillis = sPhaseStartMillis.remove(phaseName);
+        if (startMillis != null) {
+            //Recording the duration when the phase was started
+            long durationMillis = SystemClock.elapsedRealtime() - startMillis;
+            sPhaseDurationMillis.put(phaseName, durationMillis);
+            //Publishing the duration to the Metrics as well, in microseconds like the other Timers
+            MetricsRegistry.recordValue(MetricsRegistry.STARTUP_PREFIX + phaseName, durationMillis * 1000L);
+        }
+    }
+
+    /**
+     * Method that returns the durations of the startup phases completed so far
+     *
+     * @return Map of the phase names to their durations in milliseconds, in the order of completion
+     */
+    public static Map<String, Long> getPhaseTimings() {
+        return new LinkedHashMap<>(sPhaseDurationMillis);
+    }
+
+    /**
+     * Method that registers a one-time listener on the {@link View} passed, to end the
+     * phase {@link #PHASE_FIRST_DRAW} and then run the deferred startup work
+     * after the first frame of the View is drawn.
+     *
+     * @param rootView         is the root {@link View} of the Activity whose first frame is to be traced
+     * @param deferredRunnable is the {@link Runnable} of the non-critical startup work to be run after the first frame
+     */
+    public static void runAfterFirstDraw(final View rootView, final Runnable deferredRunnable) {
+        rootView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            /**
+             * Callback method to be invoked when the view tree is about to be drawn. At this point, all
+             * views in the tree have been measured and given a frame.
+             *
+             * @return Return true to proceed with the current drawing pass, or false to cancel.
+             */
+            @Override
+            public boolean onPreDraw() {
+                //Removing the listener as it is required only for the first frame
+                rootView.getViewTreeObserver().removeOnPreDrawListener(this);
+
+                //Posting to run after the current frame is drawn
+                new Handler(Looper.getMainLooper()).post(new Runnable() {
+                    @Override
+                    public void run() {
+                        //Recording the end of the first frame
+                        endPhase(PHASE_FIRST_DRAW);
+                        //Running the deferred startup work
+                        deferredRunnable.run();
+                        //Logging the timings recorded
+                        logPhaseTimings();
+                    }
+                });
+
+                //Proceeding with the current drawing pass
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Method that logs the durations of the startup phases completed so far
+     */
+    public static void logPhaseTimings() {
+        for (Map.Entry<String, Long> phaseEntry : sPhaseDurationMillis.entrySet()) {
+            Log.i(LOG_TAG, "logPhaseTimings: " + phaseEntry.getKey() + " took " + phaseEntry.getValue() + "ms");
+        }
+    }
+
+}
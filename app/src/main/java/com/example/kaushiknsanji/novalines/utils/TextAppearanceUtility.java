@@ -102,16 +102,46 @@ public class TextAppearanceUtility {
     public static void setHtmlText(TextView textView, String htmlTextToSet) {
         //Initializing a SpannableStringBuilder to build the text
         SpannableStringBuilder spannableStringBuilder = new SpannableStringBuilder();
+        spannableStringBuilder.append(fromHtml(htmlTextToSet));
+        //Setting the Spannable Text on TextView with the SPANNABLE Buffer type,
+        //for later modification on spannable if required
+        textView.setText(spannableStringBuilder, TextView.BufferType.SPANNABLE);
+    }
+
+    /**
+     * Method that converts the Html Text content passed into a {@link Spanned} text.
+     * Does not touch any View, hence can be called from a background thread.
+     *
+     * @param htmlText is the String containing the Html markup to be converted
+     * @return The {@link Spanned} text with the Html formatting applied
+     */
+    public static Spanned fromHtml(String htmlText) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
             //For Android N and above
-            spannableStringBuilder.append(Html.fromHtml(htmlTextToSet, Html.FROM_HTML_MODE_COMPACT));
+            return Html.fromHtml(htmlText, Html.FROM_HTML_MODE_COMPACT);
         } else {
             //For older versions
-            spannableStringBuilder.append(Html.fromHtml(htmlTextToSet));
+            return Html.fromHtml(htmlText);
+        }
+    }
+
+    /**
+     * Method that converts the Html Text content passed into a {@link Spanned} text,
+     * with the images of the Html resolved through the {@link Html.ImageGetter} passed.
+     * Does not touch any View, hence can be called from a background thread.
+     *
+     * @param htmlText    is the String containing the Html markup to be converted
+     * @param imageGetter is the {@link Html.ImageGetter} that returns the Drawables of the images
+     * @return The {@link Spanned} text with the Html formatting and the images applied
+     */
+    public static Spanned fromHtml(String htmlText, Html.ImageGetter imageGetter) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            //For Android N and above
+            return Html.fromHtml(htmlText, Html.FROM_HTML_MODE_COMPACT, imageGetter, null);
+        } else {
+            //For older versions
+            return Html.fromHtml(htmlText, imageGetter, null);
         }
-        //Setting the Spannable Text on TextView with the SPANNABLE Buffer type,
-        //for later modification on spannable if required
-        textView.setText(spannableStringBuilder, TextView.BufferType.SPANNABLE);
     }
 
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.workers;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.Nullable;
+import android.text.Html;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.SpannedString;
+import android.text.TextUtils;
+import android.text.style.ImageSpan;
+
+import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.cache.BitmapImageCache;
+import com.example.kaushiknsanji.novalines.cache.ReadLaterArticleStore;
+import com.example.kaushiknsanji.novalines.cache.RenderedArticleCache;
+import com.example.kaushiknsanji.novalines.cache.TrailTextSpannedCache;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
+import com.example.kaushiknsanji.novalines.utils.ArticleBodyRequestUtility;
+import com.example.kaushiknsanji.novalines.utils.NetworkUtility;
+import com.example.kaushiknsanji.novalines.utils.TextAppearanceUtility;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class that loads and renders the Html bodies of the News Articles into native text for the in-app reader,
+ * saving them in the {@link RenderedArticleCache}.
+ * <p>
+ * The body is read from the {@link ReadLaterArticleStore} when saved, else requested through the API URL
+ * of the News Article. The body is rendered and cached without its images, which are
+ * {@link #bindImages(Context, CharSequence, List) bound} from the {@link BitmapImageCache} when shown,
+ * so that the Bitmaps are held only by the {@link BitmapImageCache} and the reader showing them.
+ * The images not present are reported, to be downloaded by the reader and bound again.
+ * </p>
+ * <p>
+ * The News Articles most likely to be opened next can be {@link #prerender(Context, List) pre-rendered}
+ * on the single threaded Prefetch lane of the {@link TaskScheduler}, so that they never hold up the News Feed
+ * requests, requesting their bodies over the network only when it is not metered.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class ArticleBodyRenderer {
+
+    //Constant for the maximum number of News Articles pre-rendered at a time
+    private static final int MAX_PRERENDER_ARTICLES = 3;
+
+    //Saves the identities of the News Articles being pre-rendered
+    private static final Set<String> sInFlightArticleKeys = new HashSet<>();
+
+    /**
+     * Private Constructor of {@link ArticleBodyRenderer}
+     */
+    private ArticleBodyRenderer() {
+    }
+
+    /**
+     * Method that returns the width in pixels available for the body in the reader
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     * @return The width in pixels available for the body
+     */
+    public static int getRenderWidth(Context context) {
+        Resources resources = context.getResources();
+        return resources.getDisplayMetrics().widthPixels
+                - 2 * resources.getDimensionPixelSize(R.dimen.reader_content_padding);
+    }
+
+    /**
+     * Method that returns the rendered body of the News Article passed, loading and rendering it
+     * when not present in the {@link RenderedArticleCache}. To be called from a worker thread.
+     *
+     * @param context         is the Context of the Activity/Fragment or App
+     * @param newsArticleInfo is the {@link NewsArticleInfo} of the News Article
+     * @param allowNetwork    is a Boolean that when <b>TRUE</b> permits the body to be requested over the network
+     * @return The {@link RenderedArticleCache.RenderedArticle} of the News Article, or null when its body is not available
+     */
+    @Nullable
+    public static RenderedArticleCache.RenderedArticle loadAndRender(Context context, NewsArticleInfo newsArticleInfo,
+                                                                     boolean allowNetwork) {
+        String articleKey = TrailTextSpannedCache.getArticleKey(newsArticleInfo);
+
+        //Returning the body rendered previously if any
+        RenderedArticleCache.RenderedArticle renderedArticle = RenderedArticleCache.get(articleKey);
+        if (renderedArticle != null) {
+            return renderedArticle;
+        }
+
+        //Reading the body saved for 'Read Later', else requesting it when permitted
+        String bodyHtml = TextUtils.isEmpty(articleKey) ? null : ReadLaterArticleStore.getArticleBody(context, articleKey);
+        if (bodyHtml == null && allowNetwork && NetworkUtility.isNetworkConnected(context)) {
+            bodyHtml = ArticleBodyRequestUtility.downloadArticleBody(context, newsArticleInfo.getApiUrl());
+        }
+        if (TextUtils.isEmpty(bodyHtml)) {
+            //Returning null when the body is not available
+            return null;
+        }
+
+        //Rendering and saving the body
+        renderedArticle = render(bodyHtml);
+        RenderedArticleCache.put(articleKey, renderedArticle);
+        return renderedArticle;
+    }
+
+    /**
+     * Method that renders the Html body passed into native text, with an empty placeholder for each
+     * of its images, which keeps the link of the image for {@link #bindImages(Context, CharSequence, List)}.
+     * Does not touch any View, hence can be called from a background thread.
+     *
+     * @param bodyHtml is the String containing the Html body of the News Article
+     * @return The {@link RenderedArticleCache.RenderedArticle} of the body
+     */
+    public static RenderedArticleCache.RenderedArticle render(String bodyHtml) {
+        //Starting the timer for the render
+        long startNanos = MetricsRegistry.startTimer();
+
+        CharSequence spanned = new SpannedString(TextAppearanceUtility.fromHtml(bodyHtml, new Html.ImageGetter() {
+            @Override
+            public Drawable getDrawable(String source) {
+                //Leaving out the image with an empty Drawable, to be bound when shown
+                return createEmptyDrawable();
+            }
+        }));
+
+        //Recording the time taken for the render
+        MetricsRegistry.stopTimer(MetricsRegistry.READER_RENDER, startNanos);
+
+        return new RenderedArticleCache.RenderedArticle(bodyHtml, spanned);
+    }
+
+    /**
+     * Method that binds the images present in the {@link BitmapImageCache} to a copy of the rendered body
+     * passed, scaled to the width of the reader. The rendered body passed is left as-is.
+     * To be called when the body is shown.
+     *
+     * @param context          is the Context of the Activity/Fragment or App
+     * @param spanned          is the rendered body from {@link RenderedArticleCache.RenderedArticle#getSpanned()}
+     * @param pendingImageURLs is the List to which the links of the images not present in the
+     *                         {@link BitmapImageCache} are added, to be downloaded and bound again
+     * @return The copy of the rendered body with its images bound
+     */
+    public static CharSequence bindImages(Context context, CharSequence spanned, List<String> pendingImageURLs) {
+        if (!(spanned instanceof Spanned)) {
+            //Returning as-is when there are no spans
+            return spanned;
+        }
+
+        Resources resources = context.getResources();
+        int renderWidth = getRenderWidth(context);
+        SpannableStringBuilder boundSpanned = new SpannableStringBuilder(spanned);
+
+        for (ImageSpan imageSpan : boundSpanned.getSpans(0, boundSpanned.length(), ImageSpan.class)) {
+            String source = imageSpan.getSource();
+            Bitmap bitmap = TextUtils.isEmpty(source) ? null : BitmapImageCache.getBitmapFromCache(source);
+            if (bitmap == null) {
+                //Leaving the placeholder of the image not yet downloaded
+                if (!TextUtils.isEmpty(source) && !pendingImageURLs.contains(source)) {
+                    pendingImageURLs.add(source);
+                }
+                continue;
+            }
+
+            //Scaling the image to the width of the reader, retaining its aspect ratio
+            Drawable imageDrawable = new BitmapDrawable(resources, bitmap);
+            imageDrawable.setBounds(0, 0, renderWidth,
+                    (int) ((long) bitmap.getHeight() * renderWidth / Math.max(1, bitmap.getWidth())));
+
+            //Replacing the placeholder with the image
+            int spanStart = boundSpanned.getSpanStart(imageSpan);
+            int spanEnd = boundSpanned.getSpanEnd(imageSpan);
+            int spanFlags = boundSpanned.getSpanFlags(imageSpan);
+            boundSpanned.removeSpan(imageSpan);
+            boundSpanned.setSpan(new ImageSpan(imageDrawable, source), spanStart, spanEnd,
+                    spanFlags != 0 ? spanFlags : Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+
+        //Returning the copy with the images bound
+        return boundSpanned;
+    }
+
+    /**
+     * Method that creates the empty Drawable used as the placeholder of an image
+     *
+     * @return An empty transparent {@link Drawable}
+     */
+    private static Drawable createEmptyDrawable() {
+        Drawable emptyDrawable = new ColorDrawable(Color.TRANSPARENT);
+        emptyDrawable.setBounds(0, 0, 0, 0);
+        return emptyDrawable;
+    }
+
+    /**
+     * Method that queues the rendering of the News Articles passed, which are the ones most likely
+     * to be opened next, when not already rendered. Only the first few of them are rendered.
+     *
+     * @param context             is the Context of the Activity/Fragment or App
+     * @param newsArticleInfoList is the List of {@link NewsArticleInfo} objects to be rendered,
+     *                            in the order of their likelihood of being opened
+     */
+    public static void prerender(Context context, List<NewsArticleInfo> newsArticleInfoList) {
+        final Context appContext = context.getApplicationContext();
+
+        for (int index = 0, count = Math.min(newsArticleInfoList.size(), MAX_PRERENDER_ARTICLES); index < count; index++) {
+            final NewsArticleInfo newsArticleInfo = newsArticleInfoList.get(index);
+            final String articleKey = TrailTextSpannedCache.getArticleKey(newsArticleInfo);
+            if (TextUtils.isEmpty(articleKey) || RenderedArticleCache.contains(articleKey)) {
+                //Skipping the News Article that cannot be rendered, or is already rendered
+                continue;
+            }
+
+            synchronized (sInFlightArticleKeys) {
+                if (!sInFlightArticleKeys.add(articleKey)) {
+                    //Skipping the News Article already being rendered
+                    continue;
+                }
+            }
+
+            //Queuing the render on the Prefetch lane, which runs one render at a time apart from the News Feed requests
+            MetricsRegistry.incrementCounter(MetricsRegistry.READER_PRERENDER);
+            TaskScheduler.getInstance().submit(TaskScheduler.LANE_PREFETCH, TaskScheduler.PRIORITY_LOW, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        //Requesting the body over the network only when it is not metered
+                        loadAndRender(appContext, newsArticleInfo, !NetworkUtility.isActiveNetworkMetered(appContext));
+                    } finally {
+                        synchronized (sInFlightArticleKeys) {
+                            sInFlightArticleKeys.remove(articleKey);
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
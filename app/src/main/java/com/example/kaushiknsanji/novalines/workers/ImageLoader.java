@@ -0,0 +1,491 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.workers;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.widget.RecyclerView;
+import android.widget.ImageView;
+
+import com.example.kaushiknsanji.novalines.R;
+import com.example.kaushiknsanji.novalines.cache.BitmapImageCache;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.scheduler.CancellationToken;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScope;
+import com.example.kaushiknsanji.novalines.utils.ImageUtility;
+import com.example.kaushiknsanji.novalines.utils.NetworkUtility;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class that loads the News Thumbnails of Articles into the ImageViews of the item views
+ * of a RecyclerView, by downloading them on the Image lane of the {@link TaskScheduler}.
+ * <p>
+ * <p>Images are downloaded only when not present in the {@link BitmapImageCache}</p>
+ * <p>The pending request of an ImageView is saved as its Tag, so that the request
+ * is canceled when the ImageView is rebound to a different Image, and the Image
+ * downloaded is updated only when the ImageView is still waiting for it</p>
+ * <p>Requests are prioritized by the distance of their item views from the viewport of the RecyclerView,
+ * as informed through {@link #updateViewport(int, int)}. Requests of the item views far outside the viewport
+ * are parked till the item views come closer, and the new requests are held while {@link #pause() paused}.</p>
+ * <p>Images of the item views about to come on screen can be {@link #prefetch(List) prefetched}
+ * into the {@link BitmapImageCache} at the lowest priority, so that they are bound straight from the cache.
+ * The prefetch requested while paused is deferred till resumed, retaining only the latest one.</p>
+ * <p>
+ * All the methods are to be called only from the main thread.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class ImageLoader {
+
+    //Constant for the distance in item views from the viewport, beyond which the requests are parked
+    private static final int OFFSCREEN_PARK_DISTANCE = 6;
+
+    //Constant for the maximum number of Images being prefetched at a time
+    private static final int MAX_PREFETCHING_IMAGES = 16;
+
+    //Handler to update the ImageViews on the main thread
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    //Scope of the downloads, canceled when this loader is no longer used
+    private final TaskScope mTaskScope = new TaskScope();
+
+    //Stores the reference to the Application Context, used for checking the Network Connectivity
+    private final Context mAppContext;
+
+    //Saves the requests waiting for their Images, whether queued on the lane or parked
+    private final List<ImageRequest> mPendingRequests = new ArrayList<>();
+
+    //Saves the URLs of the Images being prefetched
+    private final Set<String> mPrefetchingImageURLs = new HashSet<>();
+
+    //Saves the URLs of the latest Images requested for prefetch while paused, if any
+    private List<String> mDeferredPrefetchImageURLs;
+
+    //Saves the range of the item view positions currently visible, if known
+    private int mFirstVisiblePosition = RecyclerView.NO_POSITION;
+    private int mLastVisiblePosition = RecyclerView.NO_POSITION;
+
+    //Saves whether the loader is paused
+    private boolean mPaused;
+
+    /**
+     * Constructor of {@link ImageLoader}
+     *
+     * @param context is the Context of the Activity/Fragment using this loader
+     */
+    public ImageLoader(Context context) {
+        mAppContext = context.getApplicationContext();
+    }
+
+    /**
+     * Method that loads the Image from Memory Cache or downloads the Image from the URL passed
+     * if necessary, and updates the ImageView passed.
+     *
+     * @param imageView   The ImageView Component on which the Image needs to be updated
+     * @param imageURLStr String containing the Image URL whose Image needs to be downloaded and updated
+     * @param viewHolder  The ViewHolder of the item view containing the ImageView, used for its
+     *                    current position relative to the viewport
+     */
+    public void loadInto(ImageView imageView, String imageURLStr, RecyclerView.ViewHolder viewHolder) {
+        //Retrieving the pending request of the ImageView if any
+        ImageRequest pendingRequest = getPendingRequest(imageView);
+        if (pendingRequest != null) {
+            if (pendingRequest.mImageURLStr.equals(imageURLStr) && mPendingRequests.contains(pendingRequest)) {
+                //Returning when the same Image is already being loaded for the ImageView
+                return;
+            }
+            //Canceling the request of the previous Image
+            cancel(imageView);
+        }
+
+        //Looking up for the Image in Memory Cache for the given URL
+        Bitmap bitmap = BitmapImageCache.getBitmapFromCache(imageURLStr);
+        if (bitmap != null) {
+            //When Bitmap image was present in Memory Cache, update the ImageView
+            imageView.setImageBitmap(bitmap);
+            return;
+        }
+
+        //Resetting the ImageView to the default News Thumbnail Image for lazy loading
+        imageView.setImageResource(R.drawable.ic_news_thumbnail);
+
+        //Saving the request for the download
+        ImageRequest imageRequest = new ImageRequest(imageView, imageURLStr, viewHolder);
+        imageView.setTag(R.id.image_request_tag_id, imageRequest);
+        mPendingRequests.add(imageRequest);
+
+        if (!mPaused) {
+            //Starting the download when not paused, unless the item view is far outside the viewport
+            int distance = getViewportDistance(viewHolder);
+            if (distance <= OFFSCREEN_PARK_DISTANCE) {
+                submitRequest(imageRequest, getPriorityForDistance(distance));
+            }
+        }
+    }
+
+    /**
+     * Method that downloads and decodes the Images of the URLs passed into the {@link BitmapImageCache}
+     * at the lowest priority, ahead of their item views coming on screen. The Images already cached or
+     * being prefetched are skipped, and the prefetch is limited to {@link #MAX_PREFETCHING_IMAGES} Images at a time.
+     * When paused, the prefetch is deferred till {@link #resume()}, replacing any prefetch deferred earlier,
+     * as the item views ahead keep changing while the RecyclerView is flung.
+     *
+     * @param imageURLStrList List of Image URLs of the item views about to come on screen
+     */
+    public void prefetch(List<String> imageURLStrList) {
+        if (mPaused) {
+            //Deferring the prefetch till resumed, retaining only the latest one
+            mDeferredPrefetchImageURLs = new ArrayList<>(imageURLStrList);
+            return;
+        }
+
+        for (final String imageURLStr : imageURLStrList) {
+            if (mPrefetchingImageURLs.size() >= MAX_PREFETCHING_IMAGES) {
+                //Stopping when there are enough Images being prefetched
+                return;
+            }
+
+            if (mPrefetchingImageURLs.contains(imageURLStr) || BitmapImageCache.getBitmapFromCache(imageURLStr) != null) {
+                //Skipping the Images being prefetched or already cached
+                continue;
+            }
+
+            //Queuing the prefetch on the Image lane, behind all the requests of the item views
+            mPrefetchingImageURLs.add(imageURLStr);
+            MetricsRegistry.incrementCounter(MetricsRegistry.IMAGE_PREFETCH);
+            final Context appContext = mAppContext;
+            TaskScheduler.getInstance().submit(TaskScheduler.LANE_IMAGE, TaskScheduler.PRIORITY_LOW, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (BitmapImageCache.getBitmapFromCache(imageURLStr) == null
+                                && NetworkUtility.isNetworkConnected(appContext)) {
+                            //Downloading the Image, which also decodes and saves it in the Memory Cache
+                            Bitmap bitmap = ImageUtility.downloadFromURL(imageURLStr);
+                            if (bitmap != null) {
+                                //Uploading the Bitmap to GPU for caching in background thread (for faster loads)
+                                bitmap.prepareToDraw();
+                            }
+                        }
+                    } finally {
+                        //Clearing the URL on the main thread once the prefetch is done
+                        sMainHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                mPrefetchingImageURLs.remove(imageURLStr);
+                            }
+                        });
+                    }
+                }
+            }, mTaskScope.newToken());
+        }
+    }
+
+    /**
+     * Method that cancels the pending request of the ImageView passed, if any.
+     *
+     * @param imageView The ImageView whose pending request is to be canceled
+     */
+    public void cancel(ImageView imageView) {
+        ImageRequest pendingRequest = getPendingRequest(imageView);
+        if (pendingRequest != null) {
+            if (pendingRequest.mToken != null) {
+                pendingRequest.mToken.cancel();
+            }
+            mPendingRequests.remove(pendingRequest);
+            imageView.setTag(R.id.image_request_tag_id, null);
+        }
+    }
+
+    /**
+     * Method that cancels all the pending requests. The loader cannot be used after this call.
+     * To be called when the RecyclerView using this loader is destroyed.
+     */
+    public void cancelAll() {
+        mTaskScope.cancelAll();
+        for (ImageRequest imageRequest : mPendingRequests) {
+            imageRequest.mImageView.setTag(R.id.image_request_tag_id, null);
+        }
+        mPendingRequests.clear();
+        mDeferredPrefetchImageURLs = null;
+    }
+
+    /**
+     * Method that holds the new requests, the parked requests and the new prefetches from being downloaded,
+     * till {@link #resume()} is called. Used while the RecyclerView is flung, as the item views
+     * bound during the fling are mostly scrolled past before their Images arrive.
+     */
+    public void pause() {
+        mPaused = true;
+    }
+
+    /**
+     * Method that resumes the downloads held by {@link #pause()}, in the order of their
+     * distance from the viewport, followed by the prefetch deferred if any
+     */
+    public void resume() {
+        mPaused = false;
+        reprioritizeRequests();
+
+        if (mDeferredPrefetchImageURLs != null) {
+            //Starting the prefetch deferred while paused, behind the requests of the item views
+            List<String> deferredPrefetchImageURLs = mDeferredPrefetchImageURLs;
+            mDeferredPrefetchImageURLs = null;
+            prefetch(deferredPrefetchImageURLs);
+        }
+    }
+
+    /**
+     * Method that updates the range of the item view positions currently visible, and reorders
+     * the pending requests by their new distance from the viewport
+     *
+     * @param firstVisiblePosition is the position of the first visible item view
+     * @param lastVisiblePosition  is the position of the last visible item view
+     */
+    public void updateViewport(int firstVisiblePosition, int lastVisiblePosition) {
+        if (firstVisiblePosition == mFirstVisiblePosition && lastVisiblePosition == mLastVisiblePosition) {
+            //Returning when the viewport is unchanged
+            return;
+        }
+
+        //Saving the new viewport
+        mFirstVisiblePosition = firstVisiblePosition;
+        mLastVisiblePosition = lastVisiblePosition;
+
+        if (!mPaused) {
+            //Reordering the requests when not paused
+            reprioritizeRequests();
+        }
+    }
+
+    /**
+     * Method that reorders the pending requests by the distance of their item views from the viewport.
+     * The requests far outside the viewport are parked, and the parked requests that
+     * came closer to the viewport are queued again.
+     */
+    private void reprioritizeRequests() {
+        TaskScheduler taskScheduler = TaskScheduler.getInstance();
+        for (ImageRequest imageRequest : new ArrayList<>(mPendingRequests)) {
+            if (getPendingRequest(imageRequest.mImageView) != imageRequest) {
+                //Dropping the request when its ImageView has moved on to another request
+                mPendingRequests.remove(imageRequest);
+                continue;
+            }
+
+            int distance = getViewportDistance(imageRequest.mViewHolder);
+            if (distance > OFFSCREEN_PARK_DISTANCE) {
+                if (imageRequest.mToken != null) {
+                    //Parking the request queued, by canceling its download
+                    imageRequest.mToken.cancel();
+                    imageRequest.mToken = null;
+                    MetricsRegistry.incrementCounter(MetricsRegistry.IMAGE_REQUEST_PARKED);
+                }
+                continue;
+            }
+
+            int priority = getPriorityForDistance(distance);
+            if (imageRequest.mToken == null) {
+                //Queuing the request parked or held
+                submitRequest(imageRequest, priority);
+            } else if (imageRequest.mPriority != priority) {
+                //Reordering the request queued, when its priority has changed
+                imageRequest.mPriority = priority;
+                if (taskScheduler.reprioritize(TaskScheduler.LANE_IMAGE, imageRequest.mToken, priority)) {
+                    MetricsRegistry.incrementCounter(MetricsRegistry.IMAGE_REQUEST_REPRIORITIZED);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that returns the distance in item views, of the item view passed from the viewport
+     *
+     * @param viewHolder The ViewHolder of the item view
+     * @return 0 when the item view is within the viewport or the viewport is not yet known;
+     * the number of item views between the item view and the nearest edge of the viewport otherwise;
+     * or {@link Integer#MAX_VALUE} when the item view is no longer bound to a position
+     */
+    private int getViewportDistance(RecyclerView.ViewHolder viewHolder) {
+        int position = viewHolder.getAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return Integer.MAX_VALUE;
+        }
+
+        if (mFirstVisiblePosition == RecyclerView.NO_POSITION || mLastVisiblePosition == RecyclerView.NO_POSITION) {
+            //Treating the item view as visible when the viewport is not yet known
+            return 0;
+        }
+
+        if (position < mFirstVisiblePosition) {
+            return mFirstVisiblePosition - position;
+        } else if (position > mLastVisiblePosition) {
+            return position - mLastVisiblePosition;
+        }
+
+        //Returning 0 when within the viewport
+        return 0;
+    }
+
+    /**
+     * Method that returns the priority of the request for the distance of its item view from the viewport
+     *
+     * @param distance is the distance in item views from the viewport
+     * @return The priority of the request on the Image lane
+     */
+    private int getPriorityForDistance(int distance) {
+        return Math.max(TaskScheduler.PRIORITY_LOW, TaskScheduler.PRIORITY_HIGH - distance);
+    }
+
+    /**
+     * Method that queues the download of the request passed on the Image lane, with the priority passed
+     *
+     * @param imageRequest The {@link ImageRequest} whose Image is to be downloaded
+     * @param priority     The priority of the download on the Image lane
+     */
+    private void submitRequest(final ImageRequest imageRequest, int priority) {
+        final CancellationToken token = mTaskScope.newToken();
+        imageRequest.mToken = token;
+        imageRequest.mPriority = priority;
+        TaskScheduler.getInstance().submit(TaskScheduler.LANE_IMAGE, priority, new Runnable() {
+            @Override
+            public void run() {
+                Bitmap downloadedBitmap = null;
+                try {
+                    //Downloading the Image
+                    downloadedBitmap = downloadImage(imageRequest, token);
+                } finally {
+                    //Updating the ImageView on the main thread
+                    final Bitmap resultBitmap = downloadedBitmap;
+                    sMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            deliverImage(imageRequest, token, resultBitmap);
+                        }
+                    });
+                }
+            }
+        }, token);
+    }
+
+    /**
+     * Method that returns the pending request saved on the ImageView passed
+     *
+     * @param imageView The ImageView whose pending request is to be returned
+     * @return The pending {@link ImageRequest} of the ImageView, or null when there is none
+     */
+    private static ImageRequest getPendingRequest(ImageView imageView) {
+        Object tagObject = imageView.getTag(R.id.image_request_tag_id);
+        return (tagObject instanceof ImageRequest) ? (ImageRequest) tagObject : null;
+    }
+
+    /**
+     * Method that downloads the Image of the request passed, on a worker thread of the Image lane
+     *
+     * @param imageRequest The {@link ImageRequest} whose Image is to be downloaded
+     * @param token        The token of the download
+     * @return The Bitmap downloaded, or null when the download failed or is not possible
+     */
+    private static Bitmap downloadImage(ImageRequest imageRequest, CancellationToken token) {
+        //Checking the Memory Cache again, as the same Image could have been downloaded meanwhile for another item
+        Bitmap bitmap = BitmapImageCache.getBitmapFromCache(imageRequest.mImageURLStr);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        //Proceeding to download when the Internet Connectivity is established
+        if (NetworkUtility.isNetworkConnected(imageRequest.mImageView.getContext())) {
+            //Abandoning the download when canceled meanwhile
+            token.throwIfCanceled();
+            //Downloading the Image from URL
+            bitmap = ImageUtility.downloadFromURL(imageRequest.mImageURLStr);
+            if (bitmap != null) {
+                //Uploading the Bitmap to GPU for caching in background thread (for faster loads)
+                bitmap.prepareToDraw();
+            }
+        }
+
+        //Returning the Bitmap downloaded if any
+        return bitmap;
+    }
+
+    /**
+     * Method that updates the ImageView of the request passed with the Image downloaded,
+     * only when the ImageView is still waiting for the download of the token passed
+     *
+     * @param imageRequest     The {@link ImageRequest} whose Image was downloaded
+     * @param token            The token of the download
+     * @param downloadedBitmap The Bitmap downloaded, or null when the download failed
+     */
+    private void deliverImage(ImageRequest imageRequest, CancellationToken token, Bitmap downloadedBitmap) {
+        ImageView imageView = imageRequest.mImageView;
+        if (token.isCanceled() || imageRequest.mToken != token || getPendingRequest(imageView) != imageRequest) {
+            //Ignoring the result when the request was parked or canceled, or the ImageView was rebound
+            return;
+        }
+
+        //Clearing the request as it is completed
+        mPendingRequests.remove(imageRequest);
+        imageView.setTag(R.id.image_request_tag_id, null);
+
+        if (downloadedBitmap != null) {
+            //Updating the ImageView when the Bitmap is downloaded successfully
+            imageView.setImageBitmap(downloadedBitmap);
+        } else {
+            //Resetting the ImageView to the default News Thumbnail Image when the Bitmap failed to download
+            imageView.setImageResource(R.drawable.ic_news_thumbnail);
+        }
+    }
+
+    /**
+     * Request of an ImageView for the Image of a URL
+     */
+    private static class ImageRequest {
+
+        //The ImageView waiting for the Image
+        private final ImageView mImageView;
+        //The URL of the Image requested
+        private final String mImageURLStr;
+        //The ViewHolder of the item view containing the ImageView
+        private final RecyclerView.ViewHolder mViewHolder;
+        //The token of the download queued, or null when the request is parked or held
+        private CancellationToken mToken;
+        //The priority of the download queued
+        private int mPriority;
+
+        /**
+         * Constructor of {@link ImageRequest}
+         *
+         * @param imageView   The ImageView waiting for the Image
+         * @param imageURLStr The URL of the Image requested
+         * @param viewHolder  The ViewHolder of the item view containing the ImageView
+         */
+        ImageRequest(ImageView imageView, String imageURLStr, RecyclerView.ViewHolder viewHolder) {
+            mImageView = imageView;
+            mImageURLStr = imageURLStr;
+            mViewHolder = viewHolder;
+        }
+    }
+
+}
@@ -17,22 +17,24 @@
 package com.example.kaushiknsanji.novalines.workers;
 
 import android.content.Context;
-import android.support.v4.content.AsyncTaskLoader;
 import android.support.v7.util.DiffUtil;
 
+import com.example.kaushiknsanji.novalines.cache.TrailTextSpannedCache;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
 import com.example.kaushiknsanji.novalines.utils.NewsArticleInfoDiffUtility;
 
 import java.util.List;
 
 /**
- * {@link AsyncTaskLoader} class that performs the difference computation
+ * {@link ScheduledTaskLoader} class that performs the difference computation
  * between two lists of {@link NewsArticleInfo} objects in a worker thread and returns
  * the result to the RecyclerView's Adapter to reload the data accordingly.
  *
  * @author Kaushik N Sanji
  */
-public class NewsArticlesDiffLoader extends AsyncTaskLoader<DiffUtil.DiffResult> {
+public class NewsArticlesDiffLoader extends ScheduledTaskLoader<DiffUtil.DiffResult> {
 
     //Stores the Current list of NewsArticleInfo objects
     private List<NewsArticleInfo> mOldArticleInfoList;
@@ -52,7 +54,7 @@ public class NewsArticlesDiffLoader extends AsyncTaskLoader<DiffUtil.DiffResult>
      * @param newArticleInfos is the New list of {@link NewsArticleInfo} objects to be compared
      */
     public NewsArticlesDiffLoader(Context context, List<NewsArticleInfo> oldArticleInfos, List<NewsArticleInfo> newArticleInfos) {
-        super(context);
+        super(context, TaskScheduler.LANE_DIFF, TaskScheduler.PRIORITY_HIGH);
         mOldArticleInfoList = oldArticleInfos;
         mNewArticleInfoList = newArticleInfos;
     }
@@ -72,8 +74,17 @@ public class NewsArticlesDiffLoader extends AsyncTaskLoader<DiffUtil.DiffResult>
     public DiffUtil.DiffResult loadInBackground() {
         //Instantiating the DiffUtil for the difference computation
         NewsArticleInfoDiffUtility diffUtility = new NewsArticleInfoDiffUtility(mOldArticleInfoList, mNewArticleInfoList);
-        //Computing the difference and returning the result
-        return DiffUtil.calculateDiff(diffUtility, false); //False, as RecyclerView items are stationary
+        //Starting the timer for the diff
+        long startNanos = MetricsRegistry.startTimer();
+        //Computing the difference
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffUtility, false); //False, as RecyclerView items are stationary
+        //Recording the time taken for the diff
+        MetricsRegistry.stopTimer(MetricsRegistry.DIFF_ARTICLES, startNanos);
+        //Converting the Trailing Texts of the new list while still on the worker thread,
+        //so that expanding the content of the item views does not parse Html on the main thread
+        TrailTextSpannedCache.prerender(mNewArticleInfoList);
+        //Returning the result
+        return diffResult;
     }
 
     /**
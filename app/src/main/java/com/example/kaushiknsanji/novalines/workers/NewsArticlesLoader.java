@@ -17,22 +17,56 @@
 package com.example.kaushiknsanji.novalines.workers;
 
 import android.content.Context;
-import android.support.v4.content.AsyncTaskLoader;
-
+import android.net.Uri;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.cache.NewsArticleLocalQueryEngine;
+import com.example.kaushiknsanji.novalines.cache.NewsArticlePageCache;
+import com.example.kaushiknsanji.novalines.cache.NewsArticlePageCodec;
+import com.example.kaushiknsanji.novalines.cache.TrailTextSpannedCache;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
 import com.example.kaushiknsanji.novalines.utils.NetworkUtility;
-import com.example.kaushiknsanji.novalines.utils.NewsArticleInfoParserUtility;
+import com.example.kaushiknsanji.novalines.utils.NewsFeedRequestUtility;
+import com.example.kaushiknsanji.novalines.utils.NewsURLGenerator;
+import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
 
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * {@link AsyncTaskLoader} Class for extracting a list of News Articles information
+ * {@link ScheduledTaskLoader} Class for extracting a list of News Articles information
  * for the News Query, in a worker thread.
+ * <p>
+ * When the page of the News Query was saved recently in the Disk Cache, only the News Articles
+ * modified since then are requested and merged into the page saved, where the News Query supports it.
+ * The page is still requested in full once a day, and whenever the News Articles added do not fit in the page.
+ * </p>
+ * <p>
+ * When permitted by {@link #setLocalQueryAllowed(boolean)}, the News Query is first answered
+ * from the pages saved for a related query, by {@link NewsArticleLocalQueryEngine}.
+ * </p>
  *
  * @author Kaushik N Sanji
  */
-public class NewsArticlesLoader extends AsyncTaskLoader<List<NewsArticleInfo>> {
+public class NewsArticlesLoader extends ScheduledTaskLoader<List<NewsArticleInfo>> {
+
+    //Constant used for logs
+    private static final String LOG_TAG = NewsArticlesLoader.class.getSimpleName();
+
+    //Constant for the maximum time in millis since the last full request of the page saved, up to which the page is refreshed incrementally
+    private static final long INCREMENTAL_SYNC_MAX_AGE_MILLIS = 24 * 60 * 60 * 1000;
+    //Constant for the time in millis by which the incremental request reaches back, to cover the clock skew
+    private static final long INCREMENTAL_SYNC_SKEW_MILLIS = 5 * 60 * 1000;
+    //Constant for the 'order-date' value that sorts the News Articles by their last update
+    private static final String ORDER_DATE_LAST_MODIFIED = "last-modified";
 
     //Saves the query result which is a List of NewsArticleInfo objects
     private List<NewsArticleInfo> mNewsArticleInfoList;
@@ -46,6 +80,18 @@ public class NewsArticlesLoader extends AsyncTaskLoader<List<NewsArticleInfo>> {
     //Saves the last page index of the News Query result
     private int mLastPageIndex = 1; //Defaulted to 1
 
+    //Saves the total count of articles found for the News Query
+    private int mTotalArticleCount;
+
+    //Saves the time in millis when the page read from the Disk Cache was last requested in full
+    private long mCachedFullFetchTime;
+
+    //Saves the Generation of the pages of the News Query that the page read from the Disk Cache belongs to
+    private long mCachedGeneration;
+
+    //Boolean that stores whether the News Query can be answered from the pages saved for a related query
+    private boolean mLocalQueryAllowed = false;
+
     /**
      * Constructor of the Loader {@link NewsArticlesLoader}
      *
@@ -53,7 +99,19 @@ public class NewsArticlesLoader extends AsyncTaskLoader<List<NewsArticleInfo>> {
      * @param requestURLObject is the URL to which the request is to be made to get the News Articles
      */
     public NewsArticlesLoader(Context context, URL requestURLObject) {
-        super(context);
+        this(context, requestURLObject, TaskScheduler.PRIORITY_NORMAL);
+    }
+
+    /**
+     * Constructor of the Loader {@link NewsArticlesLoader} that loads on the Feed lane
+     * of the {@link TaskScheduler} with the priority passed
+     *
+     * @param context          is the reference to Activity Context
+     * @param requestURLObject is the URL to which the request is to be made to get the News Articles
+     * @param priority         is the priority of the load on the Feed lane
+     */
+    public NewsArticlesLoader(Context context, URL requestURLObject, int priority) {
+        super(context, TaskScheduler.LANE_FEED, priority);
         mRequestURLObject = requestURLObject;
     }
 
@@ -70,19 +128,49 @@ public class NewsArticlesLoader extends AsyncTaskLoader<List<NewsArticleInfo>> {
         //Retrieving the reference to Context
         Context context = getContext();
 
+        if (mLocalQueryAllowed) {
+            //Answering the News Query from the pages saved for a related query, when possible
+            NewsArticleLocalQueryEngine.QueryResult queryResult = NewsArticleLocalQueryEngine.query(context, mRequestURLObject);
+            if (queryResult != null) {
+                mIsNetworkConnected = NetworkUtility.isNetworkConnected(context);
+                mLastPageIndex = queryResult.getPagesCount();
+                //Returning the page re-sorted and re-filtered locally
+                return queryResult.getNewsArticleInfoList();
+            }
+        }
+
         //Proceeding to extract data when the Internet Connectivity is established
         if (NetworkUtility.isNetworkConnected(context)) {
             //Updating the Connectivity status to True
             mIsNetworkConnected = true;
 
-            //Initializing the Parser for News Articles
-            NewsArticleInfoParserUtility articleInfoParserUtility = new NewsArticleInfoParserUtility(context);
+            //Refreshing the page saved in the Disk Cache incrementally, when possible
+            List<NewsArticleInfo> mergedArticleInfoList = loadIncrementally(context);
+            if (mergedArticleInfoList != null) {
+                //Returning the page merged with the News Articles modified since it was saved
+                return mergedArticleInfoList;
+            }
+
+            //Counting the full refresh of the page
+            MetricsRegistry.incrementCounter(MetricsRegistry.FEED_SYNC_FULL);
+
             //Firing the request to the URL to retrieve a list of NewsArticleInfo Objects
-            List<NewsArticleInfo> newsArticleInfoList = articleInfoParserUtility.getNewsArticleFeed(mRequestURLObject);
+            //(Shares the result of an identical request already in flight, if any)
+            NewsFeedRequestUtility.FeedResult feedResult = NewsFeedRequestUtility.getNewsArticleFeed(context, mRequestURLObject);
+            List<NewsArticleInfo> newsArticleInfoList = feedResult.getNewsArticleInfoList();
 
             if (newsArticleInfoList != null && newsArticleInfoList.size() > 0) {
                 //Retrieving the Number of Pages of available data when there is News feed
-                mLastPageIndex = articleInfoParserUtility.getPagesCount();
+                mLastPageIndex = feedResult.getPagesCount();
+                mTotalArticleCount = feedResult.getTotalArticleCount();
+                if (!feedResult.isShared()) {
+                    //Saving the page to the Disk Cache for offline use, only by the caller that made the request
+                    //(along with the Generation of the pages of the News Query that the page belongs to)
+                    long fetchTimeMillis = System.currentTimeMillis();
+                    NewsArticlePageCache.savePage(context, getRequestURLStr(), newsArticleInfoList,
+                            mLastPageIndex, mTotalArticleCount, fetchTimeMillis,
+                            NewsArticleLocalQueryEngine.getFullFetchGeneration(context, getRequestURLStr(), fetchTimeMillis));
+                }
             }
 
             //Returning the extracted list of NewsArticleInfo Objects
@@ -92,7 +180,183 @@ public class NewsArticlesLoader extends AsyncTaskLoader<List<NewsArticleInfo>> {
         //Updating the Connectivity status to False as it is not active
         mIsNetworkConnected = false;
 
-        //For all else, returning null
+        //For all else, returning the page from the Disk Cache if present
+        List<NewsArticleInfo> cachedArticleInfoList = readCachedPage(context);
+
+        //Counting the cache hit/miss
+        MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_PAGE
+                + (cachedArticleInfoList != null ? MetricsRegistry.SUFFIX_HIT : MetricsRegistry.SUFFIX_MISS));
+
+        return cachedArticleInfoList;
+    }
+
+    /**
+     * Method that refreshes the page of News Articles saved in the Disk Cache for the Request URL incrementally,
+     * by requesting only the News Articles modified since the page was saved and merging them into the page.
+     *
+     * @param context is the reference to Activity Context
+     * @return List of {@link NewsArticleInfo} objects of the page merged, or null when the page
+     * cannot be refreshed incrementally and needs to be requested in full
+     */
+    private List<NewsArticleInfo> loadIncrementally(Context context) {
+        //Retrieving the time when the page was last saved, which is 0 when not cached
+        long pageSavedTime = NewsArticlePageCache.getPageSavedTime(context, getRequestURLStr());
+        if (pageSavedTime <= 0) {
+            //Requesting in full when the page is not cached
+            return null;
+        }
+
+        //Retrieving the URL of the incremental request, which is null when the News Query does not support it
+        URL deltaURLObject = new NewsURLGenerator(context).createDeltaURL(mRequestURLObject,
+                pageSavedTime - INCREMENTAL_SYNC_SKEW_MILLIS);
+        if (deltaURLObject == null) {
+            return null;
+        }
+
+        //Reading the page saved, along with its Number of Pages, the total count of articles and the time of its last full request
+        List<NewsArticleInfo> cachedArticleInfoList = readCachedPage(context);
+        if (cachedArticleInfoList == null || cachedArticleInfoList.size() == 0
+                || System.currentTimeMillis() - mCachedFullFetchTime > INCREMENTAL_SYNC_MAX_AGE_MILLIS) {
+            //Requesting in full when the page could not be read, or was last requested in full too long ago,
+            //so that the News Articles removed and the total count of articles are corrected
+            return null;
+        }
+        int cachedPagesCount = mLastPageIndex;
+        int cachedTotalCount = mTotalArticleCount;
+        long cachedFullFetchTime = mCachedFullFetchTime;
+        long cachedGeneration = mCachedGeneration;
+
+        //Firing the incremental request for the News Articles modified since the page was saved
+        NewsFeedRequestUtility.FeedResult deltaResult = NewsFeedRequestUtility.getNewsArticleFeed(context, deltaURLObject);
+        List<NewsArticleInfo> deltaArticleInfoList = deltaResult.getNewsArticleInfoList();
+        if (deltaArticleInfoList == null || deltaResult.getPagesCount() > 1) {
+            //Requesting in full when the incremental request failed or there are more changes than a page can hold
+            return null;
+        }
+
+        //Retrieving the Query Parameters of the News Query that decide the merge
+        Uri requestUri = Uri.parse(getRequestURLStr());
+        String sortBasedOnStr = requestUri.getQueryParameter(PreferencesUtility.getSortBasedOnKey(context));
+        String fromDateStr = requestUri.getQueryParameter(PreferencesUtility.getStartPeriodKey(context));
+        int pageSize = cachedArticleInfoList.size();
+        try {
+            pageSize = Integer.parseInt(requestUri.getQueryParameter(PreferencesUtility.getItemsPerPageKey(context)));
+        } catch (NumberFormatException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the page size of the URL " + getRequestURLStr() + "\n", e);
+        }
+
+        //Collecting the keys of the News Articles in the page saved
+        Set<String> cachedArticleKeys = new HashSet<>(cachedArticleInfoList.size());
+        for (NewsArticleInfo newsArticleInfo : cachedArticleInfoList) {
+            cachedArticleKeys.add(TrailTextSpannedCache.getArticleKey(newsArticleInfo));
+        }
+
+        //Collecting the News Articles modified that belong to the News Query: START
+        List<NewsArticleInfo> modifiedArticleInfoList = new ArrayList<>(deltaArticleInfoList.size());
+        Set<String> modifiedArticleKeys = new HashSet<>(deltaArticleInfoList.size());
+        int addedArticleCount = 0;
+        for (NewsArticleInfo newsArticleInfo : deltaArticleInfoList) {
+            String publishedDateStr = newsArticleInfo.getPublishedDateRaw();
+            if (fromDateStr != null && publishedDateStr != null && publishedDateStr.compareTo(fromDateStr) < 0) {
+                //Skipping the News Articles published before the 'from-date' of the News Query,
+                //as the incremental request applies the 'from-date' on the date of the last update
+                continue;
+            }
+            String articleKey = TrailTextSpannedCache.getArticleKey(newsArticleInfo);
+            modifiedArticleInfoList.add(newsArticleInfo);
+            modifiedArticleKeys.add(articleKey);
+            if (!cachedArticleKeys.contains(articleKey)) {
+                addedArticleCount++;
+            }
+        }
+        //Collecting the News Articles modified that belong to the News Query: END
+
+        //Merging the News Articles modified into the page: START
+        List<NewsArticleInfo> mergedArticleInfoList = new ArrayList<>(cachedArticleInfoList.size() + modifiedArticleInfoList.size());
+        //Adding the News Articles modified, which are sorted by their last update, ahead of the rest
+        mergedArticleInfoList.addAll(modifiedArticleInfoList);
+        //Adding the rest of the News Articles in the page, that were not modified
+        for (NewsArticleInfo newsArticleInfo : cachedArticleInfoList) {
+            if (!modifiedArticleKeys.contains(TrailTextSpannedCache.getArticleKey(newsArticleInfo))) {
+                mergedArticleInfoList.add(newsArticleInfo);
+            }
+        }
+        if (!ORDER_DATE_LAST_MODIFIED.equals(sortBasedOnStr)) {
+            //Re-sorting by the date of publication, newest first, when not sorted by the last update
+            Collections.sort(mergedArticleInfoList, new Comparator<NewsArticleInfo>() {
+                @Override
+                public int compare(NewsArticleInfo articleInfo1, NewsArticleInfo articleInfo2) {
+                    String publishedDate1 = articleInfo1.getPublishedDateRaw() != null ? articleInfo1.getPublishedDateRaw() : "";
+                    String publishedDate2 = articleInfo2.getPublishedDateRaw() != null ? articleInfo2.getPublishedDateRaw() : "";
+                    return publishedDate2.compareTo(publishedDate1);
+                }
+            });
+        }
+        //Merging the News Articles modified into the page: END
+
+        if (mergedArticleInfoList.size() > pageSize) {
+            //Requesting in full when the News Articles added do not fit in the page, as the News Articles
+            //pushed off the page would otherwise be lost, along with the following pages going stale
+            return null;
+        }
+
+        //Counting the incremental refresh of the page
+        MetricsRegistry.incrementCounter(MetricsRegistry.FEED_SYNC_INCREMENTAL);
+
+        //Updating the total count of articles and the Number of Pages for the News Articles added
+        mTotalArticleCount = cachedTotalCount + addedArticleCount;
+        if (pageSize > 0) {
+            int estimatedPagesCount = (mTotalArticleCount + pageSize - 1) / pageSize;
+            mLastPageIndex = Math.max(cachedPagesCount, estimatedPagesCount);
+        }
+
+        if (!deltaResult.isShared()) {
+            //Saving the page merged to the Disk Cache, which also marks the time of this refresh,
+            //while retaining the time of its last full request. The page starts a new Generation when
+            //modified, as the following pages saved were requested against the page before the changes
+            NewsArticlePageCache.savePage(context, getRequestURLStr(), mergedArticleInfoList,
+                    mLastPageIndex, mTotalArticleCount, cachedFullFetchTime,
+                    modifiedArticleInfoList.isEmpty() ? cachedGeneration : System.currentTimeMillis());
+        }
+
+        //Returning the page merged
+        return mergedArticleInfoList;
+    }
+
+    /**
+     * Method that reads the page of News Articles saved in the Disk Cache for the Request URL,
+     * along with the details of the News Query saved with it
+     *
+     * @param context is the reference to Activity Context
+     * @return List of {@link NewsArticleInfo} objects of the page saved, or null when not present
+     */
+    private List<NewsArticleInfo> readCachedPage(Context context) {
+        //Opening the page saved for the Request URL
+        NewsArticlePageCodec.PageReader pageReader = NewsArticlePageCache.openPage(context, getRequestURLStr());
+        if (pageReader == null) {
+            //Returning null when the page is not cached
+            return null;
+        }
+
+        try {
+            //Retrieving the Number of Pages and the total count of articles of the News Query saved along with the page
+            mLastPageIndex = pageReader.getPagesCount();
+            mTotalArticleCount = pageReader.getTotalArticleCount();
+            mCachedFullFetchTime = pageReader.getFullFetchTime();
+            mCachedGeneration = pageReader.getGeneration();
+            //Returning the list of NewsArticleInfo Objects decoded
+            return pageReader.readAll();
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error occurred while reading the cached page\n", e);
+        } finally {
+            try {
+                pageReader.close();
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "Error occurred while closing the cached page\n", e);
+            }
+        }
+
+        //Returning null on failure
         return null;
     }
 
@@ -197,6 +461,17 @@ public class NewsArticlesLoader extends AsyncTaskLoader<List<NewsArticleInfo>> {
         }
     }
 
+    /**
+     * Method that sets whether the News Query can be answered from the pages saved for a related query,
+     * without a network request. To be permitted only when the query was changed by the user, and not
+     * when the user requested a refresh of the News Articles.
+     *
+     * @param localQueryAllowed is a Boolean that when <b>TRUE</b> permits the News Query to be answered locally
+     */
+    public void setLocalQueryAllowed(boolean localQueryAllowed) {
+        mLocalQueryAllowed = localQueryAllowed;
+    }
+
     /**
      * Method that returns the evaluated Network Connectivity status
      *
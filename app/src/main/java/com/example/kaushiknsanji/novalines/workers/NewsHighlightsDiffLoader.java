@@ -17,22 +17,23 @@
 package com.example.kaushiknsanji.novalines.workers;
 
 import android.content.Context;
-import android.support.v4.content.AsyncTaskLoader;
 import android.support.v7.util.DiffUtil;
 
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsSectionInfo;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
 import com.example.kaushiknsanji.novalines.utils.NewsSectionInfoDiffUtility;
 
 import java.util.List;
 
 /**
- * {@link AsyncTaskLoader} class that performs the difference computation
+ * {@link ScheduledTaskLoader} class that performs the difference computation
  * between two lists of {@link NewsSectionInfo} objects in a worker thread and
  * returns the result to the RecyclerView's Adapter to reload the data accordingly.
  *
  * @author Kaushik N Sanji
  */
-public class NewsHighlightsDiffLoader extends AsyncTaskLoader<DiffUtil.DiffResult> {
+public class NewsHighlightsDiffLoader extends ScheduledTaskLoader<DiffUtil.DiffResult> {
 
     //Integer Constant of the Loader
     public static final int HIGHLIGHTS_DIFF_LOADER = 3;
@@ -55,7 +56,7 @@ public class NewsHighlightsDiffLoader extends AsyncTaskLoader<DiffUtil.DiffResul
      * @param newSectionInfos is the New list of {@link NewsSectionInfo} objects to be compared
      */
     public NewsHighlightsDiffLoader(Context context, List<NewsSectionInfo> oldSectionInfos, List<NewsSectionInfo> newSectionInfos) {
-        super(context);
+        super(context, TaskScheduler.LANE_DIFF, TaskScheduler.PRIORITY_HIGH);
         mOldSectionInfoList = oldSectionInfos;
         mNewSectionInfoList = newSectionInfos;
     }
@@ -75,8 +76,14 @@ public class NewsHighlightsDiffLoader extends AsyncTaskLoader<DiffUtil.DiffResul
     public DiffUtil.DiffResult loadInBackground() {
         //Instantiating the DiffUtil for difference computation
         NewsSectionInfoDiffUtility diffUtility = new NewsSectionInfoDiffUtility(mOldSectionInfoList, mNewSectionInfoList);
-        //Computing the Difference and returning the result
-        return DiffUtil.calculateDiff(diffUtility, false); //False, as RecyclerView items are stationary
+        //Starting the timer for the diff
+        long startNanos = MetricsRegistry.startTimer();
+        //Computing the difference
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffUtility, false); //False, as RecyclerView items are stationary
+        //Recording the time taken for the diff
+        MetricsRegistry.stopTimer(MetricsRegistry.DIFF_HIGHLIGHTS, startNanos);
+        //Returning the result
+        return diffResult;
     }
 
     /**
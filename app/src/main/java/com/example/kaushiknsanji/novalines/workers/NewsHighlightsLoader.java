@@ -17,10 +17,14 @@
 package com.example.kaushiknsanji.novalines.workers;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.Nullable;
-import android.support.v4.content.AsyncTaskLoader;
+import android.support.v4.os.OperationCanceledException;
 
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
 import com.example.kaushiknsanji.novalines.models.NewsSectionInfo;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
 import com.example.kaushiknsanji.novalines.utils.NetworkUtility;
 import com.example.kaushiknsanji.novalines.utils.NewsSectionInfoParserUtility;
 import com.example.kaushiknsanji.novalines.utils.NewsURLGenerator;
@@ -29,23 +33,43 @@ import com.example.kaushiknsanji.novalines.utils.PreferencesUtility;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * {@link AsyncTaskLoader} Class for extracting the News Section metadata information
+ * {@link ScheduledTaskLoader} Class for extracting the News Section metadata information
  * for the Subscribed News Sections, in a worker thread.
+ * <p>
+ * The News Sections loaded are retained by the loader with the time of their load. A refresh
+ * requested through {@link #onContentChanged()} refetches only the News Sections that are stale
+ * (older than {@link #SECTION_TTL_MILLIS} or loaded for a different 'from-date'), and streams the result
+ * as each News Section completes. The News Sections that failed are retried independently of the rest,
+ * through a later load scheduled with a backoff, so that no worker thread is held while waiting.
+ * When all the News Sections fail to load even after the retries, the load fails with a <b>null</b> result.
+ * </p>
  *
  * @author Kaushik N Sanji
  */
-public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>> {
+public class NewsHighlightsLoader extends ScheduledTaskLoader<List<NewsSectionInfo>> {
 
     //Integer Constant of the Loader
     public final static int HIGHLIGHTS_LOADER = 1;
 
+    //Constant for the time in millis after which a News Section loaded is considered stale
+    private static final long SECTION_TTL_MILLIS = 5 * 60 * 1000;
+    //Constant for the number of times a News Section that failed to load is retried
+    private static final int MAX_SECTION_RETRIES = 2;
+    //Constant for the base delay in millis before retrying the News Sections that failed to load
+    private static final long SECTION_RETRY_BACKOFF_MILLIS = 500;
+
     //Saves the query result which is a List of NewsSectionInfo objects
     private List<NewsSectionInfo> mNewsSectionInfoList;
 
     //Saves the list of Ids of the Subscribed News Categories
-    private List<String> mSubscribedNewsSectionIdsList;
+    private volatile List<String> mSubscribedNewsSectionIdsList;
+
+    //Saves the News Sections loaded along with their load time, keyed by their Section ID
+    private final Map<String, SectionEntry> mSectionEntryMap = new ConcurrentHashMap<>();
 
     //Boolean that stores the Network Connectivity state
     private boolean mIsNetworkConnected = false;
@@ -53,6 +77,23 @@ public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>>
     //Saves the value of the 'from-date' Preference setting used by the loader
     private long mFromDateInMillis;
 
+    //Saves the number of retries made so far for the News Sections that failed to load
+    private volatile int mRetryAttempt;
+
+    //Handler of the main thread, for scheduling the retries of the News Sections that failed to load
+    private final Handler mRetryHandler = new Handler(Looper.getMainLooper());
+
+    //Runnable that retries the News Sections that failed to load, by starting a new load
+    private final Runnable mRetryRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!isReset()) {
+                //Refetching the News Sections that are stale, which includes the ones that failed
+                onContentChanged();
+            }
+        }
+    };
+
     /**
      * Constructor of the Loader {@link NewsHighlightsLoader}
      *
@@ -60,7 +101,19 @@ public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>>
      * @param subscribedNewsSectionIdsList is a List of Ids of the Subscribed News Categories
      */
     public NewsHighlightsLoader(Context context, @Nullable ArrayList<String> subscribedNewsSectionIdsList) {
-        super(context);
+        //Loading on the Feed lane, ahead of the other feeds as the Highlights are shown first
+        super(context, TaskScheduler.LANE_FEED, TaskScheduler.PRIORITY_HIGH);
+        mSubscribedNewsSectionIdsList = subscribedNewsSectionIdsList;
+    }
+
+    /**
+     * Method that updates the list of Ids of the Subscribed News Categories to be used by the
+     * loads started later. Followed by {@link #onContentChanged()} to refresh only the News Sections
+     * that are new or stale.
+     *
+     * @param subscribedNewsSectionIdsList is a List of Ids of the Subscribed News Categories
+     */
+    public void setSubscribedNewsSectionIdsList(@Nullable ArrayList<String> subscribedNewsSectionIdsList) {
         mSubscribedNewsSectionIdsList = subscribedNewsSectionIdsList;
     }
 
@@ -77,19 +130,48 @@ public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>>
         //Retrieving the reference to Context
         Context context = getContext();
 
+        //Retrieving the list of Subscribed News Sections to be loaded
+        List<String> sectionIdsList = mSubscribedNewsSectionIdsList;
+        if (sectionIdsList == null) {
+            sectionIdsList = new ArrayList<>();
+        }
+
+        //Retrieving the start date value of the News from the preference
+        long fromDateInMillis = PreferencesUtility.getStartPeriodValue(context, Calendar.getInstance().getTimeInMillis());
+
         //Proceeding to extract data when the Internet Connectivity is established
         if (NetworkUtility.isNetworkConnected(context)) {
             //Updating the Connectivity status to True
             mIsNetworkConnected = true;
 
-            //Initializing the List of NewsSectionInfo objects
-            ArrayList<NewsSectionInfo> newsSectionInfoList = new ArrayList<>();
-
             //Initializing the NewsURLGenerator
             NewsURLGenerator urlGenerator = new NewsURLGenerator(context, true);
 
-            //Iterating over the Subscribed News Sections to retrieve their data: START
-            for (String sectionIdStr : mSubscribedNewsSectionIdsList) {
+            //Collecting the News Sections that are stale or not yet loaded: START
+            List<String> staleSectionIdsList = new ArrayList<>();
+            long nowMillis = System.currentTimeMillis();
+            for (String sectionIdStr : sectionIdsList) {
+                SectionEntry sectionEntry = mSectionEntryMap.get(sectionIdStr);
+                if (sectionEntry != null && sectionEntry.isFresh(fromDateInMillis, nowMillis)) {
+                    //Reusing the News Section when fresh
+                    MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_HIGHLIGHT_SECTION + MetricsRegistry.SUFFIX_HIT);
+                } else {
+                    //Refetching the News Section when stale or not yet loaded
+                    MetricsRegistry.incrementCounter(MetricsRegistry.CACHE_HIGHLIGHT_SECTION + MetricsRegistry.SUFFIX_MISS);
+                    staleSectionIdsList.add(sectionIdStr);
+                }
+            }
+            //Collecting the News Sections that are stale or not yet loaded: END
+
+            //Fetching the stale News Sections: START
+            //Saves the News Sections that failed to load
+            List<String> failedSectionIdsList = new ArrayList<>();
+            for (String sectionIdStr : staleSectionIdsList) {
+                if (isLoadInBackgroundCanceled()) {
+                    //Abandoning the load when canceled
+                    throw new OperationCanceledException();
+                }
+
                 //Firing the request and extracting the News Section Info
                 NewsSectionInfo newsSectionInfo = NewsSectionInfoParserUtility
                         .getNewsSectionInfo(
@@ -99,13 +181,42 @@ public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>>
                                 urlGenerator.createSectionURL(sectionIdStr)
                         );
 
-                //Appending the NewsSectionInfo Object to the list
-                newsSectionInfoList.add(newsSectionInfo);
+                if (newsSectionInfo == null || newsSectionInfo.getSectionId() == null) {
+                    //Marking the News Section for retry when its request or parsing failed
+                    failedSectionIdsList.add(sectionIdStr);
+                } else {
+                    //Saving the News Section loaded with its load time
+                    mSectionEntryMap.put(sectionIdStr,
+                            new SectionEntry(newsSectionInfo, fromDateInMillis, System.currentTimeMillis()));
+                    //Streaming the result with the News Section just loaded
+                    deliverPartialResult(buildNewsSectionInfoList(sectionIdsList));
+                }
+            }
+            //Fetching the stale News Sections: END
+
+            //Saving the start date value of the News used by the loader
+            mFromDateInMillis = fromDateInMillis;
+
+            //Retrieving the result prepared
+            List<NewsSectionInfo> newsSectionInfoList = buildNewsSectionInfoList(sectionIdsList);
+
+            if (failedSectionIdsList.size() == 0) {
+                //Resetting the retries when all the News Sections are loaded
+                mRetryAttempt = 0;
+            } else if (mRetryAttempt < MAX_SECTION_RETRIES) {
+                //Scheduling a retry of the News Sections that failed, with a backoff
+                int attempt = ++mRetryAttempt;
+                MetricsRegistry.incrementCounter(MetricsRegistry.HIGHLIGHT_SECTION_RETRY, failedSectionIdsList.size());
+                mRetryHandler.removeCallbacks(mRetryRunnable);
+                mRetryHandler.postDelayed(mRetryRunnable, SECTION_RETRY_BACKOFF_MILLIS * attempt);
+            } else {
+                //Resetting the retries when exhausted, for the loads started later
+                mRetryAttempt = 0;
+                if (newsSectionInfoList.size() == 0) {
+                    //Failing the load when none of the News Sections could be loaded
+                    return null;
+                }
             }
-            //Iterating over the Subscribed News Sections to retrieve their data: END
-
-            //Retrieving the start date value of the News from the preference
-            mFromDateInMillis = PreferencesUtility.getStartPeriodValue(context, Calendar.getInstance().getTimeInMillis());
 
             //Returning the result prepared
             return newsSectionInfoList;
@@ -114,10 +225,34 @@ public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>>
         //Updating the Connectivity status to False as it is not active
         mIsNetworkConnected = false;
 
+        //Returning the News Sections previously loaded, when any
+        List<NewsSectionInfo> newsSectionInfoList = buildNewsSectionInfoList(sectionIdsList);
+        if (newsSectionInfoList.size() > 0) {
+            return newsSectionInfoList;
+        }
+
         //For all else, returning null
         return null;
     }
 
+    /**
+     * Method that builds the List of {@link NewsSectionInfo} objects for the Subscribed News Sections,
+     * from the News Sections loaded so far. News Sections that are not yet loaded are skipped.
+     *
+     * @param sectionIdsList is the List of Ids of the Subscribed News Sections, in the order to be displayed
+     * @return List of {@link NewsSectionInfo} objects of the News Sections loaded so far
+     */
+    private List<NewsSectionInfo> buildNewsSectionInfoList(List<String> sectionIdsList) {
+        ArrayList<NewsSectionInfo> newsSectionInfoList = new ArrayList<>(sectionIdsList.size());
+        for (String sectionIdStr : sectionIdsList) {
+            SectionEntry sectionEntry = mSectionEntryMap.get(sectionIdStr);
+            if (sectionEntry != null) {
+                newsSectionInfoList.add(sectionEntry.mNewsSectionInfo);
+            }
+        }
+        return newsSectionInfoList;
+    }
+
     /**
      * Sends the result of the load to the registered listener. Should only be called by subclasses.
      *
@@ -192,6 +327,12 @@ public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>>
 
         //Releasing the resources associated with the loader
         releaseResources();
+
+        //Canceling the retry scheduled if any, and clearing the News Sections retained,
+        //as the loader will not be used anymore
+        mRetryHandler.removeCallbacks(mRetryRunnable);
+        mRetryAttempt = 0;
+        mSectionEntryMap.clear();
     }
 
     /**
@@ -250,4 +391,44 @@ public class NewsHighlightsLoader extends AsyncTaskLoader<List<NewsSectionInfo>>
         return mNewsSectionInfoList;
     }
 
+    /**
+     * Class that holds a News Section loaded along with the 'from-date' it was loaded for
+     * and its load time, to evaluate its freshness.
+     */
+    private static class SectionEntry {
+
+        //The News Section loaded
+        private final NewsSectionInfo mNewsSectionInfo;
+        //The 'from-date' value in millis for which the News Section was loaded
+        private final long mFromDateInMillis;
+        //The time in millis when the News Section was loaded
+        private final long mLoadTimeMillis;
+
+        /**
+         * Constructor of {@link SectionEntry}
+         *
+         * @param newsSectionInfo  is the News Section loaded
+         * @param fromDateInMillis is the 'from-date' value in millis for which the News Section was loaded
+         * @param loadTimeMillis   is the time in millis when the News Section was loaded
+         */
+        SectionEntry(NewsSectionInfo newsSectionInfo, long fromDateInMillis, long loadTimeMillis) {
+            mNewsSectionInfo = newsSectionInfo;
+            mFromDateInMillis = fromDateInMillis;
+            mLoadTimeMillis = loadTimeMillis;
+        }
+
+        /**
+         * Method that returns whether the News Section is still fresh to be reused
+         *
+         * @param fromDateInMillis is the current 'from-date' value in millis
+         * @param nowMillis        is the current time in millis
+         * @return <b>TRUE</b> when loaded for the same 'from-date' within {@link #SECTION_TTL_MILLIS};
+         * <b>FALSE</b> otherwise
+         */
+        boolean isFresh(long fromDateInMillis, long nowMillis) {
+            return mFromDateInMillis == fromDateInMillis
+                    && nowMillis - mLoadTimeMillis < SECTION_TTL_MILLIS;
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.workers;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.cache.ReadLaterArticleStore;
+import com.example.kaushiknsanji.novalines.cache.TrailTextSpannedCache;
+import com.example.kaushiknsanji.novalines.metrics.MetricsRegistry;
+import com.example.kaushiknsanji.novalines.models.NewsArticleInfo;
+import com.example.kaushiknsanji.novalines.scheduler.CancellationToken;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
+import com.example.kaushiknsanji.novalines.utils.ArticleBodyRequestUtility;
+import com.example.kaushiknsanji.novalines.utils.ImageUtility;
+import com.example.kaushiknsanji.novalines.utils.NetworkUtility;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Class that downloads the body and the lead Image of the News Articles marked for 'Read Later'
+ * into the {@link ReadLaterArticleStore}, on the Feed lane of the {@link TaskScheduler} at the lowest priority,
+ * so that they can be read offline.
+ * <p>
+ * The News Articles already saved, or being downloaded, are not downloaded again. A download can be
+ * {@link #cancel(Context, CancellationToken) undone}, which removes only what that download saved.
+ * </p>
+ *
+ * @author Kaushik N Sanji
+ */
+public class ReadLaterPrefetcher {
+
+    //Constant used for logs
+    private static final String LOG_TAG = ReadLaterPrefetcher.class.getSimpleName();
+
+    //Saves the identities of the News Articles being downloaded
+    private static final Set<String> sInFlightArticleKeys = new HashSet<>();
+
+    //Saves the identities of the News Articles saved by the downloads completed, keyed by the token of the download.
+    //(Weakly keyed, as the token is retained only as long as the download can be undone)
+    private static final Map<CancellationToken, String> sCompletedDownloads = new WeakHashMap<>();
+
+    /**
+     * Private Constructor of {@link ReadLaterPrefetcher}
+     */
+    private ReadLaterPrefetcher() {
+    }
+
+    /**
+     * Method that queues the download of the body and the lead Image of the News Article passed
+     *
+     * @param context         is the Context of the Activity/Fragment or App
+     * @param newsArticleInfo is the {@link NewsArticleInfo} of the News Article marked for 'Read Later'
+     * @return The {@link CancellationToken} to {@link #cancel(Context, CancellationToken) cancel} the download,
+     * or null when the News Article cannot be downloaded or is already being downloaded
+     */
+    public static CancellationToken prefetch(Context context, final NewsArticleInfo newsArticleInfo) {
+        final Context appContext = context.getApplicationContext();
+        final String articleKey = TrailTextSpannedCache.getArticleKey(newsArticleInfo);
+        if (TextUtils.isEmpty(articleKey) || TextUtils.isEmpty(newsArticleInfo.getApiUrl())) {
+            //Returning when the News Article cannot be downloaded
+            return null;
+        }
+
+        synchronized (sInFlightArticleKeys) {
+            if (!sInFlightArticleKeys.add(articleKey)) {
+                //Returning when the News Article is already being downloaded
+                return null;
+            }
+        }
+
+        //Releasing the News Article once the download finishes, or is skipped when canceled while waiting
+        final CancellationToken token = new CancellationToken();
+        token.setOnFinishedListener(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (sInFlightArticleKeys) {
+                    sInFlightArticleKeys.remove(articleKey);
+                }
+            }
+        });
+
+        //Queuing the download at the lowest priority, behind the News Feed requests
+        return TaskScheduler.getInstance().submit(TaskScheduler.LANE_FEED, TaskScheduler.PRIORITY_LOW, new Runnable() {
+            @Override
+            public void run() {
+                download(appContext, newsArticleInfo, articleKey, token);
+            }
+        }, token);
+    }
+
+    /**
+     * Method that cancels the download of the token passed, as the 'Read Later' was undone.
+     * When the download had already completed, the News Article it saved is removed in the background.
+     * The News Articles saved earlier by other downloads are retained.
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     * @param token   is the {@link CancellationToken} returned by {@link #prefetch(Context, NewsArticleInfo)}
+     */
+    public static void cancel(Context context, CancellationToken token) {
+        final String articleKey;
+        synchronized (sCompletedDownloads) {
+            //Canceling the download, and checking if it had already saved the News Article
+            token.cancel();
+            articleKey = sCompletedDownloads.remove(token);
+        }
+
+        if (articleKey != null) {
+            //Removing the News Article saved by the download, off the main thread
+            final Context appContext = context.getApplicationContext();
+            TaskScheduler.getInstance().submit(TaskScheduler.LANE_FEED, TaskScheduler.PRIORITY_LOW, new Runnable() {
+                @Override
+                public void run() {
+                    ReadLaterArticleStore.removeArticle(appContext, articleKey);
+                }
+            });
+        }
+    }
+
+    /**
+     * Method that downloads and saves the body and the lead Image of the News Article passed.
+     * To be called from a worker thread.
+     *
+     * @param context         is the Context of the App
+     * @param newsArticleInfo is the {@link NewsArticleInfo} of the News Article to be downloaded
+     * @param articleKey      is the identity of the News Article
+     * @param token           is the {@link CancellationToken} of the download
+     */
+    private static void download(Context context, NewsArticleInfo newsArticleInfo,
+                                 String articleKey, CancellationToken token) {
+        if (ReadLaterArticleStore.hasArticleBody(context, articleKey)) {
+            //Skipping when the News Article is already saved
+            return;
+        }
+
+        if (!NetworkUtility.isNetworkConnected(context)) {
+            //Skipping when offline
+            MetricsRegistry.incrementCounter(MetricsRegistry.READ_LATER_PREFETCH_FAILURE);
+            return;
+        }
+
+        //Starting the timer for the download
+        long startNanos = MetricsRegistry.startTimer();
+
+        //Downloading the body of the News Article: START
+        String bodyHtml = ArticleBodyRequestUtility.downloadArticleBody(context, newsArticleInfo.getApiUrl());
+        token.throwIfCanceled();
+        if (TextUtils.isEmpty(bodyHtml) || !ReadLaterArticleStore.saveArticleBody(context, articleKey, bodyHtml)) {
+            //Counting the failed download
+            MetricsRegistry.incrementCounter(MetricsRegistry.READ_LATER_PREFETCH_FAILURE);
+            return;
+        }
+        //Downloading the body of the News Article: END
+
+        //Downloading the lead Image of the News Article as is, when present
+        //(The body is readable even without the Image, hence its failure is only logged)
+        String imageURLStr = newsArticleInfo.getThumbImageUrl();
+        if (!TextUtils.isEmpty(imageURLStr) && !token.isCanceled()) {
+            byte[] imageByteArray = ImageUtility.downloadBytesFromURL(imageURLStr);
+            if (imageByteArray == null || !ReadLaterArticleStore.saveLeadImage(context, articleKey, imageByteArray)) {
+                Log.e(LOG_TAG, "Error occurred while saving the lead Image of the News Article " + articleKey);
+            }
+        }
+
+        boolean canceled;
+        synchronized (sCompletedDownloads) {
+            canceled = token.isCanceled();
+            if (!canceled) {
+                //Recording the News Article saved, to be removed if the 'Read Later' is undone later
+                sCompletedDownloads.put(token, articleKey);
+            }
+        }
+        if (canceled) {
+            //Removing the News Article saved when the 'Read Later' was undone meanwhile
+            ReadLaterArticleStore.removeArticle(context, articleKey);
+            return;
+        }
+
+        //Recording the time taken for the download
+        MetricsRegistry.stopTimer(MetricsRegistry.READ_LATER_PREFETCH, startNanos);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.workers;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.Nullable;
+import android.support.v4.content.Loader;
+import android.support.v4.os.OperationCanceledException;
+import android.util.Log;
+
+import com.example.kaushiknsanji.novalines.scheduler.CancellationToken;
+import com.example.kaushiknsanji.novalines.scheduler.TaskScheduler;
+
+/**
+ * Abstract {@link Loader} Class that performs the load on a lane of the {@link TaskScheduler}
+ * with the priority given, instead of the shared executor of the AsyncTaskLoader.
+ * The Loader is still managed by the LoaderManager, which retains it across the configuration changes
+ * and ties it to the lifecycle of its Activity/Fragment, while the lane decides when the load runs.
+ * <p>
+ * Subclasses implement {@link #loadInBackground()} and manage their data as they would for an AsyncTaskLoader.
+ * A load that fails with an exception delivers a null result, so that the load is never left in progress.
+ * </p>
+ *
+ * @param <D> The type of data to be loaded.
+ * @author Kaushik N Sanji
+ */
+public abstract class ScheduledTaskLoader<D> extends Loader<D> {
+
+    //Constant used for logs
+    private static final String LOG_TAG = ScheduledTaskLoader.class.getSimpleName();
+
+    //Handler to post the result of the load to the main thread
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    //The lane of the TaskScheduler on which the load is run
+    private final int mLane;
+
+    //The priority of the load on the lane
+    private int mPriority;
+
+    //The token of the load currently in progress, if any
+    private volatile CancellationToken mLoadToken;
+
+    /**
+     * Constructor of the Loader {@link ScheduledTaskLoader}
+     *
+     * @param context  used to retrieve the application context.
+     * @param lane     is the lane of the {@link TaskScheduler} on which the load is to be run
+     * @param priority is the priority of the load on the lane
+     */
+    public ScheduledTaskLoader(Context context, int lane, int priority) {
+        super(context);
+        mLane = lane;
+        mPriority = priority;
+    }
+
+    /**
+     * Called on a worker thread of the lane to perform the actual load and to return
+     * the result of the load operation.
+     *
+     * @return The result of the load operation.
+     * @throws OperationCanceledException if the load is canceled during execution.
+     */
+    @Nullable
+    public abstract D loadInBackground();
+
+    /**
+     * Method that updates the priority of the loads started later on the lane
+     *
+     * @param priority is the new priority of the load on the lane
+     */
+    public void setPriority(int priority) {
+        mPriority = priority;
+    }
+
+    /**
+     * Subclasses must implement this to take care of requests to {@link #forceLoad()}.
+     * This will always be called from the process's main thread.
+     */
+    @Override
+    protected void onForceLoad() {
+        super.onForceLoad();
+
+        //Canceling the previous load if any, as its result will be stale
+        cancelLoad();
+
+        //Submitting the new load to the lane
+        final CancellationToken loadToken = new CancellationToken();
+        mLoadToken = loadToken;
+        TaskScheduler.getInstance().submit(mLane, mPriority, new Runnable() {
+            @Override
+            public void run() {
+                D data = null;
+                try {
+                    //Performing the load
+                    data = loadInBackground();
+                } catch (OperationCanceledException e) {
+                    //Ignoring as the load was canceled
+                } catch (RuntimeException e) {
+                    //Logging the failure of the load, which is delivered as a null result
+                    Log.e(LOG_TAG, "Error occurred while loading in the background\n", e);
+                } finally {
+                    //Delivering the result on the main thread, on every path,
+                    //so that the token of the load is always cleared
+                    final D result = data;
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            dispatchResult(loadToken, result);
+                        }
+                    });
+                }
+            }
+        }, loadToken);
+    }
+
+    /**
+     * Method that delivers the result of the load on the main thread, when the load is
+     * still current. Otherwise, the result is handed over to {@link #onCanceled(Object)} for disposal.
+     *
+     * @param loadToken is the token of the load that completed
+     * @param data      is the result of the load
+     */
+    private void dispatchResult(CancellationToken loadToken, D data) {
+        if (loadToken != mLoadToken || loadToken.isCanceled() || isAbandoned()) {
+            //Disposing the result of the load that was canceled or superseded
+            onCanceled(data);
+            return;
+        }
+
+        //Clearing the token of the completed load
+        mLoadToken = null;
+        //Committing the content change that started the load
+        commitContentChanged();
+        //Delivering the result of the load
+        deliverResult(data);
+    }
+
+    /**
+     * Method that delivers an intermediate result of the load in progress, on the main thread.
+     * Can be called from {@link #loadInBackground()} to stream the result as it is being prepared.
+     * The intermediate result is dropped when the load is canceled or superseded by then.
+     *
+     * @param data is the intermediate result of the load
+     */
+    protected void deliverPartialResult(final D data) {
+        final CancellationToken loadToken = mLoadToken;
+        if (loadToken == null || loadToken.isCanceled()) {
+            //Ignoring when there is no load in progress
+            return;
+        }
+
+        //Delivering the intermediate result on the main thread
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (loadToken == mLoadToken && !loadToken.isCanceled() && !isAbandoned()) {
+                    //Delivering only when the load is still current
+                    deliverResult(data);
+                }
+            }
+        });
+    }
+
+    /**
+     * Method that returns whether a load is in progress. This will always be called from the process's main thread.
+     *
+     * @return <b>TRUE</b> if a load is in progress; <b>FALSE</b> otherwise
+     */
+    public boolean isLoadInProgress() {
+        return mLoadToken != null;
+    }
+
+    /**
+     * Subclasses must implement this to take care of requests to {@link #cancelLoad()}.
+     * This will always be called from the process's main thread.
+     *
+     * @return Returns <b>FALSE</b> if there was no load in progress; <b>TRUE</b> otherwise
+     */
+    @Override
+    protected boolean onCancelLoad() {
+        CancellationToken loadToken = mLoadToken;
+        if (loadToken == null) {
+            //Returning false when there is no load in progress
+            return false;
+        }
+
+        //Canceling the load in progress
+        loadToken.cancel();
+        mLoadToken = null;
+
+        //Restoring the content change that started the load, and informing the cancellation
+        rollbackContentChanged();
+        deliverCancellation();
+
+        //Returning true as the load in progress was canceled
+        return true;
+    }
+
+    /**
+     * Method that returns whether the load in progress is canceled. Can be called
+     * from {@link #loadInBackground()} to abandon the load at its safe points.
+     *
+     * @return <b>TRUE</b> if the load in progress is canceled; <b>FALSE</b> otherwise
+     */
+    public boolean isLoadInBackgroundCanceled() {
+        CancellationToken loadToken = mLoadToken;
+        return loadToken == null || loadToken.isCanceled();
+    }
+
+    /**
+     * Called if the load was canceled before it was completed.  Gives the class a chance
+     * to clean up post-cancellation and to properly dispose of the result.
+     *
+     * @param data The value that was returned by {@link #loadInBackground}, or null
+     *             if the load threw {@link OperationCanceledException}.
+     */
+    public void onCanceled(D data) {
+        //No-op by default
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 Kaushik N. Sanji
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.kaushiknsanji.novalines.mock;
+
+import android.content.Context;
+
+/**
+ * No-op counterpart of the debug build's entry point for the MockGuardianServer,
+ * as the release build always serves the News API from the Guardian.
+ *
+ * @author Kaushik N Sanji
+ */
+public class MockGuardianApi {
+
+    /**
+     * Private Constructor of {@link MockGuardianApi}
+     */
+    private MockGuardianApi() {
+    }
+
+    /**
+     * Method that does nothing in the release build
+     *
+     * @param context is the Context of the Activity/Fragment or App
+     */
+    public static void startIfEnabled(Context context) {
+        //No-op, as the MockGuardianServer is available only in the debug build
+    }
+
+}